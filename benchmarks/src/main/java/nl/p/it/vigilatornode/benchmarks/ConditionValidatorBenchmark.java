@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.benchmarks;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import nl.p.it.vigilatornode.domain.resources.validation.ConditionValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks ConditionValidator.validateMeetsCriteria for each type of
+ * condition
+ *
+ * @author Patrick
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionValidatorBenchmark {
+
+    @Param({"equal", "notEqual", "partialNotEqual", "biggerThen", "smallerThen", "percentage", "bigCounter", "decimal", "between", "minutes", "isoDatetime", "warning"})
+    private String type;
+
+    private String value;
+    private String condition;
+    private ConditionValidator validator;
+
+    @Setup
+    public void setUp() {
+        validator = new ConditionValidator();
+        switch (type) {
+            case "equal" -> {
+                value = "running";
+                condition = "== running";
+            }
+            case "notEqual" -> {
+                value = "ACTIVE";
+                condition = "!ACTIVE";
+            }
+            case "partialNotEqual" -> {
+                value = "pending transactions 10";
+                condition = "pending transactions !0";
+            }
+            case "biggerThen" -> {
+                value = "75";
+                condition = "> 50";
+            }
+            case "smallerThen" -> {
+                value = "25";
+                condition = "< 40";
+            }
+            case "percentage" -> {
+                value = "85%";
+                condition = "> 80%";
+            }
+            case "bigCounter" -> {
+                value = "5368709120";
+                condition = "> 4294967296";
+            }
+            case "decimal" -> {
+                value = "0.75";
+                condition = "> 0.5";
+            }
+            case "between" -> {
+                value = "15";
+                condition = "between 10 and 20";
+            }
+            case "minutes" -> {
+                value = String.valueOf(System.currentTimeMillis() / 1000);
+                condition = "> 5min";
+            }
+            case "isoDatetime" -> {
+                value = Instant.now().toString();
+                condition = "> 1h";
+            }
+            case "warning" -> {
+                value = "12";
+                condition = "> 10 W";
+            }
+            default ->
+                throw new IllegalArgumentException("Unknown condition type: " + type);
+        }
+    }
+
+    @Benchmark
+    public boolean validateMeetsCriteria() {
+        return validator.validateMeetsCriteria(value, condition);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies of probes, percentiles are calculated over the latencies
+ * recorded since the previous drain
+ *
+ * @author Patrick
+ */
+class LatencyRecorder {
+
+    private long[] latencies;
+    private int size;
+    private final LongAdder failures;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    LatencyRecorder() {
+        latencies = new long[INITIAL_CAPACITY];
+        failures = new LongAdder();
+    }
+
+    /**
+     * @param nanos the latency of a probe in nanoseconds
+     */
+    synchronized void record(final long nanos) {
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = nanos;
+    }
+
+    /**
+     * Record a probe that failed, either by exception or by status code
+     */
+    void failed() {
+        failures.increment();
+    }
+
+    /**
+     * @return the sorted latencies recorded since the previous drain
+     */
+    synchronized long[] drain() {
+        long[] drained = Arrays.copyOf(latencies, size);
+        size = 0;
+        Arrays.sort(drained);
+
+        return drained;
+    }
+
+    /**
+     * @return the failures recorded since the previous drain
+     */
+    long drainFailures() {
+        return failures.sumThenReset();
+    }
+
+    /**
+     * @param sorted sorted latencies
+     * @param percentile the percentile between 0 and 100
+     * @return the latency at the percentile in milliseconds, 0 when empty
+     */
+    static double percentile(final long[] sorted, final double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000d;
+    }
+}
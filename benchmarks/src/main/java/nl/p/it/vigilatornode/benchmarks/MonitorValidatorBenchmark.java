@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.resources.MonitoredPart;
+import nl.p.it.vigilatornode.domain.resources.validation.MonitorValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks MonitorValidator validating monitor replies and web replies of
+ * different sizes
+ * <p>
+ * A new MonitoredData is created per invocation since validating adds the
+ * errors and warnings to it, the creation is part of the measurement.
+ * </p>
+ *
+ * @author Patrick
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonitorValidatorBenchmark {
+
+    private static final String NAME = "BenchmarkResource";
+    private static final String URL = "https://localhost/monitor";
+    private static final String TITLE = "Vigilator";
+
+    /**
+     * small: 5 status entries of 4 items, large: 500 status entries of 20
+     * items
+     */
+    @Param({"small", "large"})
+    private String payload;
+
+    private byte[] monitorReply;
+    private byte[] webReply;
+    private Map<String, MonitoredPart> parts;
+    private Map<String, MonitoredPart> webParts;
+    private MonitorValidator validator;
+
+    @Setup
+    public void setUp() {
+        boolean small = "small".equals(payload);
+        int entries = small ? 5 : 500;
+        int items = small ? 4 : 20;
+
+        validator = new MonitorValidator();
+        parts = SyntheticData.parts(entries, items);
+        monitorReply = SyntheticData.monitorReply(entries, items);
+
+        MonitoredPart web = new MonitoredPart();
+        web.addItem("title", TITLE);
+        webParts = Map.of("Web", web);
+        webReply = SyntheticData.webPage(small ? 2_000 : 500_000, TITLE);
+    }
+
+    @Benchmark
+    public MonitoredData validate() {
+        MonitoredData result = new MonitoredData(monitorReply, URL);
+        validator.validate(result, parts, NAME);
+
+        return result;
+    }
+
+    @Benchmark
+    public MonitoredData validateWebReply() {
+        MonitoredData result = new MonitoredData(webReply, URL);
+        validator.validateWebReply(result, webParts, NAME);
+
+        return result;
+    }
+}
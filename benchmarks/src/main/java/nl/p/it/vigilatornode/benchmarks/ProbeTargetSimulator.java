@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local HTTP server simulating thousands of probe targets
+ * <p>
+ * Every target has a monitor endpoint (/monitor/{target}) and a web page
+ * (/web/{target}). All targets share the same generated replies, the
+ * behaviour of each request is drawn at random from the settings: the latency,
+ * whether it fails, hangs or trickles its response (slowloris). Requests are
+ * handled on virtual threads so hanging and slow requests do not exhaust the
+ * simulator.
+ * </p>
+ *
+ * @author Patrick
+ */
+class ProbeTargetSimulator implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SimulatorSettings settings;
+    private final byte[] monitorReply;
+    private final byte[] webPage;
+    private final LongAdder served;
+    private final LongAdder errors;
+    private final LongAdder hangs;
+    private final LongAdder slowloris;
+
+    static final String TITLE = "Simulated target";
+    private static final String MONITOR_PATH = "/monitor/";
+    private static final String WEB_PATH = "/web/";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String JSON = "application/json";
+    private static final String HTML = "text/html";
+    private static final int BACKLOG = 4096;
+
+    ProbeTargetSimulator(final SimulatorSettings settings) throws IOException {
+        this.settings = settings;
+        this.monitorReply = SyntheticData.monitorReply(settings.statusEntries(), settings.itemsPerEntry());
+        this.webPage = SyntheticData.webPage(settings.pageSize(), TITLE);
+        this.served = new LongAdder();
+        this.errors = new LongAdder();
+        this.hangs = new LongAdder();
+        this.slowloris = new LongAdder();
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), settings.port()), BACKLOG);
+        server.setExecutor(executor);
+        server.createContext(MONITOR_PATH, exchange -> handle(exchange, monitorReply, JSON));
+        server.createContext(WEB_PATH, exchange -> handle(exchange, webPage, HTML));
+    }
+
+    void start() {
+        server.start();
+    }
+
+    /**
+     * @param target the number of the target
+     * @return the url of the monitor endpoint of the target
+     */
+    String monitorUrl(final int target) {
+        return url(MONITOR_PATH, target);
+    }
+
+    /**
+     * @param target the number of the target
+     * @return the url of the web page of the target
+     */
+    String webUrl(final int target) {
+        return url(WEB_PATH, target);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "ProbeTargetSimulator{" + "served=" + served.sum() + ", errors=" + errors.sum()
+                + ", hangs=" + hangs.sum() + ", slowloris=" + slowloris.sum() + '}';
+    }
+
+    private String url(final String path, final int target) {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path + target;
+    }
+
+    private void handle(final HttpExchange exchange, final byte[] payload, final String contentType) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            sleep(settings.latencyMillis() + (long) (-settings.jitterMillis() * Math.log(1 - random.nextDouble())));
+
+            double roll = random.nextDouble();
+            if (roll < settings.hangRate()) {
+                hangs.increment();
+                sleep(settings.hangMillis());
+                return;
+            }
+            roll -= settings.hangRate();
+            if (roll < settings.errorRate()) {
+                errors.increment();
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            roll -= settings.errorRate();
+
+            exchange.getResponseHeaders().set(CONTENT_TYPE, contentType);
+            if (roll < settings.slowlorisRate()) {
+                slowloris.increment();
+                exchange.sendResponseHeaders(200, 0);
+                trickle(exchange.getResponseBody(), payload);
+            } else {
+                exchange.sendResponseHeaders(200, payload.length);
+                exchange.getResponseBody().write(payload);
+            }
+            served.increment();
+        }
+    }
+
+    private void trickle(final OutputStream out, final byte[] payload) throws IOException {
+        for (byte b : payload) {
+            out.write(b);
+            out.flush();
+            sleep(settings.slowlorisIntervalMillis());
+        }
+    }
+
+    private void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import nl.p.it.vigilatornode.configuration.NodeConfig;
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.monitor.Monitor;
+import nl.p.it.vigilatornode.domain.monitor.MonitorStore;
+import nl.p.it.vigilatornode.domain.monitor.SimulatedClock;
+import nl.p.it.vigilatornode.domain.resources.MonitoredResource;
+import nl.p.it.vigilatornode.domain.resources.validation.ConditionValidator;
+
+/**
+ * Harness running a real Monitor on a simulated clock
+ * <p>
+ * The monitor waits on the simulated clock between cycles, so days of
+ * monitoring run within seconds on the calling thread and every run is the
+ * same. Every take of a simulated resource is timestamped with the simulated
+ * clock and validated against a stale condition of twice the update frequency,
+ * a resource not taken in time is reported as stale. Arguments are given as
+ * key=value pairs, e.g.:
+ * {@code java -Xmx8g -cp target/benchmarks.jar nl.p.it.vigilatornode.benchmarks.SimulatedTimeHarness resources=100000 days=30}
+ * </p>
+ * <p>
+ * Harness arguments: resources, days, frequency (the wait between cycles in
+ * ms) and logLevel. For every simulated day the harness reports the completed
+ * cycles, the fewest and most takes of a resource and the largest gap between
+ * two takes of a resource (scheduler fairness), the stale takes, the data
+ * retained by the resources and the heap in use after a collection (history
+ * retention and memory growth) and the wall clock time of the day.
+ * </p>
+ *
+ * @author Patrick
+ */
+public class SimulatedTimeHarness {
+
+    private static final String ENVIRONMENT = "local";
+    private static final String ARG_DIVIDER = "=";
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+    private static final byte[] REPLY = "{\"environment\":\"prod\",\"status\":[]}".getBytes(StandardCharsets.UTF_8);
+    private static final String STALE = "stale";
+    private static final String REPORT_HEADER = "%4s %8s %12s %8s %8s %10s %8s %12s %10s %10s%n";
+    private static final String REPORT_LINE = "%4d %8d %12d %8d %8d %10d %8d %12d %10d %10d%n";
+    private static final long MB = 1024 * 1024;
+
+    private SimulatedTimeHarness() {
+    }
+
+    /**
+     * @param args key=value arguments
+     * @throws Exception when the harness fails to run
+     */
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> arguments = parse(args);
+        int amount = Integer.parseInt(arguments.getOrDefault("resources", "100000"));
+        int days = Integer.parseInt(arguments.getOrDefault("days", "30"));
+        int frequency = Integer.parseInt(arguments.getOrDefault("frequency", "3600000"));
+        Logger.getLogger("").setLevel(Level.parse(arguments.getOrDefault("logLevel", "SEVERE")));
+
+        SimulatedClock clock = new SimulatedClock(START);
+        NodeConfig config = NodeConfig.load(ENVIRONMENT);
+        config.setClock(clock);
+        config.setDefaultUpdateFrequency(frequency);
+
+        String staleCondition = "> " + Math.max(1, TimeUnit.MILLISECONDS.toSeconds(2L * frequency)) + "s";
+        List<SimulatedResource> resources = new ArrayList<>(amount);
+        ConditionValidator validator = new ConditionValidator();
+        for (int i = 0; i < amount; i++) {
+            resources.add(new SimulatedResource("Resource-" + i, validator, staleCondition));
+        }
+        Monitor monitor = MonitorStore.getInstance().buildMonitorFor(List.copyOf(resources), config);
+        AtomicLong cycles = new AtomicLong();
+        monitor.onCycleCompleted(duration -> cycles.incrementAndGet());
+
+        System.out.printf("Monitoring %d simulated resources for %d days every %d ms%n", amount, days, frequency);
+        System.out.printf(REPORT_HEADER, "day", "cycles", "takes", "min", "max", "gap (s)", "stale",
+                "retained", "heap (MB)", "wall (ms)");
+        long started = System.nanoTime();
+        monitor.start();
+        for (int day = 1; day <= days; day++) {
+            long dayStarted = System.nanoTime();
+            clock.getExecutor().runUntil(START.plus(Duration.ofDays(day)));
+            long wall = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - dayStarted);
+            report(day, cycles.get(), resources, wall);
+        }
+        monitor.stop();
+
+        System.out.printf("Simulated %s in %d ms%n", clock.getElapsed(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private static void report(final int day, final long cycles, final List<SimulatedResource> resources, final long wall) {
+        long takes = 0;
+        long retained = 0;
+        long stale = 0;
+        long maxGap = 0;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (SimulatedResource resource : resources) {
+            int resourceTakes = resource.getTakes();
+            takes += resourceTakes;
+            min = Math.min(min, resourceTakes);
+            max = Math.max(max, resourceTakes);
+            maxGap = Math.max(maxGap, resource.getMaxGap());
+            stale += resource.getStale();
+            retained += resource.getData().size();
+        }
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf(REPORT_LINE, day, cycles, takes, (resources.isEmpty() ? 0 : min), max,
+                TimeUnit.MILLISECONDS.toSeconds(maxGap), stale, retained,
+                (runtime.totalMemory() - runtime.freeMemory()) / MB, wall);
+    }
+
+    private static Map<String, String> parse(final String[] args) {
+        Map<String, String> arguments = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split(ARG_DIVIDER, 2);
+            if (pair.length == 2) {
+                arguments.put(pair[0], pair[1]);
+            }
+        }
+
+        return arguments;
+    }
+
+    /**
+     * Resource replying instantly, keeping its history the way the exposed
+     * resources do
+     */
+    private static final class SimulatedResource extends MonitoredResource {
+
+        private final String url;
+        private final ConditionValidator validator;
+        private final String staleCondition;
+        private long previous;
+        private long maxGap;
+        private int stale;
+
+        SimulatedResource(final String name, final ConditionValidator validator, final String staleCondition) {
+            this.url = "https://" + name.toLowerCase() + ".simulated/monitor";
+            this.validator = validator;
+            this.staleCondition = staleCondition;
+            this.previous = -1;
+            setName(name);
+            config.setActive(true);
+        }
+
+        @Override
+        public void updateStatus() {
+            Instant now = clock.now();
+            int current = startTake();
+            MonitoredData result = new MonitoredData(REPLY, url, now);
+            result.label(current);
+            if (previous >= 0) {
+                maxGap = Math.max(maxGap, now.toEpochMilli() - previous);
+                if (validator.validateMeetsCriteria(previous, staleCondition, now)) {
+                    result.addError(STALE);
+                    stale++;
+                }
+            }
+            previous = now.toEpochMilli();
+            addToTake(current, result);
+
+            finaliseUpdate();
+        }
+
+        int getTakes() {
+            return take;
+        }
+
+        long getMaxGap() {
+            return maxGap;
+        }
+
+        int getStale() {
+            return stale;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.benchmarks;
+
+import java.util.Map;
+
+/**
+ * Settings of the probe target simulator
+ *
+ * @param port the port to listen on, 0 for any free port
+ * @param latencyMillis the minimal latency of every response
+ * @param jitterMillis the mean of the exponentially distributed latency added
+ * on top of the minimal latency, producing a long tail
+ * @param errorRate the fraction of requests answered with status 500
+ * @param hangRate the fraction of requests never answered, the connection is
+ * closed after hangMillis
+ * @param hangMillis how long a hanging request is kept open
+ * @param slowlorisRate the fraction of requests answered one byte at a time
+ * @param slowlorisIntervalMillis the pause between the bytes of a slowloris
+ * response
+ * @param statusEntries the amount of status entries in a monitor reply
+ * @param itemsPerEntry the amount of items per status entry
+ * @param pageSize the size of a web page in bytes
+ * @author Patrick
+ */
+record SimulatorSettings(
+        int port,
+        int latencyMillis,
+        int jitterMillis,
+        double errorRate,
+        double hangRate,
+        int hangMillis,
+        double slowlorisRate,
+        int slowlorisIntervalMillis,
+        int statusEntries,
+        int itemsPerEntry,
+        int pageSize) {
+
+    /**
+     * @param arguments the arguments as key value pairs
+     * @return the settings, using defaults for the missing arguments
+     */
+    static SimulatorSettings from(final Map<String, String> arguments) {
+        return new SimulatorSettings(
+                Integer.parseInt(arguments.getOrDefault("port", "0")),
+                Integer.parseInt(arguments.getOrDefault("latency", "5")),
+                Integer.parseInt(arguments.getOrDefault("jitter", "20")),
+                Double.parseDouble(arguments.getOrDefault("errorRate", "0.01")),
+                Double.parseDouble(arguments.getOrDefault("hangRate", "0")),
+                Integer.parseInt(arguments.getOrDefault("hangMillis", "120000")),
+                Double.parseDouble(arguments.getOrDefault("slowlorisRate", "0")),
+                Integer.parseInt(arguments.getOrDefault("slowlorisInterval", "100")),
+                Integer.parseInt(arguments.getOrDefault("entries", "5")),
+                Integer.parseInt(arguments.getOrDefault("items", "4")),
+                Integer.parseInt(arguments.getOrDefault("pageSize", "2000")));
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.benchmarks;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import nl.p.it.vigilatornode.configuration.NodeConfig;
+import nl.p.it.vigilatornode.domain.monitor.MonitorStore;
+import nl.p.it.vigilatornode.domain.status.StatusService;
+import nl.p.it.vigilatornode.exception.VigilatorNodeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks StatusService serializing the status of all monitored resources,
+ * the response is written to an exchange discarding the bytes
+ *
+ * @author Patrick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusServiceBenchmark {
+
+    private static final String ENVIRONMENT = "local";
+
+    @Param({"100", "1000", "5000"})
+    private int resources;
+
+    private StatusService service;
+    private DiscardingExchange exchange;
+
+    @Setup
+    public void setUp() throws VigilatorNodeException {
+        MonitorStore store = MonitorStore.getInstance();
+        store.clear();
+        store.buildMonitorFor(SyntheticData.resources(resources), NodeConfig.load(ENVIRONMENT));
+
+        service = new StatusService();
+        exchange = new DiscardingExchange();
+    }
+
+    @TearDown
+    public void tearDown() {
+        MonitorStore.getInstance().clear();
+    }
+
+    @Benchmark
+    public long processRequest() throws IOException, VigilatorNodeException {
+        service.processRequest(new byte[0], Map.of(), exchange);
+
+        return exchange.responseLength;
+    }
+
+    /**
+     * Exchange only keeping the length of the response
+     */
+    private static class DiscardingExchange extends HttpExchange {
+
+        private long responseLength;
+        private final Headers requestHeaders = new Headers();
+        private final Headers responseHeaders = new Headers();
+
+        @Override
+        public Headers getRequestHeaders() {
+            return requestHeaders;
+        }
+
+        @Override
+        public Headers getResponseHeaders() {
+            return responseHeaders;
+        }
+
+        @Override
+        public URI getRequestURI() {
+            return URI.create("/status");
+        }
+
+        @Override
+        public String getRequestMethod() {
+            return "GET";
+        }
+
+        @Override
+        public HttpContext getHttpContext() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+
+        @Override
+        public InputStream getRequestBody() {
+            return InputStream.nullInputStream();
+        }
+
+        @Override
+        public OutputStream getResponseBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public void sendResponseHeaders(final int code, final long length) {
+            responseLength = length;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public int getResponseCode() {
+            return 200;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public String getProtocol() {
+            return "HTTP/1.1";
+        }
+
+        @Override
+        public Object getAttribute(final String name) {
+            return null;
+        }
+
+        @Override
+        public void setAttribute(final String name, final Object value) {
+            // attributes are not used
+        }
+
+        @Override
+        public void setStreams(final InputStream i, final OutputStream o) {
+            // streams are fixed
+        }
+
+        @Override
+        public HttpPrincipal getPrincipal() {
+            return null;
+        }
+    }
+}
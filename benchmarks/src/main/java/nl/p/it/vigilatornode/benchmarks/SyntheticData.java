@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.resources.ExposedResource;
+import nl.p.it.vigilatornode.domain.resources.MonitoredPart;
+import nl.p.it.vigilatornode.domain.resources.MonitoredResource;
+
+/**
+ * Generator of synthetic data for the benchmarks
+ * <p>
+ * All data is generated in memory (or in a temporary directory for resource
+ * files) from a fixed seed, so runs are repeatable and do not require any
+ * network access.
+ * </p>
+ *
+ * @author Patrick
+ */
+final class SyntheticData {
+
+    private static final long SEED = 42L;
+    private static final String[] STATUS = {"ACTIVE", "INACTIVE", "STARTING"};
+    private static final String PART = "Part";
+    private static final String ITEM = "item ";
+    private static final String CONFIG = "Config";
+    private static final String WEB = "Web";
+
+    private SyntheticData() {
+    }
+
+    /**
+     * @param amount the amount of parts
+     * @param itemsPerPart the amount of items per part
+     * @return parts having numeric, equality and datetime conditions
+     */
+    static Map<String, MonitoredPart> parts(final int amount, final int itemsPerPart) {
+        Map<String, MonitoredPart> parts = new HashMap<>();
+        for (int i = 0; i < amount; i++) {
+            MonitoredPart part = new MonitoredPart();
+            for (int j = 0; j < itemsPerPart; j++) {
+                part.addItem(ITEM + j, condition(j));
+            }
+            part.addItem(MonitoredPart.DATETIME, "< 5min");
+            parts.put(PART + i, part);
+        }
+
+        return parts;
+    }
+
+    /**
+     * @param amount the amount of status entries
+     * @param itemsPerPart the amount of items per status entry
+     * @return a monitor reply matching the parts of the same size
+     */
+    static byte[] monitorReply(final int amount, final int itemsPerPart) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        long now = Instant.now().getEpochSecond();
+        StringBuilder reply = new StringBuilder("{\"environment\":\"prod\",\"status\":[");
+        for (int i = 0; i < amount; i++) {
+            if (i > 0) {
+                reply.append(',');
+            }
+            reply.append("{\"name\":\"").append(PART).append(i).append("\",\"items\":{");
+            for (int j = 0; j < itemsPerPart; j++) {
+                if (j > 0) {
+                    reply.append(',');
+                }
+                reply.append('"').append(ITEM).append(j).append("\":\"").append(value(j, random)).append('"');
+            }
+            reply.append("},\"datetime\":\"").append(now).append("\"}");
+        }
+
+        return reply.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param sizeInBytes the approximate size of the page
+     * @param title the title of the page
+     * @return a html page with the title near the end of the page
+     */
+    static byte[] webPage(final int sizeInBytes, final String title) {
+        StringBuilder page = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\">");
+        while (page.length() < sizeInBytes) {
+            page.append("<link rel=\"stylesheet\" href=\"/static/style-").append(page.length()).append(".css\">");
+        }
+
+        return page.append("<title>").append(title).append("</title></head><body></body></html>")
+                .toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write resource files containing exposed resources to the directory
+     *
+     * @param directory the directory to write to
+     * @param files the amount of files
+     * @param resourcesPerFile the amount of resources per file
+     * @throws IOException when the files cannot be written
+     */
+    static void resourceFiles(final Path directory, final int files, final int resourcesPerFile) throws IOException {
+        for (int f = 0; f < files; f++) {
+            StringBuilder file = new StringBuilder();
+            for (int r = 0; r < resourcesPerFile; r++) {
+                file.append("ExposedResource\n")
+                        .append("\tResource-").append(f).append('-').append(r).append('\n')
+                        .append("\t\tConfig\n")
+                        .append("\t\t\tactive: true\n")
+                        .append("\t\t\turl: https://localhost:48/monitor\n")
+                        .append("\t\tWeb\n")
+                        .append("\t\t\turl: https://localhost.com\n")
+                        .append("\t\t\ttitle: Page title\n");
+                for (int p = 0; p < 3; p++) {
+                    file.append("\t\t").append(PART).append(p).append('\n')
+                            .append("\t\t\titems\n");
+                    for (int i = 0; i < 4; i++) {
+                        file.append("\t\t\t\t").append(ITEM).append(i).append(": ").append(condition(i)).append('\n');
+                    }
+                    file.append("\t\t\tdatetime: < 5min\n");
+                }
+            }
+            Files.writeString(directory.resolve(String.format("resources-%04d.conf", f)), file);
+        }
+    }
+
+    /**
+     * @param amount the amount of resources
+     * @return resources having completed one take, a third of them having
+     * errors and a third having warnings
+     */
+    static List<MonitoredResource> resources(final int amount) {
+        List<MonitoredResource> resources = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            SyntheticResource resource = new SyntheticResource(i);
+            resource.updateStatus();
+            resources.add(resource);
+        }
+
+        return resources;
+    }
+
+    /**
+     * @param name the name of the resource
+     * @param monitorUrl the url of the monitor endpoint
+     * @param webUrl the url of the web page
+     * @param title the title expected in the web page
+     * @param amount the amount of parts
+     * @param itemsPerPart the amount of items per part
+     * @return an active exposed resource having parts matching the monitor
+     * reply of the same size
+     */
+    static ExposedResource exposedResource(
+            final String name,
+            final String monitorUrl,
+            final String webUrl,
+            final String title,
+            final int amount,
+            final int itemsPerPart) {
+        ExposedResource resource = new ExposedResource();
+        resource.setName(name);
+        resource.decorate(CONFIG, "active", "true");
+        resource.decorate(CONFIG, "url", monitorUrl);
+        resource.decorate(WEB, "url", webUrl);
+        resource.decorate(WEB, "title", title);
+        for (int i = 0; i < amount; i++) {
+            for (int j = 0; j < itemsPerPart; j++) {
+                resource.decorate(PART + i, ITEM + j, condition(j));
+            }
+            resource.decorate(PART + i, MonitoredPart.DATETIME, "< 5min");
+        }
+
+        return resource;
+    }
+
+    private static String condition(final int index) {
+        return switch (index % 4) {
+            case 0 ->
+                "!ACTIVE";
+            case 1 ->
+                "> 50";
+            case 2 ->
+                "== 0 W";
+            default ->
+                "< 10%";
+        };
+    }
+
+    private static String value(final int index, final SplittableRandom random) {
+        return switch (index % 4) {
+            case 0 ->
+                STATUS[random.nextInt(STATUS.length)];
+            case 1, 2 ->
+                String.valueOf(random.nextInt(100));
+            default ->
+                random.nextInt(100) + "%";
+        };
+    }
+
+    private static class SyntheticResource extends MonitoredResource {
+
+        private final int number;
+
+        SyntheticResource(final int number) {
+            this.number = number;
+            setName("Resource-" + number);
+            this.config.setActive(true);
+        }
+
+        @Override
+        public void updateStatus() {
+            take++;
+            takes.put(take, new ArrayList<>());
+            MonitoredData result = new MonitoredData(new byte[0]);
+            if (number % 3 == 1) {
+                result.addError("Value for item 1 exceeds > 50 in Part0");
+            } else if (number % 3 == 2) {
+                result.addWarning("Value for item 2 matches == 0 W in Part1");
+            }
+            result.label(take);
+            takes.get(take).add(result);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import nl.p.it.vigilatornode.configuration.NodeConfig;
+import nl.p.it.vigilatornode.domain.monitor.Monitor;
+import nl.p.it.vigilatornode.domain.monitor.MonitorStore;
+import nl.p.it.vigilatornode.domain.out.OutgoingClient;
+import nl.p.it.vigilatornode.domain.resources.MonitoredResource;
+
+/**
+ * End to end throughput harness, running a real Monitor and OutgoingClient
+ * against the probe target simulator
+ * <p>
+ * For every completed cycle the harness reports the cycle time, the probe
+ * latency percentiles, the failed probes, the heap in use and the amount of
+ * live threads. Arguments are given as key=value pairs, e.g.:
+ * {@code java -cp target/benchmarks.jar nl.p.it.vigilatornode.benchmarks.ThroughputHarness targets=10000 cycles=5}
+ * </p>
+ * <p>
+ * Harness arguments: targets, cycles, corePoolSize, maxThreads,
+ * maxQueuedTasks, maxRequestsPerHost and maxOutgoingRequests (0 meaning no
+ * limit, as all simulated targets share one host), frequency (the wait between
+ * cycles in ms), timeout (seconds to wait for all cycles) and logLevel. See SimulatorSettings for the
+ * arguments of the simulator.
+ * </p>
+ *
+ * @author Patrick
+ */
+public class ThroughputHarness {
+
+    private static final String ENVIRONMENT = "local";
+    private static final String ARG_DIVIDER = "=";
+    private static final String REPORT_HEADER = "%6s %10s %8s %9s %9s %9s %9s %8s %9s %8s%n";
+    private static final String REPORT_LINE = "%6d %10d %8d %9.1f %9.1f %9.1f %9.1f %8d %9d %8d%n";
+    private static final long MB = 1024 * 1024;
+
+    private ThroughputHarness() {
+    }
+
+    /**
+     * @param args key=value arguments
+     * @throws Exception when the harness fails to run
+     */
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> arguments = parse(args);
+        int targets = Integer.parseInt(arguments.getOrDefault("targets", "10000"));
+        int cycles = Integer.parseInt(arguments.getOrDefault("cycles", "3"));
+        long timeout = Long.parseLong(arguments.getOrDefault("timeout", "600"));
+        Logger.getLogger("").setLevel(Level.parse(arguments.getOrDefault("logLevel", "SEVERE")));
+
+        SimulatorSettings settings = SimulatorSettings.from(arguments);
+        boolean completed;
+        try (ProbeTargetSimulator simulator = new ProbeTargetSimulator(settings)) {
+            simulator.start();
+
+            NodeConfig config = NodeConfig.load(ENVIRONMENT);
+            config.setCorePoolSize(Integer.parseInt(arguments.getOrDefault("corePoolSize", "20")));
+            config.setMaxThreads(Integer.parseInt(arguments.getOrDefault("maxThreads", "200")));
+            config.setMaxQueuedTasks(Integer.parseInt(arguments.getOrDefault("maxQueuedTasks", "1000")));
+            config.setMaxRequestsPerHost(Integer.parseInt(arguments.getOrDefault("maxRequestsPerHost", "0")));
+            config.setMaxOutgoingRequests(Integer.parseInt(arguments.getOrDefault("maxOutgoingRequests", "0")));
+            config.setDefaultUpdateFrequency(Integer.parseInt(arguments.getOrDefault("frequency", "1000")));
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            OutgoingClient outgoing = OutgoingClient.getInstance(config);
+            outgoing.switchClient(new TimedHttpClient(HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofMinutes(1))
+                    .followRedirects(HttpClient.Redirect.ALWAYS)
+                    .build(), recorder));
+
+            Monitor monitor = MonitorStore.getInstance().buildMonitorFor(resources(simulator, settings, targets), config);
+            monitor.connectToOutgoingClient(outgoing);
+
+            System.out.printf("Monitoring %d simulated targets for %d cycles with %s%n", targets, cycles, settings);
+            System.out.printf(REPORT_HEADER, "cycle", "time (ms)", "probes", "p50 (ms)", "p90 (ms)", "p99 (ms)",
+                    "max (ms)", "failed", "heap (MB)", "threads");
+            CountDownLatch remaining = new CountDownLatch(cycles);
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            monitor.onCycleCompleted(duration -> {
+                long[] latencies = recorder.drain();
+                System.out.printf(REPORT_LINE, cycles - remaining.getCount() + 1, duration, latencies.length,
+                        LatencyRecorder.percentile(latencies, 50), LatencyRecorder.percentile(latencies, 90),
+                        LatencyRecorder.percentile(latencies, 99), LatencyRecorder.percentile(latencies, 100),
+                        recorder.drainFailures(), memory.getHeapMemoryUsage().getUsed() / MB, threads.getThreadCount());
+                remaining.countDown();
+            });
+
+            monitor.start();
+            completed = remaining.await(timeout, TimeUnit.SECONDS);
+            monitor.stop();
+            outgoing.stopProcess();
+
+            System.out.printf("Peak threads: %d, simulator: %s%n", threads.getPeakThreadCount(), simulator);
+        }
+
+        if (!completed) {
+            System.out.printf("Not all cycles completed within %d seconds%n", timeout);
+        }
+        System.exit(completed ? 0 : 1);
+    }
+
+    private static List<MonitoredResource> resources(final ProbeTargetSimulator simulator, final SimulatorSettings settings, final int targets) {
+        List<MonitoredResource> resources = new ArrayList<>(targets);
+        for (int i = 0; i < targets; i++) {
+            resources.add(SyntheticData.exposedResource("Target-" + i, simulator.monitorUrl(i), simulator.webUrl(i),
+                    ProbeTargetSimulator.TITLE, settings.statusEntries(), settings.itemsPerEntry()));
+        }
+
+        return resources;
+    }
+
+    private static Map<String, String> parse(final String[] args) {
+        Map<String, String> arguments = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split(ARG_DIVIDER, 2);
+            if (pair.length == 2) {
+                arguments.put(pair[0], pair[1]);
+            }
+        }
+
+        return arguments;
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.benchmarks;
+
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+/**
+ * HTTP client recording the latency of every request sent by the delegate
+ *
+ * @author Patrick
+ */
+class TimedHttpClient extends HttpClient {
+
+    private final HttpClient delegate;
+    private final LatencyRecorder recorder;
+
+    private static final int FIRST_ERROR_STATUS = 400;
+
+    TimedHttpClient(final HttpClient delegate, final LatencyRecorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(final HttpRequest request, final HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<T> response = delegate.send(request, handler);
+            if (response.statusCode() >= FIRST_ERROR_STATUS) {
+                recorder.failed();
+            }
+
+            return response;
+        } catch (IOException ex) {
+            recorder.failed();
+            throw ex;
+        } finally {
+            recorder.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpRequest request, final HttpResponse.BodyHandler<T> handler) {
+        return sendAsync(request, handler, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+            final HttpRequest request,
+            final HttpResponse.BodyHandler<T> handler,
+            final HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        long start = System.nanoTime();
+        return delegate.sendAsync(request, handler, pushPromiseHandler).whenComplete((response, ex) -> {
+            if (ex != null || response.statusCode() >= FIRST_ERROR_STATUS) {
+                recorder.failed();
+            }
+            recorder.record(System.nanoTime() - start);
+        });
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
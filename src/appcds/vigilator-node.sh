@@ -0,0 +1,12 @@
+#!/bin/sh
+#
+# Starts the Vigilator node using the class data sharing archive created by the
+# training run of the `appcds` profile, e.g.: ./vigilator-node.sh environment=prod
+#
+# When the archive is missing or does not match the jar, the JVM starts without
+# it (-Xshare:auto), so the node always starts.
+#
+DIR=$(cd "$(dirname "$0")" && pwd)
+
+exec java -XX:SharedArchiveFile="$DIR/vigilator-node.jsa" -Xshare:auto $JAVA_OPTS \
+    -jar "$DIR/${project.build.finalName}.jar" "${1:-environment=prod}"
@@ -16,13 +16,16 @@
 package nl.p.it.vigilatornode;
 
 import nl.p.it.vigilatornode.server.HttpServer;
+import nl.p.it.vigilatornode.configuration.FlightRecorderConfig;
 import nl.p.it.vigilatornode.configuration.LogConfig;
 import nl.p.it.vigilatornode.configuration.NodeConfig;
 import nl.p.it.vigilatornode.domain.resources.MonitoredResourcesReader;
+import nl.p.it.vigilatornode.domain.resources.MonitoredResourcesSnapshot;
 import nl.p.it.vigilatornode.exception.CustomException;
 import nl.p.it.vigilatornode.exception.IncorrectResourceFileException;
 import nl.p.it.vigilatornode.exception.UnstartableException;
 import nl.p.it.vigilatornode.exception.VigilatorNodeException;
+import java.lang.management.ManagementFactory;
 import java.util.List;
 import nl.p.it.vigilatornode.domain.monitor.Monitor;
 import nl.p.it.vigilatornode.domain.resources.MonitoredResource;
@@ -41,6 +44,7 @@ public class App {
     private static HttpServer httpServer;
     private static Monitor monitor;
     private static final String ARG_DIVIDER = "=";
+    private static final String PROPERTY_TRAINING = "vigilator.training";
     private static final System.Logger LOGGER = System.getLogger(App.class.getName());
 
     /**
@@ -52,6 +56,7 @@ public class App {
         NodeConfig config = NodeConfig.load(environment);
 
         LogConfig.configure(config);
+        FlightRecorderConfig.configure(config);
         startServer(environment);
         startMonitoring(config);
 
@@ -71,12 +76,31 @@ public class App {
     }
 
     private static void startMonitoring(final NodeConfig config) throws IncorrectResourceFileException, MonitorException {
-        List<MonitoredResource> resources = new MonitoredResourcesReader().read(config.getResourceFilesLocation());
+        List<MonitoredResource> resources = new MonitoredResourcesSnapshot(
+                new MonitoredResourcesReader(), config.getResourceSnapshotFile())
+                .read(config.getResourceFilesLocation());
         monitor = MonitorStore.getInstance().buildMonitorFor(resources, config);
         monitor.connectToOutgoingClient(OutgoingClient.getInstance(config));
+        monitor.onFirstCycleCompleted(App::firstCycleCompleted);
         monitor.start();
     }
 
+    /**
+     * Logs the time from the start of the JVM until the first completed take
+     * of all resources, this is the startup time of the node. When running as
+     * training run (-Dvigilator.training=true) for creating a class data
+     * sharing archive, the application exits after the first take
+     */
+    private static void firstCycleCompleted() {
+        long startupTime = ManagementFactory.getRuntimeMXBean().getUptime();
+        LOGGER.log(INFO, "First take completed {0} ms after the JVM started", startupTime);
+
+        if (Boolean.getBoolean(PROPERTY_TRAINING)) {
+            LOGGER.log(INFO, "Training run completed, exiting");
+            System.exit(0);
+        }
+    }
+
     private static String getEnvironment(final String[] args) throws VigilatorNodeException {
         if (args != null && args.length > 0 && args[0] != null) {
             String[] environment = args[0].split(ARG_DIVIDER);
@@ -92,7 +116,6 @@ public class App {
         public void run() {
             monitor.stop();
             httpServer.stop();
-            super.start();
         }
     }
 }
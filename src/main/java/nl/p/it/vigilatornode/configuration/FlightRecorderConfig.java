@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import nl.p.it.vigilatornode.domain.events.Events;
+import nl.p.it.vigilatornode.exception.CustomException;
+import nl.p.it.vigilatornode.exception.UnstartableException;
+import nl.p.it.vigilatornode.exception.VigilatorNodeException;
+import static java.lang.System.Logger.Level.INFO;
+
+/**
+ * Configuration for the flight recorder
+ * <p>
+ * When enabled, a continuous recording is started with the settings named by
+ * flightRecordingSettings, either a JDK configuration like `default` or
+ * `profile`, or a path to a .jfc file. The settings for the events of the
+ * node are read from the vigilator.jfc profile in the classpath and applied
+ * first, so a custom .jfc file can override them. The recording keeps the last
+ * flightRecordingMaxAge minutes on disk and is dumped to flightRecordingFile
+ * when the JVM exits.
+ * </p>
+ *
+ * @see jdk.jfr.Recording
+ * @author Patrick
+ */
+public class FlightRecorderConfig {
+
+    private static final String PROFILE = "/vigilator.jfc";
+    private static final String DEFAULT_SETTINGS = "default";
+    private static final String JFC = ".jfc";
+    private static final String RECORDING_NAME = "vigilator-node";
+
+    private static final System.Logger LOGGER = System.getLogger(FlightRecorderConfig.class.getName());
+
+    private FlightRecorderConfig() {
+    }
+
+    /**
+     * Starts a continuous recording when flight recording is enabled in the
+     * configuration. The events of the node are enabled when the recording
+     * started, or when the flight recorder was already started with the JVM,
+     * e.g. by -XX:StartFlightRecording
+     *
+     * @param config the configuration for this Vigilator node
+     * @return the started recording, or null when flight recording is disabled
+     * or not available in this JVM
+     * @throws VigilatorNodeException when the recording could not be started
+     */
+    public static Recording configure(final NodeConfig config) throws VigilatorNodeException {
+        if (!config.isFlightRecording()) {
+            if (FlightRecorder.isAvailable() && FlightRecorder.isInitialized()) {
+                Events.enable();
+            }
+            return null;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            LOGGER.log(INFO, "Flight recording is enabled but the flight recorder is not available in this JVM");
+            return null;
+        }
+
+        try {
+            Recording recording = new Recording(getSettings(config.getFlightRecordingSettings()));
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            if (config.getFlightRecordingMaxAge() > 0) {
+                recording.setMaxAge(Duration.ofMinutes(config.getFlightRecordingMaxAge()));
+            }
+            String file = config.getFlightRecordingFile();
+            if (file != null && !file.isEmpty()) {
+                Path destination = Path.of(file);
+                if (destination.getParent() != null) {
+                    Files.createDirectories(destination.getParent());
+                }
+                recording.setDestination(destination);
+                recording.setDumpOnExit(true);
+            }
+            recording.start();
+            Events.enable();
+            LOGGER.log(INFO, "Flight recording started with settings: {0}", config.getFlightRecordingSettings());
+
+            return recording;
+        } catch (IOException | ParseException | IllegalStateException | SecurityException ex) {
+            throw new UnstartableException(CustomException.COULD_NOT_START_FLIGHT_RECORDING);
+        }
+    }
+
+    /**
+     * @param settings the name of a JDK configuration or a path to a .jfc file,
+     * when null or empty the JDK default configuration is used
+     * @return the settings of the node events overridden by the given settings
+     */
+    static Map<String, String> getSettings(final String settings) throws IOException, ParseException {
+        Map<String, String> merged = new HashMap<>(readProfile().getSettings());
+        merged.putAll(getBase(settings).getSettings());
+
+        return merged;
+    }
+
+    private static Configuration getBase(final String settings) throws IOException, ParseException {
+        if (settings == null || settings.isEmpty()) {
+            return Configuration.getConfiguration(DEFAULT_SETTINGS);
+        } else if (settings.endsWith(JFC)) {
+            return Configuration.create(Path.of(settings));
+        } else {
+            return Configuration.getConfiguration(settings);
+        }
+    }
+
+    private static Configuration readProfile() throws IOException, ParseException {
+        try (InputStream profile = FlightRecorderConfig.class.getResourceAsStream(PROFILE)) {
+            if (profile == null) {
+                throw new IOException("Missing flight recorder profile in the classpath: " + PROFILE);
+            }
+            try (Reader reader = new InputStreamReader(profile, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+}
@@ -18,6 +18,8 @@ package nl.p.it.vigilatornode.configuration;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import nl.p.it.vigilatornode.domain.monitor.MonitorClock;
+import nl.p.it.vigilatornode.domain.monitor.SimulatedClock;
 import nl.p.it.vigilatornode.exception.VigilatorNodeException;
 import nl.p.it.vigilatornode.exception.UnstartableException;
 
@@ -36,12 +38,30 @@ public class NodeConfig {
     private int corePoolSize;
     private int maxThreads;
     private int maxQueuedTasks;
+    private int maxRequestsPerHost;
+    private int maxQueuedRequestsPerHost;
+    private int maxOutgoingRequests;
+    private int circuitBreakerFailures;
+    private int circuitBreakerBackoff;
+    private int circuitBreakerMaxBackoff;
+    private int coalesceWindow;
+    private boolean http2;
+    private int connectionKeepAlive;
+    private int maxIdleConnections;
+    private int maxRedirects;
+    private int redirectCacheTime;
     private String allowedOrigins;
     private String allowedMethods;
     private String allowedHeaders;
     private String resourceFilesLocation;
+    private String resourceSnapshotFile;
     private String logfile;
     private int defaultUpdateFrequency;
+    private boolean flightRecording;
+    private String flightRecordingSettings;
+    private int flightRecordingMaxAge;
+    private String flightRecordingFile;
+    private MonitorClock clock = MonitorClock.system();
 
     private static NodeConfig instance;
 
@@ -142,6 +162,194 @@ public class NodeConfig {
         this.maxQueuedTasks = maxQueuedTasks;
     }
 
+    /**
+     * @return the maximum amount of concurrent outgoing requests per host, 0
+     * for no limit
+     */
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    /**
+     * @param maxRequestsPerHost the maximum amount of concurrent outgoing
+     * requests per host
+     */
+    public void setMaxRequestsPerHost(final int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    /**
+     * @return the maximum amount of outgoing requests queued per host, 0 to not
+     * queue requests
+     */
+    public int getMaxQueuedRequestsPerHost() {
+        return maxQueuedRequestsPerHost;
+    }
+
+    /**
+     * @param maxQueuedRequestsPerHost the maximum amount of outgoing requests
+     * queued per host
+     */
+    public void setMaxQueuedRequestsPerHost(final int maxQueuedRequestsPerHost) {
+        this.maxQueuedRequestsPerHost = maxQueuedRequestsPerHost;
+    }
+
+    /**
+     * @return the maximum amount of outgoing requests running or queued in
+     * total, 0 for no limit
+     */
+    public int getMaxOutgoingRequests() {
+        return maxOutgoingRequests;
+    }
+
+    /**
+     * @param maxOutgoingRequests the maximum amount of outgoing requests
+     * running or queued in total
+     */
+    public void setMaxOutgoingRequests(final int maxOutgoingRequests) {
+        this.maxOutgoingRequests = maxOutgoingRequests;
+    }
+
+    /**
+     * @return the amount of consecutive failures after which requests to a url
+     * are suspended, 0 to never suspend requests
+     */
+    public int getCircuitBreakerFailures() {
+        return circuitBreakerFailures;
+    }
+
+    /**
+     * @param circuitBreakerFailures the amount of consecutive failures after
+     * which requests to a url are suspended
+     */
+    public void setCircuitBreakerFailures(final int circuitBreakerFailures) {
+        this.circuitBreakerFailures = circuitBreakerFailures;
+    }
+
+    /**
+     * @return the milliseconds requests to a url are suspended the first time
+     */
+    public int getCircuitBreakerBackoff() {
+        return circuitBreakerBackoff;
+    }
+
+    /**
+     * @param circuitBreakerBackoff the milliseconds requests to a url are
+     * suspended the first time
+     */
+    public void setCircuitBreakerBackoff(final int circuitBreakerBackoff) {
+        this.circuitBreakerBackoff = circuitBreakerBackoff;
+    }
+
+    /**
+     * @return the maximum milliseconds requests to a url are suspended
+     */
+    public int getCircuitBreakerMaxBackoff() {
+        return circuitBreakerMaxBackoff;
+    }
+
+    /**
+     * @param circuitBreakerMaxBackoff the maximum milliseconds requests to a
+     * url are suspended
+     */
+    public void setCircuitBreakerMaxBackoff(final int circuitBreakerMaxBackoff) {
+        this.circuitBreakerMaxBackoff = circuitBreakerMaxBackoff;
+    }
+
+    /**
+     * @return the milliseconds the response of an outgoing request is shared
+     * with identical requests after it completed
+     */
+    public int getCoalesceWindow() {
+        return coalesceWindow;
+    }
+
+    /**
+     * @param coalesceWindow the milliseconds the response of an outgoing
+     * request is shared with identical requests after it completed, 0 to only
+     * share requests in flight
+     */
+    public void setCoalesceWindow(final int coalesceWindow) {
+        this.coalesceWindow = coalesceWindow;
+    }
+
+    /**
+     * @return whether outgoing requests prefer HTTP/2, multiplexing requests
+     * to a host over one connection
+     */
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    /**
+     * @param http2 whether outgoing requests prefer HTTP/2, else HTTP/1.1 is
+     * used
+     */
+    public void setHttp2(final boolean http2) {
+        this.http2 = http2;
+    }
+
+    /**
+     * @return the seconds an idle outgoing connection is kept open for reuse
+     */
+    public int getConnectionKeepAlive() {
+        return connectionKeepAlive;
+    }
+
+    /**
+     * @param connectionKeepAlive the seconds an idle outgoing connection is
+     * kept open for reuse, 0 for the default of the JDK
+     */
+    public void setConnectionKeepAlive(final int connectionKeepAlive) {
+        this.connectionKeepAlive = connectionKeepAlive;
+    }
+
+    /**
+     * @return the maximum amount of idle HTTP/1.1 connections kept open
+     */
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    /**
+     * @param maxIdleConnections the maximum amount of idle HTTP/1.1
+     * connections kept open, 0 for no limit
+     */
+    public void setMaxIdleConnections(final int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    /**
+     * @return the maximum amount of redirects followed for an outgoing
+     * request
+     */
+    public int getMaxRedirects() {
+        return maxRedirects;
+    }
+
+    /**
+     * @param maxRedirects the maximum amount of redirects followed for an
+     * outgoing request, 0 to not follow redirects
+     */
+    public void setMaxRedirects(final int maxRedirects) {
+        this.maxRedirects = maxRedirects;
+    }
+
+    /**
+     * @return the milliseconds the location of a permanent redirect is cached
+     */
+    public int getRedirectCacheTime() {
+        return redirectCacheTime;
+    }
+
+    /**
+     * @param redirectCacheTime the milliseconds the location of a permanent
+     * redirect is cached, 0 to not cache permanent redirects
+     */
+    public void setRedirectCacheTime(final int redirectCacheTime) {
+        this.redirectCacheTime = redirectCacheTime;
+    }
+
     /**
      * @return allowed origins
      */
@@ -199,6 +407,21 @@ public class NodeConfig {
         return resourceFilesLocation;
     }
 
+    /**
+     * @param resourceSnapshotFile the file to store the snapshot of the read
+     * resource files in, empty to disable the snapshot
+     */
+    public void setResourceSnapshotFile(final String resourceSnapshotFile) {
+        this.resourceSnapshotFile = resourceSnapshotFile;
+    }
+
+    /**
+     * @return the file to store the snapshot of the read resource files in
+     */
+    public String getResourceSnapshotFile() {
+        return resourceSnapshotFile;
+    }
+
     /**
      * @param logfile the file to write logs to, to set
      */
@@ -229,6 +452,64 @@ public class NodeConfig {
         return defaultUpdateFrequency;
     }
 
+    /**
+     * @param flightRecording whether to start a continuous flight recording
+     */
+    public void setFlightRecording(final boolean flightRecording) {
+        this.flightRecording = flightRecording;
+    }
+
+    /**
+     * @return whether to start a continuous flight recording
+     */
+    public boolean isFlightRecording() {
+        return flightRecording;
+    }
+
+    /**
+     * @param flightRecordingSettings the JDK configuration name or path to a
+     * .jfc file to record with
+     */
+    public void setFlightRecordingSettings(final String flightRecordingSettings) {
+        this.flightRecordingSettings = flightRecordingSettings;
+    }
+
+    /**
+     * @return the JDK configuration name or path to a .jfc file to record with
+     */
+    public String getFlightRecordingSettings() {
+        return flightRecordingSettings;
+    }
+
+    /**
+     * @param flightRecordingMaxAge the amount of minutes to keep recorded
+     * events, 0 to keep them without limit
+     */
+    public void setFlightRecordingMaxAge(final int flightRecordingMaxAge) {
+        this.flightRecordingMaxAge = flightRecordingMaxAge;
+    }
+
+    /**
+     * @return the amount of minutes to keep recorded events
+     */
+    public int getFlightRecordingMaxAge() {
+        return flightRecordingMaxAge;
+    }
+
+    /**
+     * @param flightRecordingFile the file to dump the recording to on exit
+     */
+    public void setFlightRecordingFile(final String flightRecordingFile) {
+        this.flightRecordingFile = flightRecordingFile;
+    }
+
+    /**
+     * @return the file to dump the recording to on exit
+     */
+    public String getFlightRecordingFile() {
+        return flightRecordingFile;
+    }
+
     /**
      * Get a thread pool executor for the http server
      * <p>
@@ -253,6 +534,24 @@ public class NodeConfig {
                 new ThreadPoolExecutor.CallerRunsPolicy());
     }
 
+    /**
+     * @return the clock the monitor runs on, the system clock unless set
+     * otherwise
+     */
+    public MonitorClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Run the monitor on another clock, e.g. a simulated clock to run days of
+     * monitoring within seconds. This is not read from the properties file
+     *
+     * @param clock the clock to run the monitor on, null for the system clock
+     */
+    public void setClock(final MonitorClock clock) {
+        this.clock = (clock != null ? clock : MonitorClock.system());
+    }
+
     /**
      * Get a thread pool executor for internal processes
      * <p>
@@ -263,10 +562,17 @@ public class NodeConfig {
      * <p>
      * Tasks are guaranteed to execute sequentially, and no more than one task
      * will be active at any given time</p>
+     * <p>
+     * When running on a simulated clock, the executor of the clock is returned
+     * instead, its tasks are run by the caller of the simulation</p>
      *
+     * @see SimulatedClock.getExecutor()
      * @return the thread pool executor
      */
     public ThreadPoolExecutor getSingleThreadExecutor() {
+        if (clock instanceof SimulatedClock simulated) {
+            return simulated.getExecutor();
+        }
         return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
                 new ArrayBlockingQueue<>(100000),
                 new ThreadPoolExecutor.CallerRunsPolicy());
@@ -279,12 +585,29 @@ public class NodeConfig {
                 + ", corePoolSize=" + corePoolSize
                 + ", maxThreads=" + maxThreads
                 + ", maxQueuedTasks=" + maxQueuedTasks
+                + ", maxRequestsPerHost=" + maxRequestsPerHost
+                + ", maxQueuedRequestsPerHost=" + maxQueuedRequestsPerHost
+                + ", maxOutgoingRequests=" + maxOutgoingRequests
+                + ", circuitBreakerFailures=" + circuitBreakerFailures
+                + ", circuitBreakerBackoff=" + circuitBreakerBackoff
+                + ", circuitBreakerMaxBackoff=" + circuitBreakerMaxBackoff
+                + ", coalesceWindow=" + coalesceWindow
+                + ", http2=" + http2
+                + ", connectionKeepAlive=" + connectionKeepAlive
+                + ", maxIdleConnections=" + maxIdleConnections
+                + ", maxRedirects=" + maxRedirects
+                + ", redirectCacheTime=" + redirectCacheTime
                 + ", allowedOrigins=" + allowedOrigins
                 + ", allowedMethods=" + allowedMethods
                 + ", allowedHeaders=" + allowedHeaders
                 + ", resourceFilesLocation=" + resourceFilesLocation
+                + ", resourceSnapshotFile=" + resourceSnapshotFile
                 + ", logfile=" + logfile
-                + ", defaultUpdateFrequency=" + defaultUpdateFrequency + '}';
+                + ", defaultUpdateFrequency=" + defaultUpdateFrequency
+                + ", flightRecording=" + flightRecording
+                + ", flightRecordingSettings=" + flightRecordingSettings
+                + ", flightRecordingMaxAge=" + flightRecordingMaxAge
+                + ", flightRecordingFile=" + flightRecordingFile + '}';
     }
 
     private void read(final String environment) throws UnstartableException {
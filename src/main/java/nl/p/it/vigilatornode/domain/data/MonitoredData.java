@@ -17,8 +17,8 @@ package nl.p.it.vigilatornode.domain.data;
 
 import java.lang.ref.Cleaner;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Data that has been observed, meaning it has been received, understood and is
@@ -49,15 +49,27 @@ public class MonitoredData implements AutoCloseable {
         private byte[] data;
         private int take;
         private String url;
+        private long timeToFirstByte;
+        private long responseTime;
+        private long connectTime;
+        private int statusCode;
+        private List<Redirect> redirects;
+        private int cachedRedirects;
+        private Instant certificateExpiry;
         private final Instant timestamp;
         private final List<String> errors;
         private final List<String> warnings;
 
         State(final byte[] data) {
+            this(data, Instant.now());
+        }
+
+        State(final byte[] data, final Instant timestamp) {
             this.data = data;
-            this.timestamp = Instant.now();
-            this.errors = new ArrayList<>();
-            this.warnings = new ArrayList<>();
+            this.timestamp = timestamp;
+            this.redirects = List.of();
+            this.errors = new CopyOnWriteArrayList<>();
+            this.warnings = new CopyOnWriteArrayList<>();
         }
 
         @Override
@@ -71,6 +83,13 @@ public class MonitoredData implements AutoCloseable {
                     + "data=" + data.length + " bytes"
                     + ", take=" + take 
                     + ", url=" + url 
+                    + ", timeToFirstByte=" + timeToFirstByte
+                    + ", responseTime=" + responseTime
+                    + ", connectTime=" + connectTime
+                    + ", statusCode=" + statusCode
+                    + ", redirects=" + redirects
+                    + ", cachedRedirects=" + cachedRedirects
+                    + ", certificateExpiry=" + certificateExpiry
                     + ", timestamp=" + timestamp 
                     + ", errors=" + errors 
                     + ", warnings=" + warnings + '}';
@@ -87,6 +106,42 @@ public class MonitoredData implements AutoCloseable {
         this.state.url = url;
         this.cleanable = cleaner.register(this, state);
     }
+
+    /**
+     * @param data the received data
+     * @param url the url the data was received from
+     * @param timestamp the moment the data was observed
+     */
+    public MonitoredData(final byte[] data, final String url, final Instant timestamp) {
+        this.state = new State(data, timestamp);
+        this.state.url = url;
+        this.cleanable = cleaner.register(this, state);
+    }
+
+    private MonitoredData(final State shared) {
+        this.state = new State(shared.data, shared.timestamp);
+        this.state.url = shared.url;
+        this.state.timeToFirstByte = shared.timeToFirstByte;
+        this.state.responseTime = shared.responseTime;
+        this.state.connectTime = shared.connectTime;
+        this.state.statusCode = shared.statusCode;
+        this.state.redirects = shared.redirects;
+        this.state.cachedRedirects = shared.cachedRedirects;
+        this.state.certificateExpiry = shared.certificateExpiry;
+        this.cleanable = cleaner.register(this, state);
+    }
+
+    /**
+     * Share the received data with another receiver of the same response. The
+     * data is not copied and must be treated as read only, the errors,
+     * warnings and take are not shared so every receiver validates on its own
+     *
+     * @return monitored data sharing the data, url, timestamp, timings, status
+     * code, redirects and certificate expiry
+     */
+    public MonitoredData share() {
+        return new MonitoredData(state);
+    }
     
     public byte[] getData() {
         return this.state.data;
@@ -104,6 +159,116 @@ public class MonitoredData implements AutoCloseable {
         return this.state.url;
     }
 
+    /**
+     * Record the timings of the request the data was received with
+     *
+     * @param timeToFirstByte nanoseconds from sending the request until the
+     * response headers were received, including connecting
+     * @param responseTime nanoseconds from sending the request until the
+     * response was read
+     */
+    public void recordTimings(final long timeToFirstByte, final long responseTime) {
+        this.state.timeToFirstByte = timeToFirstByte;
+        this.state.responseTime = responseTime;
+    }
+
+    /**
+     * @return nanoseconds until the response headers were received, or 0 when
+     * unknown
+     */
+    public long getTimeToFirstByteInNanos() {
+        return this.state.timeToFirstByte;
+    }
+
+    /**
+     * @return nanoseconds until the response was read, or 0 when unknown
+     */
+    public long getResponseTimeInNanos() {
+        return this.state.responseTime;
+    }
+
+    /**
+     * @param connectTime nanoseconds from opening the connection until it was
+     * established
+     */
+    public void recordConnectTime(final long connectTime) {
+        this.state.connectTime = connectTime;
+    }
+
+    /**
+     * @return nanoseconds until the connection was established, or 0 when not
+     * connected or unknown
+     */
+    public long getConnectTimeInNanos() {
+        return this.state.connectTime;
+    }
+
+    /**
+     * @param statusCode the HTTP status code of the response the data was
+     * received with
+     */
+    public void recordStatusCode(final int statusCode) {
+        this.state.statusCode = statusCode;
+    }
+
+    /**
+     * @return the HTTP status code of the response, or 0 when no response was
+     * received
+     */
+    public int getStatusCode() {
+        return this.state.statusCode;
+    }
+
+    /**
+     * Record the redirects followed before the response was received
+     *
+     * @param redirects the redirects followed, in order
+     * @param cachedRedirects the amount of permanent redirects skipped by
+     * going to the cached location right away
+     */
+    public void recordRedirects(final List<Redirect> redirects, final int cachedRedirects) {
+        this.state.redirects = List.copyOf(redirects);
+        this.state.cachedRedirects = cachedRedirects;
+    }
+
+    /**
+     * @return the redirects followed, empty when none were followed
+     */
+    public List<Redirect> getRedirects() {
+        return this.state.redirects;
+    }
+
+    /**
+     * @return the length of the redirect chain, including the permanent
+     * redirects skipped by going to the cached location right away
+     */
+    public int getRedirectCount() {
+        return this.state.cachedRedirects + this.state.redirects.size();
+    }
+
+    /**
+     * @param certificateExpiry the moment the first certificate of the chain
+     * presented with the response expires, null when not received over TLS
+     */
+    public void recordCertificateExpiry(final Instant certificateExpiry) {
+        this.state.certificateExpiry = certificateExpiry;
+    }
+
+    /**
+     * @return the moment the first certificate of the chain presented with the
+     * response expires, or null when not received over TLS
+     */
+    public Instant getCertificateExpiry() {
+        return this.state.certificateExpiry;
+    }
+
+    /**
+     * @return whether a response was received, with or without a body
+     */
+    public boolean hasResponded() {
+        return hasData() || this.state.statusCode > 0;
+    }
+
     public Instant getSince() {
         return this.state.timestamp;
     }
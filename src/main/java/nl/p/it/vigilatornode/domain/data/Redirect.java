@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.data;
+
+/**
+ * One hop of a redirect chain
+ *
+ * @param url the url that responded with the redirect
+ * @param statusCode the redirect status code, e.g. 301
+ * @param location the url redirected to
+ * @param timeInNanos nanoseconds from sending the request to the url until
+ * the redirect was received
+ * @author Patrick
+ */
+public record Redirect(String url, int statusCode, String location, long timeInNanos) {
+
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.events;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Switch for the flight recorder events of the node
+ * <p>
+ * Events are only created once recording has been enabled. Loading and
+ * registering an event class is costly, without this switch it would happen on
+ * the first request, validation or take, on the threads doing the monitoring.
+ * Enabling registers every event class on the calling thread instead, which is
+ * the startup thread configuring the flight recorder.
+ * </p>
+ *
+ * @see nl.p.it.vigilatornode.configuration.FlightRecorderConfig
+ * @author Patrick
+ */
+public final class Events {
+
+    private static volatile boolean enabled;
+
+    private Events() {
+    }
+
+    /**
+     * @return whether events should be created
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Register the event classes and start creating events, calling this more
+     * than once has no effect
+     */
+    public static synchronized void enable() {
+        if (!enabled) {
+            FlightRecorder.register(RequestEvent.class);
+            FlightRecorder.register(StatusRequestEvent.class);
+            FlightRecorder.register(TakeEvent.class);
+            FlightRecorder.register(ValidationEvent.class);
+            enabled = true;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event spanning an outgoing request, from sending the request
+ * until the response has been read
+ *
+ * @author Patrick
+ */
+@Name("nl.p.it.vigilatornode.Request")
+@Label("Outgoing request")
+@Description("Outgoing request, from sending until the response has been read")
+@Category({"Vigilator node", "Outgoing"})
+@StackTrace(false)
+public class RequestEvent extends jdk.jfr.Event {
+
+    @Label("URL")
+    private String url;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Outcome")
+    @Description("Either responded, empty, failed or interrupted")
+    private String outcome;
+
+    @Label("Bytes received")
+    @DataAmount
+    private long bytes;
+
+    @Label("Time to first byte")
+    @Timespan(Timespan.NANOSECONDS)
+    private long timeToFirstByte;
+
+    @Label("Redirects")
+    @Description("The length of the redirect chain, including cached permanent redirects")
+    private int redirects;
+
+    /**
+     * @param url the url the request was sent to
+     */
+    public void setUrl(final String url) {
+        this.url = url;
+    }
+
+    /**
+     * @param method the method of the request
+     */
+    public void setMethod(final String method) {
+        this.method = method;
+    }
+
+    /**
+     * @param outcome the outcome of the request
+     */
+    public void setOutcome(final String outcome) {
+        this.outcome = outcome;
+    }
+
+    /**
+     * @param bytes the amount of bytes received
+     */
+    public void setBytes(final long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @param timeToFirstByte nanoseconds until the response headers arrived
+     */
+    public void setTimeToFirstByte(final long timeToFirstByte) {
+        this.timeToFirstByte = timeToFirstByte;
+    }
+
+    /**
+     * @param redirects the length of the redirect chain
+     */
+    public void setRedirects(final int redirects) {
+        this.redirects = redirects;
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the handling of a request for the status of
+ * the resources
+ *
+ * @author Patrick
+ */
+@Name("nl.p.it.vigilatornode.StatusRequest")
+@Label("Status request")
+@Description("Handling of a request received on the /status endpoint")
+@Category({"Vigilator node", "Server"})
+@StackTrace(false)
+public class StatusRequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    private String method;
+
+    @Label("Path")
+    private String path;
+
+    @Label("Response code")
+    @Description("The response code sent, -1 when no response was sent")
+    private int responseCode;
+
+    /**
+     * @param method the method of the request
+     */
+    public void setMethod(final String method) {
+        this.method = method;
+    }
+
+    /**
+     * @param path the path of the request
+     */
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    /**
+     * @param responseCode the response code sent
+     */
+    public void setResponseCode(final int responseCode) {
+        this.responseCode = responseCode;
+    }
+}
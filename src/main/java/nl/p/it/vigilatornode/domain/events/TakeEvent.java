@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one take of a monitored resource, from
+ * starting the update until every reply of the take has been validated
+ * <p>
+ * The event is started on the monitor thread and committed on the thread
+ * validating the last reply.
+ * </p>
+ *
+ * @author Patrick
+ */
+@Name("nl.p.it.vigilatornode.Take")
+@Label("Take")
+@Description("Take of a monitored resource, from starting the update until the take completed")
+@Category({"Vigilator node", "Monitor"})
+@StackTrace(false)
+public class TakeEvent extends jdk.jfr.Event {
+
+    @Label("Resource")
+    private String resource;
+
+    @Label("Resource type")
+    private String resourceType;
+
+    @Label("Cycle")
+    @Description("The monitor cycle the take is part of, 0 when not part of a cycle")
+    private int cycle;
+
+    /**
+     * @param resource the name of the resource
+     */
+    public void setResource(final String resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * @param resourceType the type of the resource
+     */
+    public void setResourceType(final String resourceType) {
+        this.resourceType = resourceType;
+    }
+
+    /**
+     * @param cycle the monitor cycle the take is part of
+     */
+    public void setCycle(final int cycle) {
+        this.cycle = cycle;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the validation of a reply
+ *
+ * @author Patrick
+ */
+@Name("nl.p.it.vigilatornode.Validation")
+@Label("Validation")
+@Description("Validation of a monitor or web reply against the conditions of the resource")
+@Category({"Vigilator node", "Monitor"})
+@StackTrace(false)
+public class ValidationEvent extends jdk.jfr.Event {
+
+    @Label("Resource")
+    private String resource;
+
+    @Label("URL")
+    private String url;
+
+    @Label("Reply")
+    @Description("Either monitor or web")
+    private String reply;
+
+    @Label("Bytes validated")
+    @DataAmount
+    private long bytes;
+
+    @Label("Errors")
+    private int errors;
+
+    @Label("Warnings")
+    private int warnings;
+
+    /**
+     * @param resource the name of the resource
+     */
+    public void setResource(final String resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * @param url the url the reply was received from
+     */
+    public void setUrl(final String url) {
+        this.url = url;
+    }
+
+    /**
+     * @param reply the kind of reply
+     */
+    public void setReply(final String reply) {
+        this.reply = reply;
+    }
+
+    /**
+     * @param bytes the size of the reply
+     */
+    public void setBytes(final long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @param errors the amount of errors after validating
+     */
+    public void setErrors(final int errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * @param warnings the amount of warnings after validating
+     */
+    public void setWarnings(final int warnings) {
+        this.warnings = warnings;
+    }
+}
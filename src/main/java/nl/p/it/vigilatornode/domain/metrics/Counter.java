@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing counter
+ * <p>
+ * Backed by a LongAdder, increments from many threads are striped over cells
+ * instead of contending on a single value.
+ * </p>
+ *
+ * @author Patrick
+ */
+public class Counter implements Metric {
+
+    private final LongAdder value;
+
+    Counter() {
+        value = new LongAdder();
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * @param amount the amount to add, must not be negative
+     */
+    public void add(final long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * @return the current value of the counter
+     */
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    public void write(final StringBuilder out, final String name, final String labels) {
+        Metrics.sample(out, name, labels, value.sum());
+    }
+}
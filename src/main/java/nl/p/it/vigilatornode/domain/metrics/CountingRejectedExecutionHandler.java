@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Rejected execution handler counting the rejections before handing them to
+ * the original handler, for the CallerRunsPolicy this counts the tasks run by
+ * the submitting thread
+ *
+ * @author Patrick
+ */
+class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    private final RejectedExecutionHandler delegate;
+    private final Counter rejections;
+
+    CountingRejectedExecutionHandler(final RejectedExecutionHandler delegate, final Counter rejections) {
+        this.delegate = delegate;
+        this.rejections = rejections;
+    }
+
+    @Override
+    public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+        rejections.increment();
+        if (delegate != null) {
+            delegate.rejectedExecution(task, executor);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations having fixed buckets
+ * <p>
+ * Observing a duration increments the first bucket the duration fits in and
+ * adds the duration to the sum, both are LongAdders so observing never locks.
+ * The buckets are made cumulative when written, as Prometheus expects.
+ * </p>
+ *
+ * @author Patrick
+ */
+public class Histogram implements Metric {
+
+    private final double[] bounds;
+    private final long[] boundsInNanos;
+    private final LongAdder[] buckets;
+    private final LongAdder sumInNanos;
+
+    /**
+     * Buckets in seconds for the latency of requests and validations
+     */
+    public static final double[] LATENCY_BUCKETS = {
+        0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60
+    };
+    /**
+     * Buckets in seconds for the duration of monitor cycles
+     */
+    public static final double[] CYCLE_BUCKETS = {
+        0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300
+    };
+
+    private static final String BUCKET = "_bucket";
+    private static final String SUM = "_sum";
+    private static final String COUNT = "_count";
+    private static final String LE = "le=\"";
+    private static final String INFINITY = "+Inf";
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * @param bounds the upper bounds of the buckets in seconds, ascending
+     */
+    Histogram(final double[] bounds) {
+        this.bounds = bounds.clone();
+        this.boundsInNanos = new long[bounds.length];
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < bounds.length; i++) {
+            boundsInNanos[i] = (long) (bounds[i] * NANOS_PER_SECOND);
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.sumInNanos = new LongAdder();
+    }
+
+    /**
+     * @param nanos the observed duration in nanoseconds
+     */
+    public void observeNanos(final long nanos) {
+        int bucket = 0;
+        while (bucket < boundsInNanos.length && nanos > boundsInNanos[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumInNanos.add(nanos);
+    }
+
+    /**
+     * Observe the time elapsed since the start
+     *
+     * @param startNanos the start as returned by System.nanoTime()
+     */
+    public void observeSince(final long startNanos) {
+        observeNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return the amount of observations
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+
+        return count;
+    }
+
+    @Override
+    public void write(final StringBuilder out, final String name, final String labels) {
+        String separator = labels.isEmpty() ? "" : ",";
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            String bound = (i < bounds.length ? Metrics.format(bounds[i]) : INFINITY);
+            Metrics.sample(out, name + BUCKET, labels + separator + LE + bound + '"', cumulative);
+        }
+        out.append(name).append(SUM);
+        Metrics.labels(out, labels);
+        out.append(' ').append(Metrics.format(sumInNanos.sum() / NANOS_PER_SECOND)).append('\n');
+        Metrics.sample(out, name + COUNT, labels, cumulative);
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram of fixed size for estimating percentiles
+ * <p>
+ * Latencies are counted in exponential buckets, four per power of two
+ * milliseconds, from 1 ms up to 2^18 ms (about 4 minutes). A percentile is
+ * reported as the upper bound of its bucket, overestimating the latency by at
+ * most 19%. The memory used is the same regardless of the amount of recorded
+ * latencies and recording never locks.
+ * </p>
+ *
+ * @author Patrick
+ */
+public class LatencyHistogram {
+
+    private final AtomicLongArray buckets;
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int MAX_EXPONENT = 18;
+    private static final int BUCKETS = MAX_EXPONENT * SUB_BUCKETS + 1;
+    private static final double LN_2 = Math.log(2);
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public LatencyHistogram() {
+        buckets = new AtomicLongArray(BUCKETS);
+    }
+
+    /**
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(final long nanos) {
+        buckets.incrementAndGet(index(nanos / NANOS_PER_MILLI));
+    }
+
+    /**
+     * @return the amount of recorded latencies
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+
+        return count;
+    }
+
+    /**
+     * @param percentile the percentile between 0 and 100
+     * @return the latency at the percentile in milliseconds, or 0 when no
+     * latencies have been recorded
+     */
+    public long percentile(final double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += buckets.get(i);
+            if (cumulative >= rank) {
+                return upperBound(i);
+            }
+        }
+
+        return upperBound(BUCKETS - 1);
+    }
+
+    private int index(final double millis) {
+        if (millis <= 1) {
+            return 0;
+        }
+
+        return Math.min(BUCKETS - 1, (int) Math.ceil(Math.log(millis) / LN_2 * SUB_BUCKETS));
+    }
+
+    private long upperBound(final int index) {
+        return Math.round(Math.pow(2, (double) index / SUB_BUCKETS));
+    }
+}
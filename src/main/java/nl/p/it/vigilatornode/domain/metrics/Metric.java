@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+/**
+ * A single metric of a metric family, identified by its labels
+ *
+ * @author Patrick
+ */
+interface Metric {
+
+    /**
+     * Write the samples of this metric in Prometheus text format
+     *
+     * @param out the output to append to
+     * @param name the name of the metric family
+     * @param labels the formatted labels of this metric, without braces, or
+     * empty
+     */
+    void write(final StringBuilder out, final String name, final String labels);
+}
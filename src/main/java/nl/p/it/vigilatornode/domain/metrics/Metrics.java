@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the metrics of the node, written in Prometheus text format
+ * <p>
+ * Registering a metric is done once, preferably in a static field of the class
+ * recording it. Recording is lock-free, counters and histograms are backed by
+ * LongAdders. Registering an existing metric returns the registered one, so
+ * classes with multiple instances share their metrics.
+ * </p>
+ *
+ * @author Patrick
+ */
+public class Metrics {
+
+    private final Map<String, Family> families;
+
+    private static Metrics instance;
+
+    private static final String HELP = "# HELP ";
+    private static final String TYPE = "# TYPE ";
+    private static final String EXECUTOR_LABEL = "pool";
+
+    private Metrics() {
+        families = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Returns an `singleton` instance of the metrics
+     *
+     * @return the metrics
+     */
+    public static synchronized Metrics getInstance() {
+        if (instance == null) {
+            instance = new Metrics();
+        }
+
+        return instance;
+    }
+
+    /**
+     * @param name the name of the counter, ending with _total
+     * @param help the description of the counter
+     * @param labels label names and values, alternating
+     * @return the registered counter
+     */
+    public Counter counter(final String name, final String help, final String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).metrics
+                .computeIfAbsent(formatLabels(labels), key -> new Counter());
+    }
+
+    /**
+     * @param name the name of the counter, ending with _total
+     * @param help the description of the counter
+     * @param supplier the supplier of the value of the counter
+     * @param labels label names and values, alternating
+     */
+    public void counter(final String name, final String help, final LongSupplier supplier, final String... labels) {
+        family(name, help, Type.COUNTER).metrics.put(formatLabels(labels), new SuppliedMetric(supplier));
+    }
+
+    /**
+     * @param name the name of the gauge
+     * @param help the description of the gauge
+     * @param supplier the supplier of the value of the gauge
+     * @param labels label names and values, alternating
+     */
+    public void gauge(final String name, final String help, final LongSupplier supplier, final String... labels) {
+        family(name, help, Type.GAUGE).metrics.put(formatLabels(labels), new SuppliedMetric(supplier));
+    }
+
+    /**
+     * @param name the name of the histogram, ending with the unit (_seconds)
+     * @param help the description of the histogram
+     * @param bounds the upper bounds of the buckets in seconds
+     * @param labels label names and values, alternating
+     * @return the registered histogram
+     */
+    public Histogram histogram(final String name, final String help, final double[] bounds, final String... labels) {
+        return (Histogram) family(name, help, Type.HISTOGRAM).metrics
+                .computeIfAbsent(formatLabels(labels), key -> new Histogram(bounds));
+    }
+
+    /**
+     * Expose the state of the executor as metrics and count the tasks rejected
+     * by the executor. Registering a new executor with the same name replaces
+     * the previous one
+     *
+     * @param pool the name of the executor
+     * @param executor the executor
+     */
+    public void register(final String pool, final ThreadPoolExecutor executor) {
+        gauge("vigilator_executor_active_threads", "Threads actively executing tasks",
+                executor::getActiveCount, EXECUTOR_LABEL, pool);
+        gauge("vigilator_executor_pool_threads", "Threads in the pool",
+                executor::getPoolSize, EXECUTOR_LABEL, pool);
+        gauge("vigilator_executor_queued_tasks", "Tasks waiting in the queue", () -> {
+            BlockingQueue<Runnable> queue = executor.getQueue();
+            return (queue != null ? queue.size() : 0);
+        }, EXECUTOR_LABEL, pool);
+        counter("vigilator_executor_completed_tasks_total", "Tasks completed by the pool",
+                executor::getCompletedTaskCount, EXECUTOR_LABEL, pool);
+
+        Counter rejected = counter("vigilator_executor_rejected_tasks_total",
+                "Tasks rejected by the pool, with CallerRunsPolicy these are run by the submitting thread",
+                EXECUTOR_LABEL, pool);
+        if (!(executor.getRejectedExecutionHandler() instanceof CountingRejectedExecutionHandler)) {
+            executor.setRejectedExecutionHandler(
+                    new CountingRejectedExecutionHandler(executor.getRejectedExecutionHandler(), rejected));
+        }
+    }
+
+    /**
+     * @return all metrics in Prometheus text format (version 0.0.4)
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            Family family = entry.getValue();
+            out.append(HELP).append(entry.getKey()).append(' ').append(family.help).append('\n');
+            out.append(TYPE).append(entry.getKey()).append(' ').append(family.type.text).append('\n');
+            for (Map.Entry<String, Metric> metric : family.metrics.entrySet()) {
+                metric.getValue().write(out, entry.getKey(), metric.getKey());
+            }
+        }
+
+        return out.toString();
+    }
+
+    static void sample(final StringBuilder out, final String name, final String labels, final long value) {
+        out.append(name);
+        labels(out, labels);
+        out.append(' ').append(value).append('\n');
+    }
+
+    static void labels(final StringBuilder out, final String labels) {
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+    }
+
+    static String format(final double value) {
+        return (value == Math.rint(value) && !Double.isInfinite(value))
+                ? Long.toString((long) value)
+                : Double.toString(value);
+    }
+
+    private Family family(final String name, final String help, final Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + family.type.text);
+        }
+
+        return family;
+    }
+
+    private String formatLabels(final String... labels) {
+        if (labels == null || labels.length == 0) {
+            return "";
+        }
+
+        StringBuilder formatted = new StringBuilder();
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            if (i > 0) {
+                formatted.append(',');
+            }
+            formatted.append(labels[i]).append("=\"");
+            String value = labels[i + 1] == null ? "" : labels[i + 1];
+            for (int c = 0; c < value.length(); c++) {
+                char character = value.charAt(c);
+                switch (character) {
+                    case '\\' ->
+                        formatted.append("\\\\");
+                    case '"' ->
+                        formatted.append("\\\"");
+                    case '\n' ->
+                        formatted.append("\\n");
+                    default ->
+                        formatted.append(character);
+                }
+            }
+            formatted.append('"');
+        }
+
+        return formatted.toString();
+    }
+
+    private enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        HISTOGRAM("histogram");
+
+        private final String text;
+
+        Type(final String text) {
+            this.text = text;
+        }
+    }
+
+    private static class Family {
+
+        private final String help;
+        private final Type type;
+        private final Map<String, Metric> metrics;
+
+        Family(final String help, final Type type) {
+            this.help = help;
+            this.type = type;
+            this.metrics = new ConcurrentSkipListMap<>();
+        }
+    }
+}
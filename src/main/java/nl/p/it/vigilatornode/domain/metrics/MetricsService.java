@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import nl.p.it.vigilatornode.domain.Service;
+
+/**
+ * Service for exposing the metrics of the node in Prometheus text format
+ *
+ * @author Patrick
+ */
+public class MetricsService implements Service {
+
+    private final Metrics metrics;
+
+    private static final String KEY_CONTENT_TYPE = "Content-Type";
+    private static final String CONTENT_TYPE_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    public MetricsService() {
+        metrics = Metrics.getInstance();
+    }
+
+    @Override
+    public void processRequest(
+            final byte[] bytes,
+            final Map<String, String> params,
+            final HttpExchange exchange) throws IOException {
+        byte[] result = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set(KEY_CONTENT_TYPE, CONTENT_TYPE_PROMETHEUS);
+        exchange.sendResponseHeaders(200, result.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(result);
+            os.flush();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Metric reading its value when written, for values already kept elsewhere
+ * like the size of a queue
+ *
+ * @author Patrick
+ */
+class SuppliedMetric implements Metric {
+
+    private final LongSupplier supplier;
+
+    SuppliedMetric(final LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public void write(final StringBuilder out, final String name, final String labels) {
+        Metrics.sample(out, name, labels, supplier.getAsLong());
+    }
+}
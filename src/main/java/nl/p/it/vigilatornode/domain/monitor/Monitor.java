@@ -15,12 +15,18 @@
  */
 package nl.p.it.vigilatornode.domain.monitor;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ThreadPoolExecutor;
 import nl.p.it.vigilatornode.configuration.NodeConfig;
+import nl.p.it.vigilatornode.domain.metrics.Counter;
+import nl.p.it.vigilatornode.domain.metrics.Histogram;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
 import nl.p.it.vigilatornode.domain.out.OutgoingClient;
+import nl.p.it.vigilatornode.domain.out.TcpProber;
 import nl.p.it.vigilatornode.domain.resources.ExposedResource;
 import nl.p.it.vigilatornode.domain.resources.MonitoredResource;
+import nl.p.it.vigilatornode.domain.resources.TcpResource;
 import nl.p.it.vigilatornode.exception.CustomException;
 import nl.p.it.vigilatornode.exception.MonitorException;
 import static java.lang.System.Logger.Level.ERROR;
@@ -35,12 +41,21 @@ import java.util.ArrayList;
 public class Monitor {
 
     private boolean prepared;
+    private int cycles;
     private OutgoingClient outgoing;
+    private Notifier firstCycleListener;
+    private Acceptor<Long> cycleListener;
 
+    private final MonitorClock clock;
     private final ThreadPoolExecutor executor;
     private final int defaultUpdateFrequency;
     private final List<MonitoredResource> resources;
 
+    private static final String EXECUTOR_NAME = "monitor";
+    private static final Counter CYCLES = Metrics.getInstance().counter("vigilator_monitor_cycles_total",
+            "Completed monitor cycles");
+    private static final Histogram CYCLE_DURATION = Metrics.getInstance().histogram("vigilator_monitor_cycle_duration_seconds",
+            "Time from starting a monitor cycle until every resource completed its take", Histogram.CYCLE_BUCKETS);
     private static final System.Logger LOGGER = System.getLogger(Monitor.class.getName());
 
     Monitor(final List<MonitoredResource> resources, final NodeConfig config) throws MonitorException {
@@ -48,7 +63,11 @@ public class Monitor {
             throw new MonitorException(CustomException.CONFIG_REQUIRED);
         }
 
+        this.clock = (config.getClock() != null ? config.getClock() : MonitorClock.system());
         this.executor = config.getSingleThreadExecutor();
+        if (executor != null) {
+            Metrics.getInstance().register(EXECUTOR_NAME, executor);
+        }
         this.defaultUpdateFrequency = config.getDefaultUpdateFrequency();
         this.resources = (resources != null ? resources : new ArrayList<>());
         prepared = false;
@@ -68,6 +87,26 @@ public class Monitor {
         this.outgoing = outgoing;
     }
 
+    /**
+     * Register a listener to notify once the first cycle of the monitor
+     * completed, meaning every active resource completed its first take
+     *
+     * @param listener the listener to notify
+     */
+    public void onFirstCycleCompleted(final Notifier listener) {
+        this.firstCycleListener = listener;
+    }
+
+    /**
+     * Register a listener to call every time a cycle of the monitor completed,
+     * receiving the duration of the cycle in milliseconds
+     *
+     * @param listener the listener to call
+     */
+    public void onCycleCompleted(final Acceptor<Long> listener) {
+        this.cycleListener = listener;
+    }
+
     /**
      * Start monitoring the resources known to this monitor
      *
@@ -86,7 +125,8 @@ public class Monitor {
             prepare();
         }
 
-        executor.submit(new MonitorTask(resources, monitorTaskFinished()));
+        MonitorCycle cycle = new MonitorCycle(++cycles, cycleCompleted(), clock);
+        executor.submit(new MonitorTask(resources, cycle, monitorTaskFinished()));
     }
 
     /**
@@ -111,6 +151,20 @@ public class Monitor {
         return resources;
     }
 
+    private Acceptor<MonitorCycle> cycleCompleted() {
+        return (final MonitorCycle cycle) -> {
+            CYCLES.increment();
+            CYCLE_DURATION.observeNanos(cycle.getDurationInNanos());
+            LOGGER.log(INFO, "Monitor cycle {0} completed in {1} ms", cycle.getNumber(), cycle.getDurationInMillis());
+            if (cycle.getNumber() == 1 && firstCycleListener != null) {
+                firstCycleListener.doNotify();
+            }
+            if (cycleListener != null) {
+                cycleListener.accept(cycle.getDurationInMillis());
+            }
+        };
+    }
+
     private Notifier monitorTaskFinished() {
         return () -> timeout();
     }
@@ -118,7 +172,7 @@ public class Monitor {
     private void timeout() {
         LOGGER.log(INFO, "Waiting before next update");
 
-        executor.submit(new WaitTask(defaultUpdateFrequency, timeoutFinished()));
+        executor.submit(new WaitTask(defaultUpdateFrequency, timeoutFinished(), clock));
     }
 
     private Notifier timeoutFinished() {
@@ -133,6 +187,7 @@ public class Monitor {
 
     private void prepare() throws MonitorException {
         for (MonitoredResource resource : resources) {
+            resource.useClock(clock);
             switch (resource) {
                 case ExposedResource exposed -> {
                     if (outgoing == null) {
@@ -140,6 +195,14 @@ public class Monitor {
                     }
                     exposed.connect(outgoing);
                 }
+                case TcpResource tcp -> {
+                    try {
+                        tcp.connect(TcpProber.getInstance());
+                    } catch (IOException ex) {
+                        LOGGER.log(ERROR, "Not able to start the tcp prober: {0}", ex);
+                        throw new MonitorException(CustomException.TCP_PROBER_UNAVAILABLE);
+                    }
+                }
                 default -> {
                     // no preparation required
                 }
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.monitor;
+
+import java.time.Instant;
+
+/**
+ * Clock the monitor reads the time from and waits with
+ * <p>
+ * Monitoring normally runs on the system clock. A simulated clock lets the
+ * scheduler run days of monitoring within seconds and makes the timestamps
+ * and ages seen by the validators deterministic.
+ * </p>
+ *
+ * @see SimulatedClock
+ * @author Patrick
+ */
+public interface MonitorClock {
+
+    /**
+     * @return the current instant
+     */
+    Instant now();
+
+    /**
+     * @return the current value of the monotonic time source in nanoseconds,
+     * only meaningful to measure elapsed time
+     */
+    long nanoTime();
+
+    /**
+     * Wait the given amount of milliseconds
+     *
+     * @param millis the milliseconds to wait
+     * @throws InterruptedException when interrupted while waiting
+     */
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * @return the clock of the system
+     */
+    static MonitorClock system() {
+        return SystemClock.INSTANCE;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.monitor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One cycle of the monitor, taking one take of every active resource
+ * <p>
+ * The cycle is completed when every resource updated in the cycle completed its
+ * take, meaning all replies for the take have been received and validated. The
+ * cycle starts with one pending entry for scheduling the resources, this
+ * prevents the cycle from completing while resources are still being
+ * scheduled.
+ * </p>
+ *
+ * @author Patrick
+ */
+class MonitorCycle {
+
+    private final int number;
+    private final long started;
+    private final AtomicInteger pending;
+    private final Acceptor<MonitorCycle> completed;
+    private final MonitorClock clock;
+    private volatile long duration;
+
+    MonitorCycle(final int number, final Acceptor<MonitorCycle> completed) {
+        this(number, completed, MonitorClock.system());
+    }
+
+    MonitorCycle(final int number, final Acceptor<MonitorCycle> completed, final MonitorClock clock) {
+        this.number = number;
+        this.completed = completed;
+        this.clock = clock;
+        this.started = clock.nanoTime();
+        this.pending = new AtomicInteger(1);
+    }
+
+    /**
+     * Register a resource that is updated in this cycle
+     *
+     * @return the notifier for the resource to call when its take completed
+     */
+    Notifier resourceStarted() {
+        pending.incrementAndGet();
+        return this::release;
+    }
+
+    /**
+     * Indicate all resources of the cycle have been scheduled
+     */
+    void scheduled() {
+        release();
+    }
+
+    /**
+     * @return the number of this cycle, starting at 1
+     */
+    int getNumber() {
+        return number;
+    }
+
+    /**
+     * @return the duration of the cycle in nanoseconds, 0 while running
+     */
+    long getDurationInNanos() {
+        return duration;
+    }
+
+    /**
+     * @return the duration of the cycle in milliseconds, 0 while running
+     */
+    long getDurationInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(duration);
+    }
+
+    private void release() {
+        if (pending.decrementAndGet() == 0) {
+            duration = clock.nanoTime() - started;
+            if (completed != null) {
+                completed.accept(this);
+            }
+        }
+    }
+}
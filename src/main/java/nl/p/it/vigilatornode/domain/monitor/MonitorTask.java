@@ -18,6 +18,8 @@ package nl.p.it.vigilatornode.domain.monitor;
 import static java.lang.System.Logger.Level.ERROR;
 import java.util.List;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.events.Events;
+import nl.p.it.vigilatornode.domain.events.TakeEvent;
 import nl.p.it.vigilatornode.domain.resources.MonitoredResource;
 
 /**
@@ -29,11 +31,17 @@ public class MonitorTask implements Runnable {
 
     private final List<MonitoredResource> resources;
     private final Notifier notifier;
+    private final MonitorCycle cycle;
 
     private static final System.Logger LOGGER = System.getLogger(MonitorTask.class.getName());
 
     public MonitorTask(final List<MonitoredResource> resources, final Notifier notifier) {
+        this(resources, null, notifier);
+    }
+
+    MonitorTask(final List<MonitoredResource> resources, final MonitorCycle cycle, final Notifier notifier) {
         this.resources = resources;
+        this.cycle = cycle;
         this.notifier = notifier;
     }
 
@@ -43,7 +51,7 @@ public class MonitorTask implements Runnable {
             if (resources != null) {
                 for (MonitoredResource resource : resources) {
                     if (resource.getConfig().isActive()) {
-                        resource.updateStatus();
+                        resource.updateStatus(recordTake(resource, cycle != null ? cycle.resourceStarted() : null));
                     } else {
                         // only updating resources that are activated to monitor
                     }
@@ -55,6 +63,42 @@ public class MonitorTask implements Runnable {
             }
         } catch (Exception ex) {
             LOGGER.log(ERROR, "Exception in monitor task: {0}", ex);
+        } finally {
+            if (cycle != null) {
+                cycle.scheduled();
+            }
+        }
+    }
+
+    /**
+     * Start a take event for the resource, committed when the take completed
+     *
+     * @param resource the resource to take
+     * @param completed the notifier for the resource to call when its take
+     * completed, or null
+     * @return the notifier committing the event before notifying completed
+     */
+    private Notifier recordTake(final MonitoredResource resource, final Notifier completed) {
+        if (!Events.isEnabled()) {
+            return completed;
+        }
+        TakeEvent event = new TakeEvent();
+        if (!event.isEnabled()) {
+            return completed;
         }
+
+        event.begin();
+        return () -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setResource(resource.getName());
+                event.setResourceType(resource.getClass().getSimpleName());
+                event.setCycle(cycle != null ? cycle.getNumber() : 0);
+                event.commit();
+            }
+            if (completed != null) {
+                completed.doNotify();
+            }
+        };
     }
 }
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.monitor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock whose time only moves when advanced
+ * <p>
+ * Sleeping advances the clock by the time slept and returns immediately. Since
+ * the monitor waits on its single thread between cycles, this skips the idle
+ * time between cycles while keeping the order and the timestamps of the takes
+ * as they would be on the system clock. Run the monitor on the executor of the
+ * clock to drive it from the calling thread.
+ * </p>
+ *
+ * @see SimulatedExecutor
+ * @author Patrick
+ */
+public class SimulatedClock implements MonitorClock {
+
+    private final Instant start;
+    private final AtomicLong elapsed;
+    private SimulatedExecutor executor;
+
+    /**
+     * @param start the instant the clock starts at
+     */
+    public SimulatedClock(final Instant start) {
+        this.start = start;
+        this.elapsed = new AtomicLong();
+    }
+
+    @Override
+    public Instant now() {
+        return start.plusNanos(elapsed.get());
+    }
+
+    @Override
+    public long nanoTime() {
+        return elapsed.get();
+    }
+
+    @Override
+    public void sleep(final long millis) {
+        if (millis > 0) {
+            elapsed.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    /**
+     * Move the clock forward
+     *
+     * @param duration the duration to move the clock forward with, negative
+     * durations are ignored
+     */
+    public void advance(final Duration duration) {
+        if (!duration.isNegative()) {
+            elapsed.addAndGet(duration.toNanos());
+        }
+    }
+
+    /**
+     * @return the time elapsed since the start of the clock
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsed.get());
+    }
+
+    /**
+     * @return the executor running tasks on this clock, the same executor on
+     * every call
+     */
+    public synchronized SimulatedExecutor getExecutor() {
+        if (executor == null) {
+            executor = new SimulatedExecutor(this);
+        }
+
+        return executor;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.monitor;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single thread executor driven by the caller on a simulated clock
+ * <p>
+ * Submitted tasks are queued and only run by runUntil, in submission order on
+ * the calling thread. This keeps the guarantee of the single thread executor
+ * of the monitor, tasks execute sequentially and never at the same time, while
+ * the run is deterministic and needs no worker thread. A wait task sleeping on
+ * the simulated clock moves the clock forward, so the executor runs cycle after
+ * cycle until the clock passes the deadline.
+ * </p>
+ *
+ * @see SimulatedClock
+ * @author Patrick
+ */
+public class SimulatedExecutor extends ThreadPoolExecutor {
+
+    private final SimulatedClock clock;
+    private final Queue<Runnable> tasks;
+    private long completed;
+
+    SimulatedExecutor(final SimulatedClock clock) {
+        super(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        this.clock = clock;
+        this.tasks = new ArrayDeque<>();
+    }
+
+    @Override
+    public synchronized void execute(final Runnable command) {
+        if (isShutdown()) {
+            getRejectedExecutionHandler().rejectedExecution(command, this);
+        } else {
+            tasks.add(command);
+        }
+    }
+
+    /**
+     * Run the queued tasks, including the tasks they submit, until no task is
+     * left, the executor is shut down or the clock reached the deadline
+     *
+     * @param deadline the instant to stop running tasks at
+     * @return the amount of tasks run
+     */
+    public long runUntil(final Instant deadline) {
+        long ran = 0;
+        Runnable task;
+        while (!isShutdown() && clock.now().isBefore(deadline) && (task = next()) != null) {
+            task.run();
+            ran++;
+        }
+        synchronized (this) {
+            completed += ran;
+        }
+
+        return ran;
+    }
+
+    /**
+     * @return the amount of tasks waiting to run
+     */
+    public synchronized int getQueuedTasks() {
+        return tasks.size();
+    }
+
+    @Override
+    public synchronized long getCompletedTaskCount() {
+        return completed;
+    }
+
+    @Override
+    public synchronized List<Runnable> shutdownNow() {
+        List<Runnable> remaining = List.copyOf(tasks);
+        tasks.clear();
+        super.shutdownNow();
+
+        return remaining;
+    }
+
+    private synchronized Runnable next() {
+        return tasks.poll();
+    }
+}
@@ -26,18 +26,29 @@ public class WaitTask implements Runnable {
 
     private final int millisToWait;
     private final Notifier notifier;
+    private final MonitorClock clock;
 
     private static final System.Logger LOGGER = System.getLogger(WaitTask.class.getName());
 
     public WaitTask(final int millisToWait, final Notifier notifier) {
+        this(millisToWait, notifier, MonitorClock.system());
+    }
+
+    /**
+     * @param millisToWait the milliseconds to wait
+     * @param notifier the notifier to notify when the wait completed, or null
+     * @param clock the clock to wait on
+     */
+    public WaitTask(final int millisToWait, final Notifier notifier, final MonitorClock clock) {
         this.millisToWait = millisToWait;
         this.notifier = notifier;
+        this.clock = clock;
     }
 
     @Override
     public void run() {
         try {
-            Thread.sleep(millisToWait);
+            clock.sleep(millisToWait);
 
             if (notifier != null) {
                 notifier.doNotify();
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead limiting the concurrent outgoing requests per host and in total
+ * <p>
+ * Every host (authority of the url) runs at most {maxPerHost} requests at the
+ * same time and queues at most {maxQueuedPerHost} requests in its own queue.
+ * Requests for a host over its limit are rejected right away, instead of
+ * waiting in the queue of the executor. The total amount of admitted requests,
+ * running and queued, is limited to {maxTotal}. This way an unresponsive host
+ * only takes its own slots and never starves requests to the other hosts.
+ * </p>
+ * <p>
+ * A limit of 0 or less on the running requests means no limit, a queue limit
+ * of 0 or less means requests are not queued. A task the executor rejects
+ * releases its slot, a queued task rejected by the executor once its turn
+ * comes is handed to its rejection handler.
+ * </p>
+ *
+ * @author Patrick
+ */
+class Bulkhead {
+
+    private final int maxPerHost;
+    private final int maxQueuedPerHost;
+    private final int maxTotal;
+    private final ExecutorService executor;
+    private final AtomicInteger admitted;
+    private final Map<String, Host> hosts;
+
+    Bulkhead(final int maxPerHost, final int maxQueuedPerHost, final int maxTotal, final ExecutorService executor) {
+        this.maxPerHost = maxPerHost;
+        this.maxQueuedPerHost = maxQueuedPerHost;
+        this.maxTotal = maxTotal;
+        this.executor = executor;
+        this.admitted = new AtomicInteger();
+        this.hosts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Submit the task to the executor when the host and total limits allow it
+     *
+     * @param host the host the task sends a request to
+     * @param task the task to run
+     * @param rejected the handler to run when the task was queued and the
+     * executor rejects it once a slot of the host is free
+     * @return false when the task was rejected because a limit is reached or
+     * the executor rejects it
+     */
+    boolean submit(final String host, final Runnable task, final Runnable rejected) {
+        if (admitted.incrementAndGet() > maxTotal && maxTotal > 0) {
+            admitted.decrementAndGet();
+            return false;
+        }
+
+        Host bulkhead = hosts.computeIfAbsent(host != null ? host : "", key -> new Host());
+        Runnable guarded = () -> {
+            try {
+                task.run();
+            } finally {
+                admitted.decrementAndGet();
+                runNext(bulkhead);
+            }
+        };
+
+        switch (bulkhead.acquire(new Queued(guarded, rejected))) {
+            case RUN -> {
+                try {
+                    executor.submit(guarded);
+                    return true;
+                } catch (RejectedExecutionException ex) {
+                    admitted.decrementAndGet();
+                    runNext(bulkhead);
+                    return false;
+                }
+            }
+            case QUEUED -> {
+                return true;
+            }
+            default -> {
+                admitted.decrementAndGet();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Hand the released slot of the host to the next queued task, a task the
+     * executor rejects releases the slot again and is handed to its rejection
+     * handler
+     */
+    private void runNext(final Host bulkhead) {
+        Queued next;
+        while ((next = bulkhead.release()) != null) {
+            try {
+                executor.submit(next.task());
+                return;
+            } catch (RejectedExecutionException ex) {
+                admitted.decrementAndGet();
+                next.rejected().run();
+            }
+        }
+    }
+
+    /**
+     * @return the amount of requests running or queued, over all hosts
+     */
+    int getAdmitted() {
+        return admitted.get();
+    }
+
+    private enum Admission {
+        RUN, QUEUED, REJECTED
+    }
+
+    /**
+     * A task waiting for a slot of its host
+     */
+    private record Queued(Runnable task, Runnable rejected) {
+
+    }
+
+    /**
+     * The slots and queue of one host, guarded by its own lock so hosts do not
+     * contend with each other
+     */
+    private class Host {
+
+        private int running;
+        private final Deque<Queued> queued = new ArrayDeque<>();
+
+        synchronized Admission acquire(final Queued task) {
+            if (maxPerHost <= 0 || running < maxPerHost) {
+                running++;
+                return Admission.RUN;
+            } else if (queued.size() < maxQueuedPerHost) {
+                queued.addLast(task);
+                return Admission.QUEUED;
+            }
+
+            return Admission.REJECTED;
+        }
+
+        /**
+         * @return the next queued task to run in the released slot, or null
+         * when nothing is queued
+         */
+        synchronized Queued release() {
+            Queued next = queued.pollFirst();
+            if (next == null) {
+                running--;
+            }
+
+            return next;
+        }
+    }
+}
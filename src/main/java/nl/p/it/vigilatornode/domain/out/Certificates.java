@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.net.URI;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
+import static java.lang.System.Logger.Level.DEBUG;
+
+/**
+ * Certificates of the hosts requests are sent to
+ * <p>
+ * The certificates are read from the TLS session of responses to requests
+ * the node sends anyway, so watching the expiry of certificates takes no
+ * additional connections or handshakes. The expiry of the chain of every host
+ * is cached per TLS session, the chain is only read again when a new session
+ * is established.
+ * </p>
+ *
+ * @author Patrick
+ */
+class Certificates {
+
+    private static final Map<String, Chain> HOSTS = new ConcurrentHashMap<>();
+    private static final char PORT_DIVIDER = ':';
+    private static final String HTTPS = "https";
+    private static final int HTTPS_PORT = 443;
+    private static final System.Logger LOGGER = System.getLogger(Certificates.class.getName());
+
+    private Certificates() {
+    }
+
+    /**
+     * @param uri the uri the response was received from
+     * @param session the TLS session of the response, if any
+     * @return the moment the first certificate of the chain of the host
+     * expires, or null when the response was not received over TLS
+     */
+    static Instant expiry(final URI uri, final Optional<SSLSession> session) {
+        if (uri == null || session == null || session.isEmpty()) {
+            return null;
+        }
+
+        String host = uri.getHost() + PORT_DIVIDER + (uri.getPort() != -1
+                ? uri.getPort()
+                : (HTTPS.equalsIgnoreCase(uri.getScheme()) ? HTTPS_PORT : -1));
+        byte[] sessionId = session.get().getId();
+        Chain cached = HOSTS.get(host);
+        if (cached != null && sessionId != null && sessionId.length > 0 && Arrays.equals(cached.sessionId(), sessionId)) {
+            return cached.expiry();
+        }
+
+        Instant expiry = readExpiry(session.get());
+        if (expiry != null && HOSTS.put(host, new Chain(sessionId, expiry)) == null) {
+            Metrics.getInstance().gauge("vigilator_outgoing_certificate_expiry_seconds",
+                    "Seconds until the first certificate of the chain of the host expires",
+                    () -> Duration.between(Instant.now(), HOSTS.get(host).expiry()).getSeconds(), "host", host);
+        }
+
+        return expiry;
+    }
+
+    private static Instant readExpiry(final SSLSession session) {
+        try {
+            Instant expiry = null;
+            for (Certificate certificate : session.getPeerCertificates()) {
+                if (certificate instanceof X509Certificate x509) {
+                    Instant notAfter = x509.getNotAfter().toInstant();
+                    expiry = (expiry == null || notAfter.isBefore(expiry) ? notAfter : expiry);
+                }
+            }
+
+            return expiry;
+        } catch (SSLPeerUnverifiedException ex) {
+            LOGGER.log(DEBUG, "No certificates presented in session with {0}", session.getPeerHost());
+            return null;
+        }
+    }
+
+    private record Chain(byte[] sessionId, Instant expiry) {
+
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker per url of the outgoing requests
+ * <p>
+ * A circuit is closed as long as requests to the url succeed. After
+ * {failureThreshold} consecutive failures the circuit opens and requests to
+ * the url are not sent, they fail right away instead of each waiting for the
+ * timeouts of an unreachable endpoint. After the backoff passed, the circuit
+ * is half open and one trial request is sent. When the trial succeeds the
+ * circuit closes, when it fails the circuit opens again with the backoff
+ * doubled, up to {maxBackoff}. Half of every backoff is random jitter, so the
+ * trials of endpoints that failed together are spread out.
+ * </p>
+ * <p>
+ * A failure threshold of 0 or less disables the circuit breaker.
+ * </p>
+ *
+ * @author Patrick
+ */
+class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final Map<String, Circuit> circuits;
+
+    /**
+     * @param failureThreshold the amount of consecutive failures opening the
+     * circuit
+     * @param initialBackoff the milliseconds to wait before the first trial
+     * @param maxBackoff the maximum milliseconds to wait before a trial
+     */
+    CircuitBreaker(final int failureThreshold, final long initialBackoff, final long maxBackoff) {
+        this.failureThreshold = failureThreshold;
+        this.initialBackoff = TimeUnit.MILLISECONDS.toNanos(Math.max(initialBackoff, 1));
+        this.maxBackoff = TimeUnit.MILLISECONDS.toNanos(Math.max(maxBackoff, initialBackoff));
+        this.circuits = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Determine whether a request to the url is allowed, when the circuit is
+     * half open only the first caller is allowed to send the trial
+     *
+     * @param url the url to send the request to
+     * @return the milliseconds until the next trial when the request is not
+     * allowed, or 0 when the request is allowed
+     */
+    long acquire(final String url) {
+        if (failureThreshold <= 0) {
+            return 0;
+        }
+
+        return circuits.computeIfAbsent(url, key -> new Circuit()).acquire(System.nanoTime());
+    }
+
+    /**
+     * Record the result of a request that was allowed
+     *
+     * @param url the url the request was sent to
+     * @param success whether the request succeeded
+     */
+    void record(final String url, final boolean success) {
+        if (failureThreshold <= 0) {
+            return;
+        }
+
+        circuits.computeIfAbsent(url, key -> new Circuit()).record(success, System.nanoTime());
+    }
+
+    /**
+     * Release an allowed request that has not been sent, so a trial of a half
+     * open circuit can be sent by the next request
+     *
+     * @param url the url the request would have been sent to
+     */
+    void release(final String url) {
+        Circuit circuit = circuits.get(url);
+        if (circuit != null) {
+            circuit.release();
+        }
+    }
+
+    /**
+     * @param url the url
+     * @return the state of the circuit of the url
+     */
+    State getState(final String url) {
+        Circuit circuit = circuits.get(url);
+        return circuit != null ? circuit.getState() : State.CLOSED;
+    }
+
+    /**
+     * @return the amount of circuits that are not closed
+     */
+    long getOpenCircuits() {
+        return circuits.values().stream().filter(circuit -> circuit.getState() != State.CLOSED).count();
+    }
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private class Circuit {
+
+        private State state = State.CLOSED;
+        private int failures;
+        private long backoff;
+        private long retryAt;
+        private boolean trialSent;
+
+        synchronized long acquire(final long now) {
+            switch (state) {
+                case CLOSED -> {
+                    return 0;
+                }
+                case OPEN -> {
+                    if (now - retryAt < 0) {
+                        return Math.max(TimeUnit.NANOSECONDS.toMillis(retryAt - now), 1);
+                    }
+                    state = State.HALF_OPEN;
+                    trialSent = true;
+                    return 0;
+                }
+                default -> {
+                    if (trialSent) {
+                        return Math.max(TimeUnit.NANOSECONDS.toMillis(backoff), 1);
+                    }
+                    trialSent = true;
+                    return 0;
+                }
+            }
+        }
+
+        synchronized void record(final boolean success, final long now) {
+            trialSent = false;
+            if (success) {
+                state = State.CLOSED;
+                failures = 0;
+                backoff = 0;
+            } else if (state == State.HALF_OPEN || (state == State.CLOSED && ++failures >= failureThreshold)) {
+                backoff = (backoff == 0 ? initialBackoff : Math.min(backoff * 2, maxBackoff));
+                long halfBackoff = backoff / 2;
+                retryAt = now + halfBackoff + ThreadLocalRandom.current().nextLong(halfBackoff + 1);
+                state = State.OPEN;
+            }
+        }
+
+        synchronized void release() {
+            trialSent = false;
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+    }
+}
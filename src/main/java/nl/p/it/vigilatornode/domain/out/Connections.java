@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.security.KeyManagementException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import nl.p.it.vigilatornode.configuration.NodeConfig;
+import nl.p.it.vigilatornode.domain.metrics.Counter;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
+import static java.lang.System.Logger.Level.INFO;
+
+/**
+ * Connection reuse of the outgoing http clients
+ * <p>
+ * The http client pools connections per host and, with HTTP/2, multiplexes
+ * all requests to a host over one connection. How long idle connections are
+ * kept and how many are kept is configured through system properties of the
+ * JDK, these are read once when the first http client is created.
+ * </p>
+ * <p>
+ * The http client does not report whether a request opened a connection. For
+ * TLS every new connection creates an SSL engine, so these are counted as
+ * opened connections and every other response received over TLS reused an
+ * open connection. Plain http connections are not counted.
+ * </p>
+ *
+ * @author Patrick
+ */
+class Connections {
+
+    static final String KEEP_ALIVE = "jdk.httpclient.keepalive.timeout";
+    static final String KEEP_ALIVE_H2 = "jdk.httpclient.keepalive.timeout.h2";
+    static final String POOL_SIZE = "jdk.httpclient.connectionPoolSize";
+
+    private static final String TLS_SCHEME = "https";
+    private static final String CONNECTIONS = "vigilator_outgoing_tls_connections_total";
+    private static final String CONNECTIONS_HELP = "TLS connections opened, and responses received over a TLS connection that was already open";
+    private static final String CONNECTION = "connection";
+    private static final String RESPONSES = "vigilator_outgoing_responses_total";
+    private static final String RESPONSES_HELP = "Responses received by HTTP version";
+    private static final String VERSION = "version";
+    static final Counter OPENED = Metrics.getInstance().counter(CONNECTIONS, CONNECTIONS_HELP, CONNECTION, "opened");
+    private static final LongAdder TLS_RESPONSES = new LongAdder();
+    private static final Counter HTTP_1_1 = Metrics.getInstance().counter(RESPONSES, RESPONSES_HELP, VERSION, HttpClient.Version.HTTP_1_1.name());
+    private static final Counter HTTP_2 = Metrics.getInstance().counter(RESPONSES, RESPONSES_HELP, VERSION, HttpClient.Version.HTTP_2.name());
+    private static final System.Logger LOGGER = System.getLogger(Connections.class.getName());
+
+    static {
+        Metrics.getInstance().counter(CONNECTIONS, CONNECTIONS_HELP,
+                () -> Math.max(0, TLS_RESPONSES.sum() - OPENED.get()), CONNECTION, "reused");
+    }
+
+    private Connections() {
+    }
+
+    /**
+     * Configure the keep alive and the amount of idle connections of the http
+     * clients, unless set on the command line
+     *
+     * @param config the configuration of the node
+     */
+    static void configure(final NodeConfig config) {
+        if (config.getConnectionKeepAlive() > 0) {
+            setIfAbsent(KEEP_ALIVE, config.getConnectionKeepAlive());
+            setIfAbsent(KEEP_ALIVE_H2, config.getConnectionKeepAlive());
+        }
+        if (config.getMaxIdleConnections() > 0) {
+            setIfAbsent(POOL_SIZE, config.getMaxIdleConnections());
+        }
+    }
+
+    /**
+     * @param config the configuration of the node
+     * @return the HTTP version the http clients prefer
+     */
+    static HttpClient.Version version(final NodeConfig config) {
+        return config.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+    }
+
+    /**
+     * @param context the SSL context of a http client
+     * @return the SSL context counting the connections it opens
+     */
+    static SSLContext counting(final SSLContext context) {
+        return new CountingContext(context);
+    }
+
+    /**
+     * Record a response of which the headers have been received
+     *
+     * @param uri the uri the request was sent to
+     * @param info the response info
+     */
+    static void responded(final URI uri, final HttpResponse.ResponseInfo info) {
+        if (info.version() == HttpClient.Version.HTTP_2) {
+            HTTP_2.increment();
+        } else {
+            HTTP_1_1.increment();
+        }
+        if (TLS_SCHEME.equalsIgnoreCase(uri.getScheme())) {
+            TLS_RESPONSES.increment();
+        }
+    }
+
+    private static void setIfAbsent(final String property, final int value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, String.valueOf(value));
+            LOGGER.log(INFO, "Outgoing connections configured with {0}={1}", property, value);
+        }
+    }
+
+    private static class CountingContext extends SSLContext {
+
+        CountingContext(final SSLContext delegate) {
+            super(new CountingSpi(delegate), delegate.getProvider(), delegate.getProtocol());
+        }
+    }
+
+    private static class CountingSpi extends SSLContextSpi {
+
+        private final SSLContext delegate;
+
+        CountingSpi(final SSLContext delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        protected void engineInit(final KeyManager[] km, final TrustManager[] tm, final SecureRandom sr) throws KeyManagementException {
+            throw new KeyManagementException("The SSL context is already initialised");
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            OPENED.increment();
+            return delegate.createSSLEngine();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(final String host, final int port) {
+            OPENED.increment();
+            return delegate.createSSLEngine(host, port);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+}
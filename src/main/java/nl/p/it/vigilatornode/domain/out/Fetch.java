@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+/**
+ * How much of the resource a request fetches
+ * <p>
+ * When only the reachability of a resource matters, fetching the headers is
+ * enough. When only the start of the body is validated, e.g. the title of a
+ * web page, the first bytes are requested with a range. A server not
+ * supporting ranges responds with the full body.
+ * </p>
+ *
+ * @author Patrick
+ */
+public enum Fetch {
+
+    /**
+     * GET the full body
+     */
+    FULL,
+    /**
+     * HEAD, only the status and headers
+     */
+    HEAD,
+    /**
+     * GET the first {@value #RANGE_BYTES} bytes of the body
+     */
+    RANGE;
+
+    public static final int RANGE_BYTES = 65536;
+}
@@ -15,63 +15,84 @@
  */
 package nl.p.it.vigilatornode.domain.out;
 
-import static java.lang.System.Logger.Level.ERROR;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.X509Certificate;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadPoolExecutor;
 import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
 import nl.p.it.vigilatornode.configuration.NodeConfig;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
 import nl.p.it.vigilatornode.domain.monitor.Acceptor;
 import nl.p.it.vigilatornode.exception.CustomException;
 import nl.p.it.vigilatornode.exception.HttpClientException;
 
 /**
  * Client for outgoing requests
+ * <p>
+ * Requests are prepared once per endpoint as an immutable request plan, which
+ * is dispatched for every take. Http clients are created once per TLS profile
+ * and connect timeout and shared by all plans using them, so resources on the
+ * same host share the pooled connections of the client. With HTTP/2 the
+ * requests to a host are multiplexed over one connection.
+ * </p>
+ * <p>
+ * Redirects are followed by the request instead of the http client, so the
+ * redirect chain is recorded and permanent redirects are cached.
+ * </p>
  *
+ * @see RequestPlan
  * @author Patrick
  */
 public class OutgoingClient {
 
-    private HttpClient client;
-    private final HttpClient clientIgnoringTLSIssues;
-    private final HttpRequest.Builder builder;
     private final ThreadPoolExecutor executor;
+    private final Map<ClientKey, HttpClient> clients;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final RequestCoalescer coalescer;
+    private final Redirects redirects;
+    private final HttpClient.Version version;
 
     private static OutgoingClient instance;
 
-    private static final String TLS = "TLS";
-    private static final int DEFAULT_TIMEOUT_IN_MINUTES = 1;
-    private static final System.Logger LOGGER = System.getLogger(Request.class.getName());
+    private static final String EXECUTOR_NAME = "outgoing";
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(1);
+    private static final String RANGE = "Range";
+    private static final String RANGE_FIRST_BYTES = "bytes=0-" + (Fetch.RANGE_BYTES - 1);
+    private static final ClientKey DEFAULT_CLIENT = new ClientKey(TlsProfile.VERIFY, DEFAULT_TIMEOUT);
 
     /**
-     * FUTURE_WORK: Rather be using a HTTP client that allows changes after
-     * creation instead of duplicating the HTTP client with a different
-     * configuration added. For now it will do and its purpose is clear enough
+     * Use getInstance, the client is only created directly by tests so they
+     * do not share the instance of the node
      *
-     * @param config
+     * @param config the configuration of the node
      */
-    private OutgoingClient(final NodeConfig config) {
-        this.builder = HttpRequest.newBuilder();
-        this.client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofMinutes(1))
-                .followRedirects(HttpClient.Redirect.ALWAYS)
-                .build();
-        this.clientIgnoringTLSIssues = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofMinutes(1))
-                .followRedirects(HttpClient.Redirect.ALWAYS)
-                .sslContext(getByPassingContext())
-                .build();
+    OutgoingClient(final NodeConfig config) {
+        this.clients = new ConcurrentHashMap<>();
+        this.version = Connections.version(config);
+        Connections.configure(config);
 
         executor = config.getPoolExecutor();
+        Metrics.getInstance().register(EXECUTOR_NAME, executor);
+        bulkhead = new Bulkhead(config.getMaxRequestsPerHost(), config.getMaxQueuedRequestsPerHost(),
+                config.getMaxOutgoingRequests(), executor);
+        Metrics.getInstance().gauge("vigilator_outgoing_admitted_requests",
+                "Outgoing requests running or queued in the bulkheads", bulkhead::getAdmitted);
+        circuitBreaker = new CircuitBreaker(config.getCircuitBreakerFailures(),
+                config.getCircuitBreakerBackoff(), config.getCircuitBreakerMaxBackoff());
+        Metrics.getInstance().gauge("vigilator_outgoing_open_circuits",
+                "Urls for which requests are suspended after consecutive failures", circuitBreaker::getOpenCircuits);
+        coalescer = new RequestCoalescer(config.getCoalesceWindow());
+        redirects = new Redirects(config.getMaxRedirects(), config.getRedirectCacheTime());
+        Metrics.getInstance().gauge("vigilator_outgoing_cached_redirects",
+                "Urls redirecting permanently for which the location is cached", redirects::getCachedAmount);
+        Metrics.getInstance().gauge("vigilator_outgoing_http_clients",
+                "Http clients created for the distinct TLS profiles and connect timeouts", () -> clients.size());
     }
 
     /**
@@ -91,13 +112,85 @@ public class OutgoingClient {
     }
 
     /**
-     * Replace the current http client with a different one. This is useful to
-     * unify http clients in other parts of the system with the outgoing client
+     * Replace the http client for requests verifying TLS with the default
+     * connect timeout with a different one. This is useful to unify http
+     * clients in other parts of the system with the outgoing client
+     * <p>
+     * Request plans hold on to their http client, so only plans created after
+     * switching use the new client
+     * </p>
      *
      * @param client the client
      */
     public void switchClient(final HttpClient client) {
-        this.client = client;
+        clients.put(DEFAULT_CLIENT, client);
+    }
+
+    /**
+     * Prepare the plan for sending requests to the url, the plan is immutable
+     * and can be dispatched any number of times from any thread
+     *
+     * @param url the url to send requests to
+     * @param settings the settings for the requests, null for the defaults
+     * @param tlsProfile the TLS profile for the requests, null to verify TLS
+     * with the default certificates
+     * @return the request plan
+     * @throws HttpClientException when the url is not valid or the TLS profile
+     * cannot be set up
+     */
+    public RequestPlan plan(final String url, final RequestSettings settings, final TlsProfile tlsProfile) throws HttpClientException {
+        return plan(url, settings, tlsProfile, Fetch.FULL);
+    }
+
+    /**
+     * Prepare the plan for sending requests to the url fetching only what is
+     * required of the resource
+     *
+     * @param url the url to send requests to
+     * @param settings the settings for the requests, null for the defaults
+     * @param tlsProfile the TLS profile for the requests, null to verify TLS
+     * with the default certificates
+     * @param fetch how much of the resource to fetch, null for the full body
+     * @return the request plan
+     * @throws HttpClientException when the url is not valid or the TLS profile
+     * cannot be set up
+     * @see Fetch
+     */
+    public RequestPlan plan(final String url, final RequestSettings settings, final TlsProfile tlsProfile,
+            final Fetch fetch) throws HttpClientException {
+        RequestSettings requestSettings = (settings != null ? settings : RequestSettings.DEFAULT);
+        TlsProfile profile = (tlsProfile != null ? tlsProfile : TlsProfile.VERIFY);
+        try {
+            Fetch toFetch = (fetch != null ? fetch : Fetch.FULL);
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(new URI(url))
+                    .timeout(requestSettings.timeout() != null
+                            ? requestSettings.timeout()
+                            : DEFAULT_TIMEOUT);
+            switch (toFetch) {
+                case HEAD ->
+                    builder.HEAD();
+                case RANGE ->
+                    builder.GET().header(RANGE, RANGE_FIRST_BYTES);
+                default ->
+                    builder.GET();
+            }
+            HttpRequest request = builder.build();
+            String target = request.uri().toString();
+            String key = (toFetch == Fetch.FULL ? target : target + ' ' + toFetch);
+
+            return new RequestPlan(request,
+                    getClient(new ClientKey(profile, requestSettings.connectTimeout() != null
+                            ? requestSettings.connectTimeout()
+                            : DEFAULT_TIMEOUT)),
+                    profile.equals(TlsProfile.VERIFY) ? key : key + ' ' + profile);
+        } catch (NullPointerException ex) {
+            Request.INVALID.increment();
+            throw new HttpClientException(CustomException.INVALID_INPUT_FOR_REQUEST, url);
+        } catch (IllegalArgumentException | URISyntaxException ex) {
+            Request.INVALID.increment();
+            throw new HttpClientException(CustomException.INVALID_URL, url);
+        }
     }
 
     /**
@@ -108,37 +201,133 @@ public class OutgoingClient {
      * @param options additional options for the request, which override default
      * behaviour @see Option
      * @throws nl.p.it.vigilatornode.exception.HttpClientException when issues
-     * occur while sending the request
+     * occur while sending the request or when the request is rejected by the
+     * bulkhead or the circuit breaker
+     * @see OutgoingClient.scheduleRequest(RequestPlan, Acceptor, Duration)
      */
     public void scheduleRequest(final String url, final Acceptor<MonitoredData> acceptor, Option... options) throws HttpClientException {
-        try {
-            HttpRequest request = builder.GET()
-                    .uri(new URI(url))
-                    .timeout(Duration.ofMinutes(DEFAULT_TIMEOUT_IN_MINUTES))
-                    .build();
-
-            boolean ignoreTLSIssues = false;
-            if (options != null) {
-                for (Option option : options) {
-                    if (option != null) {
-                        switch (option) {
-                            case IGNORE_TLS_ISSUES -> {
-                                ignoreTLSIssues = true;
-                            }
+        scheduleRequest(url, acceptor, RequestSettings.DEFAULT, options);
+    }
+
+    /**
+     * Start retrieving articles with settings overriding the default timeouts
+     * and optionally hedging the request
+     * <p>
+     * Prepares a plan for the request first, when requests to the url are sent
+     * repeatedly prepare the plan once instead
+     * </p>
+     *
+     * @param url the url to send request to
+     * @param acceptor the method to accept the result
+     * @param settings the settings for the request, null for the defaults
+     * @param options additional options for the request, which override default
+     * behaviour @see Option
+     * @throws nl.p.it.vigilatornode.exception.HttpClientException when issues
+     * occur while sending the request or when the request is rejected by the
+     * bulkhead or the circuit breaker
+     * @see OutgoingClient.scheduleRequest(RequestPlan, Acceptor, Duration)
+     */
+    public void scheduleRequest(final String url, final Acceptor<MonitoredData> acceptor,
+            final RequestSettings settings, Option... options) throws HttpClientException {
+        TlsProfile profile = TlsProfile.VERIFY;
+        if (options != null) {
+            for (Option option : options) {
+                if (option != null) {
+                    switch (option) {
+                        case IGNORE_TLS_ISSUES -> {
+                            profile = TlsProfile.IGNORE_ISSUES;
                         }
                     }
                 }
             }
-            
-            Request toSend = ignoreTLSIssues
-                    ? new Request(request, acceptor, clientIgnoringTLSIssues)
-                    : new Request(request, acceptor, client);
-            executor.submit(toSend);
-        } catch (NullPointerException ex) {
-            throw new HttpClientException(CustomException.INVALID_INPUT_FOR_REQUEST, url);
-        } catch (IllegalArgumentException | URISyntaxException ex) {
-            throw new HttpClientException(CustomException.INVALID_URL, url);
         }
+
+        scheduleRequest(plan(url, settings, profile), acceptor,
+                settings != null ? settings.hedgeAfter() : null);
+    }
+
+    /**
+     * Dispatch a request according to the plan
+     * <p>
+     * When an identical request is in flight, or completed within the
+     * coalesce window, the request joins it instead of being sent
+     * </p>
+     * <p>
+     * When the circuit of the url is open after consecutive failures, the
+     * request is not sent and fails right away until the backoff passed
+     * </p>
+     * <p>
+     * The request is admitted by the bulkhead of its host, when the host or the
+     * client as a whole has reached its limit of concurrent requests the
+     * request is rejected right away. A queued request the executor rejects
+     * once its turn comes is accepted as a result without response, carrying
+     * the cause as error
+     * </p>
+     *
+     * @param plan the plan of the request
+     * @param acceptor the method to accept the result
+     * @param hedgeAfter the time after which a duplicate request is sent when
+     * the request has not been answered yet, null to never send a duplicate
+     * @throws HttpClientException when the request is rejected by the
+     * bulkhead or the circuit breaker
+     */
+    public void scheduleRequest(final RequestPlan plan, final Acceptor<MonitoredData> acceptor,
+            final Duration hedgeAfter) throws HttpClientException {
+        if (plan == null || acceptor == null) {
+            Request.INVALID.increment();
+            throw new HttpClientException(CustomException.INVALID_INPUT_FOR_REQUEST, plan != null ? plan.getTarget() : null);
+        }
+
+        String target = plan.getTarget();
+        Acceptor<MonitoredData> shared = coalescer.join(plan.getKey(), acceptor);
+        if (shared == null) {
+            // joined an identical request
+            return;
+        }
+
+        Request toSend = new Request(plan.getRequest(), recordOutcome(target, shared), plan.getClient(), hedgeAfter, redirects);
+        long retryIn = circuitBreaker.acquire(target);
+        if (retryIn > 0) {
+            HttpClientException suspended = new HttpClientException(CustomException.REQUESTS_SUSPENDED, target, retryIn);
+            coalescer.abandon(plan.getKey(), target, suspended.getMessage());
+            Request.SUSPENDED.increment();
+            throw suspended;
+        }
+        if (!bulkhead.submit(plan.getAuthority(), toSend, () -> rejectQueued(plan, acceptor))) {
+            HttpClientException rejected = new HttpClientException(CustomException.REQUEST_LIMIT_REACHED, plan.getAuthority());
+            coalescer.abandon(plan.getKey(), target, rejected.getMessage());
+            circuitBreaker.release(target);
+            Request.REJECTED.increment();
+            throw rejected;
+        }
+    }
+
+    /**
+     * Reject a queued request the executor did not accept once a slot of its
+     * host was free, the acceptors of the request receive the cause
+     *
+     * @param plan the plan of the request
+     * @param acceptor the method to accept the result
+     */
+    private void rejectQueued(final RequestPlan plan, final Acceptor<MonitoredData> acceptor) {
+        String error = CustomException.REQUEST_LIMIT_REACHED.getMessage().formatted(plan.getAuthority());
+        coalescer.abandon(plan.getKey(), plan.getTarget(), error);
+        circuitBreaker.release(plan.getTarget());
+        Request.REJECTED.increment();
+        acceptor.accept(RequestCoalescer.failed(plan.getTarget(), error));
+    }
+
+    /**
+     * @param url the url the request is sent to
+     * @param acceptor the method to accept the result
+     * @return the acceptor recording the outcome in the circuit breaker
+     * before accepting the result
+     */
+    private Acceptor<MonitoredData> recordOutcome(final String url, final Acceptor<MonitoredData> acceptor) {
+        return (final MonitoredData result) -> {
+            circuitBreaker.record(url, result.hasResponded());
+            acceptor.accept(result);
+        };
     }
 
     /**
@@ -147,38 +336,34 @@ public class OutgoingClient {
      */
     public void stopProcess() {
         executor.shutdown();
-        client.close();
+        clients.values().forEach(HttpClient::close);
     }
 
-    private SSLContext getByPassingContext() {
-        TrustManager[] trustAllCerts = new TrustManager[]{
-            new X509TrustManager() {
-                @Override
-                public X509Certificate[] getAcceptedIssuers() {
-                    return null;
-                }
-
-                @Override
-                public void checkClientTrusted(X509Certificate[] certs, String authType) {
-                    // Trust all client certificates
-                }
-
-                @Override
-                public void checkServerTrusted(X509Certificate[] certs, String authType) {
-                    // Trust all server certificates
-                }
-            }
-        };
+    /**
+     * The TLS profile and the connect timeout are settings of the http client,
+     * so every distinct combination gets its own http client. These are
+     * created once and shared
+     *
+     * @param key the TLS profile and connect timeout
+     * @return the http client to send the request with
+     * @throws HttpClientException when the TLS profile cannot be set up
+     */
+    private HttpClient getClient(final ClientKey key) throws HttpClientException {
+        HttpClient client = clients.get(key);
+        if (client != null) {
+            return client;
+        }
 
-        try {
-            SSLContext sc = SSLContext.getInstance(TLS);
-            sc.init(null, trustAllCerts, new java.security.SecureRandom());
+        SSLContext context = SslContexts.create(key.tlsProfile());
+        return clients.computeIfAbsent(key, created -> HttpClient.newBuilder()
+                .connectTimeout(created.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .version(version)
+                .sslContext(Connections.counting(context))
+                .build());
+    }
 
-            return sc;
-        } catch (NoSuchAlgorithmException | KeyManagementException ex) {
-            LOGGER.log(ERROR, "Exception setting up bypass SSL context, ex: {0}", ex);
-        }
+    private record ClientKey(TlsProfile tlsProfile, Duration connectTimeout) {
 
-        return null;
     }
 }
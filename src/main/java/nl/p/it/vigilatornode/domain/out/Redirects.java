@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import nl.p.it.vigilatornode.domain.metrics.Counter;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
+
+/**
+ * Follows redirects for requests and caches permanent redirects
+ * <p>
+ * The http clients do not follow redirects, so every hop of a redirect chain
+ * is visible to the request. When a url redirects permanently (301 or 308),
+ * the location is cached for the url and later requests to the url go to the
+ * cached location right away. Cached locations expire after {cacheTime}, so
+ * a permanent redirect that changed or was removed is noticed again.
+ * </p>
+ *
+ * @author Patrick
+ */
+class Redirects {
+
+    private final int maxRedirects;
+    private final long cacheTime;
+    private final Map<URI, Cached> cached;
+
+    private static final String LOCATION = "Location";
+    private static final String GET = "GET";
+    private static final String HEAD = "HEAD";
+    private static final Counter FOLLOWED = Metrics.getInstance().counter("vigilator_outgoing_redirects_total",
+            "Redirects followed by outgoing requests");
+
+    /**
+     * @param maxRedirects the maximum amount of redirects followed for a
+     * request, 0 to not follow redirects
+     * @param cacheTime the milliseconds a permanent redirect is cached, 0 to
+     * not cache permanent redirects
+     */
+    Redirects(final int maxRedirects, final long cacheTime) {
+        this.maxRedirects = Math.max(maxRedirects, 0);
+        this.cacheTime = TimeUnit.MILLISECONDS.toNanos(Math.max(cacheTime, 0));
+        this.cached = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param request the request as planned
+     * @return the request to the cached location of the url of the request,
+     * or the request itself when no permanent redirect is cached
+     */
+    HttpRequest start(final HttpRequest request) {
+        Cached location = getCached(request.uri());
+
+        return (location != null ? redirect(request, location.location(), false) : request);
+    }
+
+    /**
+     * @param uri the url of the request as planned
+     * @return the amount of permanent redirects skipped by starting at the
+     * cached location, 0 when nothing is cached
+     */
+    int getCachedRedirects(final URI uri) {
+        Cached location = getCached(uri);
+
+        return (location != null ? location.redirects() : 0);
+    }
+
+    /**
+     * @param request the request the response was received for
+     * @param response the response
+     * @param followed the amount of redirects already followed
+     * @return the request to the location the response redirects to, or null
+     * when the response is not a redirect or no more redirects are followed
+     */
+    HttpRequest follow(final HttpRequest request, final HttpResponse<?> response, final int followed) {
+        if (followed >= maxRedirects || !isRedirect(response.statusCode())) {
+            return null;
+        }
+
+        try {
+            return response.headers().firstValue(LOCATION)
+                    .map(location -> {
+                        FOLLOWED.increment();
+                        return redirect(request, request.uri().resolve(location), response.statusCode() == 303);
+                    })
+                    .orElse(null);
+        } catch (IllegalArgumentException ex) {
+            // an invalid location, the redirect itself is the response
+            return null;
+        }
+    }
+
+    /**
+     * Cache the location a url redirects to permanently
+     *
+     * @param uri the url of the request as planned
+     * @param location the location of the last permanent redirect
+     * @param redirects the amount of permanent redirects to reach the location
+     */
+    void remember(final URI uri, final URI location, final int redirects) {
+        if (cacheTime > 0) {
+            cached.put(uri, new Cached(location, redirects, System.nanoTime() + cacheTime));
+        }
+    }
+
+    /**
+     * Forget the cached location of the url, e.g. when the location did not
+     * respond
+     *
+     * @param uri the url of the request as planned
+     */
+    void forget(final URI uri) {
+        cached.remove(uri);
+    }
+
+    /**
+     * @return the amount of cached permanent redirects
+     */
+    int getCachedAmount() {
+        return cached.size();
+    }
+
+    static boolean isPermanent(final int statusCode) {
+        return statusCode == 301 || statusCode == 308;
+    }
+
+    private static boolean isRedirect(final int statusCode) {
+        return switch (statusCode) {
+            case 301, 302, 303, 307, 308 ->
+                true;
+            default ->
+                false;
+        };
+    }
+
+    private Cached getCached(final URI uri) {
+        Cached location = cached.get(uri);
+        if (location != null && location.expires() - System.nanoTime() < 0) {
+            cached.remove(uri, location);
+            return null;
+        }
+
+        return location;
+    }
+
+    /**
+     * @param request the request to redirect
+     * @param location the location to redirect to
+     * @param seeOther whether the location must be retrieved with GET
+     * @return the request to the location with the same method and headers
+     */
+    private HttpRequest redirect(final HttpRequest request, final URI location, final boolean seeOther) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true).uri(location);
+        if (seeOther && !HEAD.equals(request.method())) {
+            builder.method(GET, HttpRequest.BodyPublishers.noBody());
+        }
+
+        return builder.build();
+    }
+
+    private record Cached(URI location, int redirects, long expires) {
+
+    }
+}
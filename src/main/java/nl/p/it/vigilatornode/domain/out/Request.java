@@ -19,7 +19,22 @@ import java.io.IOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.data.Redirect;
+import nl.p.it.vigilatornode.domain.events.Events;
+import nl.p.it.vigilatornode.domain.events.RequestEvent;
+import nl.p.it.vigilatornode.domain.metrics.Counter;
+import nl.p.it.vigilatornode.domain.metrics.Histogram;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
 import nl.p.it.vigilatornode.domain.monitor.Acceptor;
 import nl.p.it.vigilatornode.exception.CustomException;
 import nl.p.it.vigilatornode.exception.HttpClientException;
@@ -36,10 +51,63 @@ public class Request implements Runnable {
     private final HttpRequest httpRequest;
     private final HttpClient client;
     private final Acceptor<MonitoredData> acceptor;
+    private final Duration hedgeAfter;
+    private final Redirects redirects;
+    private int cachedRedirects;
+    private volatile long headersReceived;
 
+    private static final String REQUESTS = "vigilator_outgoing_requests_total";
+    private static final String REQUESTS_HELP = "Outgoing requests by outcome";
+    private static final String OUTCOME = "outcome";
+    private static final String OUTCOME_RESPONDED = "responded";
+    private static final String OUTCOME_EMPTY = "empty";
+    private static final String OUTCOME_FAILED = "failed";
+    private static final String OUTCOME_INTERRUPTED = "interrupted";
+    private static final Counter RESPONDED = Metrics.getInstance().counter(REQUESTS, REQUESTS_HELP, OUTCOME, OUTCOME_RESPONDED);
+    private static final Counter EMPTY = Metrics.getInstance().counter(REQUESTS, REQUESTS_HELP, OUTCOME, OUTCOME_EMPTY);
+    private static final Counter FAILED = Metrics.getInstance().counter(REQUESTS, REQUESTS_HELP, OUTCOME, OUTCOME_FAILED);
+    private static final Counter INTERRUPTED = Metrics.getInstance().counter(REQUESTS, REQUESTS_HELP, OUTCOME, OUTCOME_INTERRUPTED);
+    static final Counter INVALID = Metrics.getInstance().counter(REQUESTS, REQUESTS_HELP, OUTCOME, "invalid");
+    static final Counter REJECTED = Metrics.getInstance().counter(REQUESTS, REQUESTS_HELP, OUTCOME, "rejected");
+    static final Counter SUSPENDED = Metrics.getInstance().counter(REQUESTS, REQUESTS_HELP, OUTCOME, "suspended");
+    private static final Counter HEDGED = Metrics.getInstance().counter("vigilator_outgoing_hedged_requests_total",
+            "Duplicate requests sent because the response took longer than the hedge delay");
+    private static final Counter HEDGE_WON = Metrics.getInstance().counter("vigilator_outgoing_hedge_wins_total",
+            "Duplicate requests that responded before the original request");
+    private static final Histogram DURATION = Metrics.getInstance().histogram("vigilator_outgoing_request_duration_seconds",
+            "Time from sending an outgoing request until the response is read", Histogram.LATENCY_BUCKETS);
     private static final System.Logger LOGGER = System.getLogger(Request.class.getName());
 
     public Request(final HttpRequest request, final Acceptor<MonitoredData> acceptor, final HttpClient client) throws HttpClientException {
+        this(request, acceptor, client, null);
+    }
+
+    /**
+     * @param request the request to send
+     * @param acceptor the method to accept the result
+     * @param client the client to send the request with
+     * @param hedgeAfter the time after which a duplicate of the request is
+     * sent when no response has been received, null to never send a duplicate
+     * @throws HttpClientException when a required value is not provided
+     */
+    public Request(final HttpRequest request, final Acceptor<MonitoredData> acceptor, final HttpClient client,
+            final Duration hedgeAfter) throws HttpClientException {
+        this(request, acceptor, client, hedgeAfter, null);
+    }
+
+    /**
+     * @param request the request to send
+     * @param acceptor the method to accept the result
+     * @param client the client to send the request with, not following
+     * redirects itself
+     * @param hedgeAfter the time after which a duplicate of the request is
+     * sent when no response has been received, null to never send a duplicate
+     * @param redirects the redirects to follow the redirects of the response
+     * with
+     * @throws HttpClientException when a required value is not provided
+     */
+    Request(final HttpRequest request, final Acceptor<MonitoredData> acceptor, final HttpClient client,
+            final Duration hedgeAfter, final Redirects redirects) throws HttpClientException {
         if (request == null || acceptor == null || client == null) {
             throw new HttpClientException(CustomException.REQUIRED_VALUES_NOT_PROVIDED,
                     (request == null ? "request" : "")
@@ -50,27 +118,208 @@ public class Request implements Runnable {
         this.httpRequest = request;
         this.acceptor = acceptor;
         this.client = client;
+        this.hedgeAfter = hedgeAfter;
+        this.redirects = redirects;
     }
 
     @Override
     public void run() {
+        RequestEvent event = (Events.isEnabled() ? new RequestEvent() : null);
+        if (event != null) {
+            event.begin();
+        }
+        String outcome = null;
+        long start = System.nanoTime();
+        List<Redirect> chain = new ArrayList<>();
         try {
-            byte[] responseData = readResponse(
-                    client.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray()));
+            HttpResponse<byte[]> response = (redirects != null ? sendFollowingRedirects(chain) : send(httpRequest));
+            byte[] responseData = readResponse(response);
+            DURATION.observeSince(start);
             if (responseData != null) {
-                acceptor.accept(new MonitoredData(responseData, httpRequest.uri().toString()));
+                RESPONDED.increment();
+                MonitoredData result = new MonitoredData(responseData, httpRequest.uri().toString());
+                result.recordStatusCode(response.statusCode());
+                result.recordCertificateExpiry(Certificates.expiry(
+                        response.uri() != null ? response.uri() : httpRequest.uri(), response.sslSession()));
+                if (redirects != null) {
+                    result.recordRedirects(chain, cachedRedirects);
+                }
+                recordTimings(result, start);
+                commit(event, OUTCOME_RESPONDED, result);
+                acceptor.accept(result);
                 return;
             } else {
+                EMPTY.increment();
+                outcome = OUTCOME_EMPTY;
                 LOGGER.log(DEBUG, "Empty response received, this can happen no data was relevant for the request");
             }
         } catch (IOException ex) {
+            DURATION.observeSince(start);
+            if (redirects != null) {
+                redirects.forget(httpRequest.uri());
+            }
+            FAILED.increment();
+            outcome = OUTCOME_FAILED;
             LOGGER.log(ERROR, "Request failed with exception: {1}", ex);
         } catch (InterruptedException ex) {
+            INTERRUPTED.increment();
+            outcome = OUTCOME_INTERRUPTED;
             LOGGER.log(ERROR, "Request got interrupted: {1}", ex);
             Thread.currentThread().interrupt();
         }
 
-        acceptor.accept(new MonitoredData(new byte[0], httpRequest.uri().toString()));
+        MonitoredData result = new MonitoredData(new byte[0], httpRequest.uri().toString());
+        recordTimings(result, start);
+        commit(event, outcome, result);
+        acceptor.accept(result);
+    }
+
+    /**
+     * Send the request, starting at the cached location of a permanent
+     * redirect, and follow the redirects of the responses. When the chain
+     * starting at the url of the request only consists of permanent
+     * redirects, the last location is cached for the url. The time to first
+     * byte is measured until the headers of the last response
+     *
+     * @param chain the list to add the followed redirects to
+     * @return the response that is not followed
+     * @throws IOException when a request of the chain failed
+     * @throws InterruptedException when interrupted while waiting
+     */
+    private HttpResponse<byte[]> sendFollowingRedirects(final List<Redirect> chain) throws IOException, InterruptedException {
+        cachedRedirects = redirects.getCachedRedirects(httpRequest.uri());
+        HttpRequest current = redirects.start(httpRequest);
+        boolean permanent = true;
+        long hopStart = System.nanoTime();
+        HttpResponse<byte[]> response = send(current);
+        HttpRequest next;
+        while ((next = redirects.follow(current, response, chain.size())) != null) {
+            long now = System.nanoTime();
+            chain.add(new Redirect(current.uri().toString(), response.statusCode(), next.uri().toString(), now - hopStart));
+            permanent &= Redirects.isPermanent(response.statusCode());
+            if (permanent) {
+                redirects.remember(httpRequest.uri(), next.uri(), cachedRedirects + chain.size());
+            }
+            current = next;
+            hopStart = now;
+            headersReceived = 0;
+            response = send(current);
+        }
+
+        return response;
+    }
+
+    private HttpResponse<byte[]> send(final HttpRequest request) throws IOException, InterruptedException {
+        return (hedgeAfter != null
+                ? sendHedged(request)
+                : client.send(request, this::headersReceived));
+    }
+
+    /**
+     * Send the request and when no response has been received after
+     * {hedgeAfter}, send a duplicate. The first successful response is used
+     * and the other request is cancelled, so the response time follows the
+     * typical response time instead of the occasional slow one
+     *
+     * @param request the request to send
+     * @return the first successful response
+     * @throws IOException when both requests failed
+     * @throws InterruptedException when interrupted while waiting
+     */
+    private HttpResponse<byte[]> sendHedged(final HttpRequest request) throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<byte[]>> primary = client.sendAsync(request, this::headersReceived);
+        CompletableFuture<HttpResponse<byte[]>> hedge = null;
+        try {
+            try {
+                return primary.get(hedgeAfter.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                HEDGED.increment();
+                hedge = client.sendAsync(request, this::headersReceived);
+            }
+
+            CompletableFuture<HttpResponse<byte[]>> first = firstSuccessful(primary, hedge);
+            HttpResponse<byte[]> response = first.get();
+            if (hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.join() == response) {
+                HEDGE_WON.increment();
+            }
+            return response;
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(ex.getCause());
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> firstSuccessful(
+            final CompletableFuture<HttpResponse<byte[]>> primary,
+            final CompletableFuture<HttpResponse<byte[]>> hedge) {
+        CompletableFuture<HttpResponse<byte[]>> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<HttpResponse<byte[]>> request : List.of(primary, hedge)) {
+            request.whenComplete((response, failure) -> {
+                if (failure == null) {
+                    first.complete(response);
+                } else if (failures.incrementAndGet() == 2) {
+                    first.completeExceptionally(failure instanceof CompletionException ? failure.getCause() : failure);
+                }
+            });
+        }
+
+        return first;
+    }
+
+    /**
+     * Body handler marking the moment the response headers are received, the
+     * HTTP client does not expose connecting separately so the time to first
+     * byte includes connecting (and the TLS handshake). Every response is
+     * recorded for the connection reuse metrics
+     *
+     * @see Connections
+     * @param info the response info
+     * @return the subscriber reading the body as bytes
+     */
+    private HttpResponse.BodySubscriber<byte[]> headersReceived(final HttpResponse.ResponseInfo info) {
+        if (headersReceived == 0) {
+            headersReceived = System.nanoTime();
+        }
+        Connections.responded(httpRequest.uri(), info);
+
+        return HttpResponse.BodySubscribers.ofByteArray();
+    }
+
+    /**
+     * Commit the flight recorder event for the request, the fields are only
+     * set when the event is recorded
+     *
+     * @param event the event to commit, or null when events are not enabled
+     * @param outcome the outcome
+     * @param result the result of the request
+     */
+    private void commit(final RequestEvent event, final String outcome, final MonitoredData result) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setOutcome(outcome);
+            event.setUrl(result.getUrl());
+            event.setMethod(httpRequest.method());
+            event.setBytes(result.hasData() ? result.getData().length : 0);
+            event.setTimeToFirstByte(result.getTimeToFirstByteInNanos());
+            event.setRedirects(result.getRedirectCount());
+            event.commit();
+        }
+    }
+
+    private void recordTimings(final MonitoredData result, final long start) {
+        long received = headersReceived;
+        result.recordTimings((received != 0 ? received - start : 0), System.nanoTime() - start);
     }
 
     /**
@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.metrics.Counter;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
+import nl.p.it.vigilatornode.domain.monitor.Acceptor;
+
+/**
+ * Coalesces identical requests, so resources monitoring the same url share one
+ * request
+ * <p>
+ * The first request for a key is sent, requests for the same key scheduled
+ * while it is in flight, or within {window} after it completed, join it
+ * instead of being sent. Every acceptor receives its own monitored data
+ * sharing the received data read only, so every resource validates the reply
+ * on its own.
+ * </p>
+ * <p>
+ * The settings of the request that is sent apply to all requests joining it.
+ * </p>
+ * <p>
+ * Completed requests, with the data they received, are evicted once the window
+ * expired by a sweep on the next join or completion, at most once per window.
+ * </p>
+ *
+ * @see MonitoredData.share()
+ * @author Patrick
+ */
+class RequestCoalescer {
+
+    private final long window;
+    private final Map<String, Shared> requests;
+    private long nextSweep;
+
+    private static final Counter COALESCED = Metrics.getInstance().counter("vigilator_outgoing_coalesced_requests_total",
+            "Requests that joined an identical request instead of being sent");
+
+    /**
+     * @param window the milliseconds a completed request is shared with
+     * requests for the same key, 0 to only share requests in flight
+     */
+    RequestCoalescer(final long window) {
+        this.window = TimeUnit.MILLISECONDS.toNanos(Math.max(window, 0));
+        this.requests = new HashMap<>();
+        this.nextSweep = System.nanoTime() + this.window;
+    }
+
+    /**
+     * Join the request for the key, when a request for the key is in flight
+     * the acceptor receives its result. When the request for the key completed
+     * within the window, the acceptor receives the result right away on the
+     * calling thread
+     *
+     * @param key the key identifying identical requests
+     * @param acceptor the method to accept the result
+     * @return the acceptor to send the request with when no request for the
+     * key is in flight, or null when the acceptor joined a request
+     */
+    Acceptor<MonitoredData> join(final String key, final Acceptor<MonitoredData> acceptor) {
+        MonitoredData completed;
+        synchronized (this) {
+            long now = System.nanoTime();
+            sweep(now);
+            Shared shared = requests.get(key);
+            if (shared == null || shared.isExpired(now)) {
+                Shared request = new Shared(key, acceptor);
+                requests.put(key, request);
+                return request::complete;
+            }
+
+            COALESCED.increment();
+            if (shared.result == null) {
+                shared.waiting.add(acceptor);
+                return null;
+            }
+            completed = shared.result.share();
+        }
+
+        acceptor.accept(completed);
+        return null;
+    }
+
+    /**
+     * Abandon the request for the key because it could not be sent, the
+     * acceptors that joined it receive a result without response carrying the
+     * reason as error
+     *
+     * @param key the key identifying identical requests
+     * @param url the url of the request
+     * @param error the reason the request could not be sent
+     */
+    void abandon(final String key, final String url, final String error) {
+        List<Acceptor<MonitoredData>> joined;
+        synchronized (this) {
+            Shared shared = requests.remove(key);
+            if (shared == null) {
+                return;
+            }
+            joined = new ArrayList<>(shared.waiting.subList(1, shared.waiting.size()));
+            shared.waiting.clear();
+        }
+
+        for (Acceptor<MonitoredData> acceptor : joined) {
+            acceptor.accept(failed(url, error));
+        }
+    }
+
+    /**
+     * @param url the url of the request
+     * @param error the reason the request could not be sent
+     * @return a result without response carrying the reason as error
+     */
+    static MonitoredData failed(final String url, final String error) {
+        MonitoredData result = new MonitoredData(new byte[0], url);
+        result.addError(error);
+
+        return result;
+    }
+
+    /**
+     * @return the number of requests in flight or completed within the window
+     */
+    synchronized int size() {
+        return requests.size();
+    }
+
+    /**
+     * Evict the completed requests of which the window expired, when the
+     * previous sweep is at least a window ago. Must be called holding the lock
+     *
+     * @param now the current nanos
+     */
+    private void sweep(final long now) {
+        if (window == 0 || now - nextSweep < 0) {
+            return;
+        }
+        requests.values().removeIf(shared -> shared.isExpired(now));
+        nextSweep = now + window;
+    }
+
+    private class Shared {
+
+        private final String key;
+        private final List<Acceptor<MonitoredData>> waiting;
+        private MonitoredData result;
+        private long completed;
+
+        Shared(final String key, final Acceptor<MonitoredData> acceptor) {
+            this.key = key;
+            this.waiting = new ArrayList<>();
+            this.waiting.add(acceptor);
+        }
+
+        boolean isExpired(final long now) {
+            return result != null && now - completed > window;
+        }
+
+        void complete(final MonitoredData received) {
+            List<Acceptor<MonitoredData>> receivers;
+            List<MonitoredData> shares = new ArrayList<>();
+            synchronized (RequestCoalescer.this) {
+                result = received;
+                completed = System.nanoTime();
+                receivers = new ArrayList<>(waiting);
+                waiting.clear();
+                if (window == 0) {
+                    requests.remove(key, this);
+                } else {
+                    sweep(completed);
+                }
+                for (int i = 1; i < receivers.size(); i++) {
+                    shares.add(received.share());
+                }
+            }
+
+            for (int i = 1; i < receivers.size(); i++) {
+                receivers.get(i).accept(shares.get(i - 1));
+            }
+            receivers.get(0).accept(received);
+        }
+    }
+}
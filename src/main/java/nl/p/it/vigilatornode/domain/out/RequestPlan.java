@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+
+/**
+ * Immutable plan for sending requests to an endpoint, prepared once by the
+ * outgoing client when the resources are connected so every take only
+ * dispatches it
+ *
+ * @see OutgoingClient.plan(String, RequestSettings, TlsProfile)
+ * @author Patrick
+ */
+public final class RequestPlan {
+
+    private final HttpRequest request;
+    private final HttpClient client;
+    private final String target;
+    private final String authority;
+    private final String key;
+
+    RequestPlan(final HttpRequest request, final HttpClient client, final String key) {
+        this.request = request;
+        this.client = client;
+        this.target = request.uri().toString();
+        this.authority = request.uri().getAuthority();
+        this.key = key;
+    }
+
+    /**
+     * @return the url requests are sent to
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    HttpRequest getRequest() {
+        return request;
+    }
+
+    HttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * @return the host requests are sent to, the key of the bulkhead
+     */
+    String getAuthority() {
+        return authority;
+    }
+
+    /**
+     * @return the key identifying identical requests, used for coalescing
+     */
+    String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.time.Duration;
+
+/**
+ * Settings for a request overriding the defaults of the outgoing client, a
+ * null value keeps the default
+ *
+ * @param connectTimeout the timeout for connecting to the host
+ * @param timeout the timeout for the request to be answered
+ * @param hedgeAfter the time after which a duplicate request is sent when the
+ * request has not been answered yet, null to never send a duplicate
+ * @author Patrick
+ */
+public record RequestSettings(Duration connectTimeout, Duration timeout, Duration hedgeAfter) {
+
+    public static final RequestSettings DEFAULT = new RequestSettings(null, null, null);
+}
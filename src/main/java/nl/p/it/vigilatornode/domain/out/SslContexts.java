@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import nl.p.it.vigilatornode.exception.CustomException;
+import nl.p.it.vigilatornode.exception.HttpClientException;
+import static java.lang.System.Logger.Level.ERROR;
+
+/**
+ * Creates the SSL contexts for TLS profiles
+ *
+ * @author Patrick
+ */
+class SslContexts {
+
+    private static final String TLS = "TLS";
+    private static final String PKCS12 = "PKCS12";
+
+    private static final System.Logger LOGGER = System.getLogger(SslContexts.class.getName());
+
+    private SslContexts() {
+    }
+
+    /**
+     * @param profile the TLS profile
+     * @return the SSL context for the profile
+     * @throws HttpClientException when the trust store or key store of the
+     * profile cannot be read
+     */
+    static SSLContext create(final TlsProfile profile) throws HttpClientException {
+        try {
+            if (profile.isDefault()) {
+                return SSLContext.getDefault();
+            }
+
+            SSLContext context = SSLContext.getInstance(TLS);
+            context.init(getKeyManagers(profile), getTrustManagers(profile), new SecureRandom());
+
+            return context;
+        } catch (GeneralSecurityException | IOException ex) {
+            LOGGER.log(ERROR, "Exception setting up SSL context for {0}, ex: {1}", profile, ex);
+            throw new HttpClientException(CustomException.INVALID_TLS_PROFILE, profile);
+        }
+    }
+
+    private static KeyManager[] getKeyManagers(final TlsProfile profile) throws GeneralSecurityException, IOException {
+        if (profile.keyStore() == null) {
+            return null;
+        }
+
+        char[] password = toChars(profile.keyStorePassword());
+        KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        factory.init(load(profile.keyStore(), password), password);
+
+        return factory.getKeyManagers();
+    }
+
+    private static TrustManager[] getTrustManagers(final TlsProfile profile) throws GeneralSecurityException, IOException {
+        if (profile.ignoreIssues()) {
+            return new TrustManager[]{new TrustingAll()};
+        } else if (profile.trustStore() == null) {
+            return null;
+        }
+
+        TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        factory.init(load(profile.trustStore(), toChars(profile.trustStorePassword())));
+
+        return factory.getTrustManagers();
+    }
+
+    private static KeyStore load(final String file, final char[] password) throws GeneralSecurityException, IOException {
+        KeyStore store = KeyStore.getInstance(PKCS12);
+        try (InputStream in = Files.newInputStream(Path.of(file))) {
+            store.load(in, password);
+        }
+
+        return store;
+    }
+
+    private static char[] toChars(final String password) {
+        return password != null ? password.toCharArray() : null;
+    }
+
+    private static class TrustingAll implements X509TrustManager {
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] certs, String authType) {
+            // Trust all client certificates
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] certs, String authType) {
+            // Trust all server certificates
+        }
+    }
+}
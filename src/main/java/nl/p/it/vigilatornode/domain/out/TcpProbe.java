@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.time.Duration;
+
+/**
+ * Probe of a tcp port, connecting and optionally sending a message and
+ * expecting a reply
+ *
+ * @param host the host to connect to
+ * @param port the port to connect to
+ * @param send the message to send once connected, or null
+ * @param expect the text the reply must contain, or null to not read a reply
+ * @param connectTimeout the time to wait for the connection, or null for the
+ * default timeout
+ * @param timeout the time to wait for sending and the expected reply once
+ * connected, or null for the default timeout
+ * @see TcpProber
+ * @author Patrick
+ */
+public record TcpProbe(String host, int port, String send, String expect, Duration connectTimeout, Duration timeout) {
+
+    private static final String SCHEME = "tcp://";
+
+    /**
+     * @return the url identifying the probed port, e.g. `tcp://db:5432`
+     */
+    public String url() {
+        return SCHEME + host + ':' + port;
+    }
+}
@@ -0,0 +1,332 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.metrics.Counter;
+import nl.p.it.vigilatornode.domain.metrics.Histogram;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
+import nl.p.it.vigilatornode.domain.monitor.Acceptor;
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.ERROR;
+
+/**
+ * Prober for tcp ports, running every probe on one selector thread
+ * <p>
+ * Connecting, sending and reading are non blocking, the selector thread only
+ * reacts to the channels that are ready. This lets one thread keep thousands
+ * of probes in flight, the cost of a probe is a socket and a small buffer.
+ * Timeouts are checked every tick instead of per selected key, so a busy
+ * selector does not walk all probes on every wake up.
+ * </p>
+ * <p>
+ * Host names are resolved on a virtual thread per probe before the probe is
+ * queued, a slow name server delays that probe only and never blocks the
+ * caller or the selector thread.
+ * </p>
+ * <p>
+ * The acceptor of a probe is called on the selector thread and must not block.
+ * The monitored data contains the bytes read and the connect time, a probe
+ * that did not connect has no connect time.
+ * </p>
+ *
+ * @see TcpProbe
+ * @author Patrick
+ */
+public class TcpProber {
+
+    private final Selector selector;
+    private final Queue<Connection> pending;
+    private final AtomicInteger inFlight;
+
+    private static TcpProber instance;
+
+    static final int READ_LIMIT = 8192;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(1);
+    private static final long TICK_MILLIS = 100;
+    private static final String THREAD_NAME = "tcp-prober";
+    private static final String RESOLVER_NAME = "tcp-resolver";
+
+    private static final String PROBES = "vigilator_tcp_probes_total";
+    private static final String PROBES_HELP = "Tcp probes completed, by result";
+    private static final Counter CONNECTED = Metrics.getInstance().counter(PROBES, PROBES_HELP, "result", "connected");
+    private static final Counter FAILED = Metrics.getInstance().counter(PROBES, PROBES_HELP, "result", "failed");
+    private static final Counter TIMED_OUT = Metrics.getInstance().counter(PROBES, PROBES_HELP, "result", "timeout");
+    private static final Histogram CONNECT_DURATION = Metrics.getInstance().histogram("vigilator_tcp_connect_duration_seconds",
+            "Time to establish tcp connections of probes", Histogram.LATENCY_BUCKETS);
+    private static final System.Logger LOGGER = System.getLogger(TcpProber.class.getName());
+
+    TcpProber() throws IOException {
+        this.selector = Selector.open();
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.inFlight = new AtomicInteger();
+        Thread.ofPlatform().name(THREAD_NAME).daemon().start(this::run);
+    }
+
+    /**
+     * Returns the `singleton` instance of the prober, starting its selector
+     * thread on first use
+     *
+     * @return the tcp prober
+     * @throws IOException when the selector cannot be opened
+     */
+    public static synchronized TcpProber getInstance() throws IOException {
+        if (instance == null) {
+            instance = new TcpProber();
+            Metrics.getInstance().gauge("vigilator_tcp_probes_in_flight",
+                    "Tcp probes connecting, sending or awaiting a reply", instance::getInFlight);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Start the probe, the acceptor is called once the probe completed, failed
+     * or timed out
+     *
+     * @param probe the probe
+     * @param acceptor the acceptor to call with the result
+     */
+    public void probe(final TcpProbe probe, final Acceptor<MonitoredData> acceptor) {
+        inFlight.incrementAndGet();
+        long started = System.nanoTime();
+        Thread.ofVirtual().name(RESOLVER_NAME).start(() -> resolve(probe, acceptor, started));
+    }
+
+    /**
+     * @return the probes in flight
+     */
+    public long getInFlight() {
+        return inFlight.get();
+    }
+
+    private void resolve(final TcpProbe probe, final Acceptor<MonitoredData> acceptor, final long started) {
+        InetSocketAddress address = new InetSocketAddress(probe.host(), probe.port());
+        pending.add(new Connection(probe, acceptor, address, started));
+        selector.wakeup();
+    }
+
+    private void run() {
+        long nextExpiry = System.nanoTime();
+        while (selector.isOpen()) {
+            try {
+                open();
+                selector.select(TICK_MILLIS);
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    SelectionKey key = selected.next();
+                    selected.remove();
+                    handle(key);
+                }
+                long now = System.nanoTime();
+                if (now - nextExpiry >= 0) {
+                    expire(now);
+                    nextExpiry = now + TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+                }
+            } catch (IOException | RuntimeException ex) {
+                LOGGER.log(ERROR, "Exception in tcp prober: {0}", ex);
+            }
+        }
+    }
+
+    private void open() {
+        Connection connection;
+        while ((connection = pending.poll()) != null) {
+            if (connection.address.isUnresolved()) {
+                LOGGER.log(DEBUG, "Not able to resolve {0}", connection.probe.host());
+                complete(connection);
+                continue;
+            }
+            try {
+                connection.channel = SocketChannel.open();
+                connection.channel.configureBlocking(false);
+                SelectionKey key = connection.channel.register(selector, SelectionKey.OP_CONNECT, connection);
+                if (connection.channel.connect(connection.address)) {
+                    connected(key, connection);
+                }
+            } catch (IOException ex) {
+                LOGGER.log(DEBUG, "Not able to connect to {0}, exception: {1}", connection.probe.url(), ex);
+                complete(connection);
+            }
+        }
+    }
+
+    private void handle(final SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isConnectable() && connection.channel.finishConnect()) {
+                connected(key, connection);
+            } else if (key.isWritable()) {
+                connection.channel.write(connection.send);
+                if (!connection.send.hasRemaining()) {
+                    awaitReply(key, connection);
+                }
+            } else if (key.isReadable()) {
+                int read = connection.channel.read(connection.received);
+                if (read > 0 && connection.firstByte == 0) {
+                    connection.firstByte = System.nanoTime();
+                }
+                if (read < 0 || !connection.received.hasRemaining() || connection.hasReceivedExpected()) {
+                    complete(connection);
+                }
+            }
+        } catch (IOException ex) {
+            LOGGER.log(DEBUG, "Probe of {0} failed, exception: {1}", connection.probe.url(), ex);
+            complete(connection);
+        }
+    }
+
+    private void connected(final SelectionKey key, final Connection connection) {
+        connection.connected = System.nanoTime();
+        connection.deadline = connection.connected + timeout(connection.probe.timeout());
+        CONNECT_DURATION.observeNanos(connection.connected - connection.started);
+        if (connection.send != null) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else {
+            awaitReply(key, connection);
+        }
+    }
+
+    private void awaitReply(final SelectionKey key, final Connection connection) {
+        if (connection.expect != null) {
+            key.interestOps(SelectionKey.OP_READ);
+        } else {
+            complete(connection);
+        }
+    }
+
+    private void expire(final long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection && now - connection.deadline >= 0) {
+                LOGGER.log(DEBUG, "Probe of {0} timed out", connection.probe.url());
+                complete(connection);
+            }
+        }
+    }
+
+    private void complete(final Connection connection) {
+        if (connection.completed) {
+            return;
+        }
+        connection.completed = true;
+        inFlight.decrementAndGet();
+        close(connection);
+
+        long now = System.nanoTime();
+        MonitoredData result = new MonitoredData(connection.receivedBytes(), connection.probe.url());
+        if (connection.connected > 0) {
+            result.recordConnectTime(connection.connected - connection.started);
+            result.recordTimings(connection.firstByte > 0 ? connection.firstByte - connection.started : 0, now - connection.started);
+        }
+        if (connection.connected > 0 && (connection.expect == null || connection.hasReceivedExpected())) {
+            CONNECTED.increment();
+        } else {
+            (now - connection.deadline >= 0 ? TIMED_OUT : FAILED).increment();
+        }
+
+        try {
+            connection.acceptor.accept(result);
+        } catch (RuntimeException ex) {
+            LOGGER.log(ERROR, "Exception while accepting probe of {0}, exception: {1}", connection.probe.url(), ex);
+        }
+    }
+
+    private void close(final Connection connection) {
+        if (connection.channel != null) {
+            try {
+                connection.channel.close();
+            } catch (IOException ex) {
+                LOGGER.log(DEBUG, "Not able to close connection to {0}, exception: {1}", connection.probe.url(), ex);
+            }
+        }
+    }
+
+    private static long timeout(final Duration timeout) {
+        return (timeout != null ? timeout : DEFAULT_TIMEOUT).toNanos();
+    }
+
+    /**
+     * State of a probe in flight, only accessed by the selector thread once
+     * the probe is queued
+     */
+    private static final class Connection {
+
+        private final TcpProbe probe;
+        private final Acceptor<MonitoredData> acceptor;
+        private final InetSocketAddress address;
+        private final long started;
+        private final ByteBuffer send;
+        private final byte[] expect;
+        private final ByteBuffer received;
+        private SocketChannel channel;
+        private long connected;
+        private long firstByte;
+        private long deadline;
+        private boolean completed;
+
+        Connection(final TcpProbe probe, final Acceptor<MonitoredData> acceptor, final InetSocketAddress address, final long started) {
+            this.probe = probe;
+            this.acceptor = acceptor;
+            this.address = address;
+            this.started = started;
+            this.deadline = started + timeout(probe.connectTimeout());
+            this.send = (probe.send() != null && !probe.send().isEmpty()
+                    ? ByteBuffer.wrap(probe.send().getBytes(StandardCharsets.UTF_8)) : null);
+            this.expect = (probe.expect() != null && !probe.expect().isEmpty()
+                    ? probe.expect().getBytes(StandardCharsets.UTF_8) : null);
+            this.received = (expect != null ? ByteBuffer.allocate(READ_LIMIT) : null);
+        }
+
+        /**
+         * @return whether the bytes read so far contain the expected reply
+         */
+        boolean hasReceivedExpected() {
+            if (received == null) {
+                return false;
+            }
+
+            byte[] bytes = received.array();
+            for (int i = 0; i <= received.position() - expect.length; i++) {
+                if (Arrays.equals(bytes, i, i + expect.length, expect, 0, expect.length)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        byte[] receivedBytes() {
+            return received != null ? Arrays.copyOf(received.array(), received.position()) : new byte[0];
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+/**
+ * TLS profile of outgoing requests, requests with the same TLS profile and
+ * connect timeout share one http client
+ *
+ * @param ignoreIssues whether to accept any server certificate
+ * @param trustStore path to a PKCS12 trust store with the certificates to
+ * trust instead of the default certificates, or null
+ * @param trustStorePassword the password of the trust store, or null
+ * @param keyStore path to a PKCS12 key store with the client certificate to
+ * authenticate with, or null
+ * @param keyStorePassword the password of the key store, or null
+ * @author Patrick
+ */
+public record TlsProfile(boolean ignoreIssues, String trustStore, String trustStorePassword,
+        String keyStore, String keyStorePassword) {
+
+    public static final TlsProfile VERIFY = new TlsProfile(false, null, null, null, null);
+    public static final TlsProfile IGNORE_ISSUES = new TlsProfile(true, null, null, null, null);
+
+    /**
+     * @return whether the default SSL context of the JVM can be used
+     */
+    public boolean isDefault() {
+        return !ignoreIssues && trustStore == null && keyStore == null;
+    }
+
+    @Override
+    public String toString() {
+        return "TlsProfile{"
+                + "ignoreIssues=" + ignoreIssues
+                + ", trustStore=" + trustStore
+                + ", keyStore=" + keyStore + '}';
+    }
+}
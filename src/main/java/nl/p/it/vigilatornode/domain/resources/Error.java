@@ -32,10 +32,19 @@ public class Error {
     public static final String EMPTY_RESPONSE = "Empty response received from resource: %s on url: %s";
     public static final String EMPTY_STATUS = "Empty status object received from resource: %s on url: %s";
     public static final String NOT_VALID_JSON = "Response for resource: %s is not valid JSON with message: %s";
+    public static final String NOT_VALID_EXPOSITION = "Response for resource: %s is not a valid Prometheus exposition with message: %s";
     public static final String POTENTIAL_VALUE_ERROR = "Received value: %s for '%s' in entry: %s indicating issues with the resource.";
+    public static final String RULE_MET = "Rule: %s '%s' met in entry: %s indicating issues with the resource.";
     public static final String EXCEEDS_TIME_CONSTRAINTS = "Received update data exceeds specified time constraints in object: %s";
     public static final String WEB_VALIDATION_EMPTY = "Web reply for url %s resulted in empty response";
     public static final String WEB_VALIDATION_FAILED = "Web reply for url %s failed to validate title";
+    public static final String WEB_CONTENT_MISSING = "Web reply for url %s does not contain: %s";
+    public static final String SLOW_RESPONSE = "Response time of %d ms for resource: %s on url: %s meets condition '%s'";
+    public static final String NO_CONNECTION = "Failed to connect to resource: %s on url: %s";
+    public static final String UNEXPECTED_REPLY = "Reply of resource: %s on url: %s does not contain '%s'";
+    public static final String SLOW_CONNECT = "Connect time of %d ms for resource: %s on url: %s meets condition '%s'";
+    public static final String CERTIFICATE_EXPIRY = "Certificate of resource: %s on url: %s expires at %s, meeting condition '%s'";
+    public static final String LONG_REDIRECT_CHAIN = "Redirect chain of %d redirects for resource: %s on url: %s meets condition '%s'";
 
     private Error() {
     }
@@ -17,12 +17,24 @@ package nl.p.it.vigilatornode.domain.resources;
 
 import nl.p.it.vigilatornode.domain.resources.validation.MonitorValidator;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.metrics.Histogram;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
 import nl.p.it.vigilatornode.domain.monitor.Acceptor;
 import nl.p.it.vigilatornode.domain.out.OutgoingClient;
 import nl.p.it.vigilatornode.exception.HttpClientException;
 import static java.lang.System.Logger.Level.ERROR;
-import java.util.ArrayList;
-import nl.p.it.vigilatornode.domain.out.Option;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.p.it.vigilatornode.domain.monitor.Notifier;
+import nl.p.it.vigilatornode.domain.out.Fetch;
+import nl.p.it.vigilatornode.domain.out.RequestPlan;
+import nl.p.it.vigilatornode.domain.out.RequestSettings;
+import nl.p.it.vigilatornode.domain.out.TlsProfile;
 
 /**
  * The ExposedResource class is a monitored resource available via internet
@@ -33,16 +45,35 @@ public class ExposedResource extends MonitoredResource {
 
     private OutgoingClient client;
     private String resourceMonitorEndpoint;
+    private volatile boolean headUnsupported;
 
     private final MonitorValidator monitorValidator;
+    private final Map<String, RequestPlan> plans;
 
     private static final String CONFIG_WEB = "Web";
     private static final String KEY_URL = "url";
+    private static final String KEY_RESPONSE_TIME = "responseTime";
+    private static final String KEY_REDIRECTS = "redirects";
+    private static final String KEY_CERTIFICATE_EXPIRY = "certificateExpiry";
+    private static final String KEY_FETCH = "fetch";
+    private static final String FETCH_FULL = "full";
+    private static final String FORMAT_PROMETHEUS = "prometheus";
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int NOT_IMPLEMENTED = 501;
+    private static final int HEDGE_PERCENTILE = 95;
+    private static final int HEDGE_MIN_RESPONSES = 20;
 
+    private static final String VALIDATION_DURATION = "vigilator_validation_duration_seconds";
+    private static final String VALIDATION_DURATION_HELP = "Time spent validating replies";
+    private static final Histogram MONITOR_VALIDATION = Metrics.getInstance().histogram(VALIDATION_DURATION,
+            VALIDATION_DURATION_HELP, Histogram.LATENCY_BUCKETS, "reply", "monitor");
+    private static final Histogram WEB_VALIDATION = Metrics.getInstance().histogram(VALIDATION_DURATION,
+            VALIDATION_DURATION_HELP, Histogram.LATENCY_BUCKETS, "reply", "web");
     private static final System.Logger LOGGER = System.getLogger(ExposedResource.class.getName());
 
     public ExposedResource() {
         this.monitorValidator = new MonitorValidator();
+        this.plans = new ConcurrentHashMap<>();
     }
 
     /**
@@ -53,6 +84,28 @@ public class ExposedResource extends MonitoredResource {
      */
     public void connect(final OutgoingClient client) {
         this.client = client;
+        plans.clear();
+        if (client != null) {
+            prepareRequests();
+        }
+    }
+
+    /**
+     * Compiles the selections of every part but the Web part when the monitor
+     * endpoint replies a Prometheus exposition
+     *
+     * @see MonitoredResource.compile()
+     */
+    @Override
+    public void compile() {
+        super.compile();
+        if (FORMAT_PROMETHEUS.equalsIgnoreCase(config.getFormat())) {
+            for (Map.Entry<String, MonitoredPart> part : parts.entrySet()) {
+                if (!CONFIG_WEB.equals(part.getKey())) {
+                    part.getValue().getSelections();
+                }
+            }
+        }
     }
 
     /**
@@ -63,22 +116,37 @@ public class ExposedResource extends MonitoredResource {
      */
     @Override
     public void updateStatus() {
-        take++;
-        takes.put(take, new ArrayList<>());
+        updateStatus(null);
+    }
+
+    /**
+     * Updates the status of the resource, notifying when the replies of all
+     * requests sent for the take have been received and validated
+     *
+     * @param completed the notifier to notify when the take completed, or null
+     * @see MonitoredResource.updateStatus(Notifier)
+     */
+    @Override
+    public void updateStatus(final Notifier completed) {
+        int current = startTake();
+        Instant started = clock.now();
         resourceMonitorEndpoint = (resourceMonitorEndpoint != null ? resourceMonitorEndpoint : config.getUrl());
+        MonitoredPart webPart = parts.get(CONFIG_WEB);
+        String webUrl = (webPart != null ? webPart.getItems().get(KEY_URL) : null);
+        boolean hasWebUrl = webUrl != null && !webUrl.isEmpty();
+
+        Notifier replied = awaitReplies((resourceMonitorEndpoint != null ? 1 : 0) + (hasWebUrl ? 1 : 0), completed);
         if (resourceMonitorEndpoint != null) {
-            retrieveUpdateFromResource(resourceMonitorEndpoint);
+            retrieveUpdateFromResource(resourceMonitorEndpoint, current, replied, started);
         }
 
-        MonitoredPart webPart = parts.get(CONFIG_WEB);
         if (webPart != null) {
-            String webUrl = webPart.getItems().get(KEY_URL);
-            if (webUrl != null && !webUrl.isEmpty()) {
-                retrieveUpdateFromResource(webUrl);
+            if (hasWebUrl) {
+                retrieveUpdateFromResource(webUrl, current, replied, started);
             } else {
-                MonitoredData result = new MonitoredData(new byte[0]);
+                MonitoredData result = new MonitoredData(new byte[0], null, started);
                 result.addError(Error.NO_WEB_URL);
-                takes.get(take).add(result);
+                addToTake(current, result);
             }
         } else {
             // resource does not require web availability checks
@@ -87,31 +155,178 @@ public class ExposedResource extends MonitoredResource {
         finaliseUpdate();
     }
 
-    private void retrieveUpdateFromResource(final String url) {
+    /**
+     * Prepare the request plans for the monitor endpoint and the web page, so
+     * every take only dispatches them. When a plan cannot be prepared, the
+     * exception is reported in every take instead
+     */
+    private void prepareRequests() {
+        MonitoredPart webPart = parts.get(CONFIG_WEB);
+        for (String url : new String[]{config.getUrl(), webPart != null ? webPart.getItems().get(KEY_URL) : null}) {
+            if (url != null && !url.isEmpty()) {
+                try {
+                    getPlan(url);
+                } catch (HttpClientException ex) {
+                    LOGGER.log(WARNING, "Not able to prepare requests to {0} for {1}, exception: {2}", url, name, ex);
+                }
+            }
+        }
+    }
+
+    private RequestPlan getPlan(final String url) throws HttpClientException {
+        RequestPlan plan = plans.get(url);
+        if (plan == null) {
+            plan = client.plan(url, new RequestSettings(config.getConnectTimeout(), config.getTimeout(), null),
+                    getTlsProfile(), url.equals(config.getUrl()) ? Fetch.FULL : getWebFetch());
+            if (plan != null) {
+                plans.put(url, plan);
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Without a title only the reachability of the web page is checked, so
+     * only the headers are fetched. With a title only the start of the page is
+     * fetched, the title is expected in the head of the page. Configuring
+     * `fetch: full` or a contains item fetches the full page instead
+     *
+     * @return how much of the web page to fetch
+     */
+    private Fetch getWebFetch() {
+        Map<String, String> items = parts.get(CONFIG_WEB).getItems();
+        String title = items.get(MonitoredPart.TITLE);
+        String contains = items.get(MonitoredPart.CONTAINS);
+        if (FETCH_FULL.equalsIgnoreCase(items.get(KEY_FETCH)) || (contains != null && !contains.isEmpty())) {
+            return Fetch.FULL;
+        } else if (title != null && !title.isEmpty()) {
+            return Fetch.RANGE;
+        }
+
+        return headUnsupported ? Fetch.RANGE : Fetch.HEAD;
+    }
+
+    /**
+     * Some servers do not allow HEAD requests, the response still proves the
+     * page is reachable. Following takes fetch the start of the page instead
+     *
+     * @param result the web reply
+     */
+    private void detectHeadUnsupported(final MonitoredData result) {
+        if (!headUnsupported && (result.getStatusCode() == METHOD_NOT_ALLOWED || result.getStatusCode() == NOT_IMPLEMENTED)
+                && getWebFetch() == Fetch.HEAD) {
+            LOGGER.log(INFO, "HEAD requests not allowed for {0} of {1}, fetching the start of the page instead", result.getUrl(), name);
+            headUnsupported = true;
+            plans.remove(result.getUrl());
+        }
+    }
+
+    private TlsProfile getTlsProfile() {
+        if (config.getTrustStore() == null && config.getKeyStore() == null) {
+            return config.getIgnoreTLSIssues() ? TlsProfile.IGNORE_ISSUES : TlsProfile.VERIFY;
+        }
+
+        return new TlsProfile(config.getIgnoreTLSIssues(), config.getTrustStore(), config.getTrustStorePassword(),
+                config.getKeyStore(), config.getKeyStorePassword());
+    }
+
+    private void retrieveUpdateFromResource(final String url, final int current, final Notifier replied, final Instant started) {
         try {
-            client.scheduleRequest(url, getAcceptor(),
-                    config.getIgnoreTLSIssues() ? Option.IGNORE_TLS_ISSUES : null);
+            client.scheduleRequest(getPlan(url), getAcceptor(current, replied, started), getHedgeAfter());
         } catch (HttpClientException ex) {
             LOGGER.log(ERROR, "Excepting during request from {0} with "
                     + "exception being: {1}", getClass().getSimpleName(), ex);
-            MonitoredData result = new MonitoredData(ex.getMessage().getBytes(), url);
+            MonitoredData result = new MonitoredData(ex.getMessage().getBytes(), url, started);
             result.addError(Error.withArgs(Error.NO_RESPONE, name, url));
-            takes.get(take).add(result);
+            addToTake(current, result);
+            replied.doNotify();
+        }
+    }
+
+    /**
+     * When hedging is enabled and enough response times have been observed,
+     * a duplicate request is sent once a request passes the p95 response time
+     * of the resource
+     *
+     * @return the time after which to send a duplicate request, or null
+     */
+    private Duration getHedgeAfter() {
+        Duration hedgeAfter = null;
+        if (config.isHedge() && responseTimes.getCount() >= HEDGE_MIN_RESPONSES) {
+            hedgeAfter = Duration.ofMillis(responseTimes.percentile(HEDGE_PERCENTILE));
+            if (config.getTimeout() != null && hedgeAfter.compareTo(config.getTimeout()) >= 0) {
+                hedgeAfter = null;
+            }
         }
+
+        return hedgeAfter;
     }
 
-    private Acceptor<MonitoredData> getAcceptor() {
+    /**
+     * @param current the take the reply is requested for
+     * @param replied the notifier to notify when the reply is validated
+     * @param started the moment the take started, the clock is read once per
+     * take so every temporal condition of the take is validated at the same
+     * moment
+     */
+    private Acceptor<MonitoredData> getAcceptor(final int current, final Notifier replied, final Instant started) {
         return (final MonitoredData result) -> {
-            takes.get(take).add(result);
+            try {
+                addToTake(current, result);
 
-            if (result.hasData()) {
-                if (resourceMonitorEndpoint.equals(result.getUrl())) {
-                    monitorValidator.validate(result, parts, name);
+                boolean monitorReply = resourceMonitorEndpoint != null && resourceMonitorEndpoint.equals(result.getUrl());
+                if (result.hasData() || (!monitorReply && result.hasResponded())) {
+                    if (result.getResponseTimeInNanos() > 0) {
+                        responseTimes.record(result.getResponseTimeInNanos());
+                    }
+                    long start = System.nanoTime();
+                    if (monitorReply) {
+                        if (FORMAT_PROMETHEUS.equalsIgnoreCase(config.getFormat())) {
+                            monitorValidator.validateExposition(result, parts, name);
+                        } else {
+                            monitorValidator.validate(result, parts, name, started);
+                        }
+                        monitorValidator.validateResponseTime(result, config.getResponseTimeCondition(), name);
+                        monitorValidator.validateRedirects(result, config.getRedirectsCondition(), name);
+                        monitorValidator.validateCertificateExpiry(result, config.getCertificateExpiryCondition(), name, started);
+                        MONITOR_VALIDATION.observeSince(start);
+                    } else {
+                        detectHeadUnsupported(result);
+                        monitorValidator.validateWebReply(result, parts, name);
+                        monitorValidator.validateResponseTime(result, parts.get(CONFIG_WEB).getItems().get(KEY_RESPONSE_TIME), name);
+                        monitorValidator.validateRedirects(result, parts.get(CONFIG_WEB).getItems().get(KEY_REDIRECTS), name);
+                        monitorValidator.validateCertificateExpiry(result, parts.get(CONFIG_WEB).getItems().get(KEY_CERTIFICATE_EXPIRY), name, started);
+                        WEB_VALIDATION.observeSince(start);
+                    }
                 } else {
-                    monitorValidator.validateWebReply(result, parts, name);
+                    result.addError(Error.withArgs(Error.NO_RESPONE, name, result.getUrl()));
                 }
-            } else {
-                result.addError(Error.withArgs(Error.NO_RESPONE, name, result.getUrl()));
+            } finally {
+                replied.doNotify();
+            }
+        };
+    }
+
+    /**
+     * @param replies the amount of replies expected for the take
+     * @param completed the notifier to notify after the last reply, or null
+     * @return the notifier to notify for every reply
+     */
+    private Notifier awaitReplies(final int replies, final Notifier completed) {
+        if (replies == 0) {
+            if (completed != null) {
+                completed.doNotify();
+            }
+            return () -> {
+                // no replies expected
+            };
+        }
+
+        AtomicInteger pending = new AtomicInteger(replies);
+        return () -> {
+            if (pending.decrementAndGet() == 0 && completed != null) {
+                completed.doNotify();
             }
         };
     }
@@ -15,23 +15,55 @@
  */
 package nl.p.it.vigilatornode.domain.resources;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import nl.p.it.vigilatornode.domain.resources.validation.ConditionValidator;
+import nl.p.it.vigilatornode.domain.resources.validation.ContentMatcher;
+import nl.p.it.vigilatornode.domain.resources.validation.JsonPaths;
+import nl.p.it.vigilatornode.domain.resources.validation.Rule;
+import nl.p.it.vigilatornode.domain.resources.validation.Selection;
+import static java.lang.System.Logger.Level.WARNING;
 
 /**
  * Part to be monitored of a resource
+ * <p>
+ * The paths among the items are compiled on first use after an item
+ * addressing a nested value is added, so reading a part with many paths
+ * compiles them once instead of once per item. The selections of a part
+ * naming a metric of a Prometheus exposition are compiled on first use as
+ * well, the resource compiles both when it is read, see
+ * {@link MonitoredResource#compile()}.
+ * </p>
  *
  * @author Patrick
  */
 public class MonitoredPart {
 
+    public static final String DATETIME = "datetime";
+    public static final String TITLE = "title";
+    public static final String CONTAINS = "contains";
+
     private String datetimeCondition;
+    private volatile JsonPaths paths;
+    private volatile boolean pathsCompiled;
+    private volatile List<Selection> selections;
+    private ContentMatcher content;
     private final Map<String, String> items;
+    private final Map<String, Rule> rules;
+
+    private static final String HTML_TITLE = "<title>";
+    private static final String CONTAINS_SEPARATOR = "\\|";
+    private static final String WARNING_SUFFIX = " W";
+    private static final String OLDER_THEN = ">";
 
-    private static final String DATETIME = "datetime";
+    private static final System.Logger LOGGER = System.getLogger(MonitoredPart.class.getName());
 
     public MonitoredPart() {
         items = new HashMap<>();
+        rules = new LinkedHashMap<>();
     }
 
     /**
@@ -43,8 +75,24 @@ public class MonitoredPart {
     public void addItem(final String item, final String condition) {
         if (DATETIME.equals(item)) {
             datetimeCondition = condition;
+            compileCondition(item, condition);
+            if (condition != null && condition.trim().startsWith(OLDER_THEN)) {
+                LOGGER.log(WARNING, "Datetime condition {0} requires the update to be older than its amount, "
+                        + "use < to require a recent update", condition);
+            }
         } else if (item != null && !item.isEmpty()) {
             items.put(item, condition);
+            selections = null;
+            if (Rule.isRule(item)) {
+                compileRule(item, condition);
+            } else if (JsonPaths.isPath(item)) {
+                pathsCompiled = false;
+            }
+            if (TITLE.equals(item) || CONTAINS.equals(item)) {
+                compileContent();
+            } else if (!Rule.isRule(item)) {
+                compileCondition(item, condition);
+            }
         }
     }
 
@@ -56,12 +104,118 @@ public class MonitoredPart {
     }
 
     /**
+     * @return the compiled paths among the items, or null when no item
+     * addresses a nested value
+     */
+    public JsonPaths getPaths() {
+        if (!pathsCompiled) {
+            compilePaths();
+        }
+
+        return paths;
+    }
+
+    /**
+     * Entries without a condition of their own, like the `items` heading,
+     * select nothing and are skipped
+     *
+     * @return the compiled selections of the items, when the part names a
+     * metric of a Prometheus exposition
+     * @throws IllegalArgumentException when an item is not a valid selector
+     */
+    public List<Selection> getSelections() {
+        List<Selection> compiled = selections;
+
+        return compiled != null ? compiled : compileSelections();
+    }
+
+    /**
+     * The matcher finds the title, as `<title>` followed by the title, at
+     * index 0 and the texts of the contains item from index 1 on. Without a
+     * title the text at index 0 is empty and never reported as found
+     *
+     * @return the compiled matcher of the title and contains items, or null
+     * when neither is set
+     */
+    public ContentMatcher getContent() {
+        return content;
+    }
+
+    /**
+     * @return the compiled rules among the items, by item key
+     */
+    public Map<String, Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Unlike the conditions of the items, the datetime condition states how
+     * recent the update must be, e.g. `< 5min`, and is reported when it is not
+     * met
+     *
      * @return the datetime condition or null
      */
     public String getDatetimeCondition() {
         return datetimeCondition;
     }
 
+    private synchronized void compilePaths() {
+        if (!pathsCompiled) {
+            paths = JsonPaths.compile(items.keySet().stream().filter(key -> !Rule.isRule(key)).toList());
+            pathsCompiled = true;
+        }
+    }
+
+    private synchronized List<Selection> compileSelections() {
+        if (selections == null) {
+            List<Selection> compiled = new ArrayList<>(items.size());
+            for (Map.Entry<String, String> item : items.entrySet()) {
+                if (!item.getKey().equals(item.getValue())) {
+                    compiled.add(Selection.compile(item.getKey(), item.getValue()));
+                }
+            }
+            selections = List.copyOf(compiled);
+        }
+
+        return selections;
+    }
+
+    private void compileRule(final String item, final String condition) {
+        try {
+            rules.put(item, Rule.compile(item, condition));
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(WARNING, "Rule {0} is not valid and will be ignored, exception: {1}", item, ex.getMessage());
+            rules.remove(item);
+        }
+    }
+
+    private void compileContent() {
+        String title = items.get(TITLE);
+        String contains = items.get(CONTAINS);
+        List<String> texts = new ArrayList<>();
+        texts.add(title != null && !title.isEmpty() ? HTML_TITLE + title : "");
+        if (contains != null) {
+            if (contains.endsWith(WARNING_SUFFIX)) {
+                contains = contains.substring(0, contains.length() - WARNING_SUFFIX.length());
+            }
+            for (String text : contains.split(CONTAINS_SEPARATOR)) {
+                if (!text.isBlank()) {
+                    texts.add(text.trim());
+                }
+            }
+        }
+
+        content = (texts.size() > 1 || !texts.get(0).isEmpty() ? new ContentMatcher(texts) : null);
+    }
+
+    private void compileCondition(final String item, final String condition) {
+        try {
+            ConditionValidator.compile(condition);
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(WARNING, "Condition of {0} is not valid and will never be met, exception: {1}", item, ex.getMessage());
+        }
+    }
+
     @Override
     public String toString() {
         return "MonitoredPart{"
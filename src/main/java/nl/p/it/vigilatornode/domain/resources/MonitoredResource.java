@@ -15,29 +15,44 @@
  */
 package nl.p.it.vigilatornode.domain.resources;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.metrics.LatencyHistogram;
+import nl.p.it.vigilatornode.domain.monitor.MonitorClock;
+import nl.p.it.vigilatornode.domain.monitor.Notifier;
 
 /**
  * Base monitored resource
+ * <p>
+ * Takes are started by the monitor thread, while the replies of a take are
+ * added by the threads receiving them and the status is read by the threads
+ * handling status requests. The takes are therefore kept in a concurrent map
+ * of copy on write lists, a reply is added to the take it was requested for
+ * and dropped when that take is no longer retained.
+ * </p>
  *
  * @author Patrick
  */
 public abstract class MonitoredResource {
 
-    protected int take;
+    protected volatile int take;
     protected String name;
     protected final MonitoredResourceConfig config;
     protected final Map<String, MonitoredPart> parts;
     protected final Map<Integer, List<MonitoredData>> takes;
-    protected final MonitoredResourceStatus status;
+    protected final LatencyHistogram responseTimes;
+    protected MonitorClock clock;
 
-    private final List<MonitoredData> data;
+    private int oldestTake;
 
     /**
      * FUTURE_WORK maybe this should be configurable In order to limit the
@@ -52,9 +67,16 @@ public abstract class MonitoredResource {
     protected MonitoredResource() {
         config = new MonitoredResourceConfig();
         parts = new HashMap<>();
-        takes = new HashMap<>();
-        data = new ArrayList<>();
-        status = new MonitoredResourceStatus();
+        takes = new ConcurrentHashMap<>();
+        responseTimes = new LatencyHistogram();
+        clock = MonitorClock.system();
+    }
+
+    /**
+     * @param clock the clock to timestamp the takes of this resource with
+     */
+    public void useClock(final MonitorClock clock) {
+        this.clock = (clock != null ? clock : MonitorClock.system());
     }
 
     /**
@@ -89,6 +111,17 @@ public abstract class MonitoredResource {
         }
     }
 
+    /**
+     * Compile the parts once the resource is read, so the parts are not
+     * compiled while monitoring and a part that is not valid is rejected when
+     * reading the resource
+     *
+     * @throws IllegalArgumentException when a part is not valid
+     */
+    public void compile() {
+        parts.values().forEach(MonitoredPart::getPaths);
+    }
+
     /**
      * @return name of the resource
      */
@@ -101,7 +134,6 @@ public abstract class MonitoredResource {
      */
     public void setName(final String name) {
         this.name = name;
-        this.status.setName(name);
     }
 
     /**
@@ -112,14 +144,42 @@ public abstract class MonitoredResource {
     }
 
     /**
-     * @return the data
+     * @return a copy of the retained data, ordered by take
      */
     public List<MonitoredData> getData() {
-        data.clear();
-        takes.values().forEach(data::addAll);
+        List<MonitoredData> data = new ArrayList<>();
+        new TreeMap<>(takes).values().forEach(data::addAll);
         return data;
     }
 
+    /**
+     * Start the next take, the take is added before it becomes the current
+     * take so readers of the current take always find it
+     *
+     * @return the number of the started take
+     */
+    protected int startTake() {
+        int next = take + 1;
+        takes.put(next, new CopyOnWriteArrayList<>());
+        take = next;
+
+        return next;
+    }
+
+    /**
+     * Add a result to the take it was requested for, a result of a take that
+     * is no longer retained is dropped
+     *
+     * @param requestedTake the take the result was requested for
+     * @param result the result to add
+     */
+    protected void addToTake(final int requestedTake, final MonitoredData result) {
+        List<MonitoredData> entries = takes.get(requestedTake);
+        if (entries != null) {
+            entries.add(result);
+        }
+    }
+
     /**
      * @return if the resource is healthy, meaning the last monitored data entry
      * returned healthy
@@ -137,17 +197,28 @@ public abstract class MonitoredResource {
     }
 
     /**
-     * @return if the current status of this resource
+     * @return a new status of the current take of this resource, or null
+     * without takes
      * @see MonitoredData.isHealthy();
      */
     public MonitoredResourceStatus getStatus() {
-        status.clear();
         List<MonitoredData> lastData = takes.get(take);
         if (lastData != null) {
+            MonitoredResourceStatus status = new MonitoredResourceStatus();
+            status.setName(name);
+            Instant certificateExpiry = null;
             for (MonitoredData entry : lastData) {
                 status.addErrors(entry.getErrors());
                 status.addWarnings(entry.getWarnings());
+                if (entry.getCertificateExpiry() != null
+                        && (certificateExpiry == null || entry.getCertificateExpiry().isBefore(certificateExpiry))) {
+                    certificateExpiry = entry.getCertificateExpiry();
+                }
             }
+            status.setCertificateExpiry(certificateExpiry != null ? certificateExpiry.toString() : null);
+            status.setResponseTime(responseTimes.getCount() > 0
+                    ? new ResponseTime(responseTimes.percentile(50), responseTimes.percentile(95), responseTimes.percentile(99))
+                    : null);
             return status;
         } else {
             return null;
@@ -163,14 +234,20 @@ public abstract class MonitoredResource {
      * only for more unusual request reading from persisted storage is required.
      * Next to that data will be kept in the heap as long as there is space.
      *
-     * truncates the data based on DATA_LIMIT_AMOUNT to conserve memory usage
+     * truncates the data based on DATA_LIMIT_AMOUNT to conserve memory usage,
+     * whole takes are dropped oldest first and the current take is always kept.
+     * The data of a dropped take is not closed, a late reply might still be
+     * validated, the cleaner releases it once it is no longer referenced
      */
     public void finaliseUpdate() {
-        int diff = data.size() - DATA_LIMIT_AMOUNT;
-        if (diff > 0) {
-            for (int i = 0; i < diff; i++) {
-                data.getFirst().close();
-                data.removeFirst();
+        int retained = 0;
+        for (List<MonitoredData> entries : takes.values()) {
+            retained += entries.size();
+        }
+        while (retained > DATA_LIMIT_AMOUNT && oldestTake < take) {
+            List<MonitoredData> dropped = takes.remove(oldestTake++);
+            if (dropped != null) {
+                retained -= dropped.size();
             }
         }
     }
@@ -180,6 +257,21 @@ public abstract class MonitoredResource {
      */
     public abstract void updateStatus();
 
+    /**
+     * Update the status of the monitored resource and notify when the take
+     * completed. By default a take is completed when updating the status
+     * returned, resources that receive their replies asynchronously override
+     * this to notify after the last reply
+     *
+     * @param completed the notifier to notify when the take completed, or null
+     */
+    public void updateStatus(final Notifier completed) {
+        updateStatus();
+        if (completed != null) {
+            completed.doNotify();
+        }
+    }
+
     @Override
     public String toString() {
         return "MonitoredResource{"
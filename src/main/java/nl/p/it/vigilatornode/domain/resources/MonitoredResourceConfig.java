@@ -15,6 +15,10 @@
  */
 package nl.p.it.vigilatornode.domain.resources;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import static java.lang.System.Logger.Level.WARNING;
 
 /**
@@ -29,16 +33,49 @@ public class MonitoredResourceConfig {
     private boolean active;
     private boolean ignoreTLSIssues;
     private String url;
+    private String responseTimeCondition;
+    private String redirectsCondition;
+    private String certificateExpiryCondition;
+    private String connectTimeCondition;
+    private String send;
+    private String format;
+    private String expect;
+    private Duration connectTimeout;
+    private Duration timeout;
+    private boolean hedge;
+    private String trustStore;
+    private String trustStorePassword;
+    private String keyStore;
+    private String keyStorePassword;
+    private final Map<String, String> entries;
 
     private static final String KEY_ACTIVE = "active";
     private static final String VALUE_TRUE = "true";
     private static final String KEY_URL = "url";
     private static final String KEY_IGNORE_TLS_ISSUES = "ignoreTLSIssues";
+    private static final String KEY_RESPONSE_TIME = "responseTime";
+    private static final String KEY_REDIRECTS = "redirects";
+    private static final String KEY_CERTIFICATE_EXPIRY = "certificateExpiry";
+    private static final String KEY_CONNECT_TIME = "connectTime";
+    private static final String KEY_SEND = "send";
+    private static final String KEY_FORMAT = "format";
+    private static final String KEY_EXPECT = "expect";
+    private static final String KEY_CONNECT_TIMEOUT = "connectTimeout";
+    private static final String KEY_TIMEOUT = "timeout";
+    private static final String KEY_HEDGE = "hedge";
+    private static final String KEY_TRUST_STORE = "trustStore";
+    private static final String KEY_TRUST_STORE_PASSWORD = "trustStorePassword";
+    private static final String KEY_KEY_STORE = "keyStore";
+    private static final String KEY_KEY_STORE_PASSWORD = "keyStorePassword";
+    private static final String MS = "ms";
+    private static final String S = "s";
+    private static final String MIN = "min";
 
     private static final System.Logger LOGGER = System.getLogger(MonitoredResourceConfig.class.getName());
 
     public MonitoredResourceConfig() {
         active = false;
+        entries = new LinkedHashMap<>();
     }
 
     /**
@@ -69,11 +106,127 @@ public class MonitoredResourceConfig {
         return ignoreTLSIssues;
     }
 
+    /**
+     * @return the condition for the response time of the monitor endpoint, or
+     * null
+     */
+    public String getResponseTimeCondition() {
+        return responseTimeCondition;
+    }
+
+    /**
+     * @return the condition for the length of the redirect chain of the
+     * monitor endpoint, or null
+     */
+    public String getRedirectsCondition() {
+        return redirectsCondition;
+    }
+
+    /**
+     * @return the condition for the time until the certificate of the monitor
+     * endpoint expires, or null
+     */
+    public String getCertificateExpiryCondition() {
+        return certificateExpiryCondition;
+    }
+
+    /**
+     * @return the condition for the time it took to connect to the resource,
+     * or null
+     */
+    public String getConnectTimeCondition() {
+        return connectTimeCondition;
+    }
+
+    /**
+     * @return the format of the monitor endpoint, e.g. `prometheus`, or null
+     * for the status JSON
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the message to send once connected to a tcp resource, or null
+     */
+    public String getSend() {
+        return send;
+    }
+
+    /**
+     * @return the text the reply of a tcp resource must contain, or null
+     */
+    public String getExpect() {
+        return expect;
+    }
+
+    /**
+     * @return the timeout for connecting to the resource, or null for the
+     * default timeout
+     */
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * @return the timeout for a request to the resource, or null for the
+     * default timeout
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return whether to send a duplicate request when a request takes longer
+     * than the observed p95 response time of the resource
+     */
+    public boolean isHedge() {
+        return hedge;
+    }
+
+    /**
+     * @return path to the PKCS12 trust store with the certificates to trust
+     * for this resource, or null for the default certificates
+     */
+    public String getTrustStore() {
+        return trustStore;
+    }
+
+    /**
+     * @return the password of the trust store, or null
+     */
+    public String getTrustStorePassword() {
+        return trustStorePassword;
+    }
+
+    /**
+     * @return path to the PKCS12 key store with the client certificate to
+     * authenticate to this resource with, or null
+     */
+    public String getKeyStore() {
+        return keyStore;
+    }
+
+    /**
+     * @return the password of the key store, or null
+     */
+    public String getKeyStorePassword() {
+        return keyStorePassword;
+    }
+
+    /**
+     * @return the configuration entries as they were set, in order of setting
+     */
+    public Map<String, String> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
     /**
      * @param key key to set for the config
      * @param value the value to set for the config
      */
     public void set(final String key, final String value) {
+        entries.put(key, value);
         switch (key) {
             case KEY_ACTIVE -> {
                 active = VALUE_TRUE.equals(value);
@@ -84,9 +237,86 @@ public class MonitoredResourceConfig {
             case KEY_IGNORE_TLS_ISSUES -> {
                 ignoreTLSIssues = VALUE_TRUE.equals(value);
             }
+            case KEY_RESPONSE_TIME -> {
+                responseTimeCondition = value;
+            }
+            case KEY_REDIRECTS -> {
+                redirectsCondition = value;
+            }
+            case KEY_CERTIFICATE_EXPIRY -> {
+                certificateExpiryCondition = value;
+            }
+            case KEY_CONNECT_TIME -> {
+                connectTimeCondition = value;
+            }
+            case KEY_FORMAT -> {
+                format = value;
+            }
+            case KEY_SEND -> {
+                send = value;
+            }
+            case KEY_EXPECT -> {
+                expect = value;
+            }
+            case KEY_CONNECT_TIMEOUT -> {
+                connectTimeout = parseDuration(key, value);
+            }
+            case KEY_TIMEOUT -> {
+                timeout = parseDuration(key, value);
+            }
+            case KEY_HEDGE -> {
+                hedge = VALUE_TRUE.equals(value);
+            }
+            case KEY_TRUST_STORE -> {
+                trustStore = value;
+            }
+            case KEY_TRUST_STORE_PASSWORD -> {
+                trustStorePassword = value;
+            }
+            case KEY_KEY_STORE -> {
+                keyStore = value;
+            }
+            case KEY_KEY_STORE_PASSWORD -> {
+                keyStorePassword = value;
+            }
             default -> {
                 LOGGER.log(WARNING, "Unexpected key detected: " + key + " the value will be ignored");
             }
         }
     }
+
+    /**
+     * @param key the key of the value, used for logging
+     * @param value the duration, e.g. `500ms`, `5s` or `1min`, without unit
+     * the value is in milliseconds
+     * @return the duration or null when the value is not a positive duration
+     */
+    private Duration parseDuration(final String key, final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String duration = value.trim();
+        try {
+            Duration result;
+            if (duration.endsWith(MIN)) {
+                result = Duration.ofMinutes(Long.parseLong(duration.substring(0, duration.length() - MIN.length()).trim()));
+            } else if (duration.endsWith(MS)) {
+                result = Duration.ofMillis(Long.parseLong(duration.substring(0, duration.length() - MS.length()).trim()));
+            } else if (duration.endsWith(S)) {
+                result = Duration.ofSeconds(Long.parseLong(duration.substring(0, duration.length() - S.length()).trim()));
+            } else {
+                result = Duration.ofMillis(Long.parseLong(duration));
+            }
+
+            if (result.isZero() || result.isNegative()) {
+                LOGGER.log(WARNING, "Value for " + key + " must be positive, the default will be used");
+                return null;
+            }
+            return result;
+        } catch (NumberFormatException ex) {
+            LOGGER.log(WARNING, "Value for " + key + " is not a duration: " + value + " the default will be used");
+            return null;
+        }
+    }
 }
@@ -30,6 +30,8 @@ public class MonitoredResourceStatus {
     private String name;
     private final List<String> errors;
     private final List<String> warnings;
+    private ResponseTime responseTime;
+    private String certificateExpiry;
 
     public MonitoredResourceStatus() {
         this.errors = new ArrayList<>();
@@ -97,6 +99,38 @@ public class MonitoredResourceStatus {
         return Collections.emptyList();
     }
 
+    /**
+     * @param responseTime the response time percentiles of the monitored
+     * resource, or null when unknown
+     */
+    public void setResponseTime(final ResponseTime responseTime) {
+        this.responseTime = responseTime;
+    }
+
+    /**
+     * @return the response time percentiles of the monitored resource, or
+     * null when unknown
+     */
+    public ResponseTime getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * @param certificateExpiry the moment the first certificate presented by
+     * the monitored resource expires in ISO-8601, or null when unknown
+     */
+    public void setCertificateExpiry(final String certificateExpiry) {
+        this.certificateExpiry = certificateExpiry;
+    }
+
+    /**
+     * @return the moment the first certificate presented by the monitored
+     * resource expires in ISO-8601, or null when unknown
+     */
+    public String getCertificateExpiry() {
+        return certificateExpiry;
+    }
+
     /**
      * Clears the errors and warnings
      * <p>
@@ -114,6 +148,8 @@ public class MonitoredResourceStatus {
         return "MonitoredResourceStatus{" 
                 + "name=" + name 
                 + ", errors=" + errors 
-                + ", warnings=" + warnings + '}';
+                + ", warnings=" + warnings
+                + ", responseTime=" + responseTime
+                + ", certificateExpiry=" + certificateExpiry + '}';
     }
 }
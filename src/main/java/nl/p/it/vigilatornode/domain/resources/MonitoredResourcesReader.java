@@ -15,13 +15,18 @@
  */
 package nl.p.it.vigilatornode.domain.resources;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import nl.p.it.vigilatornode.exception.CustomException;
 import nl.p.it.vigilatornode.exception.IncorrectResourceFileException;
 import static java.lang.System.Logger.Level.ERROR;
@@ -29,45 +34,39 @@ import static java.lang.System.Logger.Level.WARNING;
 
 /**
  * Reader for resources files
+ * <p>
+ * Each file is memory mapped and parsed by its own parser, the files are
+ * parsed in parallel on a fork join pool. The results are merged in the order
+ * of the file names, making the outcome independent of the order in which the
+ * parsing of the files finishes.
+ * </p>
  *
+ * @see ResourceFileParser
  * @author Patrick
  */
 public class MonitoredResourcesReader {
 
-    private MonitoredResource current;
-    private String currentDecorator;
-    private final List<MonitoredResource> resources;
-
-    private static final int DEPTH_RESOURCE = 0;
-    private static final int DEPTH_RESOURCE_NAME = 1;
-    private static final int DEPTH_RESOURCE_PART = 2;
-    private static final int DEPTH_RESOURCE_PART_ENTRY = 3;
-    private static final int DEPTH_RESOURCE_PART_ITEM = 4;
-
-    private static final String RESOURCE_EXPOSED = "ExposedResource";
-    private static final String RESOURCE_ONBOARD = "OnboardResource";
-    private static final String RESOURCE_INTERNAL = "InternalResource";
-    private static final String DELIMITER_KEY_VALUE = ":";
-
-    private static final int EMPTY = 0;
-    private static final int TAB = 9;
-    private static final int ENTER = 13;
-    private static final int NEW_LINE = 10;
+    private final ForkJoinPool pool;
 
     private static final System.Logger LOGGER = System.getLogger(MonitoredResourcesReader.class.getName());
 
     public MonitoredResourcesReader() {
-        resources = new ArrayList<>();
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool the pool to parse the resource files on
+     */
+    public MonitoredResourcesReader(final ForkJoinPool pool) {
+        this.pool = pool;
     }
 
     /**
      * Reads the files in the specified location, typically the
      * {resourceFilesLocation} in the config
      *
-     * The function returns an immutable copy of resources read, both to prevent
-     * mutations and making sure no pointer to the internal list of resources
-     * exists outside the class which would stop the class from being garbage
-     * collected
+     * The function returns an immutable list of resources read, to prevent
+     * mutations of the list after reading
      *
      * FUTURE_WORK: currently this is fail fast, a business case might be
      * created to log and discard failures and continue
@@ -81,7 +80,7 @@ public class MonitoredResourcesReader {
         if (resourcesFilesLocation != null && !resourcesFilesLocation.isEmpty()) {
             File directory = new File(resourcesFilesLocation);
             if (directory.exists()) {
-                readFilesInDirectory(directory, resourcesFilesLocation);
+                return List.copyOf(readFilesInDirectory(directory, resourcesFilesLocation));
             } else {
                 throw new IncorrectResourceFileException(CustomException.DIRECTORY_EMPTY_OR_DOES_NOT_EXIST, resourcesFilesLocation);
             }
@@ -89,118 +88,89 @@ public class MonitoredResourcesReader {
             LOGGER.log(WARNING, "MonitoredResourcesReader.read() was called without an resources files location, the action will be ignored");
         }
 
-        return List.copyOf(resources);
+        return List.of();
     }
 
-    private void readFilesInDirectory(final File directory, final String resourcesFilesLocation) throws IncorrectResourceFileException {
-        for (File entry : directory.listFiles()) {
-            try (InputStream resourceFileStream = new FileInputStream(entry)) {
-                read(resourceFileStream);
-            } catch (IncorrectResourceFileException ex) {
-                throw new IncorrectResourceFileException(CustomException.INVALID_RESOURCE_FILE, entry.getName(), ex.getLine(), ex.getMessage());
-            } catch (IOException ex) {
-                LOGGER.log(ERROR, "Not able to read resource files in {0}, exception: {1}", resourcesFilesLocation, ex);
-                throw new IncorrectResourceFileException(CustomException.COULD_NOT_READ_RESOURCE_FILES);
+    private List<MonitoredResource> readFilesInDirectory(final File directory, final String resourcesFilesLocation) throws IncorrectResourceFileException {
+        File[] entries = listResourceFiles(directory);
+
+        List<ForkJoinTask<List<MonitoredResource>>> tasks = new ArrayList<>(entries.length);
+        for (File entry : entries) {
+            tasks.add(pool.submit(() -> read(entry)));
+        }
+
+        List<MonitoredResource> resources = new ArrayList<>();
+        try {
+            for (int i = 0; i < entries.length; i++) {
+                resources.addAll(join(tasks.get(i), entries[i], resourcesFilesLocation));
             }
+        } finally {
+            tasks.forEach(task -> task.cancel(false));
         }
+
+        return resources;
     }
 
-    private void read(final InputStream resourceFileStream) throws IOException, IncorrectResourceFileException {
-        int buffSize = 1000;
-        byte[] buffer = new byte[buffSize];// Size matters but 1 kb is reasonble to start with, optimizing later
-        int depth = 0;
-        int line = 0;
-        try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
-            while (resourceFileStream.read(buffer) > 0) {
-                for (byte b : buffer) {// FUTURE_WORK: This works with ASCII maybe not unicode?
-                    if (EMPTY == b) {
-                        break;
-                    }
-
-                    switch (b) {
-                        case TAB ->
-                            depth++;
-                        case NEW_LINE -> {
-                            line++;
-                            if (output.size() > 1) {
-                                String entry = new String(output.toByteArray());
-                                referenceToResource(entry, depth, line);
-                            } else {
-                                // ignoring empty line
-                            }
-
-                            output.reset();
-                            depth = 0;
-                        }
-                        case ENTER -> {
-                            // continue
-                        }
-                        default -> {
-                            output.write(b);
-                        }
-                    }
-                }
-                buffer = new byte[buffSize];
-            }
-            if (output.size() > 0) {
-                String entry = new String(output.toByteArray());
-                referenceToResource(entry, depth, line);
-            }
+    /**
+     * @param directory the directory containing the resource files
+     * @return the resource files in the directory, ordered by name
+     */
+    static File[] listResourceFiles(final File directory) {
+        File[] entries = directory.listFiles();
+        if (entries == null) {
+            return new File[0];
         }
+        Arrays.sort(entries, Comparator.comparing(File::getName));
+
+        return entries;
     }
 
-    private void referenceToResource(final String entry, final int depth, final int line) throws IncorrectResourceFileException {
-        switch (depth) {
-            case DEPTH_RESOURCE ->
-                construct(entry, line);
-            case DEPTH_RESOURCE_NAME -> {
-                if (current == null) {
-                    throw new IncorrectResourceFileException(CustomException.OUT_OF_CONTEXT_RESOURCE_NAME, line);
-                }
-                current.setName(entry);
+    private List<MonitoredResource> join(
+            final ForkJoinTask<List<MonitoredResource>> task,
+            final File entry,
+            final String resourcesFilesLocation) throws IncorrectResourceFileException {
+        try {
+            return task.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = rootCause(ex);
+            if (cause instanceof IncorrectResourceFileException incorrect) {
+                throw new IncorrectResourceFileException(CustomException.INVALID_RESOURCE_FILE, entry.getName(), incorrect.getLine(), incorrect.getMessage());
+            } else {
+                LOGGER.log(ERROR, "Not able to read resource files in {0}, exception: {1}", resourcesFilesLocation, cause);
+                throw new IncorrectResourceFileException(CustomException.COULD_NOT_READ_RESOURCE_FILES);
             }
-            case DEPTH_RESOURCE_PART ->
-                currentDecorator = entry;
-            case DEPTH_RESOURCE_PART_ENTRY ->
-                decorate(entry);
-            case DEPTH_RESOURCE_PART_ITEM ->
-                decorate(entry);
-            default ->
-                throw new IncorrectResourceFileException(CustomException.TO_DEEP_TABBING, line);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(ERROR, "Interrupted while reading resource files in {0}, exception: {1}", resourcesFilesLocation, ex);
+            throw new IncorrectResourceFileException(CustomException.COULD_NOT_READ_RESOURCE_FILES);
         }
     }
 
-    private void construct(final String type, final int line) throws IncorrectResourceFileException {
-        switch (type) {
-            case RESOURCE_EXPOSED ->
-                current = new ExposedResource();
-            case RESOURCE_ONBOARD ->
-                current = new OnboardResource();
-            case RESOURCE_INTERNAL ->
-                current = new InternalResource();
-            default -> {
-                throw new IncorrectResourceFileException(line, CustomException.UNEXPECTED_RESOURCE, type, line);
-            }
+    /**
+     * The fork join pool wraps checked exceptions thrown by the submitted task,
+     * the root cause is the exception thrown while reading the file
+     *
+     * @param ex the exception thrown by the task
+     * @return the root cause
+     */
+    private Throwable rootCause(final Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
         }
 
-        resources.add(current);
+        return cause;
     }
 
-    private void decorate(final String value) {
-        int pos = value.indexOf(DELIMITER_KEY_VALUE);
-
-        if (pos > 0) {
-            String pairKey = value.substring(0, pos);
-            int take;
-            if (Character.isSpaceChar(value.charAt(pos + 1))) {
-                take = pos + 2;
-            } else {
-                take = pos + 1;
+    private List<MonitoredResource> read(final File entry) throws IOException, IncorrectResourceFileException {
+        try (FileChannel channel = FileChannel.open(entry.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return List.of();
             }
-            String pairValue = value.substring(take, value.length());
-            current.decorate(currentDecorator, pairKey, pairValue);
-        } else {
-            current.decorate(currentDecorator, value);
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new ResourceFileParser().parse(buffer);
         }
     }
 }
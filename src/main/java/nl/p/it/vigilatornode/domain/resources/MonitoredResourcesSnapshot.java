@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import nl.p.it.vigilatornode.exception.CustomException;
+import nl.p.it.vigilatornode.exception.IncorrectResourceFileException;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * Binary snapshot of the resources read from the resource files
+ * <p>
+ * The snapshot is keyed by a hash over the names and contents of the resource
+ * files. As long as the hash matches, the resources are restored from the
+ * snapshot instead of being parsed from the resource files again. When the
+ * hash does not match or the snapshot cannot be read, the resource files are
+ * read by the MonitoredResourcesReader and a new snapshot is written.
+ * </p>
+ * <p>
+ * Resources are restored by replaying the configuration and parts onto new
+ * resources, the same way the reader decorates them. This keeps the snapshot
+ * independent of how the resource model prepares its conditions.
+ * </p>
+ *
+ * @see MonitoredResourcesReader
+ * @author Patrick
+ */
+public class MonitoredResourcesSnapshot {
+
+    private final String snapshotFile;
+    private final MonitoredResourcesReader reader;
+
+    /**
+     * Increase when the layout of the snapshot or the interpretation of
+     * resource files changes, this invalidates existing snapshots
+     */
+    private static final int VERSION = 1;
+    private static final int MAGIC = 0x56475253;// VGRS
+    private static final String DIGEST = "SHA-256";
+    private static final byte TYPE_EXPOSED = 1;
+    private static final byte TYPE_ONBOARD = 2;
+    private static final byte TYPE_INTERNAL = 3;
+    private static final byte TYPE_TCP = 4;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private static final System.Logger LOGGER = System.getLogger(MonitoredResourcesSnapshot.class.getName());
+
+    /**
+     * @param reader the reader to read the resource files with when the
+     * snapshot cannot be used
+     * @param snapshotFile the file to store the snapshot in, when empty or
+     * null no snapshot is used
+     */
+    public MonitoredResourcesSnapshot(final MonitoredResourcesReader reader, final String snapshotFile) {
+        this.reader = reader;
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Read the resources in the specified location, from the snapshot when the
+     * snapshot matches the resource files or else from the resource files
+     *
+     * @param resourcesFilesLocation location to read from
+     * @return the resources or empty
+     * @throws IncorrectResourceFileException when an exception occurs while
+     * reading any resource file
+     * @see MonitoredResourcesReader.read()
+     */
+    public List<MonitoredResource> read(final String resourcesFilesLocation) throws IncorrectResourceFileException {
+        if (snapshotFile == null || snapshotFile.isEmpty()
+                || resourcesFilesLocation == null || resourcesFilesLocation.isEmpty()
+                || !new File(resourcesFilesLocation).exists()) {
+            return reader.read(resourcesFilesLocation);
+        }
+
+        byte[] hash = hash(resourcesFilesLocation);
+        Path snapshot = Path.of(snapshotFile);
+        if (Files.exists(snapshot)) {
+            List<MonitoredResource> restored = restore(snapshot, hash);
+            if (restored != null) {
+                LOGGER.log(INFO, "Restored {0} resources from snapshot {1}", restored.size(), snapshotFile);
+                return restored;
+            }
+        }
+
+        List<MonitoredResource> resources = reader.read(resourcesFilesLocation);
+        store(snapshot, hash, resources);
+
+        return resources;
+    }
+
+    private byte[] hash(final String resourcesFilesLocation) throws IncorrectResourceFileException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(DIGEST);
+            digest.update(longToBytes(VERSION));
+            ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+            for (File entry : MonitoredResourcesReader.listResourceFiles(new File(resourcesFilesLocation))) {
+                digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+                try (FileChannel channel = FileChannel.open(entry.toPath(), StandardOpenOption.READ)) {
+                    digest.update(longToBytes(channel.size()));
+                    while (channel.read(buffer.clear()) > 0) {
+                        digest.update(buffer.flip());
+                    }
+                }
+            }
+
+            return digest.digest();
+        } catch (NoSuchAlgorithmException | IOException ex) {
+            LOGGER.log(WARNING, "Not able to hash resource files in {0}, exception: {1}", resourcesFilesLocation, ex);
+            throw new IncorrectResourceFileException(CustomException.COULD_NOT_READ_RESOURCE_FILES);
+        }
+    }
+
+    private List<MonitoredResource> restore(final Path snapshot, final byte[] hash) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            byte[] snapshotHash = new byte[in.readUnsignedByte()];
+            in.readFully(snapshotHash);
+            if (!Arrays.equals(hash, snapshotHash)) {
+                return null;
+            }
+
+            int amount = in.readInt();
+            List<MonitoredResource> resources = new ArrayList<>(amount);
+            for (int i = 0; i < amount; i++) {
+                resources.add(restoreResource(in));
+            }
+
+            return List.copyOf(resources);
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.log(WARNING, "Not able to restore resources from snapshot {0}, "
+                    + "reading the resource files instead, exception: {1}", snapshot, ex);
+            return null;
+        }
+    }
+
+    private MonitoredResource restoreResource(final DataInputStream in) throws IOException {
+        MonitoredResource resource = switch (in.readByte()) {
+            case TYPE_EXPOSED ->
+                new ExposedResource();
+            case TYPE_ONBOARD ->
+                new OnboardResource();
+            case TYPE_INTERNAL ->
+                new InternalResource();
+            case TYPE_TCP ->
+                new TcpResource();
+            default ->
+                throw new IOException("Unexpected resource type in snapshot");
+        };
+
+        String name = readNullable(in);
+        if (name != null) {
+            resource.setName(name);
+        }
+        int configEntries = in.readInt();
+        for (int i = 0; i < configEntries; i++) {
+            resource.getConfig().set(in.readUTF(), readNullable(in));
+        }
+        int parts = in.readInt();
+        for (int i = 0; i < parts; i++) {
+            MonitoredPart part = resource.parts.computeIfAbsent(in.readUTF(), partName -> new MonitoredPart());
+            String datetimeCondition = readNullable(in);
+            if (datetimeCondition != null) {
+                part.addItem(MonitoredPart.DATETIME, datetimeCondition);
+            }
+            int items = in.readInt();
+            for (int j = 0; j < items; j++) {
+                part.addItem(in.readUTF(), readNullable(in));
+            }
+        }
+        resource.compile();
+
+        return resource;
+    }
+
+    private void store(final Path snapshot, final byte[] hash, final List<MonitoredResource> resources) {
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + TEMP_SUFFIX);
+        try {
+            if (snapshot.getParent() != null) {
+                Files.createDirectories(snapshot.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeByte(hash.length);
+                out.write(hash);
+                out.writeInt(resources.size());
+                for (MonitoredResource resource : resources) {
+                    storeResource(out, resource);
+                }
+            }
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            LOGGER.log(WARNING, "Not able to write snapshot {0}, the resource files "
+                    + "will be read again on the next start, exception: {1}", snapshot, ex);
+        }
+    }
+
+    private void storeResource(final DataOutputStream out, final MonitoredResource resource) throws IOException {
+        out.writeByte(switch (resource) {
+            case ExposedResource exposed ->
+                TYPE_EXPOSED;
+            case OnboardResource onboard ->
+                TYPE_ONBOARD;
+            case InternalResource internal ->
+                TYPE_INTERNAL;
+            case TcpResource tcp ->
+                TYPE_TCP;
+            default ->
+                throw new IOException("Resource type cannot be stored: " + resource.getClass().getSimpleName());
+        });
+
+        writeNullable(out, resource.getName());
+        Map<String, String> configEntries = resource.getConfig().getEntries();
+        out.writeInt(configEntries.size());
+        for (Map.Entry<String, String> entry : configEntries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeNullable(out, entry.getValue());
+        }
+        out.writeInt(resource.parts.size());
+        for (Map.Entry<String, MonitoredPart> part : resource.parts.entrySet()) {
+            out.writeUTF(part.getKey());
+            writeNullable(out, part.getValue().getDatetimeCondition());
+            Map<String, String> items = part.getValue().getItems();
+            out.writeInt(items.size());
+            for (Map.Entry<String, String> item : items.entrySet()) {
+                out.writeUTF(item.getKey());
+                writeNullable(out, item.getValue());
+            }
+        }
+    }
+
+    private void writeNullable(final DataOutputStream out, final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private String readNullable(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private byte[] longToBytes(final long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+    }
+}
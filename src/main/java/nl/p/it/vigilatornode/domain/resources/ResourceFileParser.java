@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import nl.p.it.vigilatornode.exception.CustomException;
+import nl.p.it.vigilatornode.exception.IncorrectResourceFileException;
+
+/**
+ * Parser for the contents of a single resource file
+ * <p>
+ * The parser works on offsets in the (memory mapped) buffer of the file, only
+ * the key and value of an entry are decoded into strings. No line is copied
+ * before it is split. An instance holds the state of one file and is not meant
+ * to be shared between threads, create one parser per file instead.
+ * </p>
+ *
+ * @see MonitoredResourcesReader
+ * @author Patrick
+ */
+class ResourceFileParser {
+
+    private MonitoredResource current;
+    private int currentLine;
+    private String currentDecorator;
+    private byte[] scratch;
+    private final List<MonitoredResource> resources;
+
+    private static final int DEPTH_RESOURCE = 0;
+    private static final int DEPTH_RESOURCE_NAME = 1;
+    private static final int DEPTH_RESOURCE_PART = 2;
+    private static final int DEPTH_RESOURCE_PART_ENTRY = 3;
+    private static final int DEPTH_RESOURCE_PART_ITEM = 4;
+
+    private static final String RESOURCE_EXPOSED = "ExposedResource";
+    private static final String RESOURCE_TCP = "TcpResource";
+    private static final String RESOURCE_ONBOARD = "OnboardResource";
+    private static final String RESOURCE_INTERNAL = "InternalResource";
+
+    private static final byte DELIMITER_KEY_VALUE = ':';
+    private static final byte SPACE = ' ';
+    private static final byte EMPTY = 0;
+    private static final byte TAB = 9;
+    private static final byte ENTER = 13;
+    private static final byte NEW_LINE = 10;
+    private static final int NPOS = -1;
+    private static final int INITIAL_SCRATCH_SIZE = 256;
+
+    ResourceFileParser() {
+        resources = new ArrayList<>();
+        scratch = new byte[INITIAL_SCRATCH_SIZE];
+    }
+
+    /**
+     * Parse the resources in the buffer, reading from position zero up to the
+     * limit of the buffer
+     *
+     * @param buffer the contents of the resource file
+     * @return the resources in the order they are defined in the file
+     * @throws IncorrectResourceFileException when the contents are not a valid
+     * resource file
+     */
+    List<MonitoredResource> parse(final ByteBuffer buffer) throws IncorrectResourceFileException {
+        int limit = buffer.limit();
+        int depth = 0;
+        int line = 0;
+        int start = NPOS;
+        int end = NPOS;
+        int size = 0;
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            switch (b) {
+                case TAB ->
+                    depth++;
+                case NEW_LINE -> {
+                    line++;
+                    if (size > 1) {
+                        referenceToResource(buffer, start, end, depth, line);
+                    } else {
+                        // ignoring empty line
+                    }
+
+                    start = NPOS;
+                    size = 0;
+                    depth = 0;
+                }
+                case ENTER, EMPTY -> {
+                    // continue
+                }
+                default -> {
+                    if (start == NPOS) {
+                        start = i;
+                    }
+                    end = i + 1;
+                    size++;
+                }
+            }
+        }
+        if (size > 0) {
+            referenceToResource(buffer, start, end, depth, line);
+        }
+        compileCurrent();
+
+        return resources;
+    }
+
+    private void referenceToResource(final ByteBuffer buffer, final int start, final int end, final int depth, final int line) throws IncorrectResourceFileException {
+        switch (depth) {
+            case DEPTH_RESOURCE ->
+                construct(text(buffer, start, end), line);
+            case DEPTH_RESOURCE_NAME -> {
+                if (current == null) {
+                    throw new IncorrectResourceFileException(CustomException.OUT_OF_CONTEXT_RESOURCE_NAME, line);
+                }
+                current.setName(text(buffer, start, end));
+            }
+            case DEPTH_RESOURCE_PART ->
+                currentDecorator = text(buffer, start, end);
+            case DEPTH_RESOURCE_PART_ENTRY ->
+                decorate(buffer, start, end);
+            case DEPTH_RESOURCE_PART_ITEM ->
+                decorate(buffer, start, end);
+            default ->
+                throw new IncorrectResourceFileException(CustomException.TO_DEEP_TABBING, line);
+        }
+    }
+
+    private void construct(final String type, final int line) throws IncorrectResourceFileException {
+        compileCurrent();
+        switch (type) {
+            case RESOURCE_EXPOSED ->
+                current = new ExposedResource();
+            case RESOURCE_TCP ->
+                current = new TcpResource();
+            case RESOURCE_ONBOARD ->
+                current = new OnboardResource();
+            case RESOURCE_INTERNAL ->
+                current = new InternalResource();
+            default -> {
+                throw new IncorrectResourceFileException(line, CustomException.UNEXPECTED_RESOURCE, type, line);
+            }
+        }
+
+        resources.add(current);
+        currentLine = line;
+    }
+
+    /**
+     * Compile the resource read so far, reporting a resource that is not
+     * valid at the line it starts
+     */
+    private void compileCurrent() throws IncorrectResourceFileException {
+        if (current != null) {
+            try {
+                current.compile();
+            } catch (IllegalArgumentException ex) {
+                throw new IncorrectResourceFileException(currentLine, CustomException.INVALID_RESOURCE, current.getName(), ex.getMessage());
+            }
+        }
+    }
+
+    private void decorate(final ByteBuffer buffer, final int start, final int end) {
+        int pos = indexOf(buffer, start, end, DELIMITER_KEY_VALUE);
+
+        if (pos > start) {
+            String pairKey = text(buffer, start, pos);
+            int take = pos + 1;
+            if (take < end && SPACE == buffer.get(take)) {
+                take++;
+            }
+            String pairValue = text(buffer, take, end);
+            current.decorate(currentDecorator, pairKey, pairValue);
+        } else {
+            current.decorate(currentDecorator, text(buffer, start, end));
+        }
+    }
+
+    private int indexOf(final ByteBuffer buffer, final int start, final int end, final byte needle) {
+        for (int i = start; i < end; i++) {
+            if (needle == buffer.get(i)) {
+                return i;
+            }
+        }
+
+        return NPOS;
+    }
+
+    /**
+     * Decode the bytes between start and end, leaving out the tabs and carriage
+     * returns which are not part of the content of an entry
+     *
+     * @param buffer the buffer to read from
+     * @param start the start offset (inclusive)
+     * @param end the end offset (exclusive)
+     * @return the decoded text
+     */
+    private String text(final ByteBuffer buffer, final int start, final int end) {
+        int length = end - start;
+        if (length <= 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+
+        int size = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (TAB != b && ENTER != b && EMPTY != b) {
+                scratch[size++] = b;
+            }
+        }
+
+        return new String(scratch, 0, size, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources;
+
+/**
+ * Response time percentiles of a monitored resource in milliseconds
+ *
+ * @param p50 the median response time
+ * @param p95 the 95th percentile of the response time
+ * @param p99 the 99th percentile of the response time
+ * @author Patrick
+ */
+public record ResponseTime(long p50, long p95, long p99) {
+
+}
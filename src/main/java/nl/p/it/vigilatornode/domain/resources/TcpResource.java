@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.monitor.Acceptor;
+import nl.p.it.vigilatornode.domain.monitor.Notifier;
+import nl.p.it.vigilatornode.domain.out.TcpProbe;
+import nl.p.it.vigilatornode.domain.out.TcpProber;
+import nl.p.it.vigilatornode.domain.resources.validation.MonitorValidator;
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * The TcpResource class is a monitored resource without a http endpoint, e.g.
+ * a database, broker or cache. It is monitored by connecting to its port and
+ * optionally sending a message and expecting a reply
+ * <p>
+ * The url of the resource is of the form `tcp://host:port`. The message to
+ * send and the expected reply support the escapes `\r`, `\n` and `\t`.
+ * </p>
+ *
+ * @see TcpProber
+ * @author Patrick
+ */
+public class TcpResource extends MonitoredResource {
+
+    private TcpProber prober;
+    private TcpProbe probe;
+
+    private final MonitorValidator monitorValidator;
+
+    private static final String SCHEME = "tcp";
+    private static final System.Logger LOGGER = System.getLogger(TcpResource.class.getName());
+
+    public TcpResource() {
+        this.monitorValidator = new MonitorValidator();
+    }
+
+    /**
+     * Connect the tcp resource to the prober probing its port
+     *
+     * @param prober the tcp prober to connect to
+     */
+    public void connect(final TcpProber prober) {
+        this.prober = prober;
+        this.probe = prepareProbe();
+    }
+
+    @Override
+    public void updateStatus() {
+        updateStatus(null);
+    }
+
+    /**
+     * Updates the status of the resource by probing its port, notifying when
+     * the probe completed and was validated
+     *
+     * @param completed the notifier to notify when the take completed, or null
+     * @see MonitoredResource.updateStatus(Notifier)
+     */
+    @Override
+    public void updateStatus(final Notifier completed) {
+        int current = startTake();
+        if (probe != null) {
+            prober.probe(probe, getAcceptor(current, completed));
+        } else {
+            MonitoredData result = new MonitoredData(new byte[0], config.getUrl(), clock.now());
+            result.addError(Error.withArgs(Error.NO_CONNECTION, name, config.getUrl()));
+            addToTake(current, result);
+            if (completed != null) {
+                completed.doNotify();
+            }
+        }
+
+        finaliseUpdate();
+    }
+
+    private TcpProbe prepareProbe() {
+        try {
+            URI uri = (config.getUrl() != null ? URI.create(config.getUrl()) : null);
+            if (uri != null && SCHEME.equalsIgnoreCase(uri.getScheme()) && uri.getHost() != null && uri.getPort() > 0) {
+                return new TcpProbe(uri.getHost(), uri.getPort(), unescape(config.getSend()), unescape(config.getExpect()),
+                        config.getConnectTimeout(), config.getTimeout());
+            }
+        } catch (IllegalArgumentException ex) {
+            // reported below
+        }
+
+        LOGGER.log(WARNING, "Url {0} of {1} is not of the form tcp://host:port, the resource will report errors", config.getUrl(), name);
+        return null;
+    }
+
+    private Acceptor<MonitoredData> getAcceptor(final int current, final Notifier completed) {
+        return (final MonitoredData result) -> {
+            try {
+                addToTake(current, result);
+                if (result.getConnectTimeInNanos() > 0) {
+                    responseTimes.record(result.getConnectTimeInNanos());
+                    String expect = probe.expect();
+                    if (expect != null && !expect.isEmpty() && !new String(result.getData(), StandardCharsets.UTF_8).contains(expect)) {
+                        result.addError(Error.withArgs(Error.UNEXPECTED_REPLY, name, result.getUrl(), config.getExpect()));
+                    }
+                    monitorValidator.validateConnectTime(result, config.getConnectTimeCondition(), name);
+                } else {
+                    result.addError(Error.withArgs(Error.NO_CONNECTION, name, result.getUrl()));
+                }
+            } finally {
+                if (completed != null) {
+                    completed.doNotify();
+                }
+            }
+        };
+    }
+
+    private static String unescape(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        return value.replace("\\r", "\r").replace("\\n", "\n").replace("\\t", "\t");
+    }
+}
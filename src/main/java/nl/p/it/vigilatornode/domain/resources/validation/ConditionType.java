@@ -21,5 +21,5 @@ package nl.p.it.vigilatornode.domain.resources.validation;
  * @author Patrick
  */
 public enum ConditionType {
-    BEFORE, AFTER, BIGGER, SMALLER;
+    BEFORE, AFTER, BIGGER, SMALLER, BETWEEN;
 }
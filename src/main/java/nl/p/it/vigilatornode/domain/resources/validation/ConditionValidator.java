@@ -16,10 +16,11 @@
 package nl.p.it.vigilatornode.domain.resources.validation;
 
 import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 import static java.lang.System.Logger.Level.DEBUG;
 import static java.lang.System.Logger.Level.WARNING;
-import static java.time.temporal.ChronoUnit.MINUTES;
-import static nl.p.it.vigilatornode.domain.resources.validation.ConditionType.*;
 
 /**
  * Validator for conditions
@@ -33,9 +34,34 @@ public class ConditionValidator {
     private static final char BIGGER_THEN = '>';
     private static final char SMALLER_THEN = '<';
     private static final int NPOS = -1;
-    private static final String MIN = "min";
     private static final char WARNING_INDICATION = 'W';
-    private static final char PERCENT = '%';
+    private static final char MATCHES = '~';
+    private static final char PATTERN_DELIMITER = '/';
+    private static final char CASE_INSENSITIVE = 'i';
+
+    /**
+     * Patterns of pattern conditions by condition, compiled once when the
+     * resources are read and shared by every validation
+     */
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+    /**
+     * Numeric conditions by condition, parsed once when the resources are
+     * read and shared by every validation
+     */
+    private static final Map<String, NumericCondition> NUMERIC_CONDITIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Temporal conditions by condition, parsed once when the resources are
+     * read and shared by every validation
+     */
+    private static final Map<String, TemporalCondition> TEMPORAL_CONDITIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Duration conditions by condition, parsed on first use and shared by
+     * every validation
+     */
+    private static final Map<String, TemporalCondition> DURATION_CONDITIONS = new ConcurrentHashMap<>();
 
     private static final System.Logger LOGGER = System.getLogger(ConditionValidator.class.getName());
 
@@ -44,9 +70,30 @@ public class ConditionValidator {
      * @param condition the condition to validate the value against
      * @return whether the value matches the condition
      */
-    public boolean validateMeetsCriteria(final String value, String condition) {
+    public boolean validateMeetsCriteria(final String value, final String condition) {
+        return validateMeetsCriteria(value, condition, null);
+    }
+
+    /**
+     * @param value the value to validate
+     * @param condition the condition to validate the value against
+     * @param now the moment temporal conditions determine the age of the value
+     * at, sampled once per take so all conditions of the take agree, when
+     * null the clock is read
+     * @return whether the value matches the condition
+     */
+    public boolean validateMeetsCriteria(final String value, String condition, final Instant now) {
         if (condition != null && !condition.isEmpty()) {
             condition = trimWarningIfExists(condition);
+            if (isPatternCondition(condition)) {
+                return matchesPatternCondition(value, condition);
+            }
+            if (NumericCondition.isNumeric(condition.trim())) {
+                return matchesNumericCondition(value, condition);
+            }
+            if (TemporalCondition.isTemporal(condition.trim())) {
+                return value != null && matchesTemporalCondition(TemporalCondition.parseTimestamp(value), condition, now);
+            }
             int valueSize = (value == null ? 0 : value.length());
             int conditionSize = condition.length();
             int conditionStart = Character.isSpaceChar(condition.charAt(0)) ? 1 : 0;
@@ -56,11 +103,8 @@ public class ConditionValidator {
                 case EXCLAMATION_MARK -> {
                     return matchesIsNotCondition(valueSize, conditionSize, conditionStart, value, condition);
                 }
-                case BIGGER_THEN -> {
-                    return matchesValueCondition(valueSize, conditionSize, value, condition, BIGGER);
-                }
-                case SMALLER_THEN -> {
-                    return matchesValueCondition(valueSize, conditionSize, value, condition, SMALLER);
+                case BIGGER_THEN, SMALLER_THEN -> {
+                    return matchesNumericCondition(value, condition);
                 }
                 case IS -> {
                     if (IS == condition.charAt(1)) {
@@ -79,103 +123,211 @@ public class ConditionValidator {
         return false;
     }
 
-    private boolean matchesIsNotCondition(final int valueSize, final int conditionSize, final int positionInCondition, final String value, final String condition) {
-        if (valueSize == 0) {
-            return true;
+    /**
+     * Validate a value reported as number, numeric conditions compare the
+     * number as long or double without formatting it. Other conditions
+     * validate the number as written
+     *
+     * @param value the value to validate, e.g. a number of a JSON document
+     * @param condition the condition to validate the value against
+     * @return whether the value matches the condition
+     */
+    public boolean validateMeetsCriteria(final Object value, final String condition) {
+        return validateMeetsCriteria(value, condition, null);
+    }
+
+    /**
+     * Validate a value reported as number, numeric conditions compare the
+     * number as long or double without formatting it and temporal conditions
+     * read it as epoch seconds or milliseconds. Other conditions validate the
+     * number as written
+     *
+     * @param value the value to validate, e.g. a number of a JSON document
+     * @param condition the condition to validate the value against
+     * @param now the moment temporal conditions determine the age of the value
+     * at, when null the clock is read
+     * @return whether the value matches the condition
+     */
+    public boolean validateMeetsCriteria(final Object value, final String condition, final Instant now) {
+        if (value instanceof Number number && condition != null && !condition.isEmpty()) {
+            String trimmed = trimWarningIfExists(condition).trim();
+            if (TemporalCondition.isTemporal(trimmed)) {
+                return matchesTemporalCondition(TemporalCondition.parseTimestamp(number.longValue()), trimmed, now);
+            } else if (NumericCondition.isNumeric(trimmed)) {
+                try {
+                    NumericCondition numeric = compileNumeric(trimmed);
+                    return (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte)
+                            ? numeric.meets(number.longValue()) : numeric.meets(number.doubleValue());
+                } catch (IllegalArgumentException ex) {
+                    LOGGER.log(WARNING, "Numeric condition could not be parsed, exception: {0}", ex);
+                    return false;
+                }
+            }
         }
 
-        String valueToMatch = value.substring(positionInCondition, valueSize);
-        String conditionToMatch = condition.substring((positionInCondition + 1), conditionSize);
+        return validateMeetsCriteria(value == null ? null : String.valueOf(value), condition, now);
+    }
 
-        return !valueToMatch.equals(conditionToMatch);
+    /**
+     * Compile a pattern, numeric or temporal condition, so validations of the condition
+     * do not have to parse it again. Other conditions are not compiled
+     *
+     * @param condition the condition, optionally ending with ` W`
+     * @throws IllegalArgumentException when the condition is not valid
+     */
+    public static void compile(final String condition) {
+        if (condition == null || condition.isBlank()) {
+            return;
+        }
+        if (isPatternCondition(condition)) {
+            compilePattern(condition);
+        } else {
+            String trimmed = trimWarningIfExists(condition).trim();
+            if (NumericCondition.isNumeric(trimmed)) {
+                compileNumeric(trimmed);
+            } else if (TemporalCondition.isTemporal(trimmed)) {
+                compileTemporal(trimmed);
+            }
+        }
     }
 
-    private boolean matchesIsEqualCondition(final int valueSize, final int conditionSize, final int positionInCondition, final String value, final String condition) {
-        if (valueSize == 0) {
+    private static TemporalCondition compileTemporal(final String condition) {
+        return TEMPORAL_CONDITIONS.computeIfAbsent(condition, TemporalCondition::parse);
+    }
+
+    private boolean matchesTemporalCondition(final long timestamp, final String condition, final Instant now) {
+        if (timestamp == TemporalCondition.NOT_A_TIMESTAMP) {
+            LOGGER.log(DEBUG, "Not a valid timestamp format for condition: {0}", condition);
+            return false;
+        }
+        try {
+            return compileTemporal(condition.trim()).meets(timestamp, (now != null ? now : Instant.now()).toEpochMilli());
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(WARNING, "Temporal condition could not be parsed, exception: {0}", ex);
             return false;
         }
+    }
 
-        String valueToMatch = value.substring(positionInCondition, valueSize);
-        String conditionToMatch = condition.substring((positionInCondition + 2), conditionSize);
-        conditionToMatch = trimFirstSpaceIfExists(conditionToMatch);
+    private static NumericCondition compileNumeric(final String condition) {
+        return NUMERIC_CONDITIONS.computeIfAbsent(condition, NumericCondition::parse);
+    }
 
-        return valueToMatch.equals(conditionToMatch);
+    private boolean matchesNumericCondition(final String value, final String condition) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        try {
+            return compileNumeric(condition.trim()).meets(value);
+        } catch (NumberFormatException ex) {
+            LOGGER.log(WARNING, "String could not be parsed to a number, exception: {0}", ex);
+            return false;
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(WARNING, "Numeric condition could not be parsed, exception: {0}", ex);
+            return false;
+        }
     }
 
     /**
-     * FUTURE_WORK: extract and use temportal type -> String temporalType =
-     * condition.substring(startPositionTemporalIndicator, conditionSize);
-     *
-     * @param valueSize the value size
-     * @param conditionSize the condition size
-     * @param value the value
      * @param condition the condition
-     * @param type the condition type
-     * @return whether matches the condition
+     * @return whether the condition is a pattern condition, `~ /regex/` is met
+     * when the value matches the regex, `!~ /regex/` when it does not. The
+     * flag `i` after the regex ignores case, e.g. `~ /error/i`
      */
-    private boolean matchesValueCondition(final int valueSize, final int conditionSize, final String value, final String condition, final ConditionType type) {
-        if (valueSize == 0) {
+    public static boolean isPatternCondition(final String condition) {
+        if (condition == null) {
             return false;
         }
+        String trimmed = condition.trim();
 
-        String valueToMatch = value.substring(0, valueSize);
-        String conditionToMatch = condition.substring(1, conditionSize);
-        conditionToMatch = trimFirstSpaceIfExists(conditionToMatch);
+        return !trimmed.isEmpty() && (trimmed.charAt(0) == MATCHES
+                || (trimmed.length() > 1 && trimmed.charAt(0) == EXCLAMATION_MARK && trimmed.charAt(1) == MATCHES));
+    }
+
+    /**
+     * Compile the pattern of a pattern condition, every condition is only
+     * compiled once
+     *
+     * @param condition the pattern condition, optionally ending with ` W`
+     * @return the compiled pattern
+     * @throws IllegalArgumentException when the condition is not a valid
+     * pattern condition
+     */
+    public static Pattern compilePattern(final String condition) {
+        return PATTERNS.computeIfAbsent(trimWarningIfExists(condition).trim(), ConditionValidator::toPattern);
+    }
+
+    private static Pattern toPattern(final String condition) {
+        String regex = condition.substring(condition.indexOf(MATCHES) + 1).trim();
+        int end = regex.lastIndexOf(PATTERN_DELIMITER);
+        if (regex.isEmpty() || regex.charAt(0) != PATTERN_DELIMITER || end == 0) {
+            throw new IllegalArgumentException("Pattern condition " + condition + " is not of the form ~ /regex/");
+        }
+        String flags = regex.substring(end + 1).trim();
+        if (!flags.isEmpty() && !flags.equals(String.valueOf(CASE_INSENSITIVE))) {
+            throw new IllegalArgumentException("Pattern condition " + condition + " has unsupported flags: " + flags);
+        }
+
+        return Pattern.compile(regex.substring(1, end), flags.isEmpty() ? 0 : Pattern.CASE_INSENSITIVE);
+    }
+
+    private boolean matchesPatternCondition(final String value, final String condition) {
         try {
-            int startPositionTemporalIndicator = conditionToMatch.indexOf(MIN);
-            if (NPOS != startPositionTemporalIndicator) {
-                String temporalAmountString = conditionToMatch.substring(0, startPositionTemporalIndicator);
-                temporalAmountString = trimFirstSpaceIfExists(temporalAmountString);
-                int temporalAmount = Integer.parseInt(temporalAmountString.trim());
-                if (BIGGER == type) {
-                    return matchesDateCondition(value, temporalAmount, AFTER);
-                } else {
-                    return matchesDateCondition(value, temporalAmount, BEFORE);
-                }
-            } else {
-                int parsedValue = Integer.parseInt(removeCharacter(valueToMatch, PERCENT));
-                int parsedCondition = Integer.parseInt(removeCharacter(conditionToMatch, PERCENT));
-                if (BIGGER == type) {
-                    return parsedValue > parsedCondition;
-                } else {
-                    return parsedValue < parsedCondition;
-                }
-            }
-        } catch (NumberFormatException ex) {
-            LOGGER.log(WARNING, "String could not be parsed to integer, exception: ", ex);
+            boolean matches = value != null && compilePattern(condition).matcher(value).find();
+
+            return condition.trim().charAt(0) == MATCHES ? matches : !matches;
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(WARNING, "Pattern condition could not be compiled, exception: {0}", ex);
             return false;
         }
     }
 
     /**
-     * FUTURE_WORK: add more temporal types add: @param temporalType the
-     * temporal type (currently supports: `min`)
+     * Validate a duration against a duration condition, e.g. `> 500ms`. The
+     * amount of the condition can be specified in milliseconds (ms), seconds
+     * (s), minutes (min), hours (h) or days (d), without unit the amount is in
+     * milliseconds
      *
-     * @param value the value to match
-     * @param temporalAmount the amount to match against
-     * @param type the condition type (BEFORE / AFTER)
-     * @return whether value matches
+     * @param millis the duration in milliseconds
+     * @param condition the condition to validate the duration against
+     * @return whether the duration matches the condition
      */
-    private boolean matchesDateCondition(final String value, final int temporalAmount, final ConditionType type) {
+    public boolean validateMeetsDurationCriteria(final long millis, final String condition) {
+        if (condition == null || condition.isBlank()) {
+            return false;
+        }
+
         try {
-            long datetimeValue = Long.parseLong(value);
-            if (datetimeValue > 1000000000) {
-                long conditionLimit = Instant.now().plus(temporalAmount, MINUTES).getEpochSecond();
-                if (BEFORE == type) {
-                    return datetimeValue < conditionLimit;
-                } else {
-                    return datetimeValue > conditionLimit;
-                }
-            } else {
-                LOGGER.log(DEBUG, "Not a valid timestamp format: {0}", datetimeValue);
-                return false;
-            }
-        } catch (NumberFormatException ex) {
-            LOGGER.log(WARNING, "String could not be parsed to long, exception: {0}", ex);
+            return DURATION_CONDITIONS.computeIfAbsent(trimWarningIfExists(condition).trim(), TemporalCondition::parseDuration)
+                    .meets(millis);
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(WARNING, "Duration condition {0} could not be parsed, exception: {1}", condition, ex);
             return false;
         }
     }
 
+    private boolean matchesIsNotCondition(final int valueSize, final int conditionSize, final int positionInCondition, final String value, final String condition) {
+        if (valueSize == 0) {
+            return true;
+        }
+
+        String valueToMatch = value.substring(positionInCondition, valueSize);
+        String conditionToMatch = condition.substring((positionInCondition + 1), conditionSize);
+
+        return !valueToMatch.equals(conditionToMatch);
+    }
+
+    private boolean matchesIsEqualCondition(final int valueSize, final int conditionSize, final int positionInCondition, final String value, final String condition) {
+        if (valueSize == 0) {
+            return false;
+        }
+
+        String valueToMatch = value.substring(positionInCondition, valueSize);
+        String conditionToMatch = condition.substring((positionInCondition + 2), conditionSize);
+        conditionToMatch = trimFirstSpaceIfExists(conditionToMatch);
+
+        return valueToMatch.equals(conditionToMatch);
+    }
+
     private String trimFirstSpaceIfExists(final String value) {
         if (value != null && !value.isEmpty() && Character.isSpaceChar(value.charAt(0))) {
             return value.substring(1, value.length());
@@ -184,30 +336,11 @@ public class ConditionValidator {
         }
     }
 
-    private String trimWarningIfExists(final String condition) {
+    private static String trimWarningIfExists(final String condition) {
         int end = condition.length() - 1;
         if (condition.charAt(end) == WARNING_INDICATION) {
             return condition.substring(0, (end - 1));
         }
         return condition;
     }
-
-    /**
-     * Remove character from a string Why? because String.replaceAll uses regex
-     * under the hood and is unreasonably slow for something this simple
-     *
-     * FUTURE_WORK: move to a util class?
-     *
-     * @param value to replace in
-     * @param charToRemove the char to remove
-     * @return the value without the char of unchanged if the char was not found
-     */
-    private String removeCharacter(final String value, final char charToRemove) {
-        int index = value.indexOf(charToRemove);
-        if (NPOS != index) {
-            return value.substring(0, index)
-                    + value.substring(index + 1, value.length());
-        }
-        return value;
-    }
 }
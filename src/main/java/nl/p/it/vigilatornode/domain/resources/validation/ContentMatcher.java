@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Matcher finding any number of texts in a web reply in one pass
+ * <p>
+ * The texts are compiled into an Aho-Corasick automaton over the UTF-8 bytes
+ * of the texts. Scanning the reply follows one transition per byte, no matter
+ * how many texts are looked for, and stops early once every text is found.
+ * The reply does not need to be decoded into a string.
+ * </p>
+ *
+ * @author Patrick
+ */
+public class ContentMatcher {
+
+    private final List<String> texts;
+    private final Node root;
+
+    private static final class Node {
+
+        private byte[] keys = new byte[0];
+        private Node[] next = new Node[0];
+        private Node fail;
+        private int[] outputs = new int[0];
+
+        Node child(final byte key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return next[i];
+                }
+            }
+            return null;
+        }
+
+        Node addChild(final byte key) {
+            Node child = child(key);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                next = Arrays.copyOf(next, next.length + 1);
+                keys[keys.length - 1] = key;
+                next[next.length - 1] = child;
+            }
+            return child;
+        }
+
+        void addOutputs(final int[] added) {
+            int length = outputs.length;
+            outputs = Arrays.copyOf(outputs, length + added.length);
+            System.arraycopy(added, 0, outputs, length, added.length);
+        }
+    }
+
+    /**
+     * @param texts the texts to find, empty texts are ignored
+     */
+    public ContentMatcher(final List<String> texts) {
+        this.texts = List.copyOf(texts);
+        this.root = new Node();
+        for (int i = 0; i < this.texts.size(); i++) {
+            byte[] text = this.texts.get(i).getBytes(StandardCharsets.UTF_8);
+            if (text.length > 0) {
+                Node node = root;
+                for (byte key : text) {
+                    node = node.addChild(key);
+                }
+                node.addOutputs(new int[]{i});
+            }
+        }
+        link();
+    }
+
+    /**
+     * @return the texts looked for
+     */
+    public List<String> getTexts() {
+        return texts;
+    }
+
+    /**
+     * @param data the reply
+     * @return per text whether it was found, in the order of the texts
+     */
+    public boolean[] find(final byte[] data) {
+        boolean[] found = new boolean[texts.size()];
+        int remaining = (int) texts.stream().filter(text -> !text.isEmpty()).count();
+        Node node = root;
+        for (int i = 0; i < data.length && remaining > 0; i++) {
+            Node next = node.child(data[i]);
+            while (next == null && node != root) {
+                node = node.fail;
+                next = node.child(data[i]);
+            }
+            node = (next != null ? next : root);
+            for (int output : node.outputs) {
+                if (!found[output]) {
+                    found[output] = true;
+                    remaining--;
+                }
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Link every node to the longest proper suffix that is also a prefix of a
+     * text, breadth first so the suffix is always linked before the node.
+     * The outputs of the suffix are added to the node, so a match reports
+     * every text ending at that byte
+     */
+    private void link() {
+        Queue<Node> queue = new ArrayDeque<>();
+        root.fail = root;
+        for (Node child : root.next) {
+            child.fail = root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (int i = 0; i < node.keys.length; i++) {
+                Node child = node.next[i];
+                Node fail = node.fail;
+                while (fail != root && fail.child(node.keys[i]) == null) {
+                    fail = fail.fail;
+                }
+                Node suffix = fail.child(node.keys[i]);
+                child.fail = (suffix != null && suffix != child ? suffix : root);
+                child.addOutputs(child.fail.outputs);
+                queue.add(child);
+            }
+        }
+    }
+}
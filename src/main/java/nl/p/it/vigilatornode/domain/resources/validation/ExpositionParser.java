@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming parser for the Prometheus text exposition format
+ * <p>
+ * The exposition is read byte by byte in one pass. Only the samples of the
+ * metrics asked for are turned into strings, every other line is skipped up
+ * to the next line feed without allocating. This keeps a scrape of thousands
+ * of series as cheap as the few series that are validated.
+ * </p>
+ * <p>
+ * Comments (`# HELP`, `# TYPE`) and timestamps are ignored.
+ * </p>
+ *
+ * @author Patrick
+ */
+class ExpositionParser {
+
+    private final byte[][] metrics;
+
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte SPACE = ' ';
+    private static final byte TAB = '\t';
+    private static final byte COMMENT = '#';
+    private static final byte LABELS_START = '{';
+    private static final byte LABELS_END = '}';
+    private static final byte LABEL_SEPARATOR = ',';
+    private static final byte LABEL_ASSIGN = '=';
+    private static final byte QUOTE = '"';
+    private static final byte ESCAPE = '\\';
+    private static final byte ESCAPED_NEW_LINE = 'n';
+
+    /**
+     * Receiver of the samples of the metrics asked for
+     */
+    interface SampleReceiver {
+
+        /**
+         * @param metric the name of the metric
+         * @param labels the labels of the sample, empty when it has none
+         * @param value the value of the sample as written, e.g. `42`,
+         * `0.25` or `NaN`
+         */
+        void receive(String metric, Map<String, String> labels, String value);
+    }
+
+    /**
+     * @param metrics the names of the metrics to receive the samples of
+     */
+    ExpositionParser(final Collection<String> metrics) {
+        this.metrics = new byte[metrics.size()][];
+        int i = 0;
+        for (String metric : metrics) {
+            this.metrics[i++] = metric.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * @param exposition the exposition to parse
+     * @param receiver the receiver of the samples of the metrics asked for
+     * @throws IllegalArgumentException when a sample of a metric asked for is
+     * not valid, with the line number in the message
+     */
+    void parse(final byte[] exposition, final SampleReceiver receiver) {
+        int line = 1;
+        int pos = 0;
+        while (pos < exposition.length) {
+            int next = nextLine(exposition, pos);
+            int end = (next > pos && exposition[next - 1] == CARRIAGE_RETURN) ? next - 1 : next;
+            if (end > pos && exposition[pos] != COMMENT) {
+                int nameEnd = nameEnd(exposition, pos, end);
+                byte[] metric = wanted(exposition, pos, nameEnd);
+                if (metric != null) {
+                    parseSample(exposition, metric, nameEnd, end, line, receiver);
+                }
+            }
+            pos = next + 1;
+            line++;
+        }
+    }
+
+    /**
+     * Parse a label selector as written in a resource file, e.g.
+     * `{code="500"}`, `code="500"` or `{}` for every sample of a metric
+     *
+     * @param selector the selector
+     * @return the labels a sample must have
+     * @throws IllegalArgumentException when the selector is not valid
+     */
+    static Map<String, String> parseSelector(final String selector) {
+        byte[] bytes = selector.trim().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0) {
+            return Map.of();
+        }
+        if (bytes[0] != LABELS_START) {
+            byte[] braced = new byte[bytes.length + 2];
+            braced[0] = LABELS_START;
+            System.arraycopy(bytes, 0, braced, 1, bytes.length);
+            braced[braced.length - 1] = LABELS_END;
+            bytes = braced;
+        }
+        Map<String, String> labels = new HashMap<>();
+        parseLabels(bytes, 0, bytes.length, 0, labels);
+
+        return labels;
+    }
+
+    private void parseSample(final byte[] exposition, final byte[] metric, final int nameEnd, final int end, final int line, final SampleReceiver receiver) {
+        Map<String, String> labels = Map.of();
+        int pos = nameEnd;
+        if (pos < end && exposition[pos] == LABELS_START) {
+            labels = new HashMap<>();
+            pos = parseLabels(exposition, pos, end, line, labels);
+        }
+        pos = skipSpaces(exposition, pos, end);
+        int valueEnd = pos;
+        while (valueEnd < end && exposition[valueEnd] != SPACE && exposition[valueEnd] != TAB) {
+            valueEnd++;
+        }
+        if (valueEnd == pos) {
+            throw new IllegalArgumentException("Sample without value on line " + line);
+        }
+
+        receiver.receive(new String(metric, StandardCharsets.UTF_8), labels,
+                new String(exposition, pos, valueEnd - pos, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the position after the closing brace
+     */
+    private static int parseLabels(final byte[] bytes, final int start, final int end, final int line, final Map<String, String> labels) {
+        int pos = start + 1;
+        while (true) {
+            while (pos < end && (bytes[pos] == SPACE || bytes[pos] == TAB || bytes[pos] == LABEL_SEPARATOR)) {
+                pos++;
+            }
+            if (pos >= end) {
+                throw new IllegalArgumentException("Labels not closed on line " + line);
+            }
+            if (bytes[pos] == LABELS_END) {
+                return pos + 1;
+            }
+
+            int nameStart = pos;
+            while (pos < end && bytes[pos] != LABEL_ASSIGN && bytes[pos] != SPACE) {
+                pos++;
+            }
+            String name = new String(bytes, nameStart, pos - nameStart, StandardCharsets.UTF_8);
+            pos = skipSpaces(bytes, pos, end);
+            if (pos >= end || bytes[pos] != LABEL_ASSIGN) {
+                throw new IllegalArgumentException("Label " + name + " without value on line " + line);
+            }
+            pos = skipSpaces(bytes, pos + 1, end);
+            if (pos >= end || bytes[pos] != QUOTE) {
+                throw new IllegalArgumentException("Label " + name + " without quoted value on line " + line);
+            }
+
+            pos++;
+            byte[] value = new byte[end - pos];
+            int length = 0;
+            while (pos < end && bytes[pos] != QUOTE) {
+                if (bytes[pos] == ESCAPE && pos + 1 < end) {
+                    pos++;
+                    value[length++] = (bytes[pos] == ESCAPED_NEW_LINE ? NEW_LINE : bytes[pos]);
+                } else {
+                    value[length++] = bytes[pos];
+                }
+                pos++;
+            }
+            if (pos >= end) {
+                throw new IllegalArgumentException("Label " + name + " value not closed on line " + line);
+            }
+            labels.put(name, new String(value, 0, length, StandardCharsets.UTF_8));
+            pos++;
+        }
+    }
+
+    private byte[] wanted(final byte[] exposition, final int start, final int end) {
+        for (byte[] metric : metrics) {
+            if (Arrays.equals(exposition, start, end, metric, 0, metric.length)) {
+                return metric;
+            }
+        }
+
+        return null;
+    }
+
+    private static int nextLine(final byte[] bytes, final int start) {
+        int pos = start;
+        while (pos < bytes.length && bytes[pos] != NEW_LINE) {
+            pos++;
+        }
+
+        return pos;
+    }
+
+    private static int nameEnd(final byte[] bytes, final int start, final int end) {
+        int pos = start;
+        while (pos < end && bytes[pos] != LABELS_START && bytes[pos] != SPACE && bytes[pos] != TAB) {
+            pos++;
+        }
+
+        return pos;
+    }
+
+    private static int skipSpaces(final byte[] bytes, final int start, final int end) {
+        int pos = start;
+        while (pos < end && (bytes[pos] == SPACE || bytes[pos] == TAB)) {
+            pos++;
+        }
+
+        return pos;
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * Compiled paths into the items of a status entry
+ * <p>
+ * An item key can address nested values, e.g. `heap.used`, `pools[0].queued`
+ * or `pools[*].queued` for every element of an array. The key can be wrapped
+ * in a quantifier deciding how the condition applies to the values selected:
+ * </p>
+ * <ul>
+ * <li>`any(pools[*].queued)`, the condition is met when it is met by any value,
+ * this is the default</li>
+ * <li>`all(pools[*].queued)`, the condition is met when it is met by every
+ * value</li>
+ * <li>`count(pools[*])`, the condition is validated against the amount of
+ * values selected</li>
+ * </ul>
+ * <p>
+ * The paths of a part are compiled once, when the part is read, into one tree
+ * sharing common prefixes. Selecting walks the items once along that tree,
+ * only descending into the fields and elements some path addresses.
+ * </p>
+ * <p>
+ * The tree walks the items of the org.json document the validator already
+ * parsed for the flat items, rules and datetime of the status entry, it is not
+ * evaluated while the reply is tokenized. Streaming the paths alone would add
+ * a pass over the bytes next to that document instead of saving one, the walk
+ * only visits the values addressed by a path.
+ * </p>
+ *
+ * FUTURE_WORK: evaluate the tree while tokenizing the reply once the flat
+ * items, rules and datetime are validated without the document as well
+ *
+ * @author Patrick
+ */
+public class JsonPaths {
+
+    private final Node root;
+    private final List<Path> paths;
+
+    private static final char FIELD_SEPARATOR = '.';
+    private static final char INDEX_START = '[';
+    private static final char INDEX_END = ']';
+    private static final String EVERY_INDEX = "*";
+    private static final char QUANTIFIER_START = '(';
+    private static final char QUANTIFIER_END = ')';
+    private static final char SELECTOR_START = '{';
+
+    private static final System.Logger LOGGER = System.getLogger(JsonPaths.class.getName());
+
+    /**
+     * How the condition of a path applies to the values selected
+     */
+    enum Quantifier {
+        ANY, ALL, COUNT
+    }
+
+    /**
+     * @param key the item key as configured
+     * @param quantifier how the condition applies to the values selected
+     */
+    record Path(String key, Quantifier quantifier) {
+
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> fields = new LinkedHashMap<>();
+        private final Map<Integer, Node> indexes = new LinkedHashMap<>();
+        private final List<Path> ends = new ArrayList<>();
+        private Node everyIndex;
+    }
+
+    private JsonPaths() {
+        this.root = new Node();
+        this.paths = new ArrayList<>();
+    }
+
+    /**
+     * @param key the item key
+     * @return whether the key addresses a nested value or is quantified, flat
+     * keys are looked up by name
+     */
+    public static boolean isPath(final String key) {
+        return key != null && !key.isEmpty() && key.charAt(0) != SELECTOR_START
+                && (key.indexOf(FIELD_SEPARATOR) >= 0 || key.indexOf(INDEX_START) >= 0 || quantifier(key) != null);
+    }
+
+    /**
+     * Compile the paths among the item keys, keys that are not paths or not
+     * valid paths are skipped
+     *
+     * @param keys the item keys
+     * @return the compiled paths, or null when none of the keys is a path
+     */
+    public static JsonPaths compile(final Collection<String> keys) {
+        JsonPaths compiled = new JsonPaths();
+        for (String key : keys) {
+            if (isPath(key)) {
+                try {
+                    compiled.add(key);
+                } catch (IllegalArgumentException ex) {
+                    LOGGER.log(WARNING, "Item {0} is not a valid path and is looked up by name, exception: {1}", key, ex.getMessage());
+                }
+            }
+        }
+
+        return compiled.paths.isEmpty() ? null : compiled;
+    }
+
+    /**
+     * @return the compiled paths
+     */
+    List<Path> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Select the values of every path in one walk over the items
+     *
+     * @param items the items of a status entry
+     * @return the values selected per path, paths selecting nothing are absent
+     */
+    Map<Path, List<Object>> select(final JSONObject items) {
+        Map<Path, List<Object>> selected = new HashMap<>();
+        walk(items, root, selected);
+
+        return selected;
+    }
+
+    private void walk(final Object value, final Node node, final Map<Path, List<Object>> selected) {
+        for (Path end : node.ends) {
+            selected.computeIfAbsent(end, path -> new ArrayList<>()).add(value);
+        }
+
+        if (value instanceof JSONObject object) {
+            for (Map.Entry<String, Node> field : node.fields.entrySet()) {
+                Object child = object.opt(field.getKey());
+                if (child != null && child != JSONObject.NULL) {
+                    walk(child, field.getValue(), selected);
+                }
+            }
+        } else if (value instanceof JSONArray array) {
+            if (node.everyIndex != null) {
+                for (int i = 0; i < array.length(); i++) {
+                    walk(array.get(i), node.everyIndex, selected);
+                }
+            }
+            for (Map.Entry<Integer, Node> index : node.indexes.entrySet()) {
+                if (index.getKey() < array.length()) {
+                    walk(array.get(index.getKey()), index.getValue(), selected);
+                }
+            }
+        }
+    }
+
+    private void add(final String key) {
+        Quantifier quantifier = quantifier(key);
+        String path = (quantifier != null ? key.substring(key.indexOf(QUANTIFIER_START) + 1, key.length() - 1).trim() : key);
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("Empty path");
+        }
+
+        Node node = root;
+        int pos = 0;
+        while (pos < path.length()) {
+            char current = path.charAt(pos);
+            if (current == INDEX_START) {
+                int end = path.indexOf(INDEX_END, pos);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Index not closed at " + pos);
+                }
+                node = index(node, path.substring(pos + 1, end).trim());
+                pos = end + 1;
+            } else if (current == FIELD_SEPARATOR) {
+                pos++;
+            } else {
+                int end = pos;
+                while (end < path.length() && path.charAt(end) != FIELD_SEPARATOR && path.charAt(end) != INDEX_START) {
+                    end++;
+                }
+                node = node.fields.computeIfAbsent(path.substring(pos, end), field -> new Node());
+                pos = end;
+            }
+        }
+
+        Path compiled = new Path(key, quantifier != null ? quantifier : Quantifier.ANY);
+        node.ends.add(compiled);
+        paths.add(compiled);
+    }
+
+    private static Node index(final Node node, final String index) {
+        if (EVERY_INDEX.equals(index)) {
+            if (node.everyIndex == null) {
+                node.everyIndex = new Node();
+            }
+            return node.everyIndex;
+        }
+
+        try {
+            return node.indexes.computeIfAbsent(Integer.parseUnsignedInt(index), position -> new Node());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Index " + index + " is not * or a position");
+        }
+    }
+
+    private static Quantifier quantifier(final String key) {
+        int start = key.indexOf(QUANTIFIER_START);
+        if (start > 0 && key.charAt(key.length() - 1) == QUANTIFIER_END) {
+            String name = key.substring(0, start).trim();
+            for (Quantifier quantifier : Quantifier.values()) {
+                if (quantifier.name().equalsIgnoreCase(name)) {
+                    return quantifier;
+                }
+            }
+        }
+
+        return null;
+    }
+}
@@ -15,9 +15,17 @@
  */
 package nl.p.it.vigilatornode.domain.resources.validation;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.events.Events;
+import nl.p.it.vigilatornode.domain.events.ValidationEvent;
 import nl.p.it.vigilatornode.domain.resources.Error;
 import nl.p.it.vigilatornode.domain.resources.MonitoredPart;
 import nl.p.it.vigilatornode.domain.resources.Warning;
@@ -41,9 +49,10 @@ public class MonitorValidator {
     private static final String KEY_JSON_ITEMS = "items";
     private static final String KEY_JSON_DATETIME = "datetime";
     private static final String KEY_CONFIG_WEB = "Web";
-    private static final String KEY_TITLE = "title";
     private static final char WARNING_INDICATION = 'W';
-    private static final String HTML_TITLE = "<title>";
+    private static final String REPLY_MONITOR = "monitor";
+    private static final String REPLY_WEB = "web";
+    private static final double MAX_EXACT_WHOLE_NUMBER = 1L << 53;
 
     private static final System.Logger LOGGER = System.getLogger(MonitorValidator.class.getName());
 
@@ -64,10 +73,26 @@ public class MonitorValidator {
      * logging and error information)
      */
     public void validate(final MonitoredData result, final Map<String, MonitoredPart> parts, final String name) {
+        validate(result, parts, name, Instant.now());
+    }
+
+    /**
+     * Validate the JSON reply of a resource, temporal conditions determine the
+     * age of the values at the given moment
+     *
+     * @param result the result to validate
+     * @param parts the parts to validate against
+     * @param name the name of the resource being validated (this is used for
+     * logging and error information)
+     * @param now the moment the take of the resource started, sampled once so
+     * every temporal condition of the take is validated at the same moment
+     */
+    public void validate(final MonitoredData result, final Map<String, MonitoredPart> parts, final String name, final Instant now) {
         if (result != null) {
+            ValidationEvent event = begin();
             try {
                 if (result.hasData()) {
-                    validateJSON(result, parts, name);
+                    validateJSON(result, parts, name, now);
                 } else {
                     LOGGER.log(ERROR, "Empty response received in response from {0}", name);
                     result.addError(Error.withArgs(Error.EMPTY_RESPONSE, name, result.getUrl()));
@@ -76,17 +101,99 @@ public class MonitorValidator {
                 LOGGER.log(ERROR, "Invalid JSON received in response from {0} with "
                         + "exception being: {1}", name, ex);
                 result.addError(Error.withArgs(Error.NOT_VALID_JSON, name, ex.getMessage()));
+            } finally {
+                commit(event, REPLY_MONITOR, result, name);
             }
         } else {
             LOGGER.log(WARNING, "validate called without monitored data");
         }
     }
 
+    /**
+     * Validate a Prometheus text exposition. Every part, except the Web part,
+     * names a metric and its items select the samples of the metric by label,
+     * e.g. `{code="500"}` or `{}` for every sample. The condition of an item is
+     * validated against the value of every sample selected
+     * <p>
+     * Only the samples of the metrics named by the parts are read from the
+     * exposition, the rest is skipped while parsing. Whole number values are
+     * validated without their fraction, e.g. `42.0` as `42`. The selectors are
+     * compiled once into the parts, see {@link MonitoredPart#getSelections()}.
+     * </p>
+     *
+     * @param result the result to validate
+     * @param parts the parts to validate against
+     * @param name the name of the resource being validated (this is used for
+     * logging and error information)
+     */
+    public void validateExposition(final MonitoredData result, final Map<String, MonitoredPart> parts, final String name) {
+        if (result == null) {
+            LOGGER.log(WARNING, "validateExposition called without monitored data");
+            return;
+        }
+
+        ValidationEvent event = begin();
+        try {
+            if (result.hasData()) {
+                new ExpositionParser(getMetrics(parts)).parse(result.getData(), (metric, labels, value) -> {
+                    for (Selection selection : parts.get(metric).getSelections()) {
+                        if (labels.entrySet().containsAll(selection.labels().entrySet())
+                                && conditionValidator.validateMeetsCriteria(wholeNumber(value), selection.condition())) {
+                            handlePotentialError(
+                                    Error.withArgs(Error.POTENTIAL_VALUE_ERROR, value, selection.condition(), metric + selection.selector()),
+                                    selection.condition(), result);
+                        }
+                    }
+                });
+            } else {
+                LOGGER.log(ERROR, "Empty response received in response from {0}", name);
+                result.addError(Error.withArgs(Error.EMPTY_RESPONSE, name, result.getUrl()));
+            }
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(ERROR, "Invalid exposition received in response from {0} with "
+                    + "exception being: {1}", name, ex);
+            result.addError(Error.withArgs(Error.NOT_VALID_EXPOSITION, name, ex.getMessage()));
+        } finally {
+            commit(event, REPLY_MONITOR, result, name);
+        }
+    }
+
+    /**
+     * @param parts the parts, every part except the Web part names a metric
+     * @return the metrics named by the parts
+     */
+    private List<String> getMetrics(final Map<String, MonitoredPart> parts) {
+        if (parts == null) {
+            return List.of();
+        }
+
+        return parts.keySet().stream().filter(part -> !KEY_CONFIG_WEB.equals(part)).toList();
+    }
+
+    private String wholeNumber(final String value) {
+        try {
+            double number = Double.parseDouble(value);
+            if (number == Math.rint(number) && Math.abs(number) <= MAX_EXACT_WHOLE_NUMBER) {
+                return String.valueOf((long) number);
+            }
+        } catch (NumberFormatException ex) {
+            // not a number, e.g. +Inf, validated as written
+        }
+
+        return value;
+    }
+
     /**
      * Determine if the replied data provides any content and if required,
      * validate the title IF title is required, currently expects an HTML
      * response, meaning it will check for the title in a title element, else
      * any response could be accepted as valid, even error pages
+     * <p>
+     * The title and the texts of the contains item are found in one pass over
+     * the reply, see {@link ContentMatcher}. Without a title or contains item,
+     * a response without a body (e.g. to a HEAD request) proves the page is
+     * reachable
+     * </p>
      *
      * @param result the result
      * @param parts the parts to validate against
@@ -94,17 +201,32 @@ public class MonitorValidator {
      * logging and error information)
      */
     public void validateWebReply(final MonitoredData result, final Map<String, MonitoredPart> parts, final String name) {
-        if (result != null && result.hasData() && parts != null) {
-            String data = new String(result.getData());
-            MonitoredPart webPart = parts.get(KEY_CONFIG_WEB);
-            String title = webPart.getItems().get(KEY_TITLE);
-            if (title != null && !title.isEmpty()) {
-                String needle = HTML_TITLE + title;
-                if (!data.contains(needle)) {
-                    result.addError(Error.withArgs(Error.WEB_VALIDATION_FAILED, result.getUrl()));
+        if (result != null && parts != null && (result.hasData() || (result.hasResponded() && !requiresContent(parts)))) {
+            ValidationEvent event = begin();
+            try {
+                MonitoredPart webPart = parts.get(KEY_CONFIG_WEB);
+                ContentMatcher content = (webPart != null ? webPart.getContent() : null);
+                boolean[] found = (content != null ? content.find(result.getData()) : new boolean[1]);
+                String title = (webPart != null ? webPart.getItems().get(MonitoredPart.TITLE) : null);
+                if (title != null && !title.isEmpty()) {
+                    if (!found[0]) {
+                        result.addError(Error.withArgs(Error.WEB_VALIDATION_FAILED, result.getUrl()));
+                    }
+                } else {
+                    result.addWarning(Warning.withArgs(Warning.WEB_VALIDATION_MISSING_TITLE, result.getUrl()));
                 }
-            } else {
-                result.addWarning(Warning.withArgs(Warning.WEB_VALIDATION_MISSING_TITLE, result.getUrl()));
+                List<String> missing = new ArrayList<>();
+                for (int i = 1; i < found.length; i++) {
+                    if (!found[i]) {
+                        missing.add(content.getTexts().get(i));
+                    }
+                }
+                if (!missing.isEmpty()) {
+                    handlePotentialError(Error.withArgs(Error.WEB_CONTENT_MISSING, result.getUrl(), String.join(", ", missing)),
+                            webPart.getItems().get(MonitoredPart.CONTAINS), result);
+                }
+            } finally {
+                commit(event, REPLY_WEB, result, name);
             }
         } else if (result != null && !result.hasData()) {
             LOGGER.log(ERROR, "Empty response received in response from {0}", name);
@@ -114,6 +236,107 @@ public class MonitorValidator {
         }
     }
 
+    /**
+     * Validate the length of the redirect chain the result was received with
+     *
+     * @param result the result
+     * @param condition the redirects condition, e.g. `> 1 W`, when null or
+     * empty the redirects are not validated
+     * @param name the name of the resource being validated (this is used for
+     * logging and error information)
+     */
+    public void validateRedirects(final MonitoredData result, final String condition, final String name) {
+        if (result != null && condition != null && !condition.isEmpty()
+                && conditionValidator.validateMeetsCriteria(String.valueOf(result.getRedirectCount()), condition)) {
+            handlePotentialError(
+                    Error.withArgs(Error.LONG_REDIRECT_CHAIN, result.getRedirectCount(), name, result.getUrl(), condition),
+                    condition, result);
+        }
+    }
+
+    /**
+     * Validate the time until the certificate presented with the result
+     * expires, an expired certificate has a negative time until it expires
+     *
+     * @param result the result
+     * @param condition the certificate expiry condition, e.g. `< 14d W`, when
+     * null or empty or when the result was not received over TLS the
+     * certificate is not validated
+     * @param name the name of the resource being validated (this is used for
+     * logging and error information)
+     */
+    public void validateCertificateExpiry(final MonitoredData result, final String condition, final String name) {
+        validateCertificateExpiry(result, condition, name, Instant.now());
+    }
+
+    /**
+     * Validate the time until the certificate presented with the result
+     * expires at the given moment
+     *
+     * @param result the result
+     * @param condition the certificate expiry condition, e.g. `< 14d W`
+     * @param name the name of the resource being validated
+     * @param now the moment to determine the time until expiry at, usually the
+     * start of the take
+     * @see validateCertificateExpiry(MonitoredData, String, String)
+     */
+    public void validateCertificateExpiry(final MonitoredData result, final String condition, final String name, final Instant now) {
+        if (result != null && condition != null && !condition.isEmpty() && result.getCertificateExpiry() != null) {
+            long millis = Duration.between(now, result.getCertificateExpiry()).toMillis();
+            if (conditionValidator.validateMeetsDurationCriteria(millis, condition)) {
+                handlePotentialError(
+                        Error.withArgs(Error.CERTIFICATE_EXPIRY, name, result.getUrl(), result.getCertificateExpiry(), condition),
+                        condition, result);
+            }
+        }
+    }
+
+    private boolean requiresContent(final Map<String, MonitoredPart> parts) {
+        MonitoredPart webPart = parts.get(KEY_CONFIG_WEB);
+
+        return webPart != null && webPart.getContent() != null;
+    }
+
+    /**
+     * Validate the time it took to connect to the resource
+     *
+     * @param result the result
+     * @param condition the connect time condition, e.g. `> 50ms W`, when null
+     * or empty or when not connected the connect time is not validated
+     * @param name the name of the resource being validated (this is used for
+     * logging and error information)
+     */
+    public void validateConnectTime(final MonitoredData result, final String condition, final String name) {
+        if (result != null && condition != null && !condition.isEmpty() && result.getConnectTimeInNanos() > 0) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(result.getConnectTimeInNanos());
+            if (conditionValidator.validateMeetsDurationCriteria(millis, condition)) {
+                handlePotentialError(
+                        Error.withArgs(Error.SLOW_CONNECT, millis, name, result.getUrl(), condition),
+                        condition, result);
+            }
+        }
+    }
+
+    /**
+     * Validate the response time of the request the result was received with
+     *
+     * @param result the result
+     * @param condition the response time condition, e.g. `> 500ms W`, when
+     * null or empty the response time is not validated
+     * @param name the name of the resource being validated (this is used for
+     * logging and error information)
+     */
+    public void validateResponseTime(final MonitoredData result, final String condition, final String name) {
+        if (result != null && condition != null && !condition.isEmpty() && result.getResponseTimeInNanos() > 0) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(result.getResponseTimeInNanos());
+            if (conditionValidator.validateMeetsDurationCriteria(millis, condition)) {
+                handlePotentialError(
+                        Error.withArgs(Error.SLOW_RESPONSE, millis, name, result.getUrl(), condition),
+                        condition, result);
+            }
+        }
+    }
+
     /**
      * FUTURE_WORK: Currently the response is compared to what is expected (the
      * parts) this allows the parts to be configured for multiple different
@@ -126,7 +349,7 @@ public class MonitorValidator {
      * @param parts the validation parts
      * @param name the name of the resource
      */
-    private void validateJSON(final MonitoredData result, final Map<String, MonitoredPart> parts, final String name) {
+    private void validateJSON(final MonitoredData result, final Map<String, MonitoredPart> parts, final String name, final Instant now) {
         JSONObject document = new JSONObject(new String(result.getData()));
         JSONArray status = (JSONArray) document.get(KEY_JSON_STATUS);
 
@@ -139,7 +362,7 @@ public class MonitorValidator {
             for (Object entry : status) {
                 JSONObject statusEntry = (JSONObject) entry;
                 if (statusEntry != null) {
-                    validateStatusEntry(statusEntry, result, parts, name);
+                    validateStatusEntry(statusEntry, result, parts, name, now);
                 } else {
                     // ignoring 
                 }
@@ -150,11 +373,11 @@ public class MonitorValidator {
         }
     }
 
-    private void validateStatusEntry(final JSONObject statusEntry, final MonitoredData result, final Map<String, MonitoredPart> parts, final String name) {
+    private void validateStatusEntry(final JSONObject statusEntry, final MonitoredData result, final Map<String, MonitoredPart> parts, final String name, final Instant now) {
         if (statusEntry.has(KEY_JSON_NAME)) {
             String partName = statusEntry.getString(KEY_JSON_NAME);
             if (parts.containsKey(partName)) {
-                validatePart(parts.get(partName), partName, statusEntry, result, name);
+                validatePart(parts.get(partName), partName, statusEntry, result, name, now);
             } else {
                 // Not something the resource is interested in monitoring, skipping
             }
@@ -168,33 +391,44 @@ public class MonitorValidator {
             final String partName,
             final JSONObject statusEntry,
             final MonitoredData result,
-            final String name) {
+            final String name,
+            final Instant now) {
         if (statusEntry.has(KEY_JSON_ITEMS)) {
             Map<String, String> validationItems = part.getItems();
             JSONObject items = statusEntry.getJSONObject(KEY_JSON_ITEMS);
             Iterator<String> keys = items.keys();
             while (keys.hasNext()) {
                 String key = keys.next();
-                validateItem(key, items, validationItems, partName, result);
+                validateItem(key, items, validationItems, partName, result, now);
+            }
+            if (part.getPaths() != null) {
+                validatePaths(part.getPaths(), items, validationItems, partName, result, now);
+            }
+            for (Map.Entry<String, Rule> rule : part.getRules().entrySet()) {
+                if (rule.getValue().meets(items, conditionValidator, now)) {
+                    handlePotentialError(
+                            Error.withArgs(Error.RULE_MET, rule.getValue().getName(), validationItems.get(rule.getKey()), partName),
+                            validationItems.get(rule.getKey()), result);
+                }
             }
         } else {
             result.addWarning(Warning.withArgs(Warning.STATUS_MISSING_FIELD, name, KEY_JSON_ITEMS));
         }
 
         if (statusEntry.has(KEY_JSON_DATETIME)) {
-            validateDatetimeCondition(part, statusEntry, partName, result);
+            validateDatetimeCondition(part, statusEntry, partName, result, now);
         } else {
             result.addWarning(Warning.withArgs(Warning.STATUS_MISSING_FIELD, name, KEY_JSON_DATETIME));
         }
     }
 
-    private void validateItem(final String key, final JSONObject items, final Map<String, String> validationItems, final String partName, final MonitoredData result) {
+    private void validateItem(final String key, final JSONObject items, final Map<String, String> validationItems, final String partName, final MonitoredData result, final Instant now) {
         if (validationItems.containsKey(key)) {
-            String value = items.getString(key);
+            Object value = items.get(key);
             String condition = validationItems.get(key);
-            if (conditionValidator.validateMeetsCriteria(value, condition)) {
+            if (conditionValidator.validateMeetsCriteria(value, condition, now)) {
                 handlePotentialError(
-                        Error.withArgs(Error.POTENTIAL_VALUE_ERROR, value, condition, partName),
+                        Error.withArgs(Error.POTENTIAL_VALUE_ERROR, String.valueOf(value), condition, partName),
                         condition, result);
             }
         } else {
@@ -202,11 +436,76 @@ public class MonitorValidator {
         }
     }
 
-    private void validateDatetimeCondition(final MonitoredPart part, final JSONObject statusEntry, final String partName, final MonitoredData result) {
+    /**
+     * Validate the items addressed by a path, the values of all paths are
+     * selected in one walk over the items of the parsed status entry, see
+     * {@link JsonPaths} on why the walk uses the document. An item reported
+     * with the exact key of a path is validated by name instead
+     */
+    private void validatePaths(final JsonPaths paths, final JSONObject items, final Map<String, String> validationItems, final String partName, final MonitoredData result, final Instant now) {
+        Map<JsonPaths.Path, List<Object>> selected = paths.select(items);
+        for (JsonPaths.Path path : paths.getPaths()) {
+            String condition = validationItems.get(path.key());
+            if (items.has(path.key()) || condition == null) {
+                continue;
+            }
+
+            String value = meetingValue(path.quantifier(), selected.getOrDefault(path, List.of()), condition, now);
+            if (value != null) {
+                handlePotentialError(
+                        Error.withArgs(Error.POTENTIAL_VALUE_ERROR, value, condition, partName + ' ' + path.key()),
+                        condition, result);
+            }
+        }
+    }
+
+    /**
+     * @param quantifier how the condition applies to the values
+     * @param values the values selected by the path
+     * @param condition the condition
+     * @param now the moment temporal conditions are validated at
+     * @return the value meeting the condition to report, or null when the
+     * condition is not met
+     */
+    private String meetingValue(final JsonPaths.Quantifier quantifier, final List<Object> values, final String condition, final Instant now) {
+        switch (quantifier) {
+            case COUNT -> {
+                String count = String.valueOf(values.size());
+                return conditionValidator.validateMeetsCriteria(count, condition) ? count : null;
+            }
+            case ALL -> {
+                for (Object value : values) {
+                    if (!isScalar(value) || !conditionValidator.validateMeetsCriteria(value, condition, now)) {
+                        return null;
+                    }
+                }
+                return values.isEmpty() ? null : String.valueOf(values);
+            }
+            default -> {
+                for (Object value : values) {
+                    if (isScalar(value) && conditionValidator.validateMeetsCriteria(value, condition, now)) {
+                        return String.valueOf(value);
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    private boolean isScalar(final Object value) {
+        return !(value instanceof JSONObject) && !(value instanceof JSONArray);
+    }
+
+    /**
+     * The datetime condition states how recent the update must be, e.g. `<
+     * 5min`, the update exceeds the time constraints when the condition is not
+     * met, also when the datetime is not a timestamp
+     */
+    private void validateDatetimeCondition(final MonitoredPart part, final JSONObject statusEntry, final String partName, final MonitoredData result, final Instant now) {
         String datetimeCondition = part.getDatetimeCondition();
         if (datetimeCondition != null && !datetimeCondition.isEmpty()) {
-            String datetimeLastUpdated = String.valueOf(statusEntry.get(KEY_JSON_DATETIME));
-            if (conditionValidator.validateMeetsCriteria(datetimeLastUpdated, datetimeCondition)) {
+            Object datetimeLastUpdated = statusEntry.get(KEY_JSON_DATETIME);
+            if (!conditionValidator.validateMeetsCriteria(datetimeLastUpdated, datetimeCondition, now)) {
                 handlePotentialError(
                         Error.withArgs(Error.EXCEEDS_TIME_CONSTRAINTS, partName),
                         datetimeCondition, result);
@@ -218,6 +517,40 @@ public class MonitorValidator {
         }
     }
 
+    /**
+     * @return the started flight recorder event for a validation, or null when
+     * events are not enabled
+     */
+    private ValidationEvent begin() {
+        if (!Events.isEnabled()) {
+            return null;
+        }
+        ValidationEvent event = new ValidationEvent();
+        event.begin();
+
+        return event;
+    }
+
+    /**
+     * Commit the flight recorder event for a validation, the fields are only
+     * set when the event is recorded
+     */
+    private void commit(final ValidationEvent event, final String reply, final MonitoredData result, final String name) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setResource(name);
+            event.setUrl(result.getUrl());
+            event.setReply(reply);
+            event.setBytes(result.hasData() ? result.getData().length : 0);
+            event.setErrors(result.getErrors().size());
+            event.setWarnings(result.getWarnings().size());
+            event.commit();
+        }
+    }
+
     private void handlePotentialError(final String message, final String condition, final MonitoredData result) {
         char endingChar = condition.charAt((condition.length() - 1));
         if (WARNING_INDICATION == endingChar) {
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import static nl.p.it.vigilatornode.domain.resources.validation.ConditionType.*;
+
+/**
+ * Numeric condition with its operands parsed once, e.g. `> 50`, `< 0.25`,
+ * `> 80%` or `between 10 and 20`
+ * <p>
+ * Operands that are whole numbers are compared as long, others as double. A
+ * value is parsed from its characters without creating intermediate strings,
+ * whole numbers that do not fit a long are compared as double.
+ * </p>
+ *
+ * @author Patrick
+ */
+final class NumericCondition {
+
+    private final ConditionType type;
+    private final boolean whole;
+    private final long lowerWhole;
+    private final long upperWhole;
+    private final double lower;
+    private final double upper;
+
+    private static final String BETWEEN_SIGN = "between ";
+    private static final String AND = " and ";
+    private static final char BIGGER_THEN = '>';
+    private static final char SMALLER_THEN = '<';
+    private static final char PERCENT = '%';
+
+    private NumericCondition(final ConditionType type, final String lower, final String upper) {
+        this.type = type;
+        this.whole = isWhole(lower, 0, lower.length()) && isWhole(upper, 0, upper.length());
+        this.lower = Double.parseDouble(lower);
+        this.upper = Double.parseDouble(upper);
+        this.lowerWhole = whole ? Long.parseLong(lower) : 0;
+        this.upperWhole = whole ? Long.parseLong(upper) : 0;
+    }
+
+    /**
+     * @param condition the condition, without warning indication and trimmed
+     * @return whether the condition is numeric, meaning a `>` or `<`
+     * condition ending with a digit or percent sign or a `between` condition
+     */
+    static boolean isNumeric(final String condition) {
+        if (condition.startsWith(BETWEEN_SIGN)) {
+            return true;
+        }
+        char last = condition.charAt(condition.length() - 1);
+
+        return condition.length() > 1 && (condition.charAt(0) == BIGGER_THEN || condition.charAt(0) == SMALLER_THEN)
+                && (Character.isDigit(last) || last == PERCENT);
+    }
+
+    /**
+     * @param condition the numeric condition, without warning indication and
+     * trimmed
+     * @return the parsed condition
+     * @throws IllegalArgumentException when an operand is not a number
+     */
+    static NumericCondition parse(final String condition) {
+        try {
+            if (condition.startsWith(BETWEEN_SIGN)) {
+                int and = condition.indexOf(AND);
+                if (and < 0) {
+                    throw new IllegalArgumentException("Condition " + condition + " is not of the form between a and b");
+                }
+                return new NumericCondition(BETWEEN, operand(condition, BETWEEN_SIGN.length(), and),
+                        operand(condition, and + AND.length(), condition.length()));
+            }
+
+            String operand = operand(condition, 1, condition.length());
+            return new NumericCondition(condition.charAt(0) == BIGGER_THEN ? BIGGER : SMALLER, operand, operand);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Condition " + condition + " has an operand that is not a number", ex);
+        }
+    }
+
+    /**
+     * @param value the value
+     * @return whether the value meets the condition
+     */
+    boolean meets(final long value) {
+        if (!whole) {
+            return meets((double) value);
+        }
+
+        return switch (type) {
+            case BIGGER ->
+                value > lowerWhole;
+            case SMALLER ->
+                value < lowerWhole;
+            default ->
+                value >= lowerWhole && value <= upperWhole;
+        };
+    }
+
+    /**
+     * @param value the value
+     * @return whether the value meets the condition
+     */
+    boolean meets(final double value) {
+        return switch (type) {
+            case BIGGER ->
+                value > lower;
+            case SMALLER ->
+                value < lower;
+            default ->
+                value >= lower && value <= upper;
+        };
+    }
+
+    /**
+     * @param value the value, optionally surrounded by spaces and ending with
+     * a percent sign
+     * @return whether the value meets the condition
+     * @throws NumberFormatException when the value is not a number
+     */
+    boolean meets(final CharSequence value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        if (end > start && value.charAt(end - 1) == PERCENT) {
+            end--;
+        }
+
+        if (isWhole(value, start, end)) {
+            try {
+                return meets(Long.parseLong(value, start, end, 10));
+            } catch (NumberFormatException ex) {
+                // does not fit a long, compared as double
+            }
+        }
+        if (!isDecimal(value, start, end)) {
+            throw new NumberFormatException("Value is not a number: " + value);
+        }
+
+        return meets(Double.parseDouble(value.subSequence(start, end).toString()));
+    }
+
+    private static String operand(final String condition, final int start, final int end) {
+        String operand = condition.substring(start, end).trim();
+        if (!operand.isEmpty() && operand.charAt(operand.length() - 1) == PERCENT) {
+            operand = operand.substring(0, operand.length() - 1);
+        }
+        if (!isDecimal(operand, 0, operand.length())) {
+            throw new NumberFormatException("Operand is not a number: " + operand);
+        }
+
+        return operand;
+    }
+
+    private static boolean isWhole(final CharSequence value, final int start, final int end) {
+        int pos = start;
+        if (pos < end && (value.charAt(pos) == '-' || value.charAt(pos) == '+')) {
+            pos++;
+        }
+        if (pos == end) {
+            return false;
+        }
+        for (; pos < end; pos++) {
+            if (!Character.isDigit(value.charAt(pos))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Only plain decimal notation with an optional exponent is accepted,
+     * Double.parseDouble also accepts e.g. `NaN` and a type suffix `10d`
+     */
+    private static boolean isDecimal(final CharSequence value, final int start, final int end) {
+        boolean digit = false;
+        for (int pos = start; pos < end; pos++) {
+            char c = value.charAt(pos);
+            if (Character.isDigit(c)) {
+                digit = true;
+            } else if (c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return false;
+            }
+        }
+
+        return digit;
+    }
+
+    @Override
+    public String toString() {
+        return "NumericCondition{" + "type=" + type + ", lower=" + lower + ", upper=" + upper + ", whole=" + whole + '}';
+    }
+}
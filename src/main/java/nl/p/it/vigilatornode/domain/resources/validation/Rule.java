@@ -0,0 +1,357 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.json.JSONObject;
+
+/**
+ * Rule combining conditions on the items of a part with `and`, `or` and
+ * `not`, e.g. `rule(stuck): pool size > 50 and threads completed == 0`
+ * <p>
+ * Every comparison of a rule names an item followed by a condition, brackets
+ * group comparisons. Like a single condition, the rule describes the unhealthy
+ * state, the rule is reported when the expression is met. Ending the rule
+ * with ` W` reports a warning instead of an error. A comparison of an item
+ * that is not reported is not met.
+ * </p>
+ * <p>
+ * The rule is compiled once into an expression tree. The operands of `and`
+ * and `or` are ordered by their estimated cost, so cheap comparisons are
+ * evaluated first and evaluation stops as soon as the outcome is known.
+ * </p>
+ *
+ * FUTURE_WORK: comparisons only address flat items, addressing nested items
+ * with a path requires the selection of the paths to be shared with the rules
+ *
+ * @author Patrick
+ */
+public class Rule {
+
+    private final String name;
+    private final Expression expression;
+
+    private static final String RULE_START = "rule(";
+    private static final char RULE_END = ')';
+    private static final char GROUP_START = '(';
+    private static final char GROUP_END = ')';
+    private static final String AND = "and";
+    private static final String OR = "or";
+    private static final String NOT = "not";
+    private static final String WARNING_SUFFIX = " W";
+    private static final String OPERATORS = "<>=!~";
+    private static final String EQUALS = "==";
+    private static final char PERCENT = '%';
+
+    private static final int COST_EQUALITY = 1;
+    private static final int COST_NUMBER = 2;
+    private static final int COST_PERCENTAGE = 3;
+    private static final int COST_TEMPORAL = 5;
+    private static final int COST_PATTERN = 8;
+
+    private Rule(final String name, final Expression expression) {
+        this.name = name;
+        this.expression = expression;
+    }
+
+    /**
+     * @param key the item key
+     * @return whether the key declares a rule, e.g. `rule(stuck)`
+     */
+    public static boolean isRule(final String key) {
+        return key != null && key.startsWith(RULE_START) && key.length() > RULE_START.length() + 1
+                && key.charAt(key.length() - 1) == RULE_END;
+    }
+
+    /**
+     * @param key the item key declaring the rule, e.g. `rule(stuck)`
+     * @param rule the expression of the rule
+     * @return the compiled rule
+     * @throws IllegalArgumentException when the rule is not a valid expression
+     */
+    public static Rule compile(final String key, final String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Empty rule");
+        }
+
+        String source = rule.endsWith(WARNING_SUFFIX) ? rule.substring(0, rule.length() - WARNING_SUFFIX.length()) : rule;
+        Parser parser = new Parser(source);
+        Expression expression = parser.parseOr();
+        parser.skipSpaces();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected '" + source.substring(parser.pos) + "'");
+        }
+
+        return new Rule(key.substring(RULE_START.length(), key.length() - 1), expression);
+    }
+
+    /**
+     * @return the name of the rule
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param items the items of the status entry
+     * @param validator the validator to validate the comparisons with
+     * @param now the moment temporal comparisons are validated at
+     * @return whether the rule is met
+     */
+    boolean meets(final JSONObject items, final ConditionValidator validator, final Instant now) {
+        return expression.meets(items, validator, now);
+    }
+
+    /**
+     * @return the expression as evaluated, in order of evaluation
+     */
+    @Override
+    public String toString() {
+        return expression.toString();
+    }
+
+    private interface Expression {
+
+        boolean meets(JSONObject items, ConditionValidator validator, Instant now);
+
+        int cost();
+    }
+
+    private record Comparison(String item, String condition, int cost) implements Expression {
+
+        @Override
+        public boolean meets(final JSONObject items, final ConditionValidator validator, final Instant now) {
+            Object value = items.opt(item);
+            return value != null && value != JSONObject.NULL && validator.validateMeetsCriteria(value, condition, now);
+        }
+
+        @Override
+        public String toString() {
+            return item + ' ' + condition;
+        }
+    }
+
+    private record Not(Expression operand) implements Expression {
+
+        @Override
+        public boolean meets(final JSONObject items, final ConditionValidator validator, final Instant now) {
+            return !operand.meets(items, validator, now);
+        }
+
+        @Override
+        public int cost() {
+            return operand.cost();
+        }
+
+        @Override
+        public String toString() {
+            return NOT + ' ' + operand;
+        }
+    }
+
+    private record All(List<Expression> operands, int cost) implements Expression {
+
+        @Override
+        public boolean meets(final JSONObject items, final ConditionValidator validator, final Instant now) {
+            for (Expression operand : operands) {
+                if (!operand.meets(items, validator, now)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return join(operands, AND);
+        }
+    }
+
+    private record Any(List<Expression> operands, int cost) implements Expression {
+
+        @Override
+        public boolean meets(final JSONObject items, final ConditionValidator validator, final Instant now) {
+            for (Expression operand : operands) {
+                if (operand.meets(items, validator, now)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return join(operands, OR);
+        }
+    }
+
+    private static String join(final List<Expression> operands, final String operator) {
+        StringBuilder joined = new StringBuilder().append(GROUP_START);
+        for (int i = 0; i < operands.size(); i++) {
+            joined.append(i > 0 ? ' ' + operator + ' ' : "").append(operands.get(i));
+        }
+
+        return joined.append(GROUP_END).toString();
+    }
+
+    /**
+     * Estimate the cost of validating a condition, equality is a string
+     * comparison, numbers are parsed, temporal conditions read the clock and
+     * patterns run a regex
+     */
+    static int cost(final String condition) {
+        if (ConditionValidator.isPatternCondition(condition)) {
+            return COST_PATTERN;
+        } else if (condition.startsWith(EQUALS) || condition.charAt(0) == '!') {
+            return COST_EQUALITY;
+        } else if (Character.isLetter(condition.charAt(condition.length() - 1))) {
+            return COST_TEMPORAL;
+        } else if (condition.indexOf(PERCENT) >= 0) {
+            return COST_PERCENTAGE;
+        }
+
+        return COST_NUMBER;
+    }
+
+    /**
+     * Recursive descent parser, `not` binds stronger than `and`, which binds
+     * stronger than `or`
+     */
+    private static final class Parser {
+
+        private final String source;
+        private int pos;
+
+        Parser(final String source) {
+            this.source = source;
+        }
+
+        Expression parseOr() {
+            List<Expression> operands = new ArrayList<>(List.of(parseAnd()));
+            while (consume(OR)) {
+                operands.add(parseAnd());
+            }
+
+            return operands.size() == 1 ? operands.get(0) : new Any(ordered(operands), cost(operands));
+        }
+
+        private Expression parseAnd() {
+            List<Expression> operands = new ArrayList<>(List.of(parseUnary()));
+            while (consume(AND)) {
+                operands.add(parseUnary());
+            }
+
+            return operands.size() == 1 ? operands.get(0) : new All(ordered(operands), cost(operands));
+        }
+
+        private Expression parseUnary() {
+            skipSpaces();
+            if (consume(NOT)) {
+                return new Not(parseUnary());
+            } else if (!atEnd() && source.charAt(pos) == GROUP_START) {
+                pos++;
+                Expression grouped = parseOr();
+                skipSpaces();
+                if (atEnd() || source.charAt(pos) != GROUP_END) {
+                    throw new IllegalArgumentException("Bracket not closed");
+                }
+                pos++;
+                return grouped;
+            }
+
+            return parseComparison();
+        }
+
+        /**
+         * A comparison ends at the next `and` or `or`, or at a closing
+         * bracket not opened within the comparison, e.g. by a quantifier
+         */
+        private Expression parseComparison() {
+            int start = pos;
+            int depth = 0;
+            while (!atEnd()) {
+                char current = source.charAt(pos);
+                if (current == GROUP_START) {
+                    depth++;
+                } else if (current == GROUP_END && depth-- == 0) {
+                    break;
+                } else if (current == ' ' && depth == 0 && (isKeyword(pos + 1, AND) || isKeyword(pos + 1, OR))) {
+                    break;
+                }
+                pos++;
+            }
+
+            String comparison = source.substring(start, pos).trim();
+            int operator = indexOfOperator(comparison);
+            if (operator <= 0) {
+                throw new IllegalArgumentException("Comparison '" + comparison + "' does not name an item and a condition");
+            }
+            String condition = comparison.substring(operator).trim();
+
+            return new Comparison(comparison.substring(0, operator).trim(), condition, Rule.cost(condition));
+        }
+
+        private int indexOfOperator(final String comparison) {
+            for (int i = 0; i < comparison.length(); i++) {
+                if (OPERATORS.indexOf(comparison.charAt(i)) >= 0) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        private boolean consume(final String keyword) {
+            skipSpaces();
+            if (isKeyword(pos, keyword)) {
+                pos += keyword.length();
+                return true;
+            }
+
+            return false;
+        }
+
+        private boolean isKeyword(final int at, final String keyword) {
+            int end = at + keyword.length();
+            return source.startsWith(keyword, at)
+                    && (end == source.length() || source.charAt(end) == ' ' || source.charAt(end) == GROUP_START);
+        }
+
+        private List<Expression> ordered(final List<Expression> operands) {
+            List<Expression> ordered = new ArrayList<>(operands);
+            ordered.sort(Comparator.comparingInt(Expression::cost));
+
+            return List.copyOf(ordered);
+        }
+
+        private int cost(final List<Expression> operands) {
+            return operands.stream().mapToInt(Expression::cost).sum();
+        }
+
+        void skipSpaces() {
+            while (!atEnd() && source.charAt(pos) == ' ') {
+                pos++;
+            }
+        }
+
+        boolean atEnd() {
+            return pos >= source.length();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import java.util.Map;
+
+/**
+ * Samples of a metric in a Prometheus exposition selected by an item of a
+ * part, e.g. `{code="500"}`, `code="500"` or `{}` for every sample
+ *
+ * @param selector the selector as reported, always enclosed in braces
+ * @param labels the labels a sample must have to be selected
+ * @param condition the condition to validate the selected samples against
+ * @author Patrick
+ */
+public record Selection(String selector, Map<String, String> labels, String condition) {
+
+    private static final String LABELS_START = "{";
+    private static final String LABELS_END = "}";
+
+    /**
+     * @param item the item key, the selector as written in the resource file
+     * @param condition the condition of the item
+     * @return the compiled selection
+     * @throws IllegalArgumentException when the selector is not valid
+     */
+    public static Selection compile(final String item, final String condition) {
+        String selector = item.trim();
+        try {
+            return new Selection(selector.startsWith(LABELS_START) ? selector : LABELS_START + selector + LABELS_END,
+                    Map.copyOf(ExpositionParser.parseSelector(selector)), condition);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Selector " + item + " is not valid, " + ex.getMessage(), ex);
+        }
+    }
+}
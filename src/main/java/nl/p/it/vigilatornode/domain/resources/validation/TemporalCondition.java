@@ -0,0 +1,306 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+/**
+ * Temporal condition on the age of a timestamp with its amount parsed once,
+ * e.g. `> 5min` is met when the timestamp is more than 5 minutes old
+ * <p>
+ * The amount can be specified in seconds (s), minutes (min), hours (h) or
+ * days (d). Timestamps are parsed from epoch seconds, epoch milliseconds or
+ * ISO-8601, e.g. `2025-02-19T09:25:08Z`, by a parser walking the
+ * characters once without creating intermediate objects.
+ * </p>
+ *
+ * @author Patrick
+ */
+final class TemporalCondition {
+
+    /**
+     * Returned when a value is not a timestamp
+     */
+    static final long NOT_A_TIMESTAMP = Long.MIN_VALUE;
+
+    private final boolean bigger;
+    private final long amountInMillis;
+
+    private static final char BIGGER_THEN = '>';
+    private static final char SMALLER_THEN = '<';
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+    /**
+     * Epoch seconds from this value on (2001-09-09) are timestamps, smaller
+     * numbers are not considered to be a timestamp
+     */
+    private static final long MIN_EPOCH_SECONDS = 1_000_000_000L;
+    /**
+     * Epoch numbers from this value on are in milliseconds, as seconds they
+     * would be past the year 5000
+     */
+    private static final long MIN_EPOCH_MILLIS = 100_000_000_000L;
+    private static final int DAYS_0000_TO_1970 = 719_468;
+    private static final String[] UNITS = {"s", "min", "h", "d"};
+    private static final String MILLIS = "ms";
+
+    private TemporalCondition(final boolean bigger, final long amountInMillis) {
+        this.bigger = bigger;
+        this.amountInMillis = amountInMillis;
+    }
+
+    /**
+     * @param condition the condition, without warning indication and trimmed
+     * @return whether the condition is temporal, meaning a `>` or `<`
+     * condition ending with one of the temporal units
+     */
+    static boolean isTemporal(final String condition) {
+        return condition.length() > 1 && (condition.charAt(0) == BIGGER_THEN || condition.charAt(0) == SMALLER_THEN)
+                && unitStart(condition) > 1;
+    }
+
+    /**
+     * @param condition the temporal condition, without warning indication and
+     * trimmed
+     * @return the parsed condition
+     * @throws IllegalArgumentException when the condition has no temporal unit
+     * or the amount is not a whole number
+     */
+    static TemporalCondition parse(final String condition) {
+        if (unitStart(condition) < 0) {
+            throw new IllegalArgumentException("Condition " + condition + " has no temporal unit");
+        }
+
+        return parse(condition, false);
+    }
+
+    /**
+     * Parse a condition on a duration, e.g. `> 500ms`. Next to the temporal
+     * units the amount can be specified in milliseconds (ms), without unit the
+     * amount is in milliseconds as well
+     *
+     * @param condition the duration condition, without warning indication and
+     * trimmed
+     * @return the parsed condition
+     * @throws IllegalArgumentException when the condition is not a `>` or `<`
+     * condition, the unit is unknown or the amount is not a whole number
+     */
+    static TemporalCondition parseDuration(final String condition) {
+        return parse(condition, true);
+    }
+
+    private static TemporalCondition parse(final String condition, final boolean duration) {
+        char sign = (condition.isEmpty() ? ' ' : condition.charAt(0));
+        if (sign != BIGGER_THEN && sign != SMALLER_THEN) {
+            throw new IllegalArgumentException("Condition " + condition + " is not a > or < condition");
+        }
+
+        String amount = condition.substring(1).trim();
+        int unitStart = 0;
+        while (unitStart < amount.length() && Character.isDigit(amount.charAt(unitStart))) {
+            unitStart++;
+        }
+        String unit = amount.substring(unitStart).trim();
+        try {
+            long unitInMillis = (duration && (unit.isEmpty() || MILLIS.equals(unit)) ? 1 : unitInMillis(unit));
+
+            return new TemporalCondition(sign == BIGGER_THEN, Long.parseLong(amount.substring(0, unitStart)) * unitInMillis);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Condition " + condition + " has an amount that is not a whole number", ex);
+        }
+    }
+
+    /**
+     * @param millis the duration in milliseconds
+     * @return whether the duration meets the condition
+     */
+    boolean meets(final long millis) {
+        return bigger ? millis > amountInMillis : millis < amountInMillis;
+    }
+
+    /**
+     * @param timestamp the timestamp in epoch milliseconds
+     * @param now the moment to determine the age of the timestamp at, in
+     * epoch milliseconds
+     * @return whether the age of the timestamp meets the condition, a
+     * timestamp without milliseconds is compared to the moment truncated to
+     * seconds
+     */
+    boolean meets(final long timestamp, final long now) {
+        return meets((timestamp % MILLIS_PER_SECOND == 0 ? now - now % MILLIS_PER_SECOND : now) - timestamp);
+    }
+
+    /**
+     * @param value epoch seconds, epoch milliseconds or an ISO-8601 date and
+     * time, without offset the time is in UTC
+     * @return the timestamp in epoch milliseconds or NOT_A_TIMESTAMP
+     */
+    static long parseTimestamp(final CharSequence value) {
+        int length = value.length();
+        if (length == 0) {
+            return NOT_A_TIMESTAMP;
+        }
+        if (length > 4 && value.charAt(4) == '-') {
+            return parseIsoTimestamp(value);
+        }
+
+        long number = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || i >= 18) {
+                return NOT_A_TIMESTAMP;
+            }
+            number = number * 10 + digit;
+        }
+
+        return parseTimestamp(number);
+    }
+
+    /**
+     * @param value epoch seconds or epoch milliseconds
+     * @return the timestamp in epoch milliseconds or NOT_A_TIMESTAMP
+     */
+    static long parseTimestamp(final long value) {
+        if (value >= MIN_EPOCH_MILLIS) {
+            return value;
+        } else if (value >= MIN_EPOCH_SECONDS) {
+            return value * MILLIS_PER_SECOND;
+        }
+
+        return NOT_A_TIMESTAMP;
+    }
+
+    /**
+     * Parse `yyyy-MM-ddTHH:mm:ss` with optional fraction and optional offset
+     * `Z` or `+HH:mm`
+     */
+    private static long parseIsoTimestamp(final CharSequence value) {
+        int length = value.length();
+        if (length < 19 || value.charAt(7) != '-' || (value.charAt(10) != 'T' && value.charAt(10) != ' ')
+                || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return NOT_A_TIMESTAMP;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = digits(value, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NOT_A_TIMESTAMP;
+        }
+
+        int pos = 19;
+        long millis = 0;
+        if (pos < length && value.charAt(pos) == '.') {
+            int fractionStart = ++pos;
+            long scale = 100;
+            while (pos < length && Character.isDigit(value.charAt(pos))) {
+                millis += (value.charAt(pos++) - '0') * scale;
+                scale /= 10;
+            }
+            if (pos == fractionStart) {
+                return NOT_A_TIMESTAMP;
+            }
+        }
+
+        long offset = 0;
+        if (pos < length) {
+            char sign = value.charAt(pos);
+            if (sign == 'Z' && pos + 1 == length) {
+                offset = 0;
+            } else if ((sign == '+' || sign == '-') && pos + 6 == length && value.charAt(pos + 3) == ':') {
+                int offsetHours = digits(value, pos + 1, 2);
+                int offsetMinutes = digits(value, pos + 4, 2);
+                if (offsetHours < 0 || offsetMinutes < 0) {
+                    return NOT_A_TIMESTAMP;
+                }
+                offset = (sign == '+' ? 1 : -1) * (offsetHours * MILLIS_PER_HOUR + offsetMinutes * MILLIS_PER_MINUTE);
+            } else {
+                return NOT_A_TIMESTAMP;
+            }
+        }
+
+        return epochDay(year, month, day) * MILLIS_PER_DAY + hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE
+                + second * MILLIS_PER_SECOND + millis - offset;
+    }
+
+    /**
+     * Days since 1970-01-01 of a date in the proleptic Gregorian calendar,
+     * counting years from March so the leap day is the last day of a year
+     */
+    private static long epochDay(final int year, final int month, final int day) {
+        long y = (month <= 2 ? year - 1 : year);
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146_097 + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * @return the number of the digits, or -1 when any is not a digit
+     */
+    private static int digits(final CharSequence value, final int start, final int count) {
+        int number = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            number = number * 10 + digit;
+        }
+
+        return number;
+    }
+
+    /**
+     * @return the start of the unit at the end of the condition, or -1 when
+     * the condition does not end with a temporal unit
+     */
+    private static int unitStart(final String condition) {
+        for (String unit : UNITS) {
+            int start = condition.length() - unit.length();
+            if (start > 0 && condition.endsWith(unit) && !Character.isLetter(condition.charAt(start - 1))) {
+                return start;
+            }
+        }
+
+        return -1;
+    }
+
+    private static long unitInMillis(final String unit) {
+        return switch (unit) {
+            case "s" ->
+                MILLIS_PER_SECOND;
+            case "min" ->
+                MILLIS_PER_MINUTE;
+            case "h" ->
+                MILLIS_PER_HOUR;
+            case "d" ->
+                MILLIS_PER_DAY;
+            default ->
+                throw new IllegalArgumentException("Unexpected temporal unit: " + unit);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "TemporalCondition{" + "bigger=" + bigger + ", amountInMillis=" + amountInMillis + '}';
+    }
+}
@@ -40,9 +40,13 @@ public enum CustomException {
     INVALID_INPUT_FOR_REQUEST("Invalid input was provided for the scheduled request, e.g. null values in options, see stacktrace for details"),
     REQUIRED_VALUES_NOT_PROVIDED("Request requires a http request, acceptor and http client. Missing is: %s"),
     NO_REPONSE_RECEIVED("The request did not result in a response, this is a fatal error indicating connection issues"),
+    INVALID_TLS_PROFILE("The TLS profile %s could not be set up, validate the trust store and key store exist, are PKCS12 and the passwords are correct"),
+    REQUEST_LIMIT_REACHED("The request to %s was rejected, the limit of concurrent requests to the host or in total is reached"),
+    REQUESTS_SUSPENDED("The request to %s was not sent, requests are suspended after consecutive failures, the next attempt is in %s ms"),
     THE_REQUEST_FAILED("The request to upstream server failed due to IO issues, probably the request timed out"),
     THE_REQUEST_RESULTED_IN_IO_ISSUES("The request had issues while reading or writing to the request, this might be due to connectivity issues resulting in incomplete datastreams"),
     COULD_NOT_CONFIGURE_LOGGER("Logger could not be configured, please validate path to log as configured in the properties is accessable"),
+    COULD_NOT_START_FLIGHT_RECORDING("Flight recording could not be started, please validate the flight recording settings and file as configured in the properties"),
     COULD_NOT_READ_RESOURCE_FILES("""
             The specified location for reading monitored resources files could 
             not be accessed, validate the location is correct and the application 
@@ -50,8 +54,10 @@ public enum CustomException {
     DIRECTORY_EMPTY_OR_DOES_NOT_EXIST("The specified directory: %s does not exist or is empty"),
     INVALID_RESOURCE_FILE("Incorrect resource file: %s, line %s, error: %s"),
     OUT_OF_CONTEXT_RESOURCE_NAME("Resource name given outside the context of a resource"),
+    INVALID_RESOURCE("Resource %s is not valid: %s"),
     TO_DEEP_TABBING("Unexpected character detected, tab depth deeper then expected"),
-    UNEXPECTED_RESOURCE("Unexpected resource type: %s, expected is either: ExposedResource, OnboardResource or InternalResource"),
+    UNEXPECTED_RESOURCE("Unexpected resource type: %s, expected is either: ExposedResource, TcpResource, OnboardResource or InternalResource"),
+    TCP_PROBER_UNAVAILABLE("The tcp prober could not be started, tcp resources cannot be monitored"),
     CONFIG_REQUIRED("The object requires and instance of NodeConfig in order to be instantiated"),
     REQUIRMENTS_EXPOSED_RESOURCE_NOT_MET("""
         For the monitor to start monitoring, the monitor requires a outgoing 
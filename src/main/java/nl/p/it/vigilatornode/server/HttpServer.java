@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.concurrent.ThreadPoolExecutor;
 import nl.p.it.vigilatornode.configuration.NodeConfig;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
 import nl.p.it.vigilatornode.exception.CustomException;
 import nl.p.it.vigilatornode.exception.UnstartableException;
 import static java.lang.System.Logger.Level.ERROR;
@@ -38,6 +39,8 @@ public class HttpServer {
 
     private static HttpServer instance;
 
+    private static final String EXECUTOR_NAME = "server";
+
     private static final System.Logger LOGGER = System.getLogger(HttpServer.class.getName());
 
     private HttpServer() {
@@ -71,8 +74,10 @@ public class HttpServer {
         try {
             this.server = com.sun.net.httpserver.HttpServer.create(new InetSocketAddress(config.getPort()), 0);//NOSONAR, com.sun is fine here
             ThreadPoolExecutor executor = config.getPoolExecutor();
+            Metrics.getInstance().register(EXECUTOR_NAME, executor);
             server.setExecutor(executor);
             server.createContext("/status", new StatusHandler(config));
+            server.createContext("/metrics", new MetricsHandler());
             server.start();
         } catch (IOException ex) {
             LOGGER.log(ERROR, "Not able to start httpserver, exception: {0}", ex);
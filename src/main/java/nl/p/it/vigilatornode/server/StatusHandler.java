@@ -19,6 +19,11 @@ import com.sun.net.httpserver.HttpExchange;//NOSONAR, com.sun is fine here
 import com.sun.net.httpserver.HttpHandler;//NOSONAR, com.sun is fine here
 import java.io.IOException;
 import nl.p.it.vigilatornode.configuration.NodeConfig;
+import nl.p.it.vigilatornode.domain.events.Events;
+import nl.p.it.vigilatornode.domain.events.StatusRequestEvent;
+import nl.p.it.vigilatornode.domain.metrics.Counter;
+import nl.p.it.vigilatornode.domain.metrics.Histogram;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
 import nl.p.it.vigilatornode.domain.status.StatusService;
 import nl.p.it.vigilatornode.exception.CustomException;
 import nl.p.it.vigilatornode.exception.MethodNotAllowedException;
@@ -38,6 +43,11 @@ public class StatusHandler implements HttpHandler {
     private final StatusService statusService;
     private final RequestHelper helper;
 
+    private static final String CONTEXT = "/status";
+    private static final Counter REQUESTS = Metrics.getInstance().counter("vigilator_http_requests_total",
+            "Requests received by the node", "context", CONTEXT);
+    private static final Histogram DURATION = Metrics.getInstance().histogram("vigilator_http_request_duration_seconds",
+            "Time spent handling requests", Histogram.LATENCY_BUCKETS, "context", CONTEXT);
     private static final System.Logger LOGGER = System.getLogger(StatusHandler.class.getName());
 
     public StatusHandler(final NodeConfig config) {
@@ -55,6 +65,12 @@ public class StatusHandler implements HttpHandler {
     @Override
     public void handle(final HttpExchange exchange) throws IOException {
         if (exchange != null) {
+            StatusRequestEvent event = (Events.isEnabled() ? new StatusRequestEvent() : null);
+            if (event != null) {
+                event.begin();
+            }
+            long start = System.nanoTime();
+            REQUESTS.increment();
             try (exchange) {
                 perform(exchange);
             } catch (Exception ex) {
@@ -62,12 +78,26 @@ public class StatusHandler implements HttpHandler {
                 helper.writeExceptionToExchange(null, exchange);
             }
 
+            DURATION.observeSince(start);
+            if (event != null) {
+                commit(event, exchange);
+            }
             LOGGER.log(INFO, "Request finished");
         } else {
             LOGGER.log(WARNING, "Request received but no HttpExchange has been provided");
         }
     }
 
+    private void commit(final StatusRequestEvent event, final HttpExchange exchange) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setMethod(exchange.getRequestMethod());
+            event.setPath(exchange.getRequestURI().getPath());
+            event.setResponseCode(exchange.getResponseCode());
+            event.commit();
+        }
+    }
+
     private void perform(final HttpExchange exchange) throws IOException {
         try {
             LOGGER.log(INFO, "{0} request received with url: {1}, processing...",
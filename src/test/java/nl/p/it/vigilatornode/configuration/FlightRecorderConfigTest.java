@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.resources.validation.MonitorValidator;
+import nl.p.it.vigilatornode.exception.VigilatorNodeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for flight recorder config
+ *
+ * @author Patrick
+ */
+public class FlightRecorderConfigTest {
+
+    private static final String VALIDATION = "nl.p.it.vigilatornode.Validation";
+    private static final String RESOURCE = "ResourceOne";
+    private static final String URL = "https://localhost/monitor";
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void configure_disabled_expectingNoRecording() throws VigilatorNodeException {
+        NodeConfig config = mock(NodeConfig.class);
+        when(config.isFlightRecording()).thenReturn(false);
+
+        assertNull(FlightRecorderConfig.configure(config));
+    }
+
+    @Test
+    public void getSettings_default_containsNodeEventsAndJdkEvents() throws IOException, ParseException {
+        Map<String, String> result = FlightRecorderConfig.getSettings("");
+
+        assertEquals("true", result.get("nl.p.it.vigilatornode.Take#enabled"));
+        assertEquals("1 ms", result.get(VALIDATION + "#threshold"));
+        assertEquals("true", result.get("jdk.GarbageCollection#enabled"));
+    }
+
+    @Test
+    public void getSettings_customProfile_overridesNodeEvents() throws IOException, ParseException {
+        Path profile = tempDir.resolve("custom.jfc");
+        Files.writeString(profile, """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <configuration version="2.0">
+              <event name="nl.p.it.vigilatornode.Validation">
+                <setting name="enabled">false</setting>
+              </event>
+            </configuration>
+            """);
+
+        Map<String, String> result = FlightRecorderConfig.getSettings(profile.toString());
+
+        assertEquals("false", result.get(VALIDATION + "#enabled"));
+        assertEquals("true", result.get("nl.p.it.vigilatornode.Request#enabled"));
+        assertNull(result.get("jdk.GarbageCollection#enabled"));
+    }
+
+    @Test
+    public void configure_enabled_recordsNodeEvents() throws VigilatorNodeException, IOException {
+        Path file = tempDir.resolve("recordings/vigilator-node.jfr");
+        NodeConfig config = mock(NodeConfig.class);
+        when(config.isFlightRecording()).thenReturn(true);
+        when(config.getFlightRecordingSettings()).thenReturn("");
+        when(config.getFlightRecordingFile()).thenReturn(file.toString());
+
+        List<RecordedEvent> events;
+        try (Recording recording = FlightRecorderConfig.configure(config)) {
+            Map<String, String> settings = new HashMap<>(recording.getSettings());
+            settings.put(VALIDATION + "#threshold", "0 ms");
+            recording.setSettings(settings);
+            MonitoredData result = new MonitoredData("{\"status\":[]}".getBytes(), URL);
+            new MonitorValidator().validate(result, Map.of(), RESOURCE);
+            recording.stop();
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        RecordedEvent validation = events.stream()
+                .filter(event -> VALIDATION.equals(event.getEventType().getName()))
+                .findFirst().orElseThrow();
+        assertEquals(RESOURCE, validation.getString("resource"));
+        assertEquals(URL, validation.getString("url"));
+        assertEquals("monitor", validation.getString("reply"));
+        assertEquals(1, validation.getInt("errors"));
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for histogram
+ *
+ * @author Patrick
+ */
+public class HistogramTest {
+
+    @Test
+    public void observeNanos_onBound_countedInBucketOfBound() {
+        Histogram classUnderTest = new Histogram(new double[]{0.1, 1});
+        classUnderTest.observeNanos(TimeUnit.MILLISECONDS.toNanos(100));
+
+        StringBuilder result = new StringBuilder();
+        classUnderTest.write(result, "test", "");
+
+        assertTrue(result.toString().contains("test_bucket{le=\"0.1\"} 1\n"));
+    }
+
+    @Test
+    public void observeNanos_aboveLastBound_countedInInfinityBucketOnly() {
+        Histogram classUnderTest = new Histogram(new double[]{0.1, 1});
+        classUnderTest.observeNanos(TimeUnit.SECONDS.toNanos(2));
+
+        StringBuilder result = new StringBuilder();
+        classUnderTest.write(result, "test", "");
+
+        assertTrue(result.toString().contains("test_bucket{le=\"1\"} 0\n"));
+        assertTrue(result.toString().contains("test_bucket{le=\"+Inf\"} 1\n"));
+        assertTrue(result.toString().contains("test_sum 2\n"));
+    }
+
+    @Test
+    public void getCount_multipleThreadsObserving_countsAllObservations() throws InterruptedException {
+        Histogram classUnderTest = new Histogram(Histogram.LATENCY_BUCKETS);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    classUnderTest.observeNanos(j * 1000L);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, classUnderTest.getCount());
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for latency histogram
+ *
+ * @author Patrick
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentile_withoutLatencies_isZero() {
+        LatencyHistogram classUnderTest = new LatencyHistogram();
+
+        assertEquals(0, classUnderTest.percentile(50));
+        assertEquals(0, classUnderTest.getCount());
+    }
+
+    @Test
+    public void percentile_uniformLatencies_withinBucketError() {
+        LatencyHistogram classUnderTest = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            classUnderTest.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(1000, classUnderTest.getCount());
+        assertBetween(500, 500 * 1.19, classUnderTest.percentile(50));
+        assertBetween(950, 950 * 1.19, classUnderTest.percentile(95));
+        assertBetween(990, 990 * 1.19, classUnderTest.percentile(99));
+    }
+
+    @Test
+    public void percentile_latencyBeyondLastBucket_reportsLastBucket() {
+        LatencyHistogram classUnderTest = new LatencyHistogram();
+        classUnderTest.record(TimeUnit.HOURS.toNanos(1));
+
+        assertEquals(262_144, classUnderTest.percentile(99));
+    }
+
+    @Test
+    public void percentile_subMillisecondLatency_reportsOneMillisecond() {
+        LatencyHistogram classUnderTest = new LatencyHistogram();
+        classUnderTest.record(1000);
+
+        assertEquals(1, classUnderTest.percentile(50));
+    }
+
+    private void assertBetween(final double lower, final double upper, final long actual) {
+        assertTrue(actual >= lower && actual <= upper, actual + " not between " + lower + " and " + upper);
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.metrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for metrics
+ *
+ * @author Patrick
+ */
+public class MetricsTest {
+
+    private final Metrics classUnderTest = Metrics.getInstance();
+
+    @Test
+    public void counter_registeredTwice_returnsSameCounter() {
+        Counter first = classUnderTest.counter("test_shared_total", "help");
+        Counter second = classUnderTest.counter("test_shared_total", "help");
+
+        first.increment();
+        second.add(2);
+
+        assertSame(first, second);
+        assertEquals(3, first.get());
+    }
+
+    @Test
+    public void counter_withDifferentLabels_returnsDifferentCounters() {
+        Counter ok = classUnderTest.counter("test_labelled_total", "help", "outcome", "ok");
+        Counter failed = classUnderTest.counter("test_labelled_total", "help", "outcome", "failed");
+
+        assertNotSame(ok, failed);
+    }
+
+    @Test
+    public void scrape_counter_writesPrometheusTextFormat() {
+        classUnderTest.counter("test_scrape_total", "Counted things", "outcome", "ok").add(5);
+
+        String result = classUnderTest.scrape();
+
+        assertTrue(result.contains("# HELP test_scrape_total Counted things\n"));
+        assertTrue(result.contains("# TYPE test_scrape_total counter\n"));
+        assertTrue(result.contains("test_scrape_total{outcome=\"ok\"} 5\n"));
+    }
+
+    @Test
+    public void scrape_gauge_readsValueWhenScraped() {
+        long[] value = {1};
+        classUnderTest.gauge("test_gauge", "help", () -> value[0]);
+        value[0] = 42;
+
+        String result = classUnderTest.scrape();
+
+        assertTrue(result.contains("# TYPE test_gauge gauge\n"));
+        assertTrue(result.contains("test_gauge 42\n"));
+    }
+
+    @Test
+    public void scrape_labelValueWithQuotes_isEscaped() {
+        classUnderTest.counter("test_escaped_total", "help", "name", "a \"b\"\\c").increment();
+
+        String result = classUnderTest.scrape();
+
+        assertTrue(result.contains("test_escaped_total{name=\"a \\\"b\\\"\\\\c\"} 1\n"));
+    }
+
+    @Test
+    public void scrape_histogram_writesBucketsSumAndCount() {
+        Histogram histogram = classUnderTest.histogram("test_duration_seconds", "help", new double[]{0.1, 1}, "reply", "web");
+        histogram.observeNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        histogram.observeNanos(TimeUnit.MILLISECONDS.toNanos(500));
+
+        String result = classUnderTest.scrape();
+
+        assertTrue(result.contains("# TYPE test_duration_seconds histogram\n"));
+        assertTrue(result.contains("test_duration_seconds_bucket{reply=\"web\",le=\"0.1\"} 1\n"));
+        assertTrue(result.contains("test_duration_seconds_bucket{reply=\"web\",le=\"1\"} 2\n"));
+        assertTrue(result.contains("test_duration_seconds_bucket{reply=\"web\",le=\"+Inf\"} 2\n"));
+        assertTrue(result.contains("test_duration_seconds_sum{reply=\"web\"} 0.55\n"));
+        assertTrue(result.contains("test_duration_seconds_count{reply=\"web\"} 2\n"));
+    }
+
+    @Test
+    public void counter_registeredAsOtherType_throwsException() {
+        classUnderTest.gauge("test_conflict", "help", () -> 1);
+
+        assertThrows(IllegalArgumentException.class, () -> classUnderTest.counter("test_conflict", "help"));
+    }
+
+    @Test
+    public void register_executorRunningRejectedTaskOnCaller_countsRejection() throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.CallerRunsPolicy());
+        classUnderTest.register("test-pool", executor);
+        Object lock = new Object();
+        boolean[] ranOnCaller = {false};
+        Thread caller = Thread.currentThread();
+
+        synchronized (lock) {
+            executor.execute(() -> {
+                synchronized (lock) {
+                    // blocks the only worker until the lock is released
+                }
+            });
+            executor.execute(() -> {
+            });
+            executor.execute(() -> ranOnCaller[0] = Thread.currentThread() == caller);
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+
+        String result = classUnderTest.scrape();
+
+        assertTrue(ranOnCaller[0]);
+        assertTrue(result.contains("vigilator_executor_rejected_tasks_total{pool=\"test-pool\"} 1\n"));
+        assertTrue(result.contains("vigilator_executor_completed_tasks_total{pool=\"test-pool\"} 2\n"));
+        assertTrue(result.contains("vigilator_executor_queued_tasks{pool=\"test-pool\"} 0\n"));
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.monitor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for monitor cycle
+ *
+ * @author Patrick
+ */
+public class MonitorCycleTest {
+
+    @Test
+    public void scheduled_withoutResources_completes() {
+        AtomicInteger completed = new AtomicInteger();
+        MonitorCycle cycle = new MonitorCycle(1, c -> completed.incrementAndGet());
+
+        cycle.scheduled();
+
+        assertEquals(1, completed.get());
+    }
+
+    @Test
+    public void scheduled_withRunningResources_completesWhenAllResourcesCompleted() {
+        AtomicInteger completed = new AtomicInteger();
+        MonitorCycle cycle = new MonitorCycle(2, c -> completed.incrementAndGet());
+        Notifier first = cycle.resourceStarted();
+        Notifier second = cycle.resourceStarted();
+
+        cycle.scheduled();
+        first.doNotify();
+
+        assertEquals(0, completed.get());
+
+        second.doNotify();
+
+        assertEquals(1, completed.get());
+        assertEquals(2, cycle.getNumber());
+        assertTrue(cycle.getDurationInMillis() >= 0);
+    }
+
+    @Test
+    public void resourceCompleted_beforeScheduled_doesNotComplete() {
+        AtomicInteger completed = new AtomicInteger();
+        MonitorCycle cycle = new MonitorCycle(1, c -> completed.incrementAndGet());
+
+        cycle.resourceStarted().doNotify();
+
+        assertEquals(0, completed.get());
+    }
+
+    @Test
+    public void scheduled_onSimulatedClock_measuresTheSimulatedDuration() {
+        SimulatedClock clock = new SimulatedClock(Instant.parse("2025-02-01T00:00:00Z"));
+        MonitorCycle cycle = new MonitorCycle(1, null, clock);
+        Notifier resource = cycle.resourceStarted();
+        cycle.scheduled();
+
+        clock.advance(Duration.ofMillis(1500));
+        resource.doNotify();
+
+        assertEquals(1500, cycle.getDurationInMillis());
+        assertEquals(Duration.ofMillis(1500).toNanos(), cycle.getDurationInNanos());
+    }
+}
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import nl.p.it.vigilatornode.configuration.NodeConfig;
@@ -40,7 +41,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.mockito.Mock;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.junit.jupiter.api.Assertions.*;
 import static nl.p.it.vigilatornode.domain.monitor.MonitorIntegrationTestConstants.*;
@@ -61,6 +61,12 @@ public class MonitorIntegrationTest {
 
     private Monitor monitor;
 
+    /**
+     * The replies alternate between healthy and unhealthy for resource one,
+     * after an odd amount of cycles it is healthy
+     */
+    private static final int CYCLES = 3;
+
     @BeforeEach
     public void setUp() throws MonitorException, IOException, InterruptedException {
         linkThreadpool();
@@ -74,10 +80,17 @@ public class MonitorIntegrationTest {
 
     @Test
     public void monitorTest() throws MonitorException, InterruptedException {
+        CountDownLatch cycles = new CountDownLatch(CYCLES);
+        monitor.onCycleCompleted(duration -> {
+            cycles.countDown();
+            if (cycles.getCount() == 0) {
+                monitor.stop();
+            }
+        });
+
         monitor.start();
 
-        Thread.sleep(300);
-        assertTrue(monitor.isActive());
+        assertTrue(cycles.await(10, TimeUnit.SECONDS));
         List<MonitoredResource> resources = monitor.getResources();
         MonitoredResource one = resources.get(0);
         MonitoredResource two = resources.get(1);
@@ -118,7 +131,7 @@ public class MonitorIntegrationTest {
     }
 
     private void prepareResponses() throws IOException, InterruptedException {
-        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
                 .thenReturn(new TestResponse(200, RESPONSE_RESOURCE_ONE_OK.getBytes()))
                 .thenReturn(new TestResponse(200, RESPONSE_RESOURCE_THREE_NOK.getBytes()))
                 .thenReturn(new TestResponse(200, RESPONSE_RESOURCE_ONE_NOK.getBytes()))
@@ -161,7 +174,7 @@ public class MonitorIntegrationTest {
 
         @Override
         public Optional previousResponse() {
-            return Optional.of(null);
+            return Optional.empty();
         }
 
         @Override
@@ -171,7 +184,7 @@ public class MonitorIntegrationTest {
 
         @Override
         public Optional sslSession() {
-            return Optional.of(null);
+            return Optional.empty();
         }
 
         @Override
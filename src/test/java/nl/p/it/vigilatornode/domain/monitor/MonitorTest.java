@@ -15,11 +15,15 @@
  */
 package nl.p.it.vigilatornode.domain.monitor;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import nl.p.it.vigilatornode.configuration.NodeConfig;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
 import nl.p.it.vigilatornode.domain.out.OutgoingClient;
@@ -54,6 +58,8 @@ public class MonitorTest {
 
     private static final String ERROR = "error";
     private static final String WARNING = "warning";
+    private static final Instant START = Instant.parse("2025-02-01T00:00:00Z");
+    private static final int HOUR = 3_600_000;
 
     @Test
     public void createMonitorWithoutValues() {
@@ -232,6 +238,56 @@ public class MonitorTest {
         assertTrue(monitor.isActive());
     }
 
+    @Test
+    public void start_firstCycleCompleted_notifiesListenerOnce() throws MonitorException, InterruptedException {
+        AtomicInteger notified = new AtomicInteger();
+        linkThreadpool();
+        when(config.getDefaultUpdateFrequency()).thenReturn(100);
+        Monitor monitor = new Monitor(List.of(new OkResource(), new WarningResource()), config);
+        monitor.onFirstCycleCompleted(notified::incrementAndGet);
+
+        assertDoesNotThrow(() -> monitor.start());
+
+        Thread.sleep(300);
+        assertEquals(1, notified.get());
+    }
+
+    @Test
+    public void start_cyclesCompleted_callsListenerForEveryCycle() throws MonitorException, InterruptedException {
+        List<Long> durations = new CopyOnWriteArrayList<>();
+        linkThreadpool();
+        when(config.getDefaultUpdateFrequency()).thenReturn(100);
+        Monitor monitor = new Monitor(List.of(new OkResource()), config);
+        monitor.onCycleCompleted(durations::add);
+
+        assertDoesNotThrow(() -> monitor.start());
+
+        Thread.sleep(300);
+        assertEquals(3, durations.size());
+        assertTrue(durations.stream().allMatch(duration -> duration >= 0));
+    }
+
+    @Test
+    public void start_onSimulatedClock_runsOneCyclePerUpdateFrequency() throws MonitorException {
+        SimulatedClock clock = new SimulatedClock(START);
+        List<Long> durations = new ArrayList<>();
+        when(config.getClock()).thenReturn(clock);
+        when(config.getSingleThreadExecutor()).thenReturn(clock.getExecutor());
+        when(config.getDefaultUpdateFrequency()).thenReturn(HOUR);
+        Monitor monitor = new Monitor(List.of(new OkResource(), new TimestampedResource()), config);
+        monitor.onCycleCompleted(durations::add);
+
+        monitor.start();
+        clock.getExecutor().runUntil(START.plus(Duration.ofDays(1)));
+
+        assertEquals(24, durations.size());
+        assertTrue(durations.stream().allMatch(duration -> duration == 0));
+        assertEquals(24, monitor.getResources().get(0).getData().size());
+        for (MonitoredData data : monitor.getResources().get(1).getData()) {
+            assertEquals(START.plus(Duration.ofHours(data.getTake() - 1L)), data.getSince());
+        }
+    }
+
     private void linkThreadpool() {
         when(config.getSingleThreadExecutor()).thenReturn(
                 new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10)));
@@ -253,6 +309,22 @@ public class MonitorTest {
         }
     }
 
+    private class TimestampedResource extends MonitoredResource {
+
+        public TimestampedResource() {
+            this.config.setActive(true);
+        }
+
+        @Override
+        public void updateStatus() {
+            take++;
+            takes.put(take, new ArrayList<>());
+            MonitoredData result = new MonitoredData(new byte[0], null, clock.now());
+            result.label(take);
+            takes.get(take).add(result);
+        }
+    }
+
     private class ErrorResource extends MonitoredResource {
 
         public ErrorResource() {
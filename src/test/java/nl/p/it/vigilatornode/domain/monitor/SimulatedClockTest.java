@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.monitor;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for simulated clock
+ *
+ * @author Patrick
+ */
+public class SimulatedClockTest {
+
+    private static final Instant START = Instant.parse("2025-02-01T00:00:00Z");
+
+    @Test
+    public void now_withoutAdvancing_isStart() {
+        SimulatedClock clock = new SimulatedClock(START);
+
+        assertEquals(START, clock.now());
+        assertEquals(0, clock.nanoTime());
+    }
+
+    @Test
+    public void sleep_advancesWithoutWaiting() {
+        SimulatedClock clock = new SimulatedClock(START);
+        long started = System.nanoTime();
+
+        clock.sleep(Duration.ofDays(30).toMillis());
+
+        assertTrue(System.nanoTime() - started < Duration.ofSeconds(1).toNanos());
+        assertEquals(START.plus(Duration.ofDays(30)), clock.now());
+        assertEquals(Duration.ofDays(30).toNanos(), clock.nanoTime());
+        assertEquals(Duration.ofDays(30), clock.getElapsed());
+    }
+
+    @Test
+    public void advance_withNegativeDuration_isIgnored() {
+        SimulatedClock clock = new SimulatedClock(START);
+        clock.advance(Duration.ofMinutes(5));
+
+        clock.advance(Duration.ofMinutes(-1));
+        clock.sleep(-1);
+
+        assertEquals(START.plus(Duration.ofMinutes(5)), clock.now());
+    }
+
+    @Test
+    public void getExecutor_calledTwice_returnsTheSameExecutor() {
+        SimulatedClock clock = new SimulatedClock(START);
+
+        assertSame(clock.getExecutor(), clock.getExecutor());
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.monitor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for simulated executor
+ *
+ * @author Patrick
+ */
+public class SimulatedExecutorTest {
+
+    private static final Instant START = Instant.parse("2025-02-01T00:00:00Z");
+    private static final int MINUTE = 60_000;
+
+    @Test
+    public void submit_withoutRunning_doesNotRunTheTask() {
+        SimulatedClock clock = new SimulatedClock(START);
+        List<String> ran = new ArrayList<>();
+
+        clock.getExecutor().submit(() -> ran.add("task"));
+
+        assertTrue(ran.isEmpty());
+        assertEquals(1, clock.getExecutor().getQueuedTasks());
+    }
+
+    @Test
+    public void runUntil_runsTasksInSubmissionOrderOnTheCallingThread() {
+        SimulatedClock clock = new SimulatedClock(START);
+        SimulatedExecutor executor = clock.getExecutor();
+        Thread caller = Thread.currentThread();
+        List<String> ran = new ArrayList<>();
+        executor.submit(() -> ran.add("first"));
+        executor.submit(() -> {
+            assertSame(caller, Thread.currentThread());
+            ran.add("second");
+            executor.submit(() -> ran.add("third"));
+        });
+
+        long result = executor.runUntil(START.plusSeconds(1));
+
+        assertEquals(3, result);
+        assertEquals(List.of("first", "second", "third"), ran);
+        assertEquals(3, executor.getCompletedTaskCount());
+    }
+
+    @Test
+    public void runUntil_withWaitingTasks_stopsAtTheDeadline() {
+        SimulatedClock clock = new SimulatedClock(START);
+        SimulatedExecutor executor = clock.getExecutor();
+        List<Instant> notified = new ArrayList<>();
+        executor.submit(new WaitTask(MINUTE, repeat(clock, notified), clock));
+
+        executor.runUntil(START.plus(Duration.ofHours(1)));
+
+        assertEquals(60, notified.size());
+        assertEquals(START.plus(Duration.ofMinutes(1)), notified.getFirst());
+        assertEquals(START.plus(Duration.ofHours(1)), notified.getLast());
+        assertEquals(1, executor.getQueuedTasks());
+    }
+
+    @Test
+    public void execute_afterShutdown_rejectsTask() {
+        SimulatedExecutor executor = new SimulatedClock(START).getExecutor();
+
+        executor.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+        assertTrue(executor.isShutdown());
+    }
+
+    @Test
+    public void shutdownNow_returnsQueuedTasks() {
+        SimulatedExecutor executor = new SimulatedClock(START).getExecutor();
+        executor.execute(() -> {
+        });
+
+        List<Runnable> result = executor.shutdownNow();
+
+        assertEquals(1, result.size());
+        assertEquals(0, executor.getQueuedTasks());
+    }
+
+    private Notifier repeat(final SimulatedClock clock, final List<Instant> notified) {
+        return () -> {
+            notified.add(clock.now());
+            clock.getExecutor().submit(new WaitTask(MINUTE, repeat(clock, notified), clock));
+        };
+    }
+}
@@ -15,6 +15,10 @@
  */
 package nl.p.it.vigilatornode.domain.monitor;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -46,17 +50,29 @@ public class WaitTaskTest {
 
     @Test
     public void runWaitTask() {
-        start = System.currentTimeMillis();
+        start = System.nanoTime();
         WaitTask task = new WaitTask(WAIT_TIME, mock());
         
         assertDoesNotThrow(() -> task.run());
     }
     
+    @Test
+    public void runWaitTask_onSimulatedClock_notifiesAfterExactlyTheWaitTime() {
+        Instant start = Instant.parse("2025-02-01T00:00:00Z");
+        SimulatedClock clock = new SimulatedClock(start);
+        AtomicReference<Instant> notified = new AtomicReference<>();
+        WaitTask task = new WaitTask(WAIT_TIME, () -> notified.set(clock.now()), clock);
+
+        task.run();
+
+        assertEquals(start.plus(Duration.ofMillis(WAIT_TIME)), notified.get());
+    }
+
     private Notifier mock() {
         return () -> {
-            int timePassed = (int) (start - System.currentTimeMillis()) * -1;
+            long timePassed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 
-            assertTrue(timePassed > WAIT_TIME);
+            assertTrue(timePassed >= WAIT_TIME);
             assertTrue(timePassed < WAIT_TIME + GRACEFULL_PERIOD);
         };
     }
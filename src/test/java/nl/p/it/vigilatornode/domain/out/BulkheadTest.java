@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for bulkhead
+ *
+ * @author Patrick
+ */
+public class BulkheadTest {
+
+    private static final String HOST_DOWN = "down.localhost";
+    private static final String HOST_UP = "up.localhost";
+
+    private List<Runnable> submitted;
+    private ExecutorService executor;
+    private AtomicInteger rejected;
+    private Runnable onRejected;
+
+    @BeforeEach
+    public void setUp() {
+        submitted = new ArrayList<>();
+        rejected = new AtomicInteger();
+        onRejected = rejected::incrementAndGet;
+        executor = mock(ExecutorService.class);
+        when(executor.submit(any(Runnable.class))).thenAnswer(invocation -> {
+            submitted.add(invocation.getArgument(0));
+            return mock(Future.class);
+        });
+    }
+
+    @Test
+    public void submit_hostOverLimit_queuesThenRejects() {
+        Bulkhead classUnderTest = new Bulkhead(2, 1, 0, executor);
+
+        assertTrue(classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected));
+        assertTrue(classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected));
+        assertTrue(classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected));
+        assertFalse(classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected));
+
+        assertEquals(2, submitted.size());
+        assertEquals(3, classUnderTest.getAdmitted());
+    }
+
+    @Test
+    public void submit_hostOverLimit_otherHostsStillAdmitted() {
+        Bulkhead classUnderTest = new Bulkhead(1, 1, 0, executor);
+        classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected);
+        classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected);
+
+        assertFalse(classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected));
+        assertTrue(classUnderTest.submit(HOST_UP, () -> {
+        }, onRejected));
+        assertEquals(2, submitted.size());
+    }
+
+    @Test
+    public void submit_taskCompleted_runsNextQueuedTask() {
+        Bulkhead classUnderTest = new Bulkhead(1, 1, 0, executor);
+        List<String> ran = new ArrayList<>();
+        classUnderTest.submit(HOST_DOWN, () -> ran.add("first"), onRejected);
+        classUnderTest.submit(HOST_DOWN, () -> ran.add("second"), onRejected);
+
+        submitted.get(0).run();
+
+        assertEquals(2, submitted.size());
+        submitted.get(1).run();
+        assertEquals(List.of("first", "second"), ran);
+        assertEquals(0, classUnderTest.getAdmitted());
+        assertTrue(classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected));
+        assertEquals(3, submitted.size());
+    }
+
+    @Test
+    public void submit_taskFailed_releasesSlot() {
+        Bulkhead classUnderTest = new Bulkhead(1, 0, 0, executor);
+        classUnderTest.submit(HOST_DOWN, () -> {
+            throw new IllegalStateException();
+        }, onRejected);
+
+        assertThrows(IllegalStateException.class, () -> submitted.get(0).run());
+
+        assertEquals(0, classUnderTest.getAdmitted());
+        assertTrue(classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected));
+        assertEquals(2, submitted.size());
+    }
+
+    @Test
+    public void submit_totalOverLimit_rejects() {
+        Bulkhead classUnderTest = new Bulkhead(5, 5, 2, executor);
+        classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected);
+        classUnderTest.submit(HOST_UP, () -> {
+        }, onRejected);
+
+        assertFalse(classUnderTest.submit(HOST_UP, () -> {
+        }, onRejected));
+        assertEquals(2, classUnderTest.getAdmitted());
+    }
+
+    @Test
+    public void submit_withoutLimits_admitsEverything() {
+        Bulkhead classUnderTest = new Bulkhead(0, 0, 0, executor);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(classUnderTest.submit(HOST_DOWN, () -> {
+            }, onRejected));
+        }
+        assertEquals(100, submitted.size());
+    }
+
+    @Test
+    public void submit_withoutQueue_rejectsOverLimit() {
+        Bulkhead classUnderTest = new Bulkhead(1, 0, 0, executor);
+
+        assertTrue(classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected));
+        assertFalse(classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected));
+
+        assertEquals(1, classUnderTest.getAdmitted());
+    }
+
+    @Test
+    public void submit_executorRejects_releasesSlot() {
+        Bulkhead classUnderTest = new Bulkhead(1, 1, 0, executor);
+        doThrow(RejectedExecutionException.class).when(executor).submit(any(Runnable.class));
+
+        assertFalse(classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected));
+
+        assertEquals(0, classUnderTest.getAdmitted());
+        assertEquals(0, rejected.get());
+    }
+
+    @Test
+    public void submit_executorRejectsQueuedTask_rejectsTaskAndReleasesSlot() {
+        Bulkhead classUnderTest = new Bulkhead(1, 2, 0, executor);
+        classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected);
+        classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected);
+        classUnderTest.submit(HOST_DOWN, () -> {
+        }, onRejected);
+        Runnable first = submitted.get(0);
+        doThrow(RejectedExecutionException.class).when(executor).submit(any(Runnable.class));
+
+        first.run();
+
+        assertEquals(2, rejected.get());
+        assertEquals(0, classUnderTest.getAdmitted());
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.net.URI;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for certificates
+ *
+ * @author Patrick
+ */
+public class CertificatesTest {
+
+    private static final Instant LEAF_EXPIRY = Instant.parse("2030-01-01T00:00:00Z");
+    private static final Instant INTERMEDIATE_EXPIRY = Instant.parse("2029-06-01T00:00:00Z");
+
+    @Test
+    public void expiry_withoutSession_expectingNull() {
+        assertNull(Certificates.expiry(URI.create("http://plain.localhost/"), Optional.empty()));
+    }
+
+    @Test
+    public void expiry_withChain_expectingFirstExpiry() throws SSLPeerUnverifiedException {
+        SSLSession session = session(new byte[]{1});
+
+        Instant result = Certificates.expiry(URI.create("https://chain.localhost/status"), Optional.of(session));
+
+        assertEquals(INTERMEDIATE_EXPIRY, result);
+    }
+
+    @Test
+    public void expiry_withSameSession_readsChainOnce() throws SSLPeerUnverifiedException {
+        SSLSession session = session(new byte[]{2});
+        URI uri = URI.create("https://cached.localhost/status");
+
+        Certificates.expiry(uri, Optional.of(session));
+        Instant result = Certificates.expiry(uri, Optional.of(session));
+
+        assertEquals(INTERMEDIATE_EXPIRY, result);
+        verify(session, times(1)).getPeerCertificates();
+    }
+
+    @Test
+    public void expiry_withUnverifiedPeer_expectingNull() throws SSLPeerUnverifiedException {
+        SSLSession session = mock(SSLSession.class);
+        when(session.getId()).thenReturn(new byte[]{3});
+        when(session.getPeerCertificates()).thenThrow(new SSLPeerUnverifiedException("none"));
+
+        assertNull(Certificates.expiry(URI.create("https://unverified.localhost/"), Optional.of(session)));
+    }
+
+    private SSLSession session(final byte[] id) throws SSLPeerUnverifiedException {
+        X509Certificate leaf = mock(X509Certificate.class);
+        when(leaf.getNotAfter()).thenReturn(Date.from(LEAF_EXPIRY));
+        X509Certificate intermediate = mock(X509Certificate.class);
+        when(intermediate.getNotAfter()).thenReturn(Date.from(INTERMEDIATE_EXPIRY));
+        SSLSession session = mock(SSLSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.getPeerCertificates()).thenReturn(new Certificate[]{leaf, intermediate});
+
+        return session;
+    }
+}
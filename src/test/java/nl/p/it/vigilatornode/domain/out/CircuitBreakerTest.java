@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for circuit breaker
+ *
+ * @author Patrick
+ */
+public class CircuitBreakerTest {
+
+    private static final String URL = "https://localhost/monitor";
+    private static final String OTHER_URL = "https://localhost/other";
+
+    @Test
+    public void acquire_failuresBelowThreshold_allowed() {
+        CircuitBreaker classUnderTest = new CircuitBreaker(3, 60000, 60000);
+        failTimes(classUnderTest, 2);
+
+        assertEquals(0, classUnderTest.acquire(URL));
+        assertEquals(CircuitBreaker.State.CLOSED, classUnderTest.getState(URL));
+    }
+
+    @Test
+    public void acquire_failuresReachThreshold_suspendedWithJitteredBackoff() {
+        CircuitBreaker classUnderTest = new CircuitBreaker(3, 60000, 60000);
+        failTimes(classUnderTest, 3);
+
+        long result = classUnderTest.acquire(URL);
+
+        assertTrue(result >= 29000 && result <= 60000, "retry in " + result);
+        assertEquals(CircuitBreaker.State.OPEN, classUnderTest.getState(URL));
+        assertEquals(0, classUnderTest.acquire(OTHER_URL));
+        assertEquals(1, classUnderTest.getOpenCircuits());
+    }
+
+    @Test
+    public void record_successBetweenFailures_resetsFailures() {
+        CircuitBreaker classUnderTest = new CircuitBreaker(3, 60000, 60000);
+        failTimes(classUnderTest, 2);
+        classUnderTest.record(URL, true);
+        failTimes(classUnderTest, 2);
+
+        assertEquals(0, classUnderTest.acquire(URL));
+    }
+
+    @Test
+    public void acquire_backoffPassed_allowsOneTrial() throws InterruptedException {
+        CircuitBreaker classUnderTest = new CircuitBreaker(1, 20, 1000);
+        failTimes(classUnderTest, 1);
+        Thread.sleep(25);
+
+        assertEquals(0, classUnderTest.acquire(URL));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, classUnderTest.getState(URL));
+        assertTrue(classUnderTest.acquire(URL) > 0);
+    }
+
+    @Test
+    public void record_trialSucceeded_closesCircuit() throws InterruptedException {
+        CircuitBreaker classUnderTest = new CircuitBreaker(1, 20, 1000);
+        failTimes(classUnderTest, 1);
+        Thread.sleep(25);
+        classUnderTest.acquire(URL);
+
+        classUnderTest.record(URL, true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, classUnderTest.getState(URL));
+        assertEquals(0, classUnderTest.acquire(URL));
+        assertEquals(0, classUnderTest.getOpenCircuits());
+    }
+
+    @Test
+    public void record_trialFailed_opensWithDoubledBackoff() throws InterruptedException {
+        CircuitBreaker classUnderTest = new CircuitBreaker(1, 20, 10000);
+        failTimes(classUnderTest, 1);
+        Thread.sleep(25);
+        classUnderTest.acquire(URL);
+
+        classUnderTest.record(URL, false);
+
+        long result = classUnderTest.acquire(URL);
+        assertEquals(CircuitBreaker.State.OPEN, classUnderTest.getState(URL));
+        assertTrue(result >= 19 && result <= 40, "retry in " + result);
+    }
+
+    @Test
+    public void release_trialNotSent_allowsNextTrial() throws InterruptedException {
+        CircuitBreaker classUnderTest = new CircuitBreaker(1, 20, 1000);
+        failTimes(classUnderTest, 1);
+        Thread.sleep(25);
+        classUnderTest.acquire(URL);
+
+        classUnderTest.release(URL);
+
+        assertEquals(0, classUnderTest.acquire(URL));
+    }
+
+    @Test
+    public void acquire_disabled_alwaysAllowed() {
+        CircuitBreaker classUnderTest = new CircuitBreaker(0, 60000, 60000);
+        failTimes(classUnderTest, 10);
+
+        assertEquals(0, classUnderTest.acquire(URL));
+        assertEquals(CircuitBreaker.State.CLOSED, classUnderTest.getState(URL));
+    }
+
+    private void failTimes(final CircuitBreaker breaker, final int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.acquire(URL);
+            breaker.record(URL, false);
+        }
+    }
+}
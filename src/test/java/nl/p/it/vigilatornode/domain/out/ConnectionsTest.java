@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.security.NoSuchAlgorithmException;
+import javax.net.ssl.SSLContext;
+import nl.p.it.vigilatornode.configuration.NodeConfig;
+import nl.p.it.vigilatornode.domain.metrics.Metrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for connections
+ *
+ * @author Patrick
+ */
+public class ConnectionsTest {
+
+    private static final URI TLS_URI = URI.create("https://localhost/status");
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(Connections.KEEP_ALIVE);
+        System.clearProperty(Connections.KEEP_ALIVE_H2);
+        System.clearProperty(Connections.POOL_SIZE);
+    }
+
+    @Test
+    public void configure_withKeepAliveAndIdleLimit_setsProperties() {
+        NodeConfig config = mock(NodeConfig.class);
+        when(config.getConnectionKeepAlive()).thenReturn(300);
+        when(config.getMaxIdleConnections()).thenReturn(50);
+
+        Connections.configure(config);
+
+        assertEquals("300", System.getProperty(Connections.KEEP_ALIVE));
+        assertEquals("300", System.getProperty(Connections.KEEP_ALIVE_H2));
+        assertEquals("50", System.getProperty(Connections.POOL_SIZE));
+    }
+
+    @Test
+    public void configure_withPropertiesOnCommandLine_keepsProperties() {
+        NodeConfig config = mock(NodeConfig.class);
+        when(config.getConnectionKeepAlive()).thenReturn(300);
+        System.setProperty(Connections.KEEP_ALIVE, "60");
+
+        Connections.configure(config);
+
+        assertEquals("60", System.getProperty(Connections.KEEP_ALIVE));
+        assertNull(System.getProperty(Connections.POOL_SIZE));
+    }
+
+    @Test
+    public void version_expectingPreferredVersion() {
+        NodeConfig config = mock(NodeConfig.class);
+
+        assertEquals(HttpClient.Version.HTTP_1_1, Connections.version(config));
+        when(config.isHttp2()).thenReturn(true);
+        assertEquals(HttpClient.Version.HTTP_2, Connections.version(config));
+    }
+
+    @Test
+    public void counting_creatingEngine_countsOpenedConnection() throws NoSuchAlgorithmException {
+        SSLContext context = Connections.counting(SSLContext.getDefault());
+        long opened = Connections.OPENED.get();
+
+        assertNotNull(context.createSSLEngine("localhost", 443));
+
+        assertEquals(opened + 1, Connections.OPENED.get());
+        assertEquals(SSLContext.getDefault().getProtocol(), context.getProtocol());
+    }
+
+    @Test
+    public void responded_overOpenTlsConnection_countsReusedConnection() throws NoSuchAlgorithmException {
+        HttpResponse.ResponseInfo info = mock(HttpResponse.ResponseInfo.class);
+        when(info.version()).thenReturn(HttpClient.Version.HTTP_2);
+        Connections.counting(SSLContext.getDefault()).createSSLEngine("localhost", 443);
+
+        Connections.responded(TLS_URI, info);
+        Connections.responded(TLS_URI, info);
+
+        String metrics = Metrics.getInstance().scrape();
+        assertTrue(metrics.contains("vigilator_outgoing_tls_connections_total{connection=\"reused\"}"));
+        assertTrue(metrics.contains("vigilator_outgoing_responses_total{version=\"HTTP_2\"}"));
+    }
+}
@@ -15,6 +15,7 @@
  */
 package nl.p.it.vigilatornode.domain.out;
 
+import java.time.Duration;
 import java.util.concurrent.ThreadPoolExecutor;
 import nl.p.it.vigilatornode.configuration.NodeConfig;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
@@ -48,7 +49,7 @@ public class OutgoingClientTest {
         NodeConfig config = mock(NodeConfig.class);
         ThreadPoolExecutor threadPoolExecutor = mock(ThreadPoolExecutor.class);
         when(config.getPoolExecutor()).thenReturn(threadPoolExecutor);
-        classUnderTest = OutgoingClient.getInstance(config);
+        classUnderTest = new OutgoingClient(config);
     }
 
     @Test
@@ -107,4 +108,65 @@ public class OutgoingClientTest {
 
         assertDoesNotThrow(() -> classUnderTest.scheduleRequest(url, acceptor, option));
     }
+
+    @Test
+    public void scheduleRequestWithValidUrlAndSettings() throws HttpClientException {
+        String url = URL;
+        Acceptor<MonitoredData> acceptor = (MonitoredData data) -> {
+        };
+        RequestSettings settings = new RequestSettings(Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofMillis(200));
+
+        assertDoesNotThrow(() -> classUnderTest.scheduleRequest(url, acceptor, settings));
+        assertDoesNotThrow(() -> classUnderTest.scheduleRequest(url, acceptor, settings, Option.IGNORE_TLS_ISSUES));
+    }
+
+    @Test
+    public void plan_withValidUrl_expectingTarget() throws HttpClientException {
+        RequestPlan result = classUnderTest.plan(URL, RequestSettings.DEFAULT, TlsProfile.VERIFY);
+
+        assertEquals(URL, result.getTarget());
+        assertEquals(URL, result.getKey());
+    }
+
+    @Test
+    public void plan_ignoringTLSIssues_expectingOwnClientAndKey() throws HttpClientException {
+        RequestPlan verified = classUnderTest.plan(URL, RequestSettings.DEFAULT, TlsProfile.VERIFY);
+
+        RequestPlan result = classUnderTest.plan(URL, RequestSettings.DEFAULT, TlsProfile.IGNORE_ISSUES);
+
+        assertNotSame(verified.getClient(), result.getClient());
+        assertNotEquals(verified.getKey(), result.getKey());
+        assertSame(result.getClient(), classUnderTest.plan(URL, RequestSettings.DEFAULT, TlsProfile.IGNORE_ISSUES).getClient());
+    }
+
+    @Test
+    public void plan_withInvalidUrl_expectingException() {
+        VigilatorNodeException exception = assertThrows(HttpClientException.class,
+                () -> classUnderTest.plan(INVALID_URL, RequestSettings.DEFAULT, TlsProfile.VERIFY));
+
+        assertEquals(String.format(CustomException.INVALID_URL.getMessage(), INVALID_URL), exception.getMessage());
+    }
+
+    @Test
+    public void scheduleRequestWithPlanWithoutAcceptor() throws HttpClientException {
+        RequestPlan plan = classUnderTest.plan(URL, RequestSettings.DEFAULT, TlsProfile.VERIFY);
+
+        assertThrows(HttpClientException.class, () -> classUnderTest.scheduleRequest(plan, null, null));
+    }
+
+    @Test
+    public void plan_fetchingHeaders_expectingHeadRequest() throws HttpClientException {
+        RequestPlan result = classUnderTest.plan(URL, RequestSettings.DEFAULT, TlsProfile.VERIFY, Fetch.HEAD);
+
+        assertEquals("HEAD", result.getRequest().method());
+        assertNotEquals(URL, result.getKey());
+    }
+
+    @Test
+    public void plan_fetchingRange_expectingRangeHeader() throws HttpClientException {
+        RequestPlan result = classUnderTest.plan(URL, RequestSettings.DEFAULT, TlsProfile.VERIFY, Fetch.RANGE);
+
+        assertEquals("GET", result.getRequest().method());
+        assertEquals("bytes=0-65535", result.getRequest().headers().firstValue("Range").orElse(null));
+    }
 }
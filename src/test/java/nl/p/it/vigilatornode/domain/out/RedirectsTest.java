@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for redirects
+ *
+ * @author Patrick
+ */
+public class RedirectsTest {
+
+    private static final URI URL = URI.create("https://localhost/page");
+    private static final URI LOCATION = URI.create("https://localhost/moved");
+    private static final long HOUR = 3600000;
+
+    private final HttpRequest request = HttpRequest.newBuilder(URL).HEAD().build();
+
+    @Test
+    public void follow_withPermanentRedirect_expectingRequestToLocation() {
+        Redirects classUnderTest = new Redirects(5, HOUR);
+
+        HttpRequest result = classUnderTest.follow(request, response(301, "/moved"), 0);
+
+        assertEquals(LOCATION, result.uri());
+        assertEquals("HEAD", result.method());
+    }
+
+    @Test
+    public void follow_withSeeOther_expectingGet() {
+        Redirects classUnderTest = new Redirects(5, HOUR);
+        HttpRequest post = HttpRequest.newBuilder(URL).POST(HttpRequest.BodyPublishers.noBody()).build();
+
+        HttpRequest result = classUnderTest.follow(post, response(303, LOCATION.toString()), 0);
+
+        assertEquals("GET", result.method());
+    }
+
+    @Test
+    public void follow_withoutRedirect_expectingNull() {
+        Redirects classUnderTest = new Redirects(5, HOUR);
+
+        assertNull(classUnderTest.follow(request, response(200, null), 0));
+        assertNull(classUnderTest.follow(request, response(302, null), 0));
+    }
+
+    @Test
+    public void follow_afterMaxRedirects_expectingNull() {
+        Redirects classUnderTest = new Redirects(2, HOUR);
+
+        assertNotNull(classUnderTest.follow(request, response(302, LOCATION.toString()), 1));
+        assertNull(classUnderTest.follow(request, response(302, LOCATION.toString()), 2));
+        assertNull(new Redirects(0, HOUR).follow(request, response(302, LOCATION.toString()), 0));
+    }
+
+    @Test
+    public void start_withRememberedRedirect_expectingRequestToLocation() {
+        Redirects classUnderTest = new Redirects(5, HOUR);
+
+        classUnderTest.remember(URL, LOCATION, 2);
+
+        assertEquals(LOCATION, classUnderTest.start(request).uri());
+        assertEquals(2, classUnderTest.getCachedRedirects(URL));
+        assertEquals(1, classUnderTest.getCachedAmount());
+    }
+
+    @Test
+    public void start_afterForgetting_expectingRequest() {
+        Redirects classUnderTest = new Redirects(5, HOUR);
+        classUnderTest.remember(URL, LOCATION, 1);
+
+        classUnderTest.forget(URL);
+
+        assertSame(request, classUnderTest.start(request));
+        assertEquals(0, classUnderTest.getCachedRedirects(URL));
+    }
+
+    @Test
+    public void start_withoutCaching_expectingRequest() {
+        Redirects classUnderTest = new Redirects(5, 0);
+
+        classUnderTest.remember(URL, LOCATION, 1);
+
+        assertSame(request, classUnderTest.start(request));
+    }
+
+    @Test
+    public void isPermanent() {
+        assertTrue(Redirects.isPermanent(301));
+        assertTrue(Redirects.isPermanent(308));
+        assertFalse(Redirects.isPermanent(302));
+        assertFalse(Redirects.isPermanent(307));
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<byte[]> response(final int status, final String location) {
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.headers()).thenReturn(HttpHeaders.of(location != null
+                ? Map.of("Location", List.of(location))
+                : Map.of(), (name, value) -> true));
+
+        return response;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.util.ArrayList;
+import java.util.List;
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.monitor.Acceptor;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for request coalescer
+ *
+ * @author Patrick
+ */
+public class RequestCoalescerTest {
+
+    private static final String URL = "https://localhost/monitor";
+    private static final String OTHER_URL = "https://localhost/other";
+
+    @Test
+    public void join_requestInFlight_sharesResult() {
+        RequestCoalescer classUnderTest = new RequestCoalescer(0);
+        List<MonitoredData> first = new ArrayList<>();
+        List<MonitoredData> second = new ArrayList<>();
+
+        Acceptor<MonitoredData> send = classUnderTest.join(URL, first::add);
+        assertNull(classUnderTest.join(URL, second::add));
+        MonitoredData received = new MonitoredData(new byte[]{1, 2}, URL);
+        received.recordTimings(10, 20);
+        send.accept(received);
+
+        assertSame(received, first.get(0));
+        MonitoredData shared = second.get(0);
+        assertNotSame(received, shared);
+        assertSame(received.getData(), shared.getData());
+        assertEquals(URL, shared.getUrl());
+        assertEquals(20, shared.getResponseTimeInNanos());
+        assertEquals(received.getSince(), shared.getSince());
+    }
+
+    @Test
+    public void join_sharedResult_validatedSeparately() {
+        RequestCoalescer classUnderTest = new RequestCoalescer(0);
+        List<MonitoredData> second = new ArrayList<>();
+        Acceptor<MonitoredData> send = classUnderTest.join(URL, result -> result.addError("error"));
+        classUnderTest.join(URL, second::add);
+
+        send.accept(new MonitoredData(new byte[]{1}, URL));
+
+        assertTrue(second.get(0).getErrors().isEmpty());
+    }
+
+    @Test
+    public void join_otherKey_sendsOwnRequest() {
+        RequestCoalescer classUnderTest = new RequestCoalescer(0);
+        classUnderTest.join(URL, result -> {
+        });
+
+        assertNotNull(classUnderTest.join(OTHER_URL, result -> {
+        }));
+    }
+
+    @Test
+    public void join_completedWithoutWindow_sendsNewRequest() {
+        RequestCoalescer classUnderTest = new RequestCoalescer(0);
+        classUnderTest.join(URL, result -> {
+        }).accept(new MonitoredData(new byte[]{1}, URL));
+
+        assertNotNull(classUnderTest.join(URL, result -> {
+        }));
+    }
+
+    @Test
+    public void join_completedWithinWindow_receivesResultRightAway() {
+        RequestCoalescer classUnderTest = new RequestCoalescer(60000);
+        List<MonitoredData> late = new ArrayList<>();
+        classUnderTest.join(URL, result -> {
+        }).accept(new MonitoredData(new byte[]{1}, URL));
+
+        assertNull(classUnderTest.join(URL, late::add));
+        assertEquals(1, late.size());
+        assertArrayEquals(new byte[]{1}, late.get(0).getData());
+    }
+
+    @Test
+    public void join_completedAfterWindow_sendsNewRequest() throws InterruptedException {
+        RequestCoalescer classUnderTest = new RequestCoalescer(10);
+        classUnderTest.join(URL, result -> {
+        }).accept(new MonitoredData(new byte[]{1}, URL));
+        Thread.sleep(20);
+
+        assertNotNull(classUnderTest.join(URL, result -> {
+        }));
+    }
+
+    @Test
+    public void join_otherKeyAfterWindow_evictsCompletedRequest() throws InterruptedException {
+        RequestCoalescer classUnderTest = new RequestCoalescer(10);
+        classUnderTest.join(URL, result -> {
+        }).accept(new MonitoredData(new byte[]{1}, URL));
+        Thread.sleep(20);
+
+        classUnderTest.join(OTHER_URL, result -> {
+        });
+
+        assertEquals(1, classUnderTest.size());
+    }
+
+    @Test
+    public void join_otherKeyWithinWindow_keepsCompletedRequest() {
+        RequestCoalescer classUnderTest = new RequestCoalescer(60000);
+        classUnderTest.join(URL, result -> {
+        }).accept(new MonitoredData(new byte[]{1}, URL));
+
+        classUnderTest.join(OTHER_URL, result -> {
+        });
+
+        assertEquals(2, classUnderTest.size());
+    }
+
+    @Test
+    public void abandon_joinedAcceptorsReceiveError() {
+        RequestCoalescer classUnderTest = new RequestCoalescer(0);
+        List<MonitoredData> first = new ArrayList<>();
+        List<MonitoredData> second = new ArrayList<>();
+        classUnderTest.join(URL, first::add);
+        classUnderTest.join(URL, second::add);
+
+        classUnderTest.abandon(URL, URL, "suspended");
+
+        assertTrue(first.isEmpty());
+        assertFalse(second.get(0).hasData());
+        assertTrue(second.get(0).getErrors().contains("suspended"));
+        assertNotNull(classUnderTest.join(URL, result -> {
+        }));
+    }
+}
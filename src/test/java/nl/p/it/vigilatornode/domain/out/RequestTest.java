@@ -15,16 +15,32 @@
  */
 package nl.p.it.vigilatornode.domain.out;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
 import nl.p.it.vigilatornode.domain.monitor.Acceptor;
 import nl.p.it.vigilatornode.exception.HttpClientException;
 import nl.p.it.vigilatornode.exception.VigilatorNodeException;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests for request
@@ -97,4 +113,118 @@ public class RequestTest {
     private HttpRequest getMinimalRequest() throws URISyntaxException {
         return HttpRequest.newBuilder().uri(new URI(LOCALHOST)).build();
     }
+
+    @Test
+    public void run_responseReceived_recordsTimings() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        HttpResponse.ResponseInfo info = mock(HttpResponse.ResponseInfo.class);
+        when(response.body()).thenReturn(new byte[]{1});
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            invocation.getArgument(1, HttpResponse.BodyHandler.class).apply(info);
+            Thread.sleep(5);
+            return response;
+        });
+        List<MonitoredData> accepted = new ArrayList<>();
+
+        new Request(getMinimalRequest(), accepted::add, client).run();
+
+        assertEquals(1, accepted.size());
+        MonitoredData result = accepted.get(0);
+        assertTrue(result.getTimeToFirstByteInNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(result.getResponseTimeInNanos() >= TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(result.getResponseTimeInNanos() > result.getTimeToFirstByteInNanos());
+    }
+
+    @Test
+    public void run_requestFailed_recordsResponseTimeOnly() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenThrow(new IOException("refused"));
+        List<MonitoredData> accepted = new ArrayList<>();
+
+        new Request(getMinimalRequest(), accepted::add, client).run();
+
+        MonitoredData result = accepted.get(0);
+        assertFalse(result.hasData());
+        assertEquals(0, result.getTimeToFirstByteInNanos());
+        assertTrue(result.getResponseTimeInNanos() > 0);
+    }
+
+    @Test
+    public void run_hedgedAndPrimarySlow_usesDuplicateResponse() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        HttpResponse<byte[]> slow = mock(HttpResponse.class);
+        HttpResponse<byte[]> fast = mock(HttpResponse.class);
+        when(fast.body()).thenReturn(new byte[]{2});
+        when(client.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.supplyAsync(() -> slow, CompletableFuture.delayedExecutor(5, TimeUnit.SECONDS)))
+                .thenReturn(CompletableFuture.completedFuture(fast));
+        List<MonitoredData> accepted = new ArrayList<>();
+
+        new Request(getMinimalRequest(), accepted::add, client, Duration.ofMillis(20)).run();
+
+        assertArrayEquals(new byte[]{2}, accepted.get(0).getData());
+        verify(client, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        verify(client, never()).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    public void run_hedgedAndPrimaryFast_sendsNoDuplicate() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        when(response.body()).thenReturn(new byte[]{1});
+        when(client.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+        List<MonitoredData> accepted = new ArrayList<>();
+
+        new Request(getMinimalRequest(), accepted::add, client, Duration.ofSeconds(5)).run();
+
+        assertArrayEquals(new byte[]{1}, accepted.get(0).getData());
+        verify(client, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    public void run_hedgedAndBothFailed_acceptsEmptyResult() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        when(client.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.supplyAsync(() -> {
+                    throw new CompletionException(new IOException("first"));
+                }, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("second")));
+        List<MonitoredData> accepted = new ArrayList<>();
+
+        new Request(getMinimalRequest(), accepted::add, client, Duration.ofMillis(10)).run();
+
+        assertFalse(accepted.get(0).hasData());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void run_permanentlyRedirected_recordsChainAndCachesLocation() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        HttpResponse<byte[]> redirect = mock(HttpResponse.class);
+        when(redirect.statusCode()).thenReturn(301);
+        when(redirect.body()).thenReturn(new byte[0]);
+        when(redirect.headers()).thenReturn(HttpHeaders.of(Map.of("Location", List.of("/moved")), (name, value) -> true));
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn(new byte[]{1});
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(redirect, response, response);
+        Redirects redirects = new Redirects(5, 3600000);
+        List<MonitoredData> accepted = new ArrayList<>();
+
+        new Request(getMinimalRequest(), accepted::add, client, null, redirects).run();
+        new Request(getMinimalRequest(), accepted::add, client, null, redirects).run();
+
+        MonitoredData first = accepted.get(0);
+        assertEquals(LOCALHOST, first.getUrl());
+        assertEquals(1, first.getRedirects().size());
+        assertEquals(LOCALHOST + "moved", first.getRedirects().get(0).location());
+        assertEquals(301, first.getRedirects().get(0).statusCode());
+        MonitoredData second = accepted.get(1);
+        assertTrue(second.getRedirects().isEmpty());
+        assertEquals(1, second.getRedirectCount());
+        verify(client, times(3)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
 }
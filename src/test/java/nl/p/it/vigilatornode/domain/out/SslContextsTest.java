@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import javax.net.ssl.SSLContext;
+import nl.p.it.vigilatornode.exception.CustomException;
+import nl.p.it.vigilatornode.exception.HttpClientException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SSL contexts
+ *
+ * @author Patrick
+ */
+public class SslContextsTest {
+
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void create_withDefaultProfile_expectingDefaultContext() throws HttpClientException, GeneralSecurityException {
+        SSLContext result = SslContexts.create(TlsProfile.VERIFY);
+
+        assertSame(SSLContext.getDefault(), result);
+    }
+
+    @Test
+    public void create_ignoringIssues_expectingOwnContext() throws HttpClientException, GeneralSecurityException {
+        SSLContext result = SslContexts.create(TlsProfile.IGNORE_ISSUES);
+
+        assertNotSame(SSLContext.getDefault(), result);
+    }
+
+    @Test
+    public void create_withTrustStore_expectingOwnContext() throws HttpClientException, GeneralSecurityException, IOException {
+        TlsProfile profile = new TlsProfile(false, trustStore().toString(), PASSWORD, null, null);
+
+        SSLContext result = SslContexts.create(profile);
+
+        assertNotSame(SSLContext.getDefault(), result);
+    }
+
+    @Test
+    public void create_withMissingTrustStore_expectingException() {
+        TlsProfile profile = new TlsProfile(false, tempDir.resolve("missing.p12").toString(), PASSWORD, null, null);
+
+        HttpClientException exception = assertThrows(HttpClientException.class, () -> SslContexts.create(profile));
+
+        assertEquals(String.format(CustomException.INVALID_TLS_PROFILE.getMessage(), profile), exception.getMessage());
+    }
+
+    @Test
+    public void create_withWrongPassword_expectingException() throws GeneralSecurityException, IOException {
+        TlsProfile profile = new TlsProfile(false, trustStore().toString(), "wrong", null, null);
+
+        assertThrows(HttpClientException.class, () -> SslContexts.create(profile));
+    }
+
+    private Path trustStore() throws GeneralSecurityException, IOException {
+        Path file = tempDir.resolve("trust.p12");
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        store.load(null, null);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            store.store(out, PASSWORD.toCharArray());
+        }
+
+        return file;
+    }
+}
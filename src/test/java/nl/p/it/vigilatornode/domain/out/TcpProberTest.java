@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.out;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for tcp prober
+ *
+ * @author Patrick
+ */
+public class TcpProberTest {
+
+    private static final String HOST = "127.0.0.1";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private ServerSocket server;
+    private TcpProber classUnderTest;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getByName(HOST));
+        classUnderTest = new TcpProber();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void probe_openPort_recordsConnectTime() throws Exception {
+        MonitoredData result = probe(new TcpProbe(HOST, server.getLocalPort(), null, null, TIMEOUT, TIMEOUT));
+
+        assertTrue(result.getConnectTimeInNanos() > 0);
+        assertEquals("tcp://127.0.0.1:" + server.getLocalPort(), result.getUrl());
+        assertEquals(0, classUnderTest.getInFlight());
+    }
+
+    @Test
+    public void probe_sendAndExpect_readsReply() throws Exception {
+        CompletableFuture.runAsync(() -> reply("PING", "+PONG\r\n"));
+
+        MonitoredData result = probe(new TcpProbe(HOST, server.getLocalPort(), "PING\r\n", "PONG", TIMEOUT, TIMEOUT));
+
+        assertTrue(result.getConnectTimeInNanos() > 0);
+        assertEquals("+PONG\r\n", new String(result.getData(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void probe_expectedReplyMissing_timesOut() throws Exception {
+        MonitoredData result = probe(new TcpProbe(HOST, server.getLocalPort(), null, "PONG", TIMEOUT, Duration.ofMillis(200)));
+
+        assertTrue(result.getConnectTimeInNanos() > 0);
+        assertEquals(0, result.getData().length);
+    }
+
+    @Test
+    public void probe_closedPort_notConnected() throws Exception {
+        int port = server.getLocalPort();
+        server.close();
+
+        MonitoredData result = probe(new TcpProbe(HOST, port, null, null, TIMEOUT, TIMEOUT));
+
+        assertEquals(0, result.getConnectTimeInNanos());
+    }
+
+    @Test
+    public void probe_unknownHost_notConnected() throws Exception {
+        MonitoredData result = probe(new TcpProbe("probe.invalid", server.getLocalPort(), null, null, TIMEOUT, TIMEOUT));
+
+        assertEquals(0, result.getConnectTimeInNanos());
+        assertEquals(0, classUnderTest.getInFlight());
+    }
+
+    @Test
+    public void probe_manyProbes_allComplete() throws Exception {
+        int amount = 40;
+        CompletableFuture<?>[] results = new CompletableFuture<?>[amount];
+        for (int i = 0; i < amount; i++) {
+            CompletableFuture<MonitoredData> result = new CompletableFuture<>();
+            classUnderTest.probe(new TcpProbe(HOST, server.getLocalPort(), null, null, TIMEOUT, TIMEOUT), result::complete);
+            results[i] = result;
+        }
+
+        CompletableFuture.allOf(results).get(10, TimeUnit.SECONDS);
+
+        for (CompletableFuture<?> result : results) {
+            assertTrue(((MonitoredData) result.get()).getConnectTimeInNanos() > 0);
+        }
+    }
+
+    private MonitoredData probe(final TcpProbe probe) throws Exception {
+        CompletableFuture<MonitoredData> result = new CompletableFuture<>();
+        classUnderTest.probe(probe, result::complete);
+
+        return result.get(10, TimeUnit.SECONDS);
+    }
+
+    private void reply(final String expected, final String reply) {
+        try (Socket socket = server.accept()) {
+            InputStream in = socket.getInputStream();
+            byte[] received = in.readNBytes(expected.length());
+            if (expected.equals(new String(received, StandardCharsets.UTF_8))) {
+                OutputStream out = socket.getOutputStream();
+                out.write(reply.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            in.read();
+        } catch (IOException ex) {
+            // the probe closed the connection
+        }
+    }
+}
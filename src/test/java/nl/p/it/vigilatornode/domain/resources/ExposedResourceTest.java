@@ -15,12 +15,23 @@
  */
 package nl.p.it.vigilatornode.domain.resources;
 
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.monitor.Acceptor;
+import nl.p.it.vigilatornode.domain.out.Fetch;
 import nl.p.it.vigilatornode.domain.out.OutgoingClient;
+import nl.p.it.vigilatornode.domain.out.RequestPlan;
+import nl.p.it.vigilatornode.exception.HttpClientException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests for exposed resource
@@ -33,6 +44,9 @@ public class ExposedResourceTest {
     @Mock
     private OutgoingClient client;
 
+    private static final String WEB = "Web";
+    private static final String WEB_URL = "https://localhost.com";
+
     @Test
     public void connectWithoutClient() {
         assertDoesNotThrow(() -> new ExposedResource().connect(null));
@@ -42,4 +56,70 @@ public class ExposedResourceTest {
     public void connectWithClient() {
         assertDoesNotThrow(() -> new ExposedResource().connect(client));
     }
+
+    @Test
+    public void connect_withWebPageWithoutTitle_fetchesHeaders() throws HttpClientException {
+        ExposedResource classUnderTest = getResourceWithWebPage(null);
+
+        classUnderTest.connect(client);
+
+        verify(client).plan(eq(WEB_URL), any(), any(), eq(Fetch.HEAD));
+    }
+
+    @Test
+    public void connect_withWebPageWithTitle_fetchesStartOfPage() throws HttpClientException {
+        ExposedResource classUnderTest = getResourceWithWebPage("Page title");
+
+        classUnderTest.connect(client);
+
+        verify(client).plan(eq(WEB_URL), any(), any(), eq(Fetch.RANGE));
+    }
+
+    @Test
+    public void connect_withWebPageFetchingFullPage_fetchesFullPage() throws HttpClientException {
+        ExposedResource classUnderTest = getResourceWithWebPage("Page title");
+        classUnderTest.decorate(WEB, "fetch", "full");
+
+        classUnderTest.connect(client);
+
+        verify(client).plan(eq(WEB_URL), any(), any(), eq(Fetch.FULL));
+    }
+
+    @Test
+    public void connect_withWebPageContaining_fetchesFullPage() throws HttpClientException {
+        ExposedResource classUnderTest = getResourceWithWebPage("Page title");
+        classUnderTest.decorate(WEB, "contains", "Add to cart | Checkout");
+
+        classUnderTest.connect(client);
+
+        verify(client).plan(eq(WEB_URL), any(), any(), eq(Fetch.FULL));
+    }
+
+    @Test
+    public void updateStatus_headNotAllowed_fetchesStartOfPage() throws HttpClientException {
+        ExposedResource classUnderTest = getResourceWithWebPage(null);
+        when(client.plan(eq(WEB_URL), any(), any(), any())).thenReturn(mock(RequestPlan.class));
+        classUnderTest.connect(client);
+        classUnderTest.updateStatus();
+        ArgumentCaptor<Acceptor<MonitoredData>> acceptor = ArgumentCaptor.forClass(Acceptor.class);
+        verify(client).scheduleRequest(any(RequestPlan.class), acceptor.capture(), any());
+        MonitoredData reply = new MonitoredData(new byte[0], WEB_URL);
+        reply.recordStatusCode(405);
+
+        acceptor.getValue().accept(reply);
+        classUnderTest.updateStatus();
+
+        assertTrue(reply.isHealthy());
+        verify(client).plan(eq(WEB_URL), any(), any(), eq(Fetch.RANGE));
+    }
+
+    private ExposedResource getResourceWithWebPage(final String title) {
+        ExposedResource resource = new ExposedResource();
+        resource.decorate(WEB, "url", WEB_URL);
+        if (title != null) {
+            resource.decorate(WEB, "title", title);
+        }
+
+        return resource;
+    }
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources;
+
+import java.util.List;
+import java.util.Map;
+import nl.p.it.vigilatornode.domain.resources.validation.JsonPaths;
+import nl.p.it.vigilatornode.domain.resources.validation.Selection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for monitored part
+ *
+ * @author Patrick
+ */
+public class MonitoredPartTest {
+
+    private MonitoredPart classUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        classUnderTest = new MonitoredPart();
+    }
+
+    @Test
+    public void getPaths_withoutPaths_expectingNull() {
+        classUnderTest.addItem("pool size", "> 50");
+
+        assertNull(classUnderTest.getPaths());
+    }
+
+    @Test
+    public void getPaths_calledTwice_compilesOnce() {
+        classUnderTest.addItem("heap.used", "> 90%");
+        classUnderTest.addItem("pool size", "> 50");
+
+        assertSame(classUnderTest.getPaths(), classUnderTest.getPaths());
+    }
+
+    @Test
+    public void getPaths_flatItemAddedAfterUse_keepsCompiledPaths() {
+        classUnderTest.addItem("heap.used", "> 90%");
+        JsonPaths compiled = classUnderTest.getPaths();
+
+        classUnderTest.addItem("status", "!= UP");
+
+        assertSame(compiled, classUnderTest.getPaths());
+    }
+
+    @Test
+    public void getPaths_pathAddedAfterUse_recompiles() {
+        classUnderTest.addItem("heap.used", "> 90%");
+        JsonPaths compiled = classUnderTest.getPaths();
+
+        classUnderTest.addItem("count(pools[*])", "== 0");
+
+        assertNotSame(compiled, classUnderTest.getPaths());
+        assertNotNull(classUnderTest.getPaths());
+    }
+
+    @Test
+    public void getSelections_compilesSelectorsOnce() {
+        classUnderTest.addItem("items", "items");
+        classUnderTest.addItem("{code=\"500\"}", "> 2");
+        classUnderTest.addItem("code=\"200\"", "< 10");
+
+        List<Selection> result = classUnderTest.getSelections();
+
+        assertEquals(2, result.size());
+        assertTrue(result.contains(new Selection("{code=\"200\"}", Map.of("code", "200"), "< 10")));
+        assertSame(result, classUnderTest.getSelections());
+    }
+
+    @Test
+    public void getSelections_invalidSelector_throwsException() {
+        classUnderTest.addItem("{code=\"500\"", "> 2");
+
+        assertThrows(IllegalArgumentException.class, () -> classUnderTest.getSelections());
+    }
+}
@@ -15,6 +15,7 @@
  */
 package nl.p.it.vigilatornode.domain.resources;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
@@ -218,6 +219,53 @@ public class MonitoredResourceTest {
         assertEquals(expectedUrl, result.getUrl());
     }
 
+    @Test
+    public void getConfig_havingTimeoutsAndHedging() {
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "connectTimeout", "5s");
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "timeout", "1500ms");
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "hedge", TRUE);
+        MonitoredResourceConfig result = classUnderTest.getConfig();
+
+        assertEquals(Duration.ofSeconds(5), result.getConnectTimeout());
+        assertEquals(Duration.ofMillis(1500), result.getTimeout());
+        assertTrue(result.isHedge());
+    }
+
+    @Test
+    public void getConfig_havingTimeoutsInOtherUnits() {
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "connectTimeout", "2min");
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "timeout", "250");
+        MonitoredResourceConfig result = classUnderTest.getConfig();
+
+        assertEquals(Duration.ofMinutes(2), result.getConnectTimeout());
+        assertEquals(Duration.ofMillis(250), result.getTimeout());
+        assertFalse(result.isHedge());
+    }
+
+    @Test
+    public void getConfig_havingInvalidTimeouts_expectingDefaults() {
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "connectTimeout", "soon");
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "timeout", "0s");
+        MonitoredResourceConfig result = classUnderTest.getConfig();
+
+        assertNull(result.getConnectTimeout());
+        assertNull(result.getTimeout());
+    }
+
+    @Test
+    public void getConfig_havingTrustStoreAndKeyStore() {
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "trustStore", "trust.p12");
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "trustStorePassword", "trusted");
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "keyStore", "key.p12");
+        classUnderTest.decorate(MonitoredResourceConfig.TYPE, "keyStorePassword", "secret");
+        MonitoredResourceConfig result = classUnderTest.getConfig();
+
+        assertEquals("trust.p12", result.getTrustStore());
+        assertEquals("trusted", result.getTrustStorePassword());
+        assertEquals("key.p12", result.getKeyStore());
+        assertEquals("secret", result.getKeyStorePassword());
+    }
+
     @Test
     public void getConfig_havingConfigSetToActiveWithUrlAndWithIgnoringTLSErrors() {
         boolean expected = true;
@@ -366,4 +414,92 @@ public class MonitoredResourceTest {
         }
     }
 
+
+    @Test
+    public void getStatus_withResponseTimes_containsPercentiles() {
+        classUnderTest.takes.put(classUnderTest.take, new ArrayList<>());
+        for (int i = 1; i <= 100; i++) {
+            classUnderTest.responseTimes.record(i * 1_000_000L);
+        }
+
+        MonitoredResourceStatus result = classUnderTest.getStatus();
+
+        assertNotNull(result.getResponseTime());
+        assertTrue(result.getResponseTime().p50() >= 50);
+        assertTrue(result.getResponseTime().p95() >= 95);
+        assertTrue(result.getResponseTime().p99() >= result.getResponseTime().p95());
+    }
+
+    @Test
+    public void getStatus_withoutResponseTimes_hasNoPercentiles() {
+        classUnderTest.takes.put(classUnderTest.take, new ArrayList<>());
+
+        MonitoredResourceStatus result = classUnderTest.getStatus();
+
+        assertNull(result.getResponseTime());
+    }
+
+    @Test
+    public void finaliseUpdate_exceedingDataLimit_dropsOldestTakes() {
+        List<MonitoredData> first = new ArrayList<>();
+        for (int take = 1; take <= 1000; take++) {
+            classUnderTest.take = take;
+            classUnderTest.takes.put(take, new ArrayList<>(List.of(new MonitoredData(new byte[1]), new MonitoredData(new byte[1]))));
+            if (take == 1) {
+                first.addAll(classUnderTest.takes.get(take));
+            }
+            classUnderTest.finaliseUpdate();
+        }
+
+        assertEquals(100, classUnderTest.getData().size());
+        assertEquals(50, classUnderTest.takes.size());
+        assertTrue(classUnderTest.takes.containsKey(1000));
+        assertFalse(classUnderTest.takes.containsKey(950));
+        assertNotNull(first.getFirst().getData());
+    }
+
+    @Test
+    public void addToTake_takeNoLongerRetained_dropsResult() {
+        int first = classUnderTest.startTake();
+        classUnderTest.takes.remove(first);
+        int second = classUnderTest.startTake();
+
+        classUnderTest.addToTake(first, new MonitoredData(new byte[0]));
+        classUnderTest.addToTake(second, new MonitoredData(new byte[0]));
+
+        assertEquals(2, second);
+        assertEquals(1, classUnderTest.getData().size());
+        assertFalse(classUnderTest.takes.containsKey(first));
+    }
+
+    @Test
+    public void getStatus_calledTwice_returnsSeparateStatuses() {
+        classUnderTest.setName(NAME);
+        int current = classUnderTest.startTake();
+        MonitoredData data = new MonitoredData(new byte[0]);
+        data.addError(ERROR);
+        classUnderTest.addToTake(current, data);
+
+        MonitoredResourceStatus first = classUnderTest.getStatus();
+        MonitoredResourceStatus second = classUnderTest.getStatus();
+
+        assertNotSame(first, second);
+        assertEquals(NAME, first.getName());
+        assertEquals(List.of(ERROR), first.getErrors());
+        assertEquals(List.of(ERROR), second.getErrors());
+    }
+
+    @Test
+    public void finaliseUpdate_currentTakeExceedingDataLimit_keepsCurrentTake() {
+        classUnderTest.take = 1;
+        List<MonitoredData> current = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            current.add(new MonitoredData(new byte[0]));
+        }
+        classUnderTest.takes.put(1, current);
+
+        classUnderTest.finaliseUpdate();
+
+        assertEquals(150, classUnderTest.getData().size());
+    }
 }
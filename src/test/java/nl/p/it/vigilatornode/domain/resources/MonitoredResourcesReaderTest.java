@@ -15,6 +15,10 @@
  */
 package nl.p.it.vigilatornode.domain.resources;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
 import nl.p.it.vigilatornode.exception.CustomException;
@@ -22,6 +26,7 @@ import nl.p.it.vigilatornode.exception.IncorrectResourceFileException;
 import nl.p.it.vigilatornode.exception.VigilatorNodeException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -36,11 +41,26 @@ public class MonitoredResourcesReaderTest {
     private static final String FOLDER_INCORRECT = "test-incorrect-files";
     private static final String FOLDER_CORRECT = "test-correct-files";
     private static final String PATH_TO_RESOURCES = "src/test/resources/";
-    private static final String FIRST_INCORRECT_MESSAGE = "Incorrect resource file: inproperformat.conf, line 2, error: Unexpected resource type: NameOfTheResource, expected is either: ExposedResource, OnboardResource or InternalResource";
+    private static final String FIRST_INCORRECT_MESSAGE = "Incorrect resource file: inproperformat.conf, line 2, error: Unexpected resource type: NameOfTheResource, expected is either: ExposedResource, TcpResource, OnboardResource or InternalResource";
     private static final Set<String> correctNames = Set.of("ResourceOne", "ResourceTwo", "ResourceThree");
 
+    private static final String RESOURCE_FILE = """
+        ExposedResource
+        \t%s
+        \t\tConfig
+        \t\t\tactive: true
+        \t\t\turl: https://localhost:48/monitor
+        \t\tMonitoredObjectName
+        \t\t\titems
+        \t\t\t\tpool size: > 50
+        \t\t\tdatetime: < 5min
+        """;
+
     private MonitoredResourcesReader classUnderTest;
 
+    @TempDir
+    private Path tempDir;
+
     @BeforeEach
     public void setUp() {
         classUnderTest = new MonitoredResourcesReader();
@@ -110,4 +130,96 @@ public class MonitoredResourcesReaderTest {
         }
     }
 
+    @Test
+    public void read_calledTwice_returnsTheSameResources() throws IncorrectResourceFileException {
+        int expectedSize = 4;
+        String resourcesFilesLocation = PATH_TO_RESOURCES + FOLDER_CORRECT;
+
+        classUnderTest.read(resourcesFilesLocation);
+        List<MonitoredResource> result = classUnderTest.read(resourcesFilesLocation);
+
+        assertEquals(expectedSize, result.size());
+    }
+
+    @Test
+    public void read_withManyResourceFiles_keepsTheOrderOfTheFiles() throws IncorrectResourceFileException, IOException {
+        int files = 40;
+        int resourcesPerFile = 25;
+        for (int file = files - 1; file >= 0; file--) {
+            StringBuilder content = new StringBuilder();
+            for (int resource = 0; resource < resourcesPerFile; resource++) {
+                content.append(RESOURCE_FILE.formatted("Resource-" + file + "-" + resource));
+            }
+            Files.writeString(tempDir.resolve("resources-%03d.conf".formatted(file)), content);
+        }
+
+        List<MonitoredResource> result = classUnderTest.read(tempDir.toString());
+
+        assertEquals(files * resourcesPerFile, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            MonitoredResource resource = result.get(i);
+            assertEquals("Resource-" + (i / resourcesPerFile) + "-" + (i % resourcesPerFile), resource.getName());
+            assertTrue(resource.getConfig().isActive());
+            assertEquals("https://localhost:48/monitor", resource.getConfig().getUrl());
+        }
+    }
+
+    @Test
+    public void read_withWindowsLineEndings() throws IncorrectResourceFileException, IOException {
+        String content = RESOURCE_FILE.formatted("ResourceOne").replace("\n", "\r\n");
+        Files.write(tempDir.resolve("windows.conf"), content.getBytes(StandardCharsets.UTF_8));
+
+        List<MonitoredResource> result = classUnderTest.read(tempDir.toString());
+
+        assertEquals(1, result.size());
+        assertEquals("ResourceOne", result.get(0).getName());
+        assertEquals("https://localhost:48/monitor", result.get(0).getConfig().getUrl());
+        assertEquals("> 50", result.get(0).parts.get("MonitoredObjectName").getItems().get("pool size"));
+    }
+
+    @Test
+    public void read_withTcpResource() throws IncorrectResourceFileException, IOException {
+        Files.writeString(tempDir.resolve("tcp.conf"),
+                "TcpResource\n\tDatabase\n\t\tconfig\n\t\t\tactive: true\n\t\t\turl: tcp://localhost:5432\n\t\t\tconnectTime: > 50ms W\n");
+
+        List<MonitoredResource> result = classUnderTest.read(tempDir.toString());
+
+        assertEquals(1, result.size());
+        assertInstanceOf(TcpResource.class, result.get(0));
+        assertEquals("tcp://localhost:5432", result.get(0).getConfig().getUrl());
+        assertEquals("> 50ms W", result.get(0).getConfig().getConnectTimeCondition());
+    }
+
+    @Test
+    public void read_withPrometheusSelectors() throws IncorrectResourceFileException, IOException {
+        Files.writeString(tempDir.resolve("prometheus.conf"),
+                "ExposedResource\n\tApi\n\t\tconfig\n\t\t\tformat: prometheus\n\t\thttp_requests_total\n\t\t\titems\n\t\t\t\t{code=\"500\"}: > 10 W\n");
+
+        List<MonitoredResource> result = classUnderTest.read(tempDir.toString());
+
+        assertEquals("prometheus", result.get(0).getConfig().getFormat());
+        assertEquals("> 10 W", result.get(0).parts.get("http_requests_total").getItems().get("{code=\"500\"}"));
+    }
+
+    @Test
+    public void read_withInvalidPrometheusSelector_rejectsTheFile() throws IOException {
+        Files.writeString(tempDir.resolve("prometheus.conf"),
+                "ExposedResource\n\tApi\n\t\tconfig\n\t\t\tformat: prometheus\n\t\thttp_requests_total\n\t\t\titems\n\t\t\t\t{code=\"500\": > 10 W\n");
+
+        VigilatorNodeException exception = assertThrows(IncorrectResourceFileException.class, () -> classUnderTest.read(tempDir.toString()));
+
+        assertTrue(exception.getMessage().startsWith("Incorrect resource file: prometheus.conf, line 1, error: Resource Api is not valid: Selector {code=\"500\" is not valid"));
+    }
+
+    @Test
+    public void read_withIncorrectResourceFileAfterCorrectFiles_reportsTheIncorrectFile() throws IOException {
+        String expectedException = "Incorrect resource file: b.conf, line 1, error: Unexpected resource type: Unknown, expected is either: ExposedResource, TcpResource, OnboardResource or InternalResource";
+        Files.writeString(tempDir.resolve("a.conf"), RESOURCE_FILE.formatted("ResourceOne"));
+        Files.writeString(tempDir.resolve("b.conf"), "Unknown\n");
+        Files.writeString(tempDir.resolve("c.conf"), RESOURCE_FILE.formatted("ResourceTwo"));
+
+        VigilatorNodeException exception = assertThrows(IncorrectResourceFileException.class, () -> classUnderTest.read(tempDir.toString()));
+
+        assertEquals(expectedException, exception.getMessage());
+    }
 }
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import nl.p.it.vigilatornode.exception.IncorrectResourceFileException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for monitored resources snapshot
+ *
+ * @author Patrick
+ */
+public class MonitoredResourcesSnapshotTest {
+
+    private static final String PATH_TO_CORRECT_FILES = "src/test/resources/test-correct-files";
+    private static final String SNAPSHOT = "resources.snapshot";
+    private static final String RESOURCE_ONE = "ResourceOne";
+    private static final String WEB = "Web";
+    private static final String MONITORED_OBJECT = "MonitoredObjectNameOne";
+
+    @TempDir
+    private Path tempDir;
+
+    private Path resourceFiles;
+    private MonitoredResourcesReader reader;
+    private MonitoredResourcesSnapshot classUnderTest;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        resourceFiles = Files.createDirectory(tempDir.resolve("resource-files"));
+        try (var files = Files.list(Path.of(PATH_TO_CORRECT_FILES))) {
+            for (Path file : files.toList()) {
+                Files.copy(file, resourceFiles.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        reader = spy(new MonitoredResourcesReader());
+        classUnderTest = new MonitoredResourcesSnapshot(reader, tempDir.resolve(SNAPSHOT).toString());
+    }
+
+    @Test
+    public void read_withoutSnapshotFile_readsTheResourceFiles() throws IncorrectResourceFileException {
+        classUnderTest = new MonitoredResourcesSnapshot(reader, "");
+
+        List<MonitoredResource> result = classUnderTest.read(resourceFiles.toString());
+
+        assertEquals(4, result.size());
+        assertFalse(Files.exists(tempDir.resolve(SNAPSHOT)));
+    }
+
+    @Test
+    public void read_withoutExistingSnapshot_writesSnapshot() throws IncorrectResourceFileException {
+        List<MonitoredResource> result = classUnderTest.read(resourceFiles.toString());
+
+        assertEquals(4, result.size());
+        assertTrue(Files.exists(tempDir.resolve(SNAPSHOT)));
+        verify(reader, times(1)).read(resourceFiles.toString());
+    }
+
+    @Test
+    public void read_withMatchingSnapshot_restoresWithoutReadingTheResourceFiles() throws IncorrectResourceFileException {
+        List<MonitoredResource> read = classUnderTest.read(resourceFiles.toString());
+
+        List<MonitoredResource> result = classUnderTest.read(resourceFiles.toString());
+
+        verify(reader, times(1)).read(resourceFiles.toString());
+        assertEquals(read.size(), result.size());
+        for (int i = 0; i < read.size(); i++) {
+            MonitoredResource expected = read.get(i);
+            MonitoredResource restored = result.get(i);
+            assertEquals(expected.getClass(), restored.getClass());
+            assertEquals(expected.getName(), restored.getName());
+            assertEquals(expected.getConfig().isActive(), restored.getConfig().isActive());
+            assertEquals(expected.getConfig().getUrl(), restored.getConfig().getUrl());
+            assertEquals(expected.getConfig().getIgnoreTLSIssues(), restored.getConfig().getIgnoreTLSIssues());
+            assertEquals(expected.parts.keySet(), restored.parts.keySet());
+            for (String part : expected.parts.keySet()) {
+                assertEquals(expected.parts.get(part).getItems(), restored.parts.get(part).getItems());
+                assertEquals(expected.parts.get(part).getDatetimeCondition(), restored.parts.get(part).getDatetimeCondition());
+            }
+        }
+        MonitoredResource one = result.stream().filter(resource -> RESOURCE_ONE.equals(resource.getName())).findFirst().orElseThrow();
+        assertEquals("Page title", one.parts.get(WEB).getItems().get("title"));
+        assertEquals("< 5min", one.parts.get(MONITORED_OBJECT).getDatetimeCondition());
+    }
+
+    @Test
+    public void read_withChangedResourceFiles_readsTheResourceFilesAgain() throws IncorrectResourceFileException, IOException {
+        classUnderTest.read(resourceFiles.toString());
+        Files.writeString(resourceFiles.resolve("one-monitored-resource.conf"), "ExposedResource\n\tChanged\n");
+
+        List<MonitoredResource> result = classUnderTest.read(resourceFiles.toString());
+
+        verify(reader, times(2)).read(resourceFiles.toString());
+        assertTrue(result.stream().anyMatch(resource -> "Changed".equals(resource.getName())));
+    }
+
+    @Test
+    public void read_withCorruptSnapshot_readsTheResourceFiles() throws IncorrectResourceFileException, IOException {
+        Files.write(tempDir.resolve(SNAPSHOT), new byte[]{1, 2, 3});
+
+        List<MonitoredResource> result = classUnderTest.read(resourceFiles.toString());
+
+        assertEquals(4, result.size());
+        verify(reader, times(1)).read(resourceFiles.toString());
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.monitor.Acceptor;
+import nl.p.it.vigilatornode.domain.monitor.Notifier;
+import nl.p.it.vigilatornode.domain.out.TcpProbe;
+import nl.p.it.vigilatornode.domain.out.TcpProber;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for tcp resource
+ *
+ * @author Patrick
+ */
+@ExtendWith(MockitoExtension.class)
+public class TcpResourceTest {
+
+    @Mock
+    private TcpProber prober;
+
+    private static final String NAME = "Cache";
+    private static final String URL = "tcp://cache.localhost:6379";
+
+    @Test
+    public void updateStatus_probesThePort() {
+        TcpResource classUnderTest = getResource(URL);
+
+        classUnderTest.updateStatus();
+
+        ArgumentCaptor<TcpProbe> probe = ArgumentCaptor.forClass(TcpProbe.class);
+        verify(prober).probe(probe.capture(), any());
+        assertEquals("cache.localhost", probe.getValue().host());
+        assertEquals(6379, probe.getValue().port());
+        assertEquals("PING\r\n", probe.getValue().send());
+        assertEquals("PONG", probe.getValue().expect());
+    }
+
+    @Test
+    public void updateStatus_expectedReply_healthy() {
+        TcpResource classUnderTest = getResource(URL);
+        Notifier completed = mock(Notifier.class);
+
+        reply(classUnderTest, completed, "+PONG\r\n", TimeUnit.MILLISECONDS.toNanos(3));
+
+        assertTrue(classUnderTest.isHealthy());
+        assertNotNull(classUnderTest.getStatus().getResponseTime());
+        verify(completed).doNotify();
+    }
+
+    @Test
+    public void updateStatus_unexpectedReply_addsError() {
+        TcpResource classUnderTest = getResource(URL);
+
+        reply(classUnderTest, null, "-ERR\r\n", TimeUnit.MILLISECONDS.toNanos(3));
+
+        assertFalse(classUnderTest.isHealthy());
+        assertEquals(Error.withArgs(Error.UNEXPECTED_REPLY, NAME, URL, "PONG"), classUnderTest.getStatus().getErrors().get(0));
+    }
+
+    @Test
+    public void updateStatus_notConnected_addsError() {
+        TcpResource classUnderTest = getResource(URL);
+
+        reply(classUnderTest, null, "", 0);
+
+        assertFalse(classUnderTest.isHealthy());
+        assertEquals(Error.withArgs(Error.NO_CONNECTION, NAME, URL), classUnderTest.getStatus().getErrors().get(0));
+    }
+
+    @Test
+    public void updateStatus_slowConnect_addsWarning() {
+        TcpResource classUnderTest = getResource(URL);
+        classUnderTest.getConfig().set("connectTime", "> 50ms W");
+
+        reply(classUnderTest, null, "+PONG\r\n", TimeUnit.MILLISECONDS.toNanos(80));
+
+        assertTrue(classUnderTest.isHealthy());
+        assertEquals(1, classUnderTest.getStatus().getWarnings().size());
+    }
+
+    @Test
+    public void updateStatus_invalidUrl_addsErrorWithoutProbing() {
+        TcpResource classUnderTest = getResource("https://cache.localhost");
+        Notifier completed = mock(Notifier.class);
+
+        classUnderTest.updateStatus(completed);
+
+        verify(prober, never()).probe(any(), any());
+        verify(completed).doNotify();
+        assertFalse(classUnderTest.isHealthy());
+    }
+
+    private TcpResource getResource(final String url) {
+        TcpResource resource = new TcpResource();
+        resource.setName(NAME);
+        resource.getConfig().set("url", url);
+        resource.getConfig().set("send", "PING\\r\\n");
+        resource.getConfig().set("expect", "PONG");
+        resource.connect(prober);
+
+        return resource;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reply(final TcpResource resource, final Notifier completed, final String reply, final long connectTime) {
+        resource.updateStatus(completed);
+        ArgumentCaptor<Acceptor<MonitoredData>> acceptor = ArgumentCaptor.forClass(Acceptor.class);
+        verify(prober).probe(any(), acceptor.capture());
+
+        MonitoredData result = new MonitoredData(reply.getBytes(StandardCharsets.UTF_8), URL);
+        result.recordConnectTime(connectTime);
+        acceptor.getValue().accept(result);
+    }
+}
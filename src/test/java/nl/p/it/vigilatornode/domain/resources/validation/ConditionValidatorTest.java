@@ -29,6 +29,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @SuppressWarnings("java:S1192")// really valuable in this class to have literals for readability
 public class ConditionValidatorTest {
 
+    private static final Instant NOW = Instant.now();
+
     private ConditionValidator classUnderTest;
 
     @BeforeEach
@@ -501,7 +503,7 @@ public class ConditionValidatorTest {
         String value = null;
         String condition = "< 4min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
@@ -511,7 +513,7 @@ public class ConditionValidatorTest {
         String value = "";
         String condition = "< 4min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
@@ -521,7 +523,7 @@ public class ConditionValidatorTest {
         String value = "mock";
         String condition = "< 4min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
@@ -531,37 +533,37 @@ public class ConditionValidatorTest {
         String value = "4";
         String condition = "< 4min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
 
     @Test
     public void conditionForIsNotMoreThenGivenMinutesAgoWithTimestampValueBeingAfterCondition() {
-        String value = "" + Instant.now().plus(8, MINUTES).getEpochSecond();
+        String value = "" + NOW.minus(8, MINUTES).getEpochSecond();
         String condition = "< 4 min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
 
     @Test
     public void conditionForIsNotMoreThenGivenMinutesAgoWithTimestampValueBeingEqualToCondition() {
-        String value = "" + Instant.now().plus(4, MINUTES).getEpochSecond();
+        String value = "" + NOW.minus(4, MINUTES).getEpochSecond();
         String condition = "< 4 min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
 
     @Test
     public void conditionForIsNotMoreThenGivenMinutesAgoWithTimestampValueBeingBeforeCondition() {
-        String value = "" + Instant.now().plus(3, MINUTES).getEpochSecond();
+        String value = "" + NOW.minus(3, MINUTES).getEpochSecond();
         String condition = "< 4 min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertTrue(result);
     }
@@ -571,7 +573,7 @@ public class ConditionValidatorTest {
         String value = null;
         String condition = "> 8min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
@@ -581,7 +583,7 @@ public class ConditionValidatorTest {
         String value = "";
         String condition = "> 8min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
@@ -591,7 +593,7 @@ public class ConditionValidatorTest {
         String value = "mock";
         String condition = "> 8min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
@@ -601,48 +603,198 @@ public class ConditionValidatorTest {
         String value = "4";
         String condition = "> 8min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
 
     @Test
     public void conditionForIsMoreThenGivenMinutesAgoWithTimestampValueBeingAfterCondition() {
-        String value = "" + Instant.now().plus(16, MINUTES).getEpochSecond();
+        String value = "" + NOW.minus(16, MINUTES).getEpochSecond();
         String condition = "> 8min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertTrue(result);
     }
 
     @Test
     public void conditionForIsMoreThenGivenMinutesAgoWithTimestampValueBeingAfterCondition_withWarningIndicationInCondition() {
-        String value = "" + Instant.now().plus(16, MINUTES).getEpochSecond();
+        String value = "" + NOW.minus(16, MINUTES).getEpochSecond();
         String condition = "> 8min W";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertTrue(result);
     }
 
     @Test
     public void conditionForIsMoreThenGivenMinutesAgoWithTimestampValueBeingEqualToCondition() {
-        String value = "" + Instant.now().plus(8, MINUTES).getEpochSecond();
+        String value = "" + NOW.minus(8, MINUTES).getEpochSecond();
         String condition = "> 8min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
 
     @Test
     public void conditionForIsMoreThenGivenMinutesAgoWithTimestampValueBeingBeforeCondition() {
-        String value = "" + Instant.now().plus(4, MINUTES).getEpochSecond();
+        String value = "" + NOW.minus(4, MINUTES).getEpochSecond();
         String condition = "> 8min";
 
-        boolean result = classUnderTest.validateMeetsCriteria(value, condition);
+        boolean result = classUnderTest.validateMeetsCriteria(value, condition, NOW);
 
         assertFalse(result);
     }
+
+    @Test
+    public void durationBiggerThenInMilliseconds() {
+        assertTrue(classUnderTest.validateMeetsDurationCriteria(501, "> 500ms"));
+        assertFalse(classUnderTest.validateMeetsDurationCriteria(500, "> 500ms"));
+    }
+
+    @Test
+    public void durationSmallerThenInSeconds() {
+        assertTrue(classUnderTest.validateMeetsDurationCriteria(1999, "< 2s"));
+        assertFalse(classUnderTest.validateMeetsDurationCriteria(2000, "< 2s"));
+    }
+
+    @Test
+    public void durationInMinutesWithWarning() {
+        assertTrue(classUnderTest.validateMeetsDurationCriteria(60_001, "> 1min W"));
+    }
+
+    @Test
+    public void durationInHoursAndDays() {
+        assertTrue(classUnderTest.validateMeetsDurationCriteria(3_600_001, "> 1h"));
+        assertTrue(classUnderTest.validateMeetsDurationCriteria(13L * 24 * 3_600_000, "< 14d W"));
+        assertFalse(classUnderTest.validateMeetsDurationCriteria(14L * 24 * 3_600_000, "< 14d W"));
+    }
+
+    @Test
+    public void durationWithoutUnitIsInMilliseconds() {
+        assertTrue(classUnderTest.validateMeetsDurationCriteria(101, ">100"));
+    }
+
+    @Test
+    public void durationWithUnexpectedUnitOrSign() {
+        assertFalse(classUnderTest.validateMeetsDurationCriteria(10_000, "> 1y"));
+        assertFalse(classUnderTest.validateMeetsDurationCriteria(10_000, "== 10000ms"));
+        assertFalse(classUnderTest.validateMeetsDurationCriteria(10_000, null));
+    }
+
+    @Test
+    public void patternCondition() {
+        assertTrue(classUnderTest.validateMeetsCriteria("connection refused", "~ /refused|timed out/"));
+        assertFalse(classUnderTest.validateMeetsCriteria("connected", "~ /refused|timed out/"));
+        assertFalse(classUnderTest.validateMeetsCriteria(null, "~ /refused/"));
+    }
+
+    @Test
+    public void negatedPatternCondition() {
+        assertTrue(classUnderTest.validateMeetsCriteria("DOWN", "!~ /^UP$/"));
+        assertFalse(classUnderTest.validateMeetsCriteria("UP", "!~ /^UP$/ W"));
+    }
+
+    @Test
+    public void caseInsensitivePatternCondition() {
+        assertTrue(classUnderTest.validateMeetsCriteria("Fatal Error", "~ /error/i"));
+        assertFalse(classUnderTest.validateMeetsCriteria("Fatal Error", "~ /error/"));
+    }
+
+    @Test
+    public void invalidPatternCondition() {
+        assertFalse(classUnderTest.validateMeetsCriteria("error", "~ error"));
+        assertFalse(classUnderTest.validateMeetsCriteria("error", "~ /error/x"));
+        assertFalse(classUnderTest.validateMeetsCriteria("error", "~ /(error/"));
+        assertThrows(IllegalArgumentException.class, () -> ConditionValidator.compilePattern("~ /(error/"));
+    }
+
+    @Test
+    public void compilePatternOnce() {
+        assertSame(ConditionValidator.compilePattern("~ /once/"), ConditionValidator.compilePattern("~ /once/ W"));
+    }
+
+    @Test
+    public void valueBiggerThenIntegerRange() {
+        assertTrue(classUnderTest.validateMeetsCriteria("5368709120", "> 4294967296"));
+        assertFalse(classUnderTest.validateMeetsCriteria("5368709120", "< 4294967296"));
+    }
+
+    @Test
+    public void valueBiggerThenLongRange() {
+        assertTrue(classUnderTest.validateMeetsCriteria("18446744073709551616", "> 9223372036854775807"));
+    }
+
+    @Test
+    public void decimalValueAndCondition() {
+        assertTrue(classUnderTest.validateMeetsCriteria("0.75", "> 0.5"));
+        assertTrue(classUnderTest.validateMeetsCriteria("1", "> 0.5"));
+        assertFalse(classUnderTest.validateMeetsCriteria("0.25", "> 0.5 W"));
+    }
+
+    @Test
+    public void percentageValueAndCondition() {
+        assertTrue(classUnderTest.validateMeetsCriteria("85%", "> 80%"));
+        assertTrue(classUnderTest.validateMeetsCriteria("85", "> 80%"));
+        assertFalse(classUnderTest.validateMeetsCriteria("75%", "> 80%"));
+    }
+
+    @Test
+    public void betweenCondition() {
+        assertTrue(classUnderTest.validateMeetsCriteria("10", "between 10 and 20"));
+        assertTrue(classUnderTest.validateMeetsCriteria("20", "between 10 and 20 W"));
+        assertFalse(classUnderTest.validateMeetsCriteria("21", "between 10 and 20"));
+        assertFalse(classUnderTest.validateMeetsCriteria("20", "between 10"));
+    }
+
+    @Test
+    public void numericConditionWithoutNumber() {
+        assertFalse(classUnderTest.validateMeetsCriteria("many", "> 10"));
+        assertFalse(classUnderTest.validateMeetsCriteria("10d", "> 1"));
+        assertFalse(classUnderTest.validateMeetsCriteria("10", "> a1"));
+        assertThrows(IllegalArgumentException.class, () -> ConditionValidator.compile("> a1"));
+    }
+
+    @Test
+    public void numberValue() {
+        assertTrue(classUnderTest.validateMeetsCriteria((Object) 5_368_709_120L, "> 4294967296"));
+        assertTrue(classUnderTest.validateMeetsCriteria((Object) 0.75, "between 0.5 and 1"));
+        assertTrue(classUnderTest.validateMeetsCriteria((Object) 0, "== 0"));
+        assertFalse(classUnderTest.validateMeetsCriteria((Object) null, "> 0"));
+    }
+
+    @Test
+    public void temporalConditionUnits() {
+        String value = String.valueOf(NOW.minus(90, MINUTES).getEpochSecond());
+
+        assertTrue(classUnderTest.validateMeetsCriteria(value, "> 5399s", NOW));
+        assertFalse(classUnderTest.validateMeetsCriteria(value, "> 5400s", NOW));
+        assertTrue(classUnderTest.validateMeetsCriteria(value, "> 1h", NOW));
+        assertTrue(classUnderTest.validateMeetsCriteria(value, "< 2h W", NOW));
+        assertFalse(classUnderTest.validateMeetsCriteria(value, "> 1d", NOW));
+        assertFalse(classUnderTest.validateMeetsCriteria(value, "> 1y", NOW));
+    }
+
+    @Test
+    public void temporalConditionWithEpochMillis() {
+        Instant now = Instant.parse("2025-02-19T10:00:00.500Z");
+        String value = String.valueOf(now.minusMillis(299_999).toEpochMilli());
+
+        assertFalse(classUnderTest.validateMeetsCriteria(value, "> 5min", now));
+        assertTrue(classUnderTest.validateMeetsCriteria(value, "> 299s", now));
+        assertTrue(classUnderTest.validateMeetsCriteria((Object) now.minus(6, MINUTES).toEpochMilli(), "> 5min", now));
+    }
+
+    @Test
+    public void temporalConditionWithIsoDateTime() {
+        Instant now = Instant.parse("2025-02-19T10:00:00Z");
+
+        assertTrue(classUnderTest.validateMeetsCriteria("2025-02-19T09:54:59Z", "> 5min", now));
+        assertFalse(classUnderTest.validateMeetsCriteria("2025-02-19T09:55:00.500Z", "> 5min", now));
+        assertFalse(classUnderTest.validateMeetsCriteria("2025-02-19T10:56:00+01:00", "> 5min", now));
+        assertTrue(classUnderTest.validateMeetsCriteria("2025-02-18T10:00:00", "> 23h", now));
+        assertFalse(classUnderTest.validateMeetsCriteria("2025-02-19 mock", "> 5min", now));
+    }
 }
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for content matcher
+ *
+ * @author Patrick
+ */
+public class ContentMatcherTest {
+
+    @Test
+    public void find_reportsEveryText() {
+        ContentMatcher classUnderTest = new ContentMatcher(List.of("<title>Shop", "Add to cart", "Checkout"));
+
+        boolean[] result = classUnderTest.find(bytes("<html><head><title>Shop</title></head><body>Add to cart</body></html>"));
+
+        assertArrayEquals(new boolean[]{true, true, false}, result);
+    }
+
+    @Test
+    public void find_overlappingTexts() {
+        ContentMatcher classUnderTest = new ContentMatcher(List.of("he", "she", "hers", "his"));
+
+        boolean[] result = classUnderTest.find(bytes("ushers"));
+
+        assertArrayEquals(new boolean[]{true, true, true, false}, result);
+    }
+
+    @Test
+    public void find_afterPartialMatch() {
+        ContentMatcher classUnderTest = new ContentMatcher(List.of("abcd", "bce"));
+
+        boolean[] result = classUnderTest.find(bytes("abce"));
+
+        assertArrayEquals(new boolean[]{false, true}, result);
+    }
+
+    @Test
+    public void find_multiByteCharacters() {
+        ContentMatcher classUnderTest = new ContentMatcher(List.of("Café", "Cafe"));
+
+        boolean[] result = classUnderTest.find(bytes("Welkom in het Café"));
+
+        assertArrayEquals(new boolean[]{true, false}, result);
+    }
+
+    @Test
+    public void find_emptyTextIsNeverFound() {
+        ContentMatcher classUnderTest = new ContentMatcher(List.of("", "body"));
+
+        boolean[] result = classUnderTest.find(bytes("body"));
+
+        assertArrayEquals(new boolean[]{false, true}, result);
+    }
+
+    @Test
+    public void find_emptyData() {
+        ContentMatcher classUnderTest = new ContentMatcher(List.of("body"));
+
+        assertArrayEquals(new boolean[]{false}, classUnderTest.find(new byte[0]));
+    }
+
+    private byte[] bytes(final String data) {
+        return data.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for exposition parser
+ *
+ * @author Patrick
+ */
+public class ExpositionParserTest {
+
+    private static final String EXPOSITION = """
+        # HELP http_requests_total Requests received
+        # TYPE http_requests_total counter
+        http_requests_total{method="GET",code="200"} 1027 1395066363000
+        http_requests_total{method="POST",code="500"} 3
+        http_requests_total_created 1.7e9
+        process_open_fds 42.0
+        msdos_file_access_time_seconds{path="C:\\\\DIR\\\\FILE.TXT",error="Cannot find file:\\n\\"FILE.TXT\\""} 1.458255915e9
+        """;
+
+    @Test
+    public void parse_onlyReceivesMetricsAskedFor() {
+        List<String> received = new ArrayList<>();
+
+        new ExpositionParser(List.of("http_requests_total", "process_open_fds"))
+                .parse(bytes(EXPOSITION), (metric, labels, value) -> received.add(metric + labels.get("code") + '=' + value));
+
+        assertEquals(List.of("http_requests_total200=1027", "http_requests_total500=3", "process_open_fdsnull=42.0"), received);
+    }
+
+    @Test
+    public void parse_unescapesLabelValues() {
+        List<Map<String, String>> received = new ArrayList<>();
+
+        new ExpositionParser(List.of("msdos_file_access_time_seconds"))
+                .parse(bytes(EXPOSITION), (metric, labels, value) -> received.add(labels));
+
+        assertEquals("C:\\DIR\\FILE.TXT", received.get(0).get("path"));
+        assertEquals("Cannot find file:\n\"FILE.TXT\"", received.get(0).get("error"));
+    }
+
+    @Test
+    public void parse_withWindowsLineEndings() {
+        List<String> received = new ArrayList<>();
+
+        new ExpositionParser(List.of("up"))
+                .parse(bytes("# TYPE up gauge\r\nup 1\r\n"), (metric, labels, value) -> received.add(value));
+
+        assertEquals(List.of("1"), received);
+    }
+
+    @Test
+    public void parse_invalidSampleAskedFor_throwsWithLine() {
+        ExpositionParser classUnderTest = new ExpositionParser(List.of("up"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> classUnderTest.parse(bytes("# TYPE up gauge\nup{job=\"node\" 1\n"), (metric, labels, value) -> {
+                }));
+
+        assertTrue(exception.getMessage().endsWith("line 2"));
+    }
+
+    @Test
+    public void parse_invalidSampleNotAskedFor_isSkipped() {
+        assertDoesNotThrow(() -> new ExpositionParser(List.of("up"))
+                .parse(bytes("broken{job=\"node\" 1\nup 1\n"), (metric, labels, value) -> {
+                }));
+    }
+
+    @Test
+    public void parseSelector() {
+        assertEquals(Map.of("code", "500"), ExpositionParser.parseSelector("{code=\"500\"}"));
+        assertEquals(Map.of("code", "500", "method", "GET"), ExpositionParser.parseSelector("code=\"500\", method=\"GET\""));
+        assertEquals(Map.of(), ExpositionParser.parseSelector("{}"));
+    }
+
+    private byte[] bytes(final String exposition) {
+        return exposition.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import java.util.List;
+import java.util.Map;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for json paths
+ *
+ * @author Patrick
+ */
+public class JsonPathsTest {
+
+    private static final JSONObject ITEMS = new JSONObject("""
+        {
+            "status": "ACTIVE",
+            "heap": { "used": 512, "max": 1024 },
+            "pools": [
+                { "name": "http", "queued": 3 },
+                { "name": "jobs", "queued": 250 },
+                { "name": "idle" }
+            ]
+        }""");
+
+    @Test
+    public void isPath() {
+        assertTrue(JsonPaths.isPath("heap.used"));
+        assertTrue(JsonPaths.isPath("pools[*].queued"));
+        assertTrue(JsonPaths.isPath("count(pools)"));
+        assertFalse(JsonPaths.isPath("threads queued"));
+        assertFalse(JsonPaths.isPath("{code=\"5.0\"}"));
+        assertFalse(JsonPaths.isPath(null));
+    }
+
+    @Test
+    public void compile_withoutPaths_expectingNull() {
+        assertNull(JsonPaths.compile(List.of("status", "pool size")));
+    }
+
+    @Test
+    public void compile_invalidPath_isSkipped() {
+        JsonPaths result = JsonPaths.compile(List.of("pools[*.queued", "heap.used"));
+
+        assertEquals(1, result.getPaths().size());
+        assertEquals("heap.used", result.getPaths().get(0).key());
+    }
+
+    @Test
+    public void compile_quantifiers() {
+        JsonPaths result = JsonPaths.compile(List.of("all(pools[*].queued)", "count( pools[*] )", "pools[0].name"));
+
+        assertEquals(JsonPaths.Quantifier.ALL, result.getPaths().get(0).quantifier());
+        assertEquals(JsonPaths.Quantifier.COUNT, result.getPaths().get(1).quantifier());
+        assertEquals(JsonPaths.Quantifier.ANY, result.getPaths().get(2).quantifier());
+    }
+
+    @Test
+    public void select_everyPathInOneWalk() {
+        JsonPaths classUnderTest = JsonPaths.compile(List.of("heap.used", "pools[*].queued", "pools[1].name", "count(pools[*])", "heap.missing"));
+
+        Map<JsonPaths.Path, List<Object>> result = classUnderTest.select(ITEMS);
+
+        List<JsonPaths.Path> paths = classUnderTest.getPaths();
+        assertEquals(List.of(512), result.get(paths.get(0)));
+        assertEquals(List.of(3, 250), result.get(paths.get(1)));
+        assertEquals(List.of("jobs"), result.get(paths.get(2)));
+        assertEquals(3, result.get(paths.get(3)).size());
+        assertNull(result.get(paths.get(4)));
+    }
+}
@@ -15,10 +15,14 @@
  */
 package nl.p.it.vigilatornode.domain.resources.validation;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import nl.p.it.vigilatornode.domain.data.MonitoredData;
+import nl.p.it.vigilatornode.domain.data.Redirect;
 import nl.p.it.vigilatornode.domain.resources.Error;
 import nl.p.it.vigilatornode.domain.resources.MonitoredPart;
 import nl.p.it.vigilatornode.domain.resources.Warning;
@@ -55,6 +59,12 @@ public class MonitorValidatorTest {
     private static final String ITEM_CONDITION_DATETIME = "< 5min";
     private static final String INDICATION_DATETIME_CONDITION_FAILED
             = "Received update data exceeds specified time constraints in object";
+    private static final String EXPOSITION = """
+        # TYPE http_requests_total counter
+        http_requests_total{method="GET",code="200"} 1027
+        http_requests_total{method="POST",code="500"} 3
+        process_open_fds 42.0
+        """;
     private static final String RESPONSE_WITH_EMPTY_JSON_OBJECT = "{}";
     private static final String RESPONSE_WITH_EMPTY_STATUS = """
         {
@@ -121,6 +131,37 @@ public class MonitorValidatorTest {
                 }
             ]
         }""";
+    private static final String RESPONSE_WITH_NESTED_ITEMS = """
+        {
+            "environment": "prod",
+            "status": [
+                {
+                    "name": "HttpServer",
+                    "items": {
+                        "status": "ACTIVE",
+                        "heap": { "used": 512, "max": 1024 },
+                        "pools": [
+                            { "name": "http", "queued": 3 },
+                            { "name": "jobs", "queued": 250 }
+                        ]
+                    },
+                    "datetime": "%s"
+                }
+            ]
+        }""";
+    private static final String RESPONSE_WITH_NUMBER_ITEMS = """
+        {
+            "status": [
+                {
+                    "name": "HttpServer",
+                    "items": {
+                        "bytes sent": 5368709120,
+                        "load": 0.75
+                    },
+                    "datetime": "%s"
+                }
+            ]
+        }""";
     private static final String RESPONSE_WITH_ONE_STATUS_COMPONENT_WITH_DATETIME_AS_INTEGER = """
         {
             "environment": "prod",
@@ -346,6 +387,27 @@ public class MonitorValidatorTest {
         assertTrue(result.getWarnings().isEmpty());
     }
 
+    @Test
+    public void validate_atMomentOfTake_validatesAgeAtThatMoment() {
+        long datetime = System.currentTimeMillis();
+        MonitoredData result = getResultWith(RESPONSE_WITH_ONE_STATUS_COMPONENT.formatted(datetime));
+
+        classUnderTest.validate(result, getItemParts(), NAME, Instant.ofEpochMilli(datetime).plus(Duration.ofMinutes(6)));
+
+        assertFalse(result.isHealthy());
+        assertTrue(result.getErrors().get(0).contains(INDICATION_DATETIME_CONDITION_FAILED));
+    }
+
+    @Test
+    public void validate_datetimeRecentEnough_addsNothing() {
+        long datetime = System.currentTimeMillis();
+        MonitoredData result = getResultWith(RESPONSE_WITH_ONE_STATUS_COMPONENT.formatted(datetime));
+
+        classUnderTest.validate(result, getItemParts(), NAME, Instant.ofEpochMilli(datetime).plus(Duration.ofMinutes(4)));
+
+        assertTrue(result.isHealthy());
+    }
+
     @Test
     public void testValidateWithConditionsFailing() {
         MonitoredData result = getResultWith(RESPONSE_WITH_STATUS_COMPONENT_FAILING_CONDITIONS);
@@ -417,6 +479,30 @@ public class MonitorValidatorTest {
         assertTrue(result.getErrors().contains(expected));
     }
 
+    @Test
+    public void testValidateWebReplyWithHeadersOnlyAndWithoutTitle() {
+        MonitoredData result = new MonitoredData(new byte[0], PART_URL);
+        result.recordStatusCode(200);
+        Map<String, MonitoredPart> parts = getPartsWithWeb(false);
+
+        classUnderTest.validateWebReply(result, parts, NAME);
+
+        assertTrue(result.isHealthy());
+        assertEquals(1, result.getWarnings().size());
+    }
+
+    @Test
+    public void testValidateWebReplyWithHeadersOnlyAndWithTitle() {
+        String expected = Error.WEB_VALIDATION_EMPTY.formatted(PART_URL);
+        MonitoredData result = new MonitoredData(new byte[0], PART_URL);
+        result.recordStatusCode(200);
+        Map<String, MonitoredPart> parts = getPartsWithWeb(true);
+
+        classUnderTest.validateWebReply(result, parts, NAME);
+
+        assertTrue(result.getErrors().contains(expected));
+    }
+
     @Test
     public void testValidateWebReplyWithoutParts() {
         MonitoredData result = new MonitoredData(RESPONSE_WEB_REPLY_VALID.getBytes());
@@ -479,10 +565,111 @@ public class MonitorValidatorTest {
         assertTrue(result.getErrors().get(0).contains(expected));
     }
 
+    @Test
+    public void validateWebReply_containingEveryText_isHealthy() {
+        MonitoredData result = new MonitoredData(RESPONSE_WEB_REPLY_VALID.getBytes(), PART_URL);
+        Map<String, MonitoredPart> parts = getPartsWithWeb(true);
+        parts.get(KEY_CONFIG_WEB).addItem("contains", "<body> | </html>");
+
+        classUnderTest.validateWebReply(result, parts, NAME);
+
+        assertTrue(result.isHealthy());
+        assertTrue(result.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void validateWebReply_missingTexts_addsError() {
+        String expected = Error.WEB_CONTENT_MISSING.formatted(PART_URL, "Add to cart, Checkout");
+        MonitoredData result = new MonitoredData(RESPONSE_WEB_REPLY_VALID.getBytes(), PART_URL);
+        Map<String, MonitoredPart> parts = getPartsWithWeb(true);
+        parts.get(KEY_CONFIG_WEB).addItem("contains", "Add to cart | <body> | Checkout");
+
+        classUnderTest.validateWebReply(result, parts, NAME);
+
+        assertFalse(result.isHealthy());
+        assertEquals(List.of(expected), result.getErrors());
+    }
+
+    @Test
+    public void validateWebReply_missingTextsAsWarning_addsWarning() {
+        String expected = Error.WEB_CONTENT_MISSING.formatted(PART_URL, "Checkout");
+        MonitoredData result = new MonitoredData(RESPONSE_WEB_REPLY_VALID.getBytes(), PART_URL);
+        Map<String, MonitoredPart> parts = getPartsWithWeb(true);
+        parts.get(KEY_CONFIG_WEB).addItem("contains", "Checkout W");
+
+        classUnderTest.validateWebReply(result, parts, NAME);
+
+        assertTrue(result.isHealthy());
+        assertTrue(result.getWarnings().contains(expected));
+    }
+
+    @Test
+    public void validateWebReply_headersOnlyWithContains_addsError() {
+        String expected = Error.WEB_VALIDATION_EMPTY.formatted(PART_URL);
+        MonitoredData result = new MonitoredData(new byte[0], PART_URL);
+        result.recordStatusCode(200);
+        Map<String, MonitoredPart> parts = getPartsWithWeb(false);
+        parts.get(KEY_CONFIG_WEB).addItem("contains", "Checkout");
+
+        classUnderTest.validateWebReply(result, parts, NAME);
+
+        assertTrue(result.getErrors().contains(expected));
+    }
+
+    @Test
+    public void validate_patternCondition_addsError() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_NESTED_ITEMS.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("status", "!~ /^(UP|IDLE)$/"), NAME);
+
+        assertEquals(List.of(Error.withArgs(Error.POTENTIAL_VALUE_ERROR, "ACTIVE", "!~ /^(UP|IDLE)$/", PART_NAME)),
+                result.getErrors());
+    }
+
+    @Test
+    public void validate_numberItemsAboveInteger_addsError() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_NUMBER_ITEMS.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("bytes sent", "> 4294967296"), NAME);
+
+        assertEquals(List.of(Error.withArgs(Error.POTENTIAL_VALUE_ERROR, "5368709120", "> 4294967296", PART_NAME)),
+                result.getErrors());
+    }
+
+    @Test
+    public void validate_decimalNumberItemInRange_addsWarning() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_NUMBER_ITEMS.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("load", "between 0.7 and 0.9 W"), NAME);
+
+        assertTrue(result.isHealthy());
+        assertEquals(List.of(Error.withArgs(Error.POTENTIAL_VALUE_ERROR, "0.75", "between 0.7 and 0.9 W", PART_NAME)),
+                result.getWarnings());
+    }
+
+    @Test
+    public void validate_pathWithNumberInRange_addsError() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_NESTED_ITEMS.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("heap.used", "between 500 and 600"), NAME);
+
+        assertEquals(List.of(Error.withArgs(Error.POTENTIAL_VALUE_ERROR, "512", "between 500 and 600", PART_NAME + " heap.used")),
+                result.getErrors());
+    }
+
     private MonitoredData getResultWith(final String data) {
         return new MonitoredData(data.getBytes(), PART_URL);
     }
 
+    private Map<String, MonitoredPart> getPartsWith(final String key, final String condition) {
+        Map<String, MonitoredPart> parts = new HashMap<>();
+        MonitoredPart part = new MonitoredPart();
+        part.addItem(key, condition);
+        parts.put(PART_NAME, part);
+
+        return parts;
+    }
+
     private Map<String, MonitoredPart> getItemParts() {
         Map<String, MonitoredPart> parts = new HashMap<>();
         MonitoredPart part = new MonitoredPart();
@@ -505,4 +692,264 @@ public class MonitorValidatorTest {
 
         return parts;
     }
+
+    @Test
+    public void validateRedirects_longerThenCondition_addsWarning() {
+        MonitoredData result = new MonitoredData(RESPONSE_WEB_REPLY_VALID.getBytes(), PART_URL);
+        result.recordRedirects(List.of(new Redirect(PART_URL, 302, PART_URL + "/login", 1000)), 1);
+
+        classUnderTest.validateRedirects(result, "> 1 W", NAME);
+
+        assertTrue(result.isHealthy());
+        assertEquals(List.of(Error.LONG_REDIRECT_CHAIN.formatted(2, NAME, PART_URL, "> 1 W")), result.getWarnings());
+    }
+
+    @Test
+    public void validateRedirects_withinCondition_addsNothing() {
+        MonitoredData result = new MonitoredData(RESPONSE_WEB_REPLY_VALID.getBytes(), PART_URL);
+        result.recordRedirects(List.of(new Redirect(PART_URL, 301, PART_URL + "/home", 1000)), 0);
+
+        classUnderTest.validateRedirects(result, "> 1 W", NAME);
+
+        assertTrue(result.isHealthy());
+        assertTrue(result.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void validateCertificateExpiry_expiringWithinCondition_addsWarning() {
+        MonitoredData result = new MonitoredData(new byte[1], PART_URL);
+        Instant expiry = Instant.now().plus(Duration.ofDays(3));
+        result.recordCertificateExpiry(expiry);
+
+        classUnderTest.validateCertificateExpiry(result, "< 14d W", NAME);
+
+        assertTrue(result.isHealthy());
+        assertEquals(List.of(Error.withArgs(Error.CERTIFICATE_EXPIRY, NAME, PART_URL, expiry, "< 14d W")), result.getWarnings());
+    }
+
+    @Test
+    public void validateCertificateExpiry_expired_addsError() {
+        MonitoredData result = new MonitoredData(new byte[1], PART_URL);
+        result.recordCertificateExpiry(Instant.now().minus(Duration.ofDays(1)));
+
+        classUnderTest.validateCertificateExpiry(result, "< 1d", NAME);
+
+        assertFalse(result.isHealthy());
+    }
+
+    @Test
+    public void validateCertificateExpiry_atGivenMoment_usesTheGivenMoment() {
+        MonitoredData result = new MonitoredData(new byte[1], PART_URL);
+        Instant now = Instant.parse("2025-02-01T00:00:00Z");
+        result.recordCertificateExpiry(now.plus(Duration.ofDays(10)));
+
+        classUnderTest.validateCertificateExpiry(result, "< 14d", NAME, now);
+        classUnderTest.validateCertificateExpiry(result, "< 7d", NAME, now);
+
+        assertEquals(1, result.getErrors().size());
+    }
+
+    @Test
+    public void validateCertificateExpiry_withoutCertificate_addsNothing() {
+        MonitoredData result = new MonitoredData(new byte[1], PART_URL);
+
+        classUnderTest.validateCertificateExpiry(result, "< 14d", NAME);
+
+        assertTrue(result.isHealthy());
+        assertTrue(result.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void validate_pathWithAnyElementMeetingCondition_addsError() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_NESTED_ITEMS.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("pools[*].queued", "> 100"), NAME);
+
+        assertEquals(List.of(Error.withArgs(Error.POTENTIAL_VALUE_ERROR, "250", "> 100", PART_NAME + " pools[*].queued")),
+                result.getErrors());
+    }
+
+    @Test
+    public void validate_pathWithAllElementsMeetingCondition_addsWarning() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_NESTED_ITEMS.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("all(pools[*].queued)", "> 1 W"), NAME);
+
+        assertTrue(result.isHealthy());
+        assertEquals(List.of(Error.withArgs(Error.POTENTIAL_VALUE_ERROR, "[3, 250]", "> 1 W", PART_NAME + " all(pools[*].queued)")),
+                result.getWarnings());
+    }
+
+    @Test
+    public void validate_pathWithNotAllElementsMeetingCondition_addsNothing() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_NESTED_ITEMS.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("all(pools[*].queued)", "> 100"), NAME);
+
+        assertTrue(result.isHealthy());
+        assertTrue(result.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void validate_pathCountMeetingCondition_addsError() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_NESTED_ITEMS.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("count(pools[*])", "< 3"), NAME);
+
+        assertEquals(List.of(Error.withArgs(Error.POTENTIAL_VALUE_ERROR, "2", "< 3", PART_NAME + " count(pools[*])")),
+                result.getErrors());
+    }
+
+    @Test
+    public void validate_nestedObjectPath_addsError() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_NESTED_ITEMS.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("heap.used", "> 500"), NAME);
+
+        assertFalse(result.isHealthy());
+    }
+
+    @Test
+    public void validate_ruleMet_addsError() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_ONE_STATUS_COMPONENT.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("rule(busy)", "pool size > 5 and threads queued == 0"), NAME);
+
+        assertEquals(List.of(Error.withArgs(Error.RULE_MET, "busy", "pool size > 5 and threads queued == 0", PART_NAME)),
+                result.getErrors());
+    }
+
+    @Test
+    public void validate_ruleWithWarningIndicationMet_addsWarning() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_ONE_STATUS_COMPONENT.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("rule(busy)", "pool size > 5 or status != ACTIVE W"), NAME);
+
+        assertTrue(result.isHealthy());
+        assertEquals(1, result.getWarnings().size());
+    }
+
+    @Test
+    public void validate_ruleNotMet_addsNothing() {
+        MonitoredData result = getResultWith(RESPONSE_WITH_ONE_STATUS_COMPONENT.formatted(System.currentTimeMillis()));
+
+        classUnderTest.validate(result, getPartsWith("rule(busy)", "pool size > 5 and threads queued > 0"), NAME);
+
+        assertTrue(result.isHealthy());
+        assertTrue(result.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void validateExposition_sampleMeetingCondition_addsError() {
+        MonitoredData result = new MonitoredData(EXPOSITION.getBytes(), PART_URL);
+        Map<String, MonitoredPart> parts = new HashMap<>();
+        parts.put("http_requests_total", new MonitoredPart());
+        parts.get("http_requests_total").addItem("{code=\"500\"}", "> 2");
+        parts.get("http_requests_total").addItem("{code=\"200\"}", "< 10");
+
+        classUnderTest.validateExposition(result, parts, NAME);
+
+        assertEquals(List.of(Error.withArgs(Error.POTENTIAL_VALUE_ERROR, "3", "> 2", "http_requests_total{code=\"500\"}")),
+                result.getErrors());
+    }
+
+    @Test
+    public void validateExposition_wholeNumberWithFraction_validatesNumber() {
+        MonitoredData result = new MonitoredData(EXPOSITION.getBytes(), PART_URL);
+        Map<String, MonitoredPart> parts = new HashMap<>();
+        parts.put("process_open_fds", new MonitoredPart());
+        parts.get("process_open_fds").addItem("{}", "> 40 W");
+
+        classUnderTest.validateExposition(result, parts, NAME);
+
+        assertTrue(result.isHealthy());
+        assertEquals(1, result.getWarnings().size());
+    }
+
+    @Test
+    public void validateExposition_ignoresWebPart() {
+        MonitoredData result = new MonitoredData(EXPOSITION.getBytes(), PART_URL);
+        Map<String, MonitoredPart> parts = new HashMap<>();
+        parts.put(KEY_CONFIG_WEB, new MonitoredPart());
+        parts.get(KEY_CONFIG_WEB).addItem(KEY_CONFIG_WEB_TITLE_KEY, KEY_CONFIG_WEB_TITLE_VALUE);
+
+        classUnderTest.validateExposition(result, parts, NAME);
+
+        assertTrue(result.isHealthy());
+    }
+
+    @Test
+    public void validateExposition_invalidExposition_addsError() {
+        MonitoredData result = new MonitoredData("up{job=\"node\" 1".getBytes(), PART_URL);
+        Map<String, MonitoredPart> parts = new HashMap<>();
+        parts.put("up", new MonitoredPart());
+        parts.get("up").addItem("{}", "== 0");
+
+        classUnderTest.validateExposition(result, parts, NAME);
+
+        assertFalse(result.isHealthy());
+        assertTrue(result.getErrors().get(0).startsWith("Response for resource: mock is not a valid Prometheus exposition"));
+    }
+
+    @Test
+    public void validateConnectTime_slowerThenCondition_addsWarning() {
+        MonitoredData result = new MonitoredData(new byte[0], PART_URL);
+        result.recordConnectTime(TimeUnit.MILLISECONDS.toNanos(80));
+
+        classUnderTest.validateConnectTime(result, "> 50ms W", NAME);
+
+        assertTrue(result.isHealthy());
+        assertEquals(List.of(Error.withArgs(Error.SLOW_CONNECT, 80L, NAME, PART_URL, "> 50ms W")), result.getWarnings());
+    }
+
+    @Test
+    public void validateConnectTime_notConnected_addsNothing() {
+        MonitoredData result = new MonitoredData(new byte[0], PART_URL);
+
+        classUnderTest.validateConnectTime(result, "> 50ms", NAME);
+
+        assertTrue(result.isHealthy());
+        assertTrue(result.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void validateResponseTime_slowerThenCondition_addsError() {
+        MonitoredData result = new MonitoredData(new byte[1], PART_URL);
+        result.recordTimings(TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.MILLISECONDS.toNanos(700));
+
+        classUnderTest.validateResponseTime(result, "> 500ms", NAME);
+
+        assertEquals(List.of(Error.withArgs(Error.SLOW_RESPONSE, 700L, NAME, PART_URL, "> 500ms")), result.getErrors());
+    }
+
+    @Test
+    public void validateResponseTime_slowerThenWarningCondition_addsWarning() {
+        MonitoredData result = new MonitoredData(new byte[1], PART_URL);
+        result.recordTimings(0, TimeUnit.MILLISECONDS.toNanos(700));
+
+        classUnderTest.validateResponseTime(result, "> 500ms W", NAME);
+
+        assertTrue(result.isHealthy());
+        assertEquals(1, result.getWarnings().size());
+    }
+
+    @Test
+    public void validateResponseTime_fasterThenCondition_isHealthy() {
+        MonitoredData result = new MonitoredData(new byte[1], PART_URL);
+        result.recordTimings(0, TimeUnit.MILLISECONDS.toNanos(300));
+
+        classUnderTest.validateResponseTime(result, "> 500ms", NAME);
+
+        assertTrue(result.isHealthy());
+        assertTrue(result.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void validateResponseTime_withoutTimings_isNotValidated() {
+        MonitoredData result = new MonitoredData(new byte[1], PART_URL);
+
+        classUnderTest.validateResponseTime(result, "< 500ms", NAME);
+
+        assertTrue(result.isHealthy());
+    }
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for numeric condition
+ *
+ * @author Patrick
+ */
+public class NumericConditionTest {
+
+    @Test
+    public void isNumeric() {
+        assertTrue(NumericCondition.isNumeric("> 50"));
+        assertTrue(NumericCondition.isNumeric("<50%"));
+        assertTrue(NumericCondition.isNumeric("between 1 and 2"));
+        assertFalse(NumericCondition.isNumeric("> 5min"));
+        assertFalse(NumericCondition.isNumeric("== 5"));
+        assertFalse(NumericCondition.isNumeric(">"));
+    }
+
+    @Test
+    public void meets_wholeNumbers() {
+        NumericCondition classUnderTest = NumericCondition.parse("> 4294967296");
+
+        assertTrue(classUnderTest.meets(4_294_967_297L));
+        assertFalse(classUnderTest.meets(4_294_967_296L));
+        assertTrue(classUnderTest.meets(" 4294967297 "));
+    }
+
+    @Test
+    public void meets_decimalOperand() {
+        NumericCondition classUnderTest = NumericCondition.parse("< 0.5");
+
+        assertTrue(classUnderTest.meets(0L));
+        assertTrue(classUnderTest.meets(0.25));
+        assertFalse(classUnderTest.meets("1.5e0"));
+    }
+
+    @Test
+    public void meets_betweenIncludesBounds() {
+        NumericCondition classUnderTest = NumericCondition.parse("between -10 and 10");
+
+        assertTrue(classUnderTest.meets(-10L));
+        assertTrue(classUnderTest.meets(10.0));
+        assertFalse(classUnderTest.meets("11%"));
+    }
+
+    @Test
+    public void meets_valueNotANumber_throws() {
+        NumericCondition classUnderTest = NumericCondition.parse("> 1");
+
+        assertThrows(NumberFormatException.class, () -> classUnderTest.meets("NaN"));
+        assertThrows(NumberFormatException.class, () -> classUnderTest.meets(""));
+    }
+
+    @Test
+    public void parse_invalidOperands_throw() {
+        assertThrows(IllegalArgumentException.class, () -> NumericCondition.parse("> a1"));
+        assertThrows(IllegalArgumentException.class, () -> NumericCondition.parse("between 1"));
+        assertThrows(IllegalArgumentException.class, () -> NumericCondition.parse("between 1 and x2"));
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import java.time.Instant;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for rule
+ *
+ * @author Patrick
+ */
+public class RuleTest {
+
+    private static final String KEY = "rule(stuck)";
+    private static final Instant NOW = Instant.now();
+    private static final JSONObject ITEMS = new JSONObject("""
+        {
+            "status": "ACTIVE",
+            "pool size": "60",
+            "threads completed": "0",
+            "threads queued": "5"
+        }""");
+
+    private final ConditionValidator validator = new ConditionValidator();
+
+    @Test
+    public void isRule() {
+        assertTrue(Rule.isRule(KEY));
+        assertFalse(Rule.isRule("rule()"));
+        assertFalse(Rule.isRule("pool size"));
+        assertFalse(Rule.isRule(null));
+    }
+
+    @Test
+    public void compile_name() {
+        assertEquals("stuck", Rule.compile(KEY, "pool size > 50").getName());
+    }
+
+    @Test
+    public void meets_and() {
+        assertTrue(Rule.compile(KEY, "pool size > 50 and threads completed == 0").meets(ITEMS, validator, NOW));
+        assertFalse(Rule.compile(KEY, "pool size > 50 and threads completed == 1").meets(ITEMS, validator, NOW));
+    }
+
+    @Test
+    public void meets_or() {
+        assertTrue(Rule.compile(KEY, "pool size > 100 or threads queued > 1").meets(ITEMS, validator, NOW));
+        assertFalse(Rule.compile(KEY, "pool size > 100 or threads queued > 10").meets(ITEMS, validator, NOW));
+    }
+
+    @Test
+    public void meets_notAndGroups() {
+        assertTrue(Rule.compile(KEY, "not (pool size > 100 or threads queued > 10) and status == ACTIVE").meets(ITEMS, validator, NOW));
+        assertFalse(Rule.compile(KEY, "not status == ACTIVE").meets(ITEMS, validator, NOW));
+    }
+
+    @Test
+    public void meets_andBindsStrongerThanOr() {
+        assertTrue(Rule.compile(KEY, "pool size > 100 and threads queued > 10 or status == ACTIVE").meets(ITEMS, validator, NOW));
+    }
+
+    @Test
+    public void meets_missingItem_notMet() {
+        assertFalse(Rule.compile(KEY, "unknown > 1").meets(ITEMS, validator, NOW));
+    }
+
+    @Test
+    public void meets_withWarningIndication() {
+        assertTrue(Rule.compile(KEY, "pool size > 50 W").meets(ITEMS, validator, NOW));
+    }
+
+    @Test
+    public void compile_ordersCheapComparisonsFirst() {
+        Rule result = Rule.compile(KEY, "pool size > 50% and threads queued > 1 and status == ACTIVE");
+
+        assertEquals("(status == ACTIVE and threads queued > 1 and pool size > 50%)", result.toString());
+    }
+
+    @Test
+    public void meets_stopsOnceOutcomeIsKnown() {
+        ConditionValidator spied = spy(new ConditionValidator());
+
+        boolean result = Rule.compile(KEY, "pool size > 5min and status == IDLE").meets(ITEMS, spied, NOW);
+
+        assertFalse(result);
+        verify(spied).validateMeetsCriteria("ACTIVE", "== IDLE", NOW);
+        verify(spied, never()).validateMeetsCriteria(anyString(), eq("> 5min"), any());
+    }
+
+    @Test
+    public void compile_invalidRules_throw() {
+        assertThrows(IllegalArgumentException.class, () -> Rule.compile(KEY, ""));
+        assertThrows(IllegalArgumentException.class, () -> Rule.compile(KEY, "pool size"));
+        assertThrows(IllegalArgumentException.class, () -> Rule.compile(KEY, "(pool size > 5"));
+        assertThrows(IllegalArgumentException.class, () -> Rule.compile(KEY, "pool size > 5)"));
+    }
+
+    @Test
+    public void compile_ordersPatternsLast() {
+        Rule result = Rule.compile(KEY, "status ~ /ACT/ and pool size > 50");
+
+        assertEquals("(pool size > 50 and status ~ /ACT/)", result.toString());
+        assertTrue(result.meets(ITEMS, validator, NOW));
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) p-it
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.p.it.vigilatornode.domain.resources.validation;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import static nl.p.it.vigilatornode.domain.resources.validation.TemporalCondition.NOT_A_TIMESTAMP;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for temporal condition
+ *
+ * @author Patrick
+ */
+public class TemporalConditionTest {
+
+    private static final long NOW = Instant.parse("2025-02-19T10:00:00Z").toEpochMilli();
+
+    @Test
+    public void isTemporal() {
+        assertTrue(TemporalCondition.isTemporal("> 30s"));
+        assertTrue(TemporalCondition.isTemporal("<5min"));
+        assertTrue(TemporalCondition.isTemporal("> 2 h"));
+        assertTrue(TemporalCondition.isTemporal("> 1d"));
+        assertFalse(TemporalCondition.isTemporal("> 500ms"));
+        assertFalse(TemporalCondition.isTemporal("> 50"));
+        assertFalse(TemporalCondition.isTemporal("== 5min"));
+        assertFalse(TemporalCondition.isTemporal(">d"));
+    }
+
+    @Test
+    public void meets_age() {
+        TemporalCondition classUnderTest = TemporalCondition.parse("> 2h");
+
+        assertTrue(classUnderTest.meets(NOW - 7_200_001, NOW));
+        assertFalse(classUnderTest.meets(NOW - 7_200_000, NOW));
+        assertFalse(classUnderTest.meets(NOW + 60_000, NOW));
+    }
+
+    @Test
+    public void meets_timestampInSecondsComparedPerSecond() {
+        TemporalCondition classUnderTest = TemporalCondition.parse("> 1min");
+
+        assertFalse(classUnderTest.meets(NOW - 60_000, NOW + 999));
+        assertTrue(classUnderTest.meets(NOW - 60_001, NOW));
+    }
+
+    @Test
+    public void parse_invalidAmount_throws() {
+        assertThrows(IllegalArgumentException.class, () -> TemporalCondition.parse("> 1.5h"));
+        assertThrows(IllegalArgumentException.class, () -> TemporalCondition.parse("> 5y"));
+    }
+
+    @Test
+    public void parseDuration_millisecondsAndTemporalUnits() {
+        assertTrue(TemporalCondition.parseDuration("> 500ms").meets(501));
+        assertFalse(TemporalCondition.parseDuration(">500").meets(500));
+        assertTrue(TemporalCondition.parseDuration("< 2 s").meets(1999));
+        assertTrue(TemporalCondition.parseDuration("> 1min").meets(60_001));
+        assertThrows(IllegalArgumentException.class, () -> TemporalCondition.parse("> 500ms"));
+        assertThrows(IllegalArgumentException.class, () -> TemporalCondition.parseDuration("== 500ms"));
+    }
+
+    @Test
+    public void parseTimestamp_epoch() {
+        assertEquals(1_739_957_108_000L, TemporalCondition.parseTimestamp("1739957108"));
+        assertEquals(1_739_957_108_123L, TemporalCondition.parseTimestamp("1739957108123"));
+        assertEquals(1_739_957_108_123L, TemporalCondition.parseTimestamp(1_739_957_108_123L));
+        assertEquals(NOT_A_TIMESTAMP, TemporalCondition.parseTimestamp("4"));
+        assertEquals(NOT_A_TIMESTAMP, TemporalCondition.parseTimestamp("-1739957108"));
+        assertEquals(NOT_A_TIMESTAMP, TemporalCondition.parseTimestamp(""));
+        assertEquals(NOT_A_TIMESTAMP, TemporalCondition.parseTimestamp("mock"));
+    }
+
+    @Test
+    public void parseTimestamp_iso() {
+        assertEquals(NOW, TemporalCondition.parseTimestamp("2025-02-19T10:00:00Z"));
+        assertEquals(NOW, TemporalCondition.parseTimestamp("2025-02-19T10:00:00"));
+        assertEquals(NOW, TemporalCondition.parseTimestamp("2025-02-19 11:30:00+01:30"));
+        assertEquals(NOW + 120, TemporalCondition.parseTimestamp("2025-02-19T10:00:00.12Z"));
+        assertEquals(NOW + 123, TemporalCondition.parseTimestamp("2025-02-19T10:00:00.123456789Z"));
+        assertEquals(Instant.parse("2024-02-29T23:59:59Z").toEpochMilli(), TemporalCondition.parseTimestamp("2024-02-29T23:59:59Z"));
+        assertEquals(Instant.parse("1969-12-31T00:00:00Z").toEpochMilli(), TemporalCondition.parseTimestamp("1969-12-31T00:00:00Z"));
+    }
+
+    @Test
+    public void parseTimestamp_invalidIso() {
+        assertEquals(NOT_A_TIMESTAMP, TemporalCondition.parseTimestamp("2025-02-19"));
+        assertEquals(NOT_A_TIMESTAMP, TemporalCondition.parseTimestamp("2025-13-19T10:00:00Z"));
+        assertEquals(NOT_A_TIMESTAMP, TemporalCondition.parseTimestamp("2025-02-19T24:00:00Z"));
+        assertEquals(NOT_A_TIMESTAMP, TemporalCondition.parseTimestamp("2025-02-19T10:00:00.Z"));
+        assertEquals(NOT_A_TIMESTAMP, TemporalCondition.parseTimestamp("2025-02-19T10:00:00+0100"));
+        assertEquals(NOT_A_TIMESTAMP, TemporalCondition.parseTimestamp("2025-02-19T10:00:00Zulu"));
+    }
+}